@@ -19,6 +19,8 @@ dependencies {
     implementation("io.swagger.core.v3:swagger-core:2.2.19")
     
     implementation("io.netty:netty-all:4.1.100.Final")
+    implementation("io.netty.incubator:netty-incubator-transport-native-io_uring:0.0.24.Final:linux-x86_64")
+    implementation("io.netty.incubator:netty-incubator-transport-native-io_uring:0.0.24.Final:linux-aarch_64")
     implementation("com.google.code.gson:gson:2.10.1")
     
     implementation("software.amazon.awssdk:s3:2.26.0")
@@ -31,6 +33,26 @@ dependencies {
     implementation("com.zaxxer:HikariCP:5.1.0")
     implementation("jakarta.activation:jakarta.activation-api:2.1.2")
     implementation("javax.activation:activation:1.1.1")
+
+    testImplementation(platform("org.junit:junit-bom:5.10.1"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+tasks.test {
+    useJUnitPlatform {
+        excludeTags("benchmark")
+    }
+}
+
+tasks.register<Test>("benchmark") {
+    description = "Runs the benchmark tests."
+    group = "verification"
+    testClassesDirs = sourceSets["test"].output.classesDirs
+    classpath = sourceSets["test"].runtimeClasspath
+    useJUnitPlatform {
+        includeTags("benchmark")
+    }
 }
 
 tasks.withType<Jar> {
@@ -6,9 +6,12 @@ import be.esmay.atlas.base.activity.ActivityType;
 import be.esmay.atlas.base.api.ApiManager;
 import be.esmay.atlas.base.commands.CommandManager;
 import be.esmay.atlas.base.config.ConfigManager;
+import be.esmay.atlas.base.config.impl.AtlasConfig;
 import be.esmay.atlas.base.cron.CronScheduler;
 import be.esmay.atlas.base.database.DatabaseManager;
 import be.esmay.atlas.base.lifecycle.ServerLifecycleManager;
+import be.esmay.atlas.base.metrics.DiskUsageTracker;
+import be.esmay.atlas.base.metrics.MetricsHistoryService;
 import be.esmay.atlas.base.metrics.NetworkBandwidthMonitor;
 import be.esmay.atlas.base.metrics.ResourceMetricsManager;
 import be.esmay.atlas.base.network.NettyServer;
@@ -43,6 +46,8 @@ public final class AtlasBase {
     private final CronScheduler cronScheduler;
     private ResourceMetricsManager resourceMetricsManager;
     private NetworkBandwidthMonitor networkBandwidthMonitor;
+    private DiskUsageTracker diskUsageTracker;
+    private MetricsHistoryService metricsHistoryService;
     private DatabaseManager databaseManager;
     private ActivityService activityService;
 
@@ -91,6 +96,10 @@ public final class AtlasBase {
                 this.activityService.initialize();
                 
                 this.nettyServer = new NettyServer(this.configManager.getAtlasConfig().getAtlas().getNetwork());
+
+                this.diskUsageTracker = new DiskUsageTracker();
+                this.diskUsageTracker.start();
+
                 this.providerManager.initialize(this.configManager.getAtlasConfig());
                 this.scalerManager.initialize();
                 this.commandManager.initialize();
@@ -101,6 +110,12 @@ public final class AtlasBase {
 
                 this.networkBandwidthMonitor = new NetworkBandwidthMonitor();
                 this.networkBandwidthMonitor.start();
+
+                AtlasConfig.MetricsHistory metricsHistoryConfig = this.configManager.getAtlasConfig().getAtlas().getMetricsHistory();
+                if (metricsHistoryConfig != null && metricsHistoryConfig.isEnabled()) {
+                    this.metricsHistoryService = new MetricsHistoryService(metricsHistoryConfig, this.databaseManager.getDataSource());
+                    this.metricsHistoryService.start();
+                }
                 
                 this.apiManager.start();
                 this.nettyServer.start();
@@ -158,12 +173,18 @@ public final class AtlasBase {
 
                 if (this.networkBandwidthMonitor != null)
                     this.networkBandwidthMonitor.stop();
+
+                if (this.metricsHistoryService != null)
+                    this.metricsHistoryService.stop();
                     
                 if (this.resourceMetricsManager != null)
                     this.resourceMetricsManager.stop();
                     
                 if (this.providerManager != null)
                     this.providerManager.shutdown();
+
+                if (this.diskUsageTracker != null)
+                    this.diskUsageTracker.stop();
                     
                 if (this.activityService != null)
                     this.activityService.shutdown();
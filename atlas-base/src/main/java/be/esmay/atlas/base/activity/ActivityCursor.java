@@ -0,0 +1,48 @@
+package be.esmay.atlas.base.activity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the activity list, newest first. A page continues with the activities that sort
+ * strictly after the cursor, i.e. older ones, with the id as tie-breaker for equal timestamps.
+ */
+public record ActivityCursor(LocalDateTime timestamp, String id) {
+
+    public static ActivityCursor of(ServerActivity activity) {
+        return new ActivityCursor(activity.getTimestamp(), activity.getId());
+    }
+
+    /**
+     * Parses a cursor created by {@link #encode()}.
+     *
+     * @throws IllegalArgumentException if the value is not a valid cursor
+     */
+    public static ActivityCursor parse(String value) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+
+        int separator = decoded.indexOf('|');
+        if (separator <= 0 || separator == decoded.length() - 1) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+
+        try {
+            return new ActivityCursor(LocalDateTime.parse(decoded.substring(0, separator)), decoded.substring(separator + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+    }
+
+    public String encode() {
+        String raw = this.timestamp + "|" + this.id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
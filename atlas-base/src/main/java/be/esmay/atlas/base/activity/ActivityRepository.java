@@ -32,6 +32,26 @@ public final class ActivityRepository {
         }
     }
 
+    /**
+     * Inserts all activities in one transaction. Hibernate groups the inserts into JDBC batches
+     * of {@code hibernate.jdbc.batch_size}.
+     */
+    public void saveAll(List<ServerActivity> activities) {
+        Transaction transaction = null;
+        try (Session session = this.sessionFactory.openSession()) {
+            transaction = session.beginTransaction();
+            for (ServerActivity activity : activities) {
+                session.persist(activity);
+            }
+            transaction.commit();
+        } catch (Exception e) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            throw new RuntimeException("Failed to save " + activities.size() + " activities", e);
+        }
+    }
+
     public Optional<ServerActivity> findById(String id) {
         try (Session session = this.sessionFactory.openSession()) {
             ServerActivity activity = session.get(ServerActivity.class, id);
@@ -43,65 +63,31 @@ public final class ActivityRepository {
     }
 
     public List<ServerActivity> findRecent(int limit) {
-        try (Session session = this.sessionFactory.openSession()) {
-            Query<ServerActivity> query = session.createQuery(
-                "FROM ServerActivity ORDER BY timestamp DESC", 
-                ServerActivity.class
-            );
-            query.setMaxResults(limit);
-            return query.getResultList();
-        } catch (Exception e) {
-            Logger.error("Failed to find recent activities", e);
-            return Collections.emptyList();
-        }
+        return this.findByFilter(null, null, null, null, limit);
     }
 
     public List<ServerActivity> findByServerId(String serverId, int limit) {
-        try (Session session = this.sessionFactory.openSession()) {
-            Query<ServerActivity> query = session.createQuery(
-                "FROM ServerActivity WHERE serverId = :serverId ORDER BY timestamp DESC", 
-                ServerActivity.class
-            );
-            query.setParameter("serverId", serverId);
-            query.setMaxResults(limit);
-            return query.getResultList();
-        } catch (Exception e) {
-            Logger.error("Failed to find activities for server: {}", serverId, e);
-            return Collections.emptyList();
-        }
+        return this.findByFilter(serverId, null, null, null, limit);
     }
 
     public List<ServerActivity> findByGroupName(String groupName, int limit) {
-        try (Session session = this.sessionFactory.openSession()) {
-            Query<ServerActivity> query = session.createQuery(
-                "FROM ServerActivity WHERE groupName = :groupName ORDER BY timestamp DESC", 
-                ServerActivity.class
-            );
-            query.setParameter("groupName", groupName);
-            query.setMaxResults(limit);
-            return query.getResultList();
-        } catch (Exception e) {
-            Logger.error("Failed to find activities for group: {}", groupName, e);
-            return Collections.emptyList();
-        }
+        return this.findByFilter(null, groupName, null, null, limit);
     }
 
     public List<ServerActivity> findByActivityType(ActivityType activityType, int limit) {
-        try (Session session = this.sessionFactory.openSession()) {
-            Query<ServerActivity> query = session.createQuery(
-                "FROM ServerActivity WHERE activityType = :activityType ORDER BY timestamp DESC", 
-                ServerActivity.class
-            );
-            query.setParameter("activityType", activityType);
-            query.setMaxResults(limit);
-            return query.getResultList();
-        } catch (Exception e) {
-            Logger.error("Failed to find activities for type: {}", activityType, e);
-            return Collections.emptyList();
-        }
+        return this.findByFilter(null, null, activityType, null, limit);
     }
 
     public List<ServerActivity> findByFilter(String serverId, String groupName, ActivityType activityType, int limit) {
+        return this.findByFilter(serverId, groupName, activityType, null, limit);
+    }
+
+    /**
+     * Returns up to {@code limit} activities matching the filters, newest first, starting after
+     * {@code cursor} when one is given. Paging with a cursor instead of an offset lets each page
+     * seek directly into the matching {@code (filter, timestamp, id)} index.
+     */
+    public List<ServerActivity> findByFilter(String serverId, String groupName, ActivityType activityType, ActivityCursor cursor, int limit) {
         try (Session session = this.sessionFactory.openSession()) {
             StringBuilder hql = new StringBuilder("FROM ServerActivity WHERE 1=1");
             
@@ -114,8 +100,11 @@ public final class ActivityRepository {
             if (activityType != null) {
                 hql.append(" AND activityType = :activityType");
             }
+            if (cursor != null) {
+                hql.append(" AND (timestamp < :cursorTimestamp OR (timestamp = :cursorTimestamp AND id < :cursorId))");
+            }
             
-            hql.append(" ORDER BY timestamp DESC");
+            hql.append(" ORDER BY timestamp DESC, id DESC");
             
             Query<ServerActivity> query = session.createQuery(hql.toString(), ServerActivity.class);
             
@@ -128,6 +117,10 @@ public final class ActivityRepository {
             if (activityType != null) {
                 query.setParameter("activityType", activityType);
             }
+            if (cursor != null) {
+                query.setParameter("cursorTimestamp", cursor.timestamp());
+                query.setParameter("cursorId", cursor.id());
+            }
             
             query.setMaxResults(limit);
             return query.getResultList();
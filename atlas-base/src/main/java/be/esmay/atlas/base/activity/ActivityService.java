@@ -11,10 +11,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @RequiredArgsConstructor
 public final class ActivityService {
@@ -22,12 +22,16 @@ public final class ActivityService {
     private final ActivityRepository repository;
     private final AtlasConfig.Database databaseConfig;
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong activityCount = new AtomicLong(-1);
     
-    private ExecutorService asyncExecutor;
+    private ActivityWriteQueue writeQueue;
     private ScheduledExecutorService cleanupScheduler;
 
     public void initialize() {
-        this.asyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        this.writeQueue = new ActivityWriteQueue(this.repository, this.databaseConfig.getActivityQueueCapacity(),
+                this.databaseConfig.getActivityBatchSize(), this.databaseConfig.getActivityFlushIntervalMs(), this::onActivitiesWritten);
+        this.writeQueue.start();
+
         this.cleanupScheduler = Executors.newScheduledThreadPool(1, r -> {
             Thread thread = new Thread(r, "Atlas-ActivityCleanup");
             thread.setDaemon(true);
@@ -52,32 +56,28 @@ public final class ActivityService {
     }
 
     public CompletableFuture<Void> recordActivity(ActivityType activityType, String serverId, String groupName, String triggeredBy, String description, Map<String, Object> metadata) {
-        return CompletableFuture.runAsync(() -> {
-            try {
-                String metadataJson = null;
-                if (metadata != null && !metadata.isEmpty()) {
-                    metadataJson = this.objectMapper.writeValueAsString(metadata);
-                }
-
-                ServerActivity activity = ServerActivity.builder()
-                    .activityType(activityType)
-                    .serverId(serverId)
-                    .groupName(groupName)
-                    .triggeredBy(triggeredBy)
-                    .description(description)
-                    .metadata(metadataJson)
-                    .timestamp(LocalDateTime.now())
-                    .build();
-
-                this.repository.save(activity);
-                
-                Logger.debug("Recorded activity: {} - {}", activityType, description);
-            } catch (JsonProcessingException e) {
-                Logger.error("Failed to serialize activity metadata", e);
-            } catch (Exception e) {
-                Logger.error("Failed to record activity: {} - {}", activityType, description, e);
+        try {
+            String metadataJson = null;
+            if (metadata != null && !metadata.isEmpty()) {
+                metadataJson = this.objectMapper.writeValueAsString(metadata);
             }
-        }, this.asyncExecutor);
+
+            ServerActivity activity = ServerActivity.builder()
+                .activityType(activityType)
+                .serverId(serverId)
+                .groupName(groupName)
+                .triggeredBy(triggeredBy)
+                .description(description)
+                .metadata(metadataJson)
+                .timestamp(LocalDateTime.now())
+                .build();
+
+            Logger.debug("Queued activity: {} - {}", activityType, description);
+            return this.recordActivityInternal(activity);
+        } catch (JsonProcessingException e) {
+            Logger.error("Failed to serialize activity metadata", e);
+            return CompletableFuture.completedFuture(null);
+        }
     }
 
     public ActivityBuilder createActivity(ActivityType activityType) {
@@ -104,12 +104,36 @@ public final class ActivityService {
         return this.repository.findByFilter(serverId, groupName, activityType, Math.min(limit, 500));
     }
 
+    public List<ServerActivity> getFilteredActivities(String serverId, String groupName, ActivityType activityType, ActivityCursor cursor, int limit) {
+        return this.repository.findByFilter(serverId, groupName, activityType, cursor, Math.min(limit, 500));
+    }
+
     public Optional<ServerActivity> getActivityById(String id) {
         return this.repository.findById(id);
     }
 
+    /**
+     * Returns the number of stored activities. The table is counted once and the count is then
+     * kept up to date from the writes and cleanups done by this service, recounting on every
+     * cleanup to correct any drift.
+     */
     public long getActivityCount() {
-        return this.repository.countAll();
+        long count = this.activityCount.get();
+        if (count >= 0) {
+            return count;
+        }
+
+        long counted = this.repository.countAll();
+        this.activityCount.compareAndSet(-1, counted);
+        return this.activityCount.get();
+    }
+
+    public int getPendingWriteCount() {
+        return this.writeQueue != null ? this.writeQueue.getQueueDepth() : 0;
+    }
+
+    public long getDroppedWriteCount() {
+        return this.writeQueue != null ? this.writeQueue.getDroppedCount() : 0;
     }
 
     private void cleanupOldActivities() {
@@ -122,6 +146,9 @@ public final class ActivityService {
 
             LocalDateTime cutoffDate = LocalDateTime.now().minusDays(retentionDays);
             int deletedCount = this.repository.deleteOlderThan(cutoffDate);
+            if (this.activityCount.get() >= 0) {
+                this.activityCount.set(this.repository.countAll());
+            }
             
             if (deletedCount > 0) {
                 Logger.info("Cleaned up {} activities older than {} days", deletedCount, retentionDays);
@@ -148,27 +175,20 @@ public final class ActivityService {
             }
         }
         
-        if (this.asyncExecutor != null) {
-            this.asyncExecutor.shutdown();
-            try {
-                if (!this.asyncExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
-                    this.asyncExecutor.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                this.asyncExecutor.shutdownNow();
-                Thread.currentThread().interrupt();
-            }
+        if (this.writeQueue != null) {
+            this.writeQueue.shutdown(10, TimeUnit.SECONDS);
         }
     }
 
+    private void onActivitiesWritten(int written) {
+        this.activityCount.updateAndGet(count -> count >= 0 ? count + written : count);
+    }
+
     CompletableFuture<Void> recordActivityInternal(ServerActivity activity) {
-        return CompletableFuture.runAsync(() -> {
-            try {
-                this.repository.save(activity);
-                Logger.debug("Recorded activity: {} - {}", activity.getActivityType(), activity.getDescription());
-            } catch (Exception e) {
-                Logger.error("Failed to record activity: {} - {}", activity.getActivityType(), activity.getDescription(), e);
-            }
-        }, this.asyncExecutor);
+        if (this.writeQueue == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return this.writeQueue.add(activity);
     }
 }
\ No newline at end of file
@@ -0,0 +1,193 @@
+package be.esmay.atlas.base.activity;
+
+import be.esmay.atlas.base.utils.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+/**
+ * Collects activities in a bounded queue and writes them in batches from a single writer thread.
+ *
+ * <p>A batch is written as soon as {@code batchSize} activities are waiting, or after
+ * {@code flushIntervalMs} otherwise, each batch in one transaction. When a batch fails its
+ * activities are retried one at a time, so only the rows that fail on their own are lost. Adding
+ * never blocks the caller: when the queue is full the activity is dropped and counted instead,
+ * since activities are recorded from scaler and network threads.
+ */
+final class ActivityWriteQueue {
+
+    private static final long DROP_LOG_INTERVAL = 1000;
+
+    private final ActivityRepository repository;
+    private final BlockingQueue<PendingActivity> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final IntConsumer writeListener;
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    ActivityWriteQueue(ActivityRepository repository, int capacity, int batchSize, long flushIntervalMs, IntConsumer writeListener) {
+        this.repository = repository;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMs = Math.max(10, flushIntervalMs);
+        this.writeListener = writeListener;
+    }
+
+    void start() {
+        this.running = true;
+        this.writerThread = new Thread(this::run, "Atlas-ActivityWriter");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    CompletableFuture<Void> add(ServerActivity activity) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        if (!this.running || !this.queue.offer(new PendingActivity(activity, future))) {
+            long total = this.dropped.incrementAndGet();
+            if (total == 1 || total % DROP_LOG_INTERVAL == 0) {
+                Logger.warn("Activity write queue is full or closed, dropped {} activities so far", total);
+            }
+
+            future.complete(null);
+        }
+        return future;
+    }
+
+    int getQueueDepth() {
+        return this.queue.size();
+    }
+
+    long getDroppedCount() {
+        return this.dropped.get();
+    }
+
+    /**
+     * Stops accepting activities and waits for the writer to flush everything already queued. The
+     * writer notices within one flush interval; it is not interrupted so a batch in progress is
+     * never cut off.
+     */
+    void shutdown(long timeout, TimeUnit unit) {
+        this.running = false;
+        if (this.writerThread == null) {
+            return;
+        }
+
+        try {
+            this.writerThread.join(unit.toMillis(timeout));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (this.writerThread.isAlive()) {
+            Logger.warn("Activity writer did not finish in time, {} activities were not written", this.queue.size());
+        } else if (!this.queue.isEmpty()) {
+            this.flushRemaining();
+        }
+    }
+
+    private void run() {
+        List<PendingActivity> batch = new ArrayList<>(this.batchSize);
+
+        while (this.running) {
+            try {
+                PendingActivity first = this.queue.poll(this.flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                this.queue.drainTo(batch, this.batchSize - 1);
+
+                // Wait for the batch to fill up, but no longer than one flush interval.
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.flushIntervalMs);
+                while (batch.size() < this.batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+
+                    PendingActivity next = this.queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+
+                    batch.add(next);
+                    this.queue.drainTo(batch, this.batchSize - batch.size());
+                }
+
+                this.write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        this.write(batch);
+        this.flushRemaining();
+    }
+
+    private void flushRemaining() {
+        List<PendingActivity> batch = new ArrayList<>(this.batchSize);
+        while (this.queue.drainTo(batch, this.batchSize) > 0) {
+            this.write(batch);
+        }
+    }
+
+    private void write(List<PendingActivity> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<ServerActivity> activities = new ArrayList<>(batch.size());
+        for (PendingActivity pending : batch) {
+            activities.add(pending.activity());
+        }
+
+        try {
+            this.repository.saveAll(activities);
+            this.writeListener.accept(activities.size());
+            batch.forEach(pending -> pending.future().complete(null));
+            Logger.debug("Wrote {} activities", activities.size());
+        } catch (Exception e) {
+            Logger.warn("Failed to write a batch of {} activities, retrying them one by one: {}", activities.size(), e.getMessage());
+            this.writeEach(batch);
+        }
+
+        batch.clear();
+    }
+
+    /**
+     * Writes each activity of a failed batch in its own transaction, so a single bad row only
+     * fails its own future instead of taking the whole batch down with it.
+     */
+    private void writeEach(List<PendingActivity> batch) {
+        int written = 0;
+        for (PendingActivity pending : batch) {
+            try {
+                this.repository.saveAll(List.of(pending.activity()));
+                pending.future().complete(null);
+                written++;
+            } catch (Exception e) {
+                Logger.error("Failed to write activity {}", e, pending.activity().getId());
+                pending.future().completeExceptionally(e);
+            }
+        }
+
+        if (written > 0) {
+            this.writeListener.accept(written);
+        }
+    }
+
+    private record PendingActivity(ServerActivity activity, CompletableFuture<Void> future) {
+    }
+
+}
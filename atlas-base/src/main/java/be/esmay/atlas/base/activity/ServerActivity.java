@@ -10,10 +10,10 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "server_activities", indexes = {
-    @Index(name = "idx_timestamp", columnList = "timestamp"),
-    @Index(name = "idx_server_id", columnList = "server_id"),
-    @Index(name = "idx_group_name", columnList = "group_name"),
-    @Index(name = "idx_activity_type", columnList = "activity_type")
+    @Index(name = "idx_activity_timestamp_id", columnList = "timestamp, id"),
+    @Index(name = "idx_activity_server_timestamp_id", columnList = "server_id, timestamp, id"),
+    @Index(name = "idx_activity_group_timestamp_id", columnList = "group_name, timestamp, id"),
+    @Index(name = "idx_activity_type_timestamp_id", columnList = "activity_type, timestamp, id")
 })
 @Data
 @Builder
@@ -2,6 +2,8 @@ package be.esmay.atlas.base.api;
 
 import be.esmay.atlas.base.AtlasBase;
 import be.esmay.atlas.base.config.impl.AtlasConfig;
+import be.esmay.atlas.base.files.FileIoExecutor;
+import be.esmay.atlas.base.files.FileManager;
 import be.esmay.atlas.base.utils.Logger;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
@@ -20,6 +22,8 @@ public final class ApiManager {
     private WebSocketTokenManager tokenManager;
     private WebSocketManager webSocketManager;
     private ApiRoutes apiRoutes;
+    private FileIoExecutor fileIoExecutor;
+    private FileManager fileManager;
     private ApiDocumentation apiDocumentation;
 
     private volatile boolean running = false;
@@ -43,7 +47,9 @@ public final class ApiManager {
             this.authHandler.setTokenManager(this.tokenManager);
             this.webSocketManager = new WebSocketManager(this.authHandler);
             this.router = Router.router(this.vertx);
-            this.apiRoutes = new ApiRoutes(this.router, this.authHandler);
+            this.fileIoExecutor = new FileIoExecutor(this.config.getNetwork().getFileIoThreads(), this.config.getNetwork().getFileIoQueueCapacity());
+            this.fileManager = new FileManager(this.fileIoExecutor);
+            this.apiRoutes = new ApiRoutes(this.router, this.authHandler, this.fileIoExecutor, this.fileManager);
             this.apiDocumentation = new ApiDocumentation(this.router);
 
             this.setupRoutes();
@@ -78,6 +84,14 @@ public final class ApiManager {
             this.tokenManager.shutdown();
         }
 
+        if (this.fileManager != null) {
+            this.fileManager.shutdown();
+        }
+
+        if (this.fileIoExecutor != null) {
+            this.fileIoExecutor.shutdown();
+        }
+
         Future<Void> stopWebSocket = this.webSocketManager != null ? 
             this.webSocketManager.stop() : Future.succeededFuture();
 
@@ -1,18 +1,32 @@
 package be.esmay.atlas.base.api;
 
 import be.esmay.atlas.base.AtlasBase;
+import be.esmay.atlas.base.activity.ActivityCursor;
 import be.esmay.atlas.base.activity.ActivityService;
 import be.esmay.atlas.base.activity.ActivityType;
 import be.esmay.atlas.base.activity.ServerActivity;
 import be.esmay.atlas.base.api.dto.ActivityResponse;
 import be.esmay.atlas.base.api.dto.ApiResponse;
+import be.esmay.atlas.base.api.dto.FileContentPage;
 import be.esmay.atlas.base.api.dto.FileListResponse;
 import be.esmay.atlas.base.api.dto.UploadSession;
+import be.esmay.atlas.base.api.dto.WebSocketMessage;
 import be.esmay.atlas.base.config.impl.ScalerConfig;
+import be.esmay.atlas.base.files.ArchiveJob;
+import be.esmay.atlas.base.files.FileIoExecutor;
 import be.esmay.atlas.base.files.FileManager;
+import be.esmay.atlas.base.metrics.MetricsHistoryService;
+import be.esmay.atlas.base.metrics.MetricsHistoryStore;
 import be.esmay.atlas.base.metrics.NetworkBandwidthMonitor;
+import be.esmay.atlas.base.metrics.OpenMetricsExporter;
+import be.esmay.atlas.base.metrics.RollupSeries;
 import be.esmay.atlas.base.provider.ServiceProvider;
+import be.esmay.atlas.base.provider.impl.DockerImageManager;
+import be.esmay.atlas.base.provider.impl.DockerServiceProvider;
 import be.esmay.atlas.base.scaler.Scaler;
+import be.esmay.atlas.base.scaler.ScalerAggregates;
+import be.esmay.atlas.base.scaler.ScalerManager;
+import be.esmay.atlas.base.scaler.ScalerTickStats;
 import be.esmay.atlas.base.utils.Logger;
 import be.esmay.atlas.common.enums.ServerStatus;
 import be.esmay.atlas.common.models.AtlasServer;
@@ -32,12 +46,14 @@ import java.lang.management.ManagementFactory;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 public final class ApiRoutes {
@@ -46,14 +62,18 @@ public final class ApiRoutes {
     private final ApiAuthHandler authHandler;
     private final ObjectMapper objectMapper;
     private final FileManager fileManager;
+    private final FileIoExecutor fileIoExecutor;
+    private final OpenMetricsExporter metricsExporter;
 
-    public ApiRoutes(Router router, ApiAuthHandler authHandler) {
+    public ApiRoutes(Router router, ApiAuthHandler authHandler, FileIoExecutor fileIoExecutor, FileManager fileManager) {
         this.router = router;
         this.authHandler = authHandler;
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule());
         this.objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
-        this.fileManager = new FileManager();
+        this.fileIoExecutor = fileIoExecutor;
+        this.fileManager = fileManager;
+        this.metricsExporter = new OpenMetricsExporter();
     }
 
     public void setupRoutes() {
@@ -63,6 +83,8 @@ public final class ApiRoutes {
 
         this.router.post("/api/v1/templates/files/upload").handler(this::uploadTemplateFileWithAuth);
 
+        this.router.get("/metrics").handler(this.authHandler.authenticate()).handler(this::getOpenMetrics);
+
         this.router.route("/api/v1/*").handler(BodyHandler.create());
         this.router.route("/api/v1/*").handler(this.authHandler.authenticate());
 
@@ -83,9 +105,16 @@ public final class ApiRoutes {
         this.router.post("/api/v1/servers/:id/files/rename").handler(this::renameFile);
         this.router.post("/api/v1/servers/:id/files/zip").handler(this::zipFiles);
         this.router.post("/api/v1/servers/:id/files/unzip").handler(this::unzipFile);
+        this.router.get("/api/v1/servers/:id/files/zip/download").handler(this::downloadZip);
+        this.router.get("/api/v1/files/jobs/:jobId").handler(this::getArchiveJob);
+        this.router.delete("/api/v1/files/jobs/:jobId").handler(this::cancelArchiveJob);
         this.router.get("/api/v1/groups").handler(this::getGroups);
         this.router.get("/api/v1/groups/:name").handler(this::getGroup);
+        this.router.get("/api/v1/groups/:name/scaling").handler(this::getGroupScaling);
+        this.router.get("/api/v1/groups/:name/metrics/history").handler(this::getGroupMetricsHistory);
+        this.router.get("/api/v1/servers/:id/metrics/history").handler(this::getServerMetricsHistory);
         this.router.get("/api/v1/scaling").handler(this::getScaling);
+        this.router.get("/api/v1/images").handler(this::getImagePulls);
         this.router.get("/api/v1/metrics").handler(this::getMetrics);
         this.router.get("/api/v1/utilization").handler(this::getUtilization);
         this.router.get("/api/v1/activity/recent").handler(this::getRecentActivity);
@@ -101,6 +130,7 @@ public final class ApiRoutes {
         this.router.post("/api/v1/templates/files/rename").handler(this::renameTemplateFile);
         this.router.post("/api/v1/templates/files/zip").handler(this::zipTemplateFiles);
         this.router.post("/api/v1/templates/files/unzip").handler(this::unzipTemplateFile);
+        this.router.get("/api/v1/templates/files/zip/download").handler(this::downloadTemplateZip);
 
         this.router.get("/api/v1/servers/:id/metadata").handler(this::getServerMetadata);
         this.router.put("/api/v1/servers/:id/metadata").handler(this::setServerMetadata);
@@ -118,6 +148,39 @@ public final class ApiRoutes {
         this.router.post("/api/v1/groups/:group/stop").handler(this::stopGroup);
     }
 
+    private void runFileTask(RoutingContext context, Runnable task) {
+        try {
+            this.fileIoExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            Logger.warn("File I/O queue is full, rejecting {} {}", context.request().method(), context.request().path());
+            this.sendError(context, "File I/O queue is full, try again later", 503);
+        }
+    }
+
+    private void sendContentPage(RoutingContext context, FileContentPage page) {
+        context.response()
+                .putHeader("Content-Type", "text/plain; charset=utf-8")
+                .putHeader("X-File-Size", String.valueOf(page.getFileSize()))
+                .putHeader("X-Content-Offset", String.valueOf(page.getOffset()));
+
+        if (page.hasMore()) {
+            context.response().putHeader("X-Next-Offset", String.valueOf(page.getNextOffset()));
+        }
+
+        context.response().end(page.getContent());
+    }
+
+    private void getOpenMetrics(RoutingContext context) {
+        try {
+            context.response()
+                    .putHeader("Content-Type", OpenMetricsExporter.CONTENT_TYPE)
+                    .end(this.metricsExporter.scrape());
+        } catch (Exception e) {
+            Logger.error("Failed to render metrics", e);
+            this.sendError(context, "Failed to render metrics: " + e.getMessage());
+        }
+    }
+
     private void getStatus(RoutingContext context) {
         AtlasBase atlasBase = AtlasBase.getInstance();
 
@@ -227,23 +290,11 @@ public final class ApiRoutes {
 
         for (Scaler scaler : scalers) {
             ScalerConfig.Group groupConfig = scaler.getScalerConfig().getGroup();
-            List<AtlasServer> servers = scaler.getServers();
+            ScalerAggregates aggregates = scaler.getAggregates();
 
-            int onlineServers = (int) servers.stream()
-                    .filter(server -> server.getServerInfo() != null &&
-                            server.getServerInfo().getStatus() == ServerStatus.RUNNING)
-                    .count();
-
-            int totalPlayers = servers.stream()
-                    .filter(server -> server.getServerInfo() != null)
-                    .mapToInt(server -> server.getServerInfo().getOnlinePlayers())
-                    .sum();
-
-            int totalCapacity = servers.stream()
-                    .filter(server -> server.getServerInfo() != null &&
-                            server.getServerInfo().getStatus() == ServerStatus.RUNNING)
-                    .mapToInt(server -> server.getServerInfo().getMaxPlayers())
-                    .sum();
+            int onlineServers = aggregates.getServerCount(ServerStatus.RUNNING, false);
+            int totalPlayers = aggregates.getOnlinePlayers(false);
+            int totalCapacity = aggregates.getMaxPlayers(ServerStatus.RUNNING, false);
 
             Map<String, Object> groupMap = new HashMap<>();
             groupMap.put("name", groupConfig.getName());
@@ -253,7 +304,7 @@ public final class ApiRoutes {
             groupMap.put("scalerType", scaler.getClass().getSimpleName());
             groupMap.put("minServers", groupConfig.getServer().getMinServers());
             groupMap.put("maxServers", groupConfig.getServer().getMaxServers());
-            groupMap.put("currentServers", servers.size());
+            groupMap.put("currentServers", aggregates.getServerCount(false));
             groupMap.put("onlineServers", onlineServers);
             groupMap.put("totalPlayers", totalPlayers);
             groupMap.put("totalCapacity", totalCapacity);
@@ -279,15 +330,7 @@ public final class ApiRoutes {
 
     private void getGroup(RoutingContext context) {
         String groupName = context.pathParam("name");
-        Set<Scaler> scalers = AtlasBase.getInstance().getScalerManager().getScalers();
-
-        Scaler scaler = scalers.stream()
-                .filter(s -> {
-                    String name = s.getScalerConfig().getGroup().getName();
-                    return name != null && name.equalsIgnoreCase(groupName);
-                })
-                .findFirst()
-                .orElse(null);
+        Scaler scaler = this.findGroupScaler(groupName);
 
         if (scaler == null) {
             this.sendError(context, "Group not found: " + groupName, 404);
@@ -295,23 +338,11 @@ public final class ApiRoutes {
         }
 
         ScalerConfig.Group groupConfig = scaler.getScalerConfig().getGroup();
-        List<AtlasServer> servers = scaler.getServers();
-
-        int onlineServers = (int) servers.stream()
-                .filter(server -> server.getServerInfo() != null &&
-                        server.getServerInfo().getStatus() == ServerStatus.RUNNING)
-                .count();
+        ScalerAggregates aggregates = scaler.getAggregates();
 
-        int totalPlayers = servers.stream()
-                .filter(server -> server.getServerInfo() != null)
-                .mapToInt(server -> server.getServerInfo().getOnlinePlayers())
-                .sum();
-
-        int totalCapacity = servers.stream()
-                .filter(server -> server.getServerInfo() != null &&
-                        server.getServerInfo().getStatus() == ServerStatus.RUNNING)
-                .mapToInt(server -> server.getServerInfo().getMaxPlayers())
-                .sum();
+        int onlineServers = aggregates.getServerCount(ServerStatus.RUNNING, false);
+        int totalPlayers = aggregates.getOnlinePlayers(false);
+        int totalCapacity = aggregates.getMaxPlayers(ServerStatus.RUNNING, false);
 
         Map<String, Object> groupMap = new HashMap<>();
         groupMap.put("name", groupConfig.getName());
@@ -321,7 +352,7 @@ public final class ApiRoutes {
         groupMap.put("scalerType", scaler.getClass().getSimpleName());
         groupMap.put("minServers", groupConfig.getServer().getMinServers());
         groupMap.put("maxServers", groupConfig.getServer().getMaxServers());
-        groupMap.put("currentServers", servers.size());
+        groupMap.put("currentServers", aggregates.getServerCount(false));
         groupMap.put("onlineServers", onlineServers);
         groupMap.put("totalPlayers", totalPlayers);
         groupMap.put("totalCapacity", totalCapacity);
@@ -338,20 +369,175 @@ public final class ApiRoutes {
         this.sendResponse(context, ApiResponse.success(groupMap));
     }
 
+    private void getGroupScaling(RoutingContext context) {
+        String groupName = context.pathParam("name");
+        Scaler scaler = this.findGroupScaler(groupName);
+
+        if (scaler == null) {
+            this.sendError(context, "Group not found: " + groupName, 404);
+            return;
+        }
+
+        ScalerConfig.Group groupConfig = scaler.getScalerConfig().getGroup();
+        ScalerAggregates aggregates = scaler.getAggregates();
+
+        Map<String, Object> scalingMap = new HashMap<>();
+        scalingMap.put("group", groupConfig.getName());
+        scalingMap.put("scalerType", scaler.getClass().getSimpleName());
+        scalingMap.put("paused", scaler.isPaused());
+        scalingMap.put("utilization", scaler.getCurrentUtilization());
+        scalingMap.put("autoScaledServers", scaler.getAutoScaledServerCount());
+        scalingMap.put("manualServers", scaler.getManuallyScaledServerCount());
+        scalingMap.put("runningServers", aggregates.getServerCount(ServerStatus.RUNNING, true));
+        scalingMap.put("startingServers", aggregates.getServerCount(ServerStatus.STARTING, true));
+        scalingMap.put("emptyServers", aggregates.getEmptyServerCount(true));
+        scalingMap.put("standbyServers", scaler.getStandbyServerCount());
+        scalingMap.put("autoScaledPlayers", scaler.getAutoScaledOnlinePlayers());
+        scalingMap.put("autoScaledCapacity", scaler.getAutoScaledCapacity());
+        scalingMap.put("totalPlayers", scaler.getTotalOnlinePlayers());
+        scalingMap.put("pendingRemovals", scaler.getPendingRemovalCount());
+        scalingMap.put("imagePending", AtlasBase.getInstance().getScalerManager().getImagePendingGroups().contains(scaler.getGroupName()));
+        scalingMap.put("minServers", groupConfig.getServer().getMinServers());
+        scalingMap.put("maxServers", groupConfig.getServer().getMaxServers());
+
+        if (groupConfig.getScaling() != null && groupConfig.getScaling().getConditions() != null) {
+            scalingMap.put("type", groupConfig.getScaling().getType());
+            scalingMap.put("scaleUpThreshold", groupConfig.getScaling().getConditions().getScaleUpThreshold());
+            scalingMap.put("scaleDownThreshold", groupConfig.getScaling().getConditions().getScaleDownThreshold());
+        }
+
+        ScalerTickStats tickStats = AtlasBase.getInstance().getScalerManager().getTickStats(scaler.getGroupName());
+        if (tickStats != null) {
+            scalingMap.put("ticks", tickStats.toMap());
+        }
+
+        this.sendResponse(context, ApiResponse.success(scalingMap));
+    }
+
+    private Scaler findGroupScaler(String groupName) {
+        return AtlasBase.getInstance().getScalerManager().getScalers().stream()
+                .filter(scaler -> {
+                    String name = scaler.getScalerConfig().getGroup().getName();
+                    return name != null && name.equalsIgnoreCase(groupName);
+                })
+                .findFirst()
+                .orElse(null);
+    }
+
+    private void getServerMetricsHistory(RoutingContext context) {
+        String serverId = context.pathParam("id");
+        this.sendMetricsHistory(context, MetricsHistoryStore.EntityType.SERVER, serverId, "serverId");
+    }
+
+    private void getGroupMetricsHistory(RoutingContext context) {
+        String groupName = context.pathParam("name");
+        Scaler scaler = this.findGroupScaler(groupName);
+
+        if (scaler == null) {
+            this.sendError(context, "Group not found: " + groupName, 404);
+            return;
+        }
+
+        this.sendMetricsHistory(context, MetricsHistoryStore.EntityType.GROUP, scaler.getGroupName(), "group");
+    }
+
+    private void sendMetricsHistory(RoutingContext context, MetricsHistoryStore.EntityType type, String id, String idField) {
+        MetricsHistoryService historyService = AtlasBase.getInstance().getMetricsHistoryService();
+        if (historyService == null) {
+            this.sendError(context, "Metrics history is disabled", 503);
+            return;
+        }
+
+        MetricsHistoryStore store = historyService.getStore();
+
+        String resolutionParam = context.request().getParam("resolution");
+        MetricsHistoryStore.Resolution resolution = resolutionParam != null
+                ? MetricsHistoryStore.Resolution.fromKey(resolutionParam)
+                : MetricsHistoryStore.Resolution.RAW;
+        if (resolution == null) {
+            this.sendError(context, "Invalid resolution: " + resolutionParam + " (expected 5s, 1m or 1h)", 400);
+            return;
+        }
+
+        Set<MetricsHistoryStore.Metric> metrics = EnumSet.allOf(MetricsHistoryStore.Metric.class);
+        String metricsParam = context.request().getParam("metrics");
+        if (metricsParam != null && !metricsParam.isBlank()) {
+            metrics = EnumSet.noneOf(MetricsHistoryStore.Metric.class);
+            for (String key : metricsParam.split(",")) {
+                MetricsHistoryStore.Metric metric = MetricsHistoryStore.Metric.fromKey(key.trim());
+                if (metric == null) {
+                    this.sendError(context, "Invalid metric: " + key.trim(), 400);
+                    return;
+                }
+                metrics.add(metric);
+            }
+        }
+
+        long to;
+        long from;
+        try {
+            String toParam = context.request().getParam("to");
+            String fromParam = context.request().getParam("from");
+            to = toParam != null ? Long.parseLong(toParam) : System.currentTimeMillis();
+            from = fromParam != null ? Long.parseLong(fromParam) : to - store.getWindowMillis(resolution);
+        } catch (NumberFormatException e) {
+            this.sendError(context, "Invalid from/to parameter, expected epoch milliseconds", 400);
+            return;
+        }
+
+        Map<MetricsHistoryStore.Metric, List<RollupSeries.Point>> history = store.query(type, id, resolution, from, to, metrics);
+        if (history == null) {
+            this.sendError(context, "No metrics history for: " + id, 404);
+            return;
+        }
+
+        Map<String, Object> series = new HashMap<>();
+        history.forEach((metric, points) -> series.put(metric.getKey(), points));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put(idField, id);
+        response.put("resolution", resolution.getKey());
+        response.put("from", from);
+        response.put("to", to);
+        response.put("series", series);
+
+        this.sendResponse(context, ApiResponse.success(response));
+    }
+
     private void getScaling(RoutingContext context) {
-        Set<Scaler> scalers = AtlasBase.getInstance().getScalerManager().getScalers();
+        ScalerManager scalerManager = AtlasBase.getInstance().getScalerManager();
+        Set<Scaler> scalers = scalerManager.getScalers();
 
         Map<String, Object> scaling = new HashMap<>();
         for (Scaler scaler : scalers) {
             Map<String, Object> scalerInfo = new HashMap<>();
             scalerInfo.put("group", scaler.getScalerConfig().getGroup().getName());
             scalerInfo.put("type", scaler.getClass().getSimpleName());
+            scalerInfo.put("imagePending", scalerManager.getImagePendingGroups().contains(scaler.getGroupName()));
+
+            ScalerTickStats tickStats = scalerManager.getTickStats(scaler.getGroupName());
+            if (tickStats != null) {
+                scalerInfo.put("ticks", tickStats.toMap());
+            }
             scaling.put(scaler.getGroupName(), scalerInfo);
         }
 
         this.sendResponse(context, ApiResponse.success(scaling));
     }
 
+    private void getImagePulls(RoutingContext context) {
+        ServiceProvider provider = AtlasBase.getInstance().getProviderManager().getProvider();
+
+        List<Map<String, Object>> pulls = new ArrayList<>();
+        if (provider instanceof DockerServiceProvider dockerProvider) {
+            for (DockerImageManager.ImagePull pull : dockerProvider.getImagePulls()) {
+                pulls.add(pull.toMap());
+            }
+        }
+
+        this.sendResponse(context, ApiResponse.success(pulls));
+    }
+
     private void getMetrics(RoutingContext context) {
         ServiceProvider provider = AtlasBase.getInstance().getProviderManager().getProvider();
 
@@ -915,16 +1101,18 @@ public final class ApiRoutes {
                         return;
                     }
 
-                    try {
-                        FileListResponse response = this.fileManager.listFiles(workingDirectory, finalPath);
-                        this.sendResponse(context, ApiResponse.success(response));
-                    } catch (SecurityException e) {
-                        Logger.warn("Security violation: attempted directory traversal for server {} at path {}: {}", serverId, finalPath, e.getMessage());
-                        this.sendError(context, "Security violation: " + e.getMessage(), 403);
-                    } catch (Exception e) {
-                        Logger.error("Failed to list server files for " + serverId + " at path " + finalPath, e);
-                        this.sendError(context, "Failed to list server files: " + e.getMessage());
-                    }
+                    this.runFileTask(context, () -> {
+                        try {
+                            FileListResponse response = this.fileManager.listFiles(workingDirectory, finalPath);
+                            this.sendResponse(context, ApiResponse.success(response));
+                        } catch (SecurityException e) {
+                            Logger.warn("Security violation: attempted directory traversal for server {} at path {}: {}", serverId, finalPath, e.getMessage());
+                            this.sendError(context, "Security violation: " + e.getMessage(), 403);
+                        } catch (Exception e) {
+                            Logger.error("Failed to list server files for " + serverId + " at path " + finalPath, e);
+                            this.sendError(context, "Failed to list server files: " + e.getMessage());
+                        }
+                    });
                 })
                 .exceptionally(throwable -> {
                     this.sendError(context, "Failed to find server: " + throwable.getMessage());
@@ -946,6 +1134,18 @@ public final class ApiRoutes {
             return;
         }
 
+        String offsetParam = context.request().getParam("offset");
+        String lengthParam = context.request().getParam("length");
+        long offset;
+        int length;
+        try {
+            offset = offsetParam != null ? Long.parseLong(offsetParam) : 0;
+            length = lengthParam != null ? Integer.parseInt(lengthParam) : FileManager.MAX_CONTENT_PAGE_SIZE;
+        } catch (NumberFormatException e) {
+            this.sendError(context, "Invalid offset or length parameter", 400);
+            return;
+        }
+
         ServiceProvider provider = AtlasBase.getInstance().getProviderManager().getProvider();
 
         provider.getServer(serverId)
@@ -963,20 +1163,19 @@ public final class ApiRoutes {
                         return;
                     }
 
-                    try {
-                        String fileContents = this.fileManager.readFileContents(workingDirectory, filePath);
-
-                        context.response()
-                                .putHeader("Content-Type", "text/plain; charset=utf-8")
-                                .end(fileContents);
-
-                    } catch (SecurityException e) {
-                        Logger.warn("Security violation: attempted file access outside server directory for server {} at path {}: {}", serverId, filePath, e.getMessage());
-                        this.sendError(context, "Security violation: " + e.getMessage(), 403);
-                    } catch (Exception e) {
-                        Logger.error("Failed to read file contents for server {} at path {}", serverId, filePath, e);
-                        this.sendError(context, "Failed to read file: " + e.getMessage());
-                    }
+                    this.runFileTask(context, () -> {
+                        try {
+                            FileContentPage page = this.fileManager.readFileContents(workingDirectory, filePath, offset, length);
+                            this.sendContentPage(context, page);
+
+                        } catch (SecurityException e) {
+                            Logger.warn("Security violation: attempted file access outside server directory for server {} at path {}: {}", serverId, filePath, e.getMessage());
+                            this.sendError(context, "Security violation: " + e.getMessage(), 403);
+                        } catch (Exception e) {
+                            Logger.error("Failed to read file contents for server {} at path {}", serverId, filePath, e);
+                            this.sendError(context, "Failed to read file: " + e.getMessage());
+                        }
+                    });
                 })
                 .exceptionally(throwable -> {
                     this.sendError(context, "Failed to find server: " + throwable.getMessage());
@@ -1015,22 +1214,22 @@ public final class ApiRoutes {
                         return;
                     }
 
-                    String content = context.body().asString();
-                    if (content == null) {
-                        content = "";
-                    }
+                    String body = context.body().asString();
+                    String content = body != null ? body : "";
 
-                    try {
-                        this.fileManager.writeFileContents(workingDirectory, filePath, content);
-                        this.sendResponse(context, ApiResponse.success(null, "File written successfully"));
+                    this.runFileTask(context, () -> {
+                        try {
+                            this.fileManager.writeFileContents(workingDirectory, filePath, content);
+                            this.sendResponse(context, ApiResponse.success(null, "File written successfully"));
 
-                    } catch (SecurityException e) {
-                        Logger.warn("Security violation: attempted file write outside server directory for server {} at path {}: {}", serverId, filePath, e.getMessage());
-                        this.sendError(context, "Security violation: " + e.getMessage(), 403);
-                    } catch (Exception e) {
-                        Logger.error("Failed to write file contents for server {} at path {}", serverId, filePath, e);
-                        this.sendError(context, "Failed to write file: " + e.getMessage());
-                    }
+                        } catch (SecurityException e) {
+                            Logger.warn("Security violation: attempted file write outside server directory for server {} at path {}: {}", serverId, filePath, e.getMessage());
+                            this.sendError(context, "Security violation: " + e.getMessage(), 403);
+                        } catch (Exception e) {
+                            Logger.error("Failed to write file contents for server {} at path {}", serverId, filePath, e);
+                            this.sendError(context, "Failed to write file: " + e.getMessage());
+                        }
+                    });
                 })
                 .exceptionally(throwable -> {
                     this.sendError(context, "Failed to find server: " + throwable.getMessage());
@@ -1069,17 +1268,19 @@ public final class ApiRoutes {
                         return;
                     }
 
-                    try {
-                        this.fileManager.deleteFile(workingDirectory, filePath);
-                        this.sendResponse(context, ApiResponse.success(null, "File deleted successfully"));
-
-                    } catch (SecurityException e) {
-                        Logger.warn("Security violation: attempted file deletion outside server directory for server {} at path {}: {}", serverId, filePath, e.getMessage());
-                        this.sendError(context, "Security violation: " + e.getMessage(), 403);
-                    } catch (Exception e) {
-                        Logger.error("Failed to delete file for server {} at path {}", serverId, filePath, e);
-                        this.sendError(context, "Failed to delete file: " + e.getMessage());
-                    }
+                    this.runFileTask(context, () -> {
+                        try {
+                            this.fileManager.deleteFile(workingDirectory, filePath);
+                            this.sendResponse(context, ApiResponse.success(null, "File deleted successfully"));
+
+                        } catch (SecurityException e) {
+                            Logger.warn("Security violation: attempted file deletion outside server directory for server {} at path {}: {}", serverId, filePath, e.getMessage());
+                            this.sendError(context, "Security violation: " + e.getMessage(), 403);
+                        } catch (Exception e) {
+                            Logger.error("Failed to delete file for server {} at path {}", serverId, filePath, e);
+                            this.sendError(context, "Failed to delete file: " + e.getMessage());
+                        }
+                    });
                 })
                 .exceptionally(throwable -> {
                     this.sendError(context, "Failed to find server: " + throwable.getMessage());
@@ -1118,16 +1319,18 @@ public final class ApiRoutes {
                         return;
                     }
 
-                    try {
-                        this.fileManager.downloadFile(context, workingDirectory, filePath);
+                    this.runFileTask(context, () -> {
+                        try {
+                            this.fileManager.downloadFile(context, workingDirectory, filePath);
 
-                    } catch (SecurityException e) {
-                        Logger.warn("Security violation: attempted file download outside server directory for server {} at path {}: {}", serverId, filePath, e.getMessage());
-                        this.sendError(context, "Security violation: " + e.getMessage(), 403);
-                    } catch (Exception e) {
-                        Logger.error("Failed to download file for server {} at path {}", serverId, filePath, e);
-                        this.sendError(context, "Failed to download file: " + e.getMessage());
-                    }
+                        } catch (SecurityException e) {
+                            Logger.warn("Security violation: attempted file download outside server directory for server {} at path {}: {}", serverId, filePath, e.getMessage());
+                            this.sendError(context, "Security violation: " + e.getMessage(), 403);
+                        } catch (Exception e) {
+                            Logger.error("Failed to download file for server {} at path {}", serverId, filePath, e);
+                            this.sendError(context, "Failed to download file: " + e.getMessage());
+                        }
+                    });
                 })
                 .exceptionally(throwable -> {
                     this.sendError(context, "Failed to find server: " + throwable.getMessage());
@@ -1179,17 +1382,19 @@ public final class ApiRoutes {
                         return;
                     }
 
-                    try {
-                        this.fileManager.renameFile(workingDirectory, oldPath, newPath);
-                        this.sendResponse(context, ApiResponse.success(null, "File renamed successfully"));
-
-                    } catch (SecurityException e) {
-                        Logger.warn("Security violation: attempted file rename outside server directory for server {} from {} to {}: {}", serverId, oldPath, newPath, e.getMessage());
-                        this.sendError(context, "Security violation: " + e.getMessage(), 403);
-                    } catch (Exception e) {
-                        Logger.error("Failed to rename file for server {} from {} to {}", serverId, oldPath, newPath, e);
-                        this.sendError(context, "Failed to rename file: " + e.getMessage());
-                    }
+                    this.runFileTask(context, () -> {
+                        try {
+                            this.fileManager.renameFile(workingDirectory, oldPath, newPath);
+                            this.sendResponse(context, ApiResponse.success(null, "File renamed successfully"));
+
+                        } catch (SecurityException e) {
+                            Logger.warn("Security violation: attempted file rename outside server directory for server {} from {} to {}: {}", serverId, oldPath, newPath, e.getMessage());
+                            this.sendError(context, "Security violation: " + e.getMessage(), 403);
+                        } catch (Exception e) {
+                            Logger.error("Failed to rename file for server {} from {} to {}", serverId, oldPath, newPath, e);
+                            this.sendError(context, "Failed to rename file: " + e.getMessage());
+                        }
+                    });
                 })
                 .exceptionally(throwable -> {
                     this.sendError(context, "Failed to find server: " + throwable.getMessage());
@@ -1223,6 +1428,9 @@ public final class ApiRoutes {
             return;
         }
 
+        // The body is read once the file is open on the I/O pool.
+        context.request().pause();
+
         ServiceProvider provider = AtlasBase.getInstance().getProviderManager().getProvider();
 
         provider.getServer(serverId)
@@ -1240,33 +1448,35 @@ public final class ApiRoutes {
                         return;
                     }
 
-                    try {
-                        this.fileManager.uploadFileStream(workingDirectory, targetPath, context.request())
-                                .thenAccept(fileSize -> {
-                                    Map<String, Object> response = new HashMap<>();
-                                    response.put("path", targetPath);
-                                    response.put("size", fileSize);
-
-                                    this.sendResponse(context, ApiResponse.success(response, "File uploaded successfully"));
-                                })
-                                .exceptionally(throwable -> {
-                                    if (throwable.getCause() instanceof SecurityException) {
-                                        Logger.warn("Security violation: attempted file upload outside server directory for server {} at path {}: {}", serverId, targetPath, throwable.getMessage());
-                                        this.sendError(context, "Security violation: " + throwable.getCause().getMessage(), 403);
-                                    } else {
-                                        Logger.error("Failed to upload file for server {} at path {}", serverId, targetPath, throwable);
-                                        this.sendError(context, "Failed to upload file: " + throwable.getMessage());
-                                    }
-                                    return null;
-                                });
-
-                    } catch (SecurityException e) {
-                        Logger.warn("Security violation: attempted file upload outside server directory for server {} at path {}: {}", serverId, targetPath, e.getMessage());
-                        this.sendError(context, "Security violation: " + e.getMessage(), 403);
-                    } catch (Exception e) {
-                        Logger.error("Failed to upload file for server {} at path {}", serverId, targetPath, e);
-                        this.sendError(context, "Failed to upload file: " + e.getMessage());
-                    }
+                    this.runFileTask(context, () -> {
+                        try {
+                            this.fileManager.uploadFileStream(workingDirectory, targetPath, context.request())
+                                    .thenAccept(fileSize -> {
+                                        Map<String, Object> response = new HashMap<>();
+                                        response.put("path", targetPath);
+                                        response.put("size", fileSize);
+
+                                        this.sendResponse(context, ApiResponse.success(response, "File uploaded successfully"));
+                                    })
+                                    .exceptionally(throwable -> {
+                                        if (throwable.getCause() instanceof SecurityException) {
+                                            Logger.warn("Security violation: attempted file upload outside server directory for server {} at path {}: {}", serverId, targetPath, throwable.getMessage());
+                                            this.sendError(context, "Security violation: " + throwable.getCause().getMessage(), 403);
+                                        } else {
+                                            Logger.error("Failed to upload file for server {} at path {}", serverId, targetPath, throwable);
+                                            this.sendError(context, "Failed to upload file: " + throwable.getMessage());
+                                        }
+                                        return null;
+                                    });
+
+                        } catch (SecurityException e) {
+                            Logger.warn("Security violation: attempted file upload outside server directory for server {} at path {}: {}", serverId, targetPath, e.getMessage());
+                            this.sendError(context, "Security violation: " + e.getMessage(), 403);
+                        } catch (Exception e) {
+                            Logger.error("Failed to upload file for server {} at path {}", serverId, targetPath, e);
+                            this.sendError(context, "Failed to upload file: " + e.getMessage());
+                        }
+                    });
                 })
                 .exceptionally(throwable -> {
                     this.sendError(context, "Failed to find server: " + throwable.getMessage());
@@ -1312,21 +1522,23 @@ public final class ApiRoutes {
                         return;
                     }
 
-                    try {
-                        this.fileManager.createDirectory(workingDirectory, directoryPath);
+                    this.runFileTask(context, () -> {
+                        try {
+                            this.fileManager.createDirectory(workingDirectory, directoryPath);
 
-                        Map<String, Object> response = new HashMap<>();
-                        response.put("path", directoryPath);
+                            Map<String, Object> response = new HashMap<>();
+                            response.put("path", directoryPath);
 
-                        this.sendResponse(context, ApiResponse.success(response, "Directory created successfully"));
+                            this.sendResponse(context, ApiResponse.success(response, "Directory created successfully"));
 
-                    } catch (SecurityException e) {
-                        Logger.warn("Security violation: attempted directory creation outside server directory for server {} at path {}: {}", serverId, directoryPath, e.getMessage());
-                        this.sendError(context, "Security violation: " + e.getMessage(), 403);
-                    } catch (Exception e) {
-                        Logger.error("Failed to create directory for server {} at path {}", serverId, directoryPath, e);
-                        this.sendError(context, "Failed to create directory: " + e.getMessage());
-                    }
+                        } catch (SecurityException e) {
+                            Logger.warn("Security violation: attempted directory creation outside server directory for server {} at path {}: {}", serverId, directoryPath, e.getMessage());
+                            this.sendError(context, "Security violation: " + e.getMessage(), 403);
+                        } catch (Exception e) {
+                            Logger.error("Failed to create directory for server {} at path {}", serverId, directoryPath, e);
+                            this.sendError(context, "Failed to create directory: " + e.getMessage());
+                        }
+                    });
                 })
                 .exceptionally(throwable -> {
                     this.sendError(context, "Failed to find server: " + throwable.getMessage());
@@ -1384,24 +1596,26 @@ public final class ApiRoutes {
                         return;
                     }
 
-                    try {
-                        UploadSession session = this.fileManager.startChunkedUpload(workingDirectory, targetPath, totalSize, chunkSize);
+                    this.runFileTask(context, () -> {
+                        try {
+                            UploadSession session = this.fileManager.startChunkedUpload(workingDirectory, targetPath, totalSize, chunkSize);
 
-                        Map<String, Object> response = new HashMap<>();
-                        response.put("uploadId", session.getUploadId());
-                        response.put("chunkSize", session.getChunkSize());
-                        response.put("totalChunks", session.getTotalChunks());
-                        response.put("path", targetPath);
+                            Map<String, Object> response = new HashMap<>();
+                            response.put("uploadId", session.getUploadId());
+                            response.put("chunkSize", session.getChunkSize());
+                            response.put("totalChunks", session.getTotalChunks());
+                            response.put("path", targetPath);
 
-                        this.sendResponse(context, ApiResponse.success(response, "Upload session started"));
+                            this.sendResponse(context, ApiResponse.success(response, "Upload session started"));
 
-                    } catch (SecurityException e) {
-                        Logger.warn("Security violation: attempted upload start outside server directory for server {} at path {}: {}", serverId, targetPath, e.getMessage());
-                        this.sendError(context, "Security violation: " + e.getMessage(), 403);
-                    } catch (Exception e) {
-                        Logger.error("Failed to start upload session for server {} at path {}", serverId, targetPath, e);
-                        this.sendError(context, "Failed to start upload session: " + e.getMessage());
-                    }
+                        } catch (SecurityException e) {
+                            Logger.warn("Security violation: attempted upload start outside server directory for server {} at path {}: {}", serverId, targetPath, e.getMessage());
+                            this.sendError(context, "Security violation: " + e.getMessage(), 403);
+                        } catch (Exception e) {
+                            Logger.error("Failed to start upload session for server {} at path {}", serverId, targetPath, e);
+                            this.sendError(context, "Failed to start upload session: " + e.getMessage());
+                        }
+                    });
                 })
                 .exceptionally(throwable -> {
                     this.sendError(context, "Failed to find server: " + throwable.getMessage());
@@ -1452,23 +1666,25 @@ public final class ApiRoutes {
 
             byte[] chunkData = buffer.getBytes();
 
-            try {
-                this.fileManager.uploadChunk(uploadId, chunkNumber, chunkData);
+            this.runFileTask(context, () -> {
+                try {
+                    this.fileManager.uploadChunk(uploadId, chunkNumber, chunkData);
 
-                Map<String, Object> response = new HashMap<>();
-                response.put("uploadId", uploadId);
-                response.put("chunkNumber", chunkNumber);
-                response.put("receivedChunks", session.getReceivedChunks().size());
-                response.put("totalChunks", session.getTotalChunks());
-                response.put("progress", session.getProgress());
-                response.put("isComplete", session.isComplete());
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("uploadId", uploadId);
+                    response.put("chunkNumber", chunkNumber);
+                    response.put("receivedChunks", session.getReceivedChunks().size());
+                    response.put("totalChunks", session.getTotalChunks());
+                    response.put("progress", session.getProgress());
+                    response.put("isComplete", session.isComplete());
 
-                this.sendResponse(context, ApiResponse.success(response, "Chunk uploaded successfully"));
+                    this.sendResponse(context, ApiResponse.success(response, "Chunk uploaded successfully"));
 
-            } catch (Exception e) {
-                Logger.error("Failed to upload chunk {} for session {}", chunkNumber, uploadId, e);
-                this.sendError(context, "Failed to upload chunk: " + e.getMessage());
-            }
+                } catch (Exception e) {
+                    Logger.error("Failed to upload chunk {} for session {}", chunkNumber, uploadId, e);
+                    this.sendError(context, "Failed to upload chunk: " + e.getMessage());
+                }
+            });
         });
 
         context.request().exceptionHandler(throwable -> {
@@ -1491,21 +1707,23 @@ public final class ApiRoutes {
             return;
         }
 
-        try {
-            long finalSize = this.fileManager.completeChunkedUpload(uploadId);
+        this.runFileTask(context, () -> {
+            try {
+                long finalSize = this.fileManager.completeChunkedUpload(uploadId);
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("uploadId", uploadId);
-            response.put("path", session.getTargetPath());
-            response.put("size", finalSize);
-            response.put("totalChunks", session.getTotalChunks());
+                Map<String, Object> response = new HashMap<>();
+                response.put("uploadId", uploadId);
+                response.put("path", session.getTargetPath());
+                response.put("size", finalSize);
+                response.put("totalChunks", session.getTotalChunks());
 
-            this.sendResponse(context, ApiResponse.success(response, "Upload completed successfully"));
+                this.sendResponse(context, ApiResponse.success(response, "Upload completed successfully"));
 
-        } catch (Exception e) {
-            Logger.error("Failed to complete upload session {}", uploadId, e);
-            this.sendError(context, "Failed to complete upload: " + e.getMessage());
-        }
+            } catch (Exception e) {
+                Logger.error("Failed to complete upload session {}", uploadId, e);
+                this.sendError(context, "Failed to complete upload: " + e.getMessage());
+            }
+        });
     }
 
     private void getRecentActivity(RoutingContext context) {
@@ -1542,18 +1760,13 @@ public final class ApiRoutes {
                 }
             }
 
-            List<ServerActivity> activities;
-            if (groupParam != null || serverParam != null || activityType != null) {
-                activities = activityService.getFilteredActivities(serverParam, groupParam, activityType, limit);
-            } else {
-                activities = activityService.getRecentActivities(limit);
+            ActivityCursor cursor = this.parseActivityCursor(context);
+            if (cursor == null && context.request().getParam("before") != null) {
+                return;
             }
 
-            List<ActivityResponse> response = activities.stream()
-                .map(this::mapActivityToResponse)
-                .collect(Collectors.toList());
-
-            this.sendResponse(context, ApiResponse.success(response));
+            List<ServerActivity> activities = activityService.getFilteredActivities(serverParam, groupParam, activityType, cursor, limit);
+            this.sendActivityPage(context, activities, limit);
 
         } catch (Exception e) {
             Logger.error("Failed to get recent activities", e);
@@ -1583,12 +1796,13 @@ public final class ApiRoutes {
                 }
             }
 
-            List<ServerActivity> activities = activityService.getActivitiesByServer(serverId, limit);
-            List<ActivityResponse> response = activities.stream()
-                .map(this::mapActivityToResponse)
-                .collect(Collectors.toList());
+            ActivityCursor cursor = this.parseActivityCursor(context);
+            if (cursor == null && context.request().getParam("before") != null) {
+                return;
+            }
 
-            this.sendResponse(context, ApiResponse.success(response));
+            List<ServerActivity> activities = activityService.getFilteredActivities(serverId, null, null, cursor, limit);
+            this.sendActivityPage(context, activities, limit);
 
         } catch (Exception e) {
             Logger.error("Failed to get server activities for {}", context.pathParam("id"), e);
@@ -1618,12 +1832,13 @@ public final class ApiRoutes {
                 }
             }
 
-            List<ServerActivity> activities = activityService.getActivitiesByGroup(groupName, limit);
-            List<ActivityResponse> response = activities.stream()
-                .map(this::mapActivityToResponse)
-                .collect(Collectors.toList());
+            ActivityCursor cursor = this.parseActivityCursor(context);
+            if (cursor == null && context.request().getParam("before") != null) {
+                return;
+            }
 
-            this.sendResponse(context, ApiResponse.success(response));
+            List<ServerActivity> activities = activityService.getFilteredActivities(null, groupName, null, cursor, limit);
+            this.sendActivityPage(context, activities, limit);
 
         } catch (Exception e) {
             Logger.error("Failed to get group activities for {}", context.pathParam("name"), e);
@@ -1631,6 +1846,40 @@ public final class ApiRoutes {
         }
     }
 
+    /**
+     * Parses the {@code before} cursor of an activity request. Sends a 400 and returns
+     * {@code null} if the cursor is invalid.
+     */
+    private ActivityCursor parseActivityCursor(RoutingContext context) {
+        String beforeParam = context.request().getParam("before");
+        if (beforeParam == null) {
+            return null;
+        }
+
+        try {
+            return ActivityCursor.parse(beforeParam);
+        } catch (IllegalArgumentException e) {
+            this.sendError(context, e.getMessage(), 400);
+            return null;
+        }
+    }
+
+    /**
+     * Sends a page of activities. When the page is full, the cursor for the next page is sent in
+     * the {@code X-Next-Cursor} header, to be passed back as the {@code before} parameter.
+     */
+    private void sendActivityPage(RoutingContext context, List<ServerActivity> activities, int limit) {
+        if (!activities.isEmpty() && activities.size() >= limit) {
+            context.response().putHeader("X-Next-Cursor", ActivityCursor.of(activities.get(activities.size() - 1)).encode());
+        }
+
+        List<ActivityResponse> response = activities.stream()
+            .map(this::mapActivityToResponse)
+            .collect(Collectors.toList());
+
+        this.sendResponse(context, ApiResponse.success(response));
+    }
+
     private ActivityResponse mapActivityToResponse(ServerActivity activity) {
         Map<String, Object> metadata = null;
         if (activity.getMetadata() != null && !activity.getMetadata().trim().isEmpty()) {
@@ -1668,16 +1917,18 @@ public final class ApiRoutes {
             return;
         }
 
-        try {
-            FileListResponse response = this.fileManager.listTemplateFiles(finalPath);
-            this.sendResponse(context, ApiResponse.success(response));
-        } catch (SecurityException e) {
-            Logger.warn("Security violation: attempted directory traversal in templates at path {}: {}", finalPath, e.getMessage());
-            this.sendError(context, "Security violation: " + e.getMessage(), 403);
-        } catch (Exception e) {
-            Logger.error("Failed to list template files at path " + finalPath, e);
-            this.sendError(context, "Failed to list template files: " + e.getMessage());
-        }
+        this.runFileTask(context, () -> {
+            try {
+                FileListResponse response = this.fileManager.listTemplateFiles(finalPath);
+                this.sendResponse(context, ApiResponse.success(response));
+            } catch (SecurityException e) {
+                Logger.warn("Security violation: attempted directory traversal in templates at path {}: {}", finalPath, e.getMessage());
+                this.sendError(context, "Security violation: " + e.getMessage(), 403);
+            } catch (Exception e) {
+                Logger.error("Failed to list template files at path " + finalPath, e);
+                this.sendError(context, "Failed to list template files: " + e.getMessage());
+            }
+        });
     }
 
     private void getTemplateFileContents(RoutingContext context) {
@@ -1693,20 +1944,31 @@ public final class ApiRoutes {
             return;
         }
 
+        String offsetParam = context.request().getParam("offset");
+        String lengthParam = context.request().getParam("length");
+        long offset;
+        int length;
         try {
-            String fileContents = this.fileManager.readTemplateFileContents(filePath);
+            offset = offsetParam != null ? Long.parseLong(offsetParam) : 0;
+            length = lengthParam != null ? Integer.parseInt(lengthParam) : FileManager.MAX_CONTENT_PAGE_SIZE;
+        } catch (NumberFormatException e) {
+            this.sendError(context, "Invalid offset or length parameter", 400);
+            return;
+        }
 
-            context.response()
-                    .putHeader("Content-Type", "text/plain; charset=utf-8")
-                    .end(fileContents);
+        this.runFileTask(context, () -> {
+            try {
+                FileContentPage page = this.fileManager.readTemplateFileContents(filePath, offset, length);
+                this.sendContentPage(context, page);
 
-        } catch (SecurityException e) {
-            Logger.warn("Security violation: attempted file access outside templates directory at path {}: {}", filePath, e.getMessage());
-            this.sendError(context, "Security violation: " + e.getMessage(), 403);
-        } catch (Exception e) {
-            Logger.error("Failed to read template file contents at path {}", filePath, e);
-            this.sendError(context, "Failed to read template file: " + e.getMessage());
-        }
+            } catch (SecurityException e) {
+                Logger.warn("Security violation: attempted file access outside templates directory at path {}: {}", filePath, e.getMessage());
+                this.sendError(context, "Security violation: " + e.getMessage(), 403);
+            } catch (Exception e) {
+                Logger.error("Failed to read template file contents at path {}", filePath, e);
+                this.sendError(context, "Failed to read template file: " + e.getMessage());
+            }
+        });
     }
 
     private void writeTemplateFileContents(RoutingContext context) {
@@ -1722,22 +1984,22 @@ public final class ApiRoutes {
             return;
         }
 
-        String content = context.body().asString();
-        if (content == null) {
-            content = "";
-        }
+        String body = context.body().asString();
+        String content = body != null ? body : "";
 
-        try {
-            this.fileManager.writeTemplateFileContents(filePath, content);
-            this.sendResponse(context, ApiResponse.success(null, "Template file written successfully"));
+        this.runFileTask(context, () -> {
+            try {
+                this.fileManager.writeTemplateFileContents(filePath, content);
+                this.sendResponse(context, ApiResponse.success(null, "Template file written successfully"));
 
-        } catch (SecurityException e) {
-            Logger.warn("Security violation: attempted file write outside templates directory at path {}: {}", filePath, e.getMessage());
-            this.sendError(context, "Security violation: " + e.getMessage(), 403);
-        } catch (Exception e) {
-            Logger.error("Failed to write template file contents at path {}", filePath, e);
-            this.sendError(context, "Failed to write template file: " + e.getMessage());
-        }
+            } catch (SecurityException e) {
+                Logger.warn("Security violation: attempted file write outside templates directory at path {}: {}", filePath, e.getMessage());
+                this.sendError(context, "Security violation: " + e.getMessage(), 403);
+            } catch (Exception e) {
+                Logger.error("Failed to write template file contents at path {}", filePath, e);
+                this.sendError(context, "Failed to write template file: " + e.getMessage());
+            }
+        });
     }
 
     private void deleteTemplateFile(RoutingContext context) {
@@ -1753,17 +2015,19 @@ public final class ApiRoutes {
             return;
         }
 
-        try {
-            this.fileManager.deleteTemplateFile(filePath);
-            this.sendResponse(context, ApiResponse.success(null, "Template file deleted successfully"));
+        this.runFileTask(context, () -> {
+            try {
+                this.fileManager.deleteTemplateFile(filePath);
+                this.sendResponse(context, ApiResponse.success(null, "Template file deleted successfully"));
 
-        } catch (SecurityException e) {
-            Logger.warn("Security violation: attempted file deletion outside templates directory at path {}: {}", filePath, e.getMessage());
-            this.sendError(context, "Security violation: " + e.getMessage(), 403);
-        } catch (Exception e) {
-            Logger.error("Failed to delete template file at path {}", filePath, e);
-            this.sendError(context, "Failed to delete template file: " + e.getMessage());
-        }
+            } catch (SecurityException e) {
+                Logger.warn("Security violation: attempted file deletion outside templates directory at path {}: {}", filePath, e.getMessage());
+                this.sendError(context, "Security violation: " + e.getMessage(), 403);
+            } catch (Exception e) {
+                Logger.error("Failed to delete template file at path {}", filePath, e);
+                this.sendError(context, "Failed to delete template file: " + e.getMessage());
+            }
+        });
     }
 
     private void downloadTemplateFile(RoutingContext context) {
@@ -1779,16 +2043,18 @@ public final class ApiRoutes {
             return;
         }
 
-        try {
-            this.fileManager.downloadTemplateFile(context, filePath);
+        this.runFileTask(context, () -> {
+            try {
+                this.fileManager.downloadTemplateFile(context, filePath);
 
-        } catch (SecurityException e) {
-            Logger.warn("Security violation: attempted file download outside templates directory at path {}: {}", filePath, e.getMessage());
-            this.sendError(context, "Security violation: " + e.getMessage(), 403);
-        } catch (Exception e) {
-            Logger.error("Failed to download template file at path {}", filePath, e);
-            this.sendError(context, "Failed to download template file: " + e.getMessage());
-        }
+            } catch (SecurityException e) {
+                Logger.warn("Security violation: attempted file download outside templates directory at path {}: {}", filePath, e.getMessage());
+                this.sendError(context, "Security violation: " + e.getMessage(), 403);
+            } catch (Exception e) {
+                Logger.error("Failed to download template file at path {}", filePath, e);
+                this.sendError(context, "Failed to download template file: " + e.getMessage());
+            }
+        });
     }
 
     private void createTemplateDirectory(RoutingContext context) {
@@ -1811,21 +2077,23 @@ public final class ApiRoutes {
             return;
         }
 
-        try {
-            this.fileManager.createTemplateDirectory(directoryPath);
+        this.runFileTask(context, () -> {
+            try {
+                this.fileManager.createTemplateDirectory(directoryPath);
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("path", directoryPath);
+                Map<String, Object> response = new HashMap<>();
+                response.put("path", directoryPath);
 
-            this.sendResponse(context, ApiResponse.success(response, "Template directory created successfully"));
+                this.sendResponse(context, ApiResponse.success(response, "Template directory created successfully"));
 
-        } catch (SecurityException e) {
-            Logger.warn("Security violation: attempted directory creation outside templates directory at path {}: {}", directoryPath, e.getMessage());
-            this.sendError(context, "Security violation: " + e.getMessage(), 403);
-        } catch (Exception e) {
-            Logger.error("Failed to create template directory at path {}", directoryPath, e);
-            this.sendError(context, "Failed to create template directory: " + e.getMessage());
-        }
+            } catch (SecurityException e) {
+                Logger.warn("Security violation: attempted directory creation outside templates directory at path {}: {}", directoryPath, e.getMessage());
+                this.sendError(context, "Security violation: " + e.getMessage(), 403);
+            } catch (Exception e) {
+                Logger.error("Failed to create template directory at path {}", directoryPath, e);
+                this.sendError(context, "Failed to create template directory: " + e.getMessage());
+            }
+        });
     }
 
     private void renameTemplateFile(RoutingContext context) {
@@ -1854,17 +2122,19 @@ public final class ApiRoutes {
             return;
         }
 
-        try {
-            this.fileManager.renameTemplateFile(oldPath, newPath);
-            this.sendResponse(context, ApiResponse.success(null, "Template file renamed successfully"));
+        this.runFileTask(context, () -> {
+            try {
+                this.fileManager.renameTemplateFile(oldPath, newPath);
+                this.sendResponse(context, ApiResponse.success(null, "Template file renamed successfully"));
 
-        } catch (SecurityException e) {
-            Logger.warn("Security violation: attempted file rename outside templates directory from {} to {}: {}", oldPath, newPath, e.getMessage());
-            this.sendError(context, "Security violation: " + e.getMessage(), 403);
-        } catch (Exception e) {
-            Logger.error("Failed to rename template file from {} to {}", oldPath, newPath, e);
-            this.sendError(context, "Failed to rename template file: " + e.getMessage());
-        }
+            } catch (SecurityException e) {
+                Logger.warn("Security violation: attempted file rename outside templates directory from {} to {}: {}", oldPath, newPath, e.getMessage());
+                this.sendError(context, "Security violation: " + e.getMessage(), 403);
+            } catch (Exception e) {
+                Logger.error("Failed to rename template file from {} to {}", oldPath, newPath, e);
+                this.sendError(context, "Failed to rename template file: " + e.getMessage());
+            }
+        });
     }
 
     private void uploadTemplateFileWithAuth(RoutingContext context) {
@@ -1892,33 +2162,38 @@ public final class ApiRoutes {
             return;
         }
 
-        try {
-            this.fileManager.uploadTemplateFileStream(targetPath, context.request())
-                    .thenAccept(fileSize -> {
-                        Map<String, Object> response = new HashMap<>();
-                        response.put("path", targetPath);
-                        response.put("size", fileSize);
+        // The body is read once the file is open on the I/O pool.
+        context.request().pause();
 
-                        this.sendResponse(context, ApiResponse.success(response, "Template file uploaded successfully"));
-                    })
-                    .exceptionally(throwable -> {
-                        if (throwable.getCause() instanceof SecurityException) {
-                            Logger.warn("Security violation: attempted file upload outside templates directory at path {}: {}", targetPath, throwable.getMessage());
-                            this.sendError(context, "Security violation: " + throwable.getCause().getMessage(), 403);
-                        } else {
-                            Logger.error("Failed to upload template file at path {}", targetPath, throwable);
-                            this.sendError(context, "Failed to upload template file: " + throwable.getMessage());
-                        }
-                        return null;
-                    });
+        this.runFileTask(context, () -> {
+            try {
+                this.fileManager.uploadTemplateFileStream(targetPath, context.request())
+                        .thenAccept(fileSize -> {
+                            Map<String, Object> response = new HashMap<>();
+                            response.put("path", targetPath);
+                            response.put("size", fileSize);
+
+                            this.sendResponse(context, ApiResponse.success(response, "Template file uploaded successfully"));
+                        })
+                        .exceptionally(throwable -> {
+                            if (throwable.getCause() instanceof SecurityException) {
+                                Logger.warn("Security violation: attempted file upload outside templates directory at path {}: {}", targetPath, throwable.getMessage());
+                                this.sendError(context, "Security violation: " + throwable.getCause().getMessage(), 403);
+                            } else {
+                                Logger.error("Failed to upload template file at path {}", targetPath, throwable);
+                                this.sendError(context, "Failed to upload template file: " + throwable.getMessage());
+                            }
+                            return null;
+                        });
 
-        } catch (SecurityException e) {
-            Logger.warn("Security violation: attempted file upload outside templates directory at path {}: {}", targetPath, e.getMessage());
-            this.sendError(context, "Security violation: " + e.getMessage(), 403);
-        } catch (Exception e) {
-            Logger.error("Failed to upload template file at path {}", targetPath, e);
-            this.sendError(context, "Failed to upload template file: " + e.getMessage());
-        }
+            } catch (SecurityException e) {
+                Logger.warn("Security violation: attempted file upload outside templates directory at path {}: {}", targetPath, e.getMessage());
+                this.sendError(context, "Security violation: " + e.getMessage(), 403);
+            } catch (Exception e) {
+                Logger.error("Failed to upload template file at path {}", targetPath, e);
+                this.sendError(context, "Failed to upload template file: " + e.getMessage());
+            }
+        });
     }
 
     private void getServerMetadata(RoutingContext context) {
@@ -2145,22 +2420,24 @@ public final class ApiRoutes {
                         return;
                     }
 
-                    try {
-                        this.fileManager.zipFiles(workingDirectory, sourcePaths, zipPath, workingPath);
+                    this.runFileTask(context, () -> {
+                        try {
+                            this.fileManager.zipFiles(workingDirectory, sourcePaths, zipPath, workingPath);
 
-                        Map<String, Object> response = new HashMap<>();
-                        response.put("zipPath", zipPath);
-                        response.put("sources", sourcePaths);
+                            Map<String, Object> response = new HashMap<>();
+                            response.put("zipPath", zipPath);
+                            response.put("sources", sourcePaths);
 
-                        this.sendResponse(context, ApiResponse.success(response, "Files zipped successfully"));
+                            this.sendResponse(context, ApiResponse.success(response, "Files zipped successfully"));
 
-                    } catch (SecurityException e) {
-                        Logger.warn("Security violation: attempted zip operation outside server directory for server {}: {}", serverId, e.getMessage());
-                        this.sendError(context, "Security violation: " + e.getMessage(), 403);
-                    } catch (Exception e) {
-                        Logger.error("Failed to zip files for server {}", serverId, e);
-                        this.sendError(context, "Failed to zip files: " + e.getMessage());
-                    }
+                        } catch (SecurityException e) {
+                            Logger.warn("Security violation: attempted zip operation outside server directory for server {}: {}", serverId, e.getMessage());
+                            this.sendError(context, "Security violation: " + e.getMessage(), 403);
+                        } catch (Exception e) {
+                            Logger.error("Failed to zip files for server {}", serverId, e);
+                            this.sendError(context, "Failed to zip files: " + e.getMessage());
+                        }
+                    });
                 })
                 .exceptionally(throwable -> {
                     this.sendError(context, "Failed to find server: " + throwable.getMessage());
@@ -2218,22 +2495,21 @@ public final class ApiRoutes {
                         return;
                     }
 
-                    try {
-                        this.fileManager.unzipFile(workingDirectory, zipPath, destinationPath, workingPath);
-
-                        Map<String, Object> response = new HashMap<>();
-                        response.put("zipPath", zipPath);
-                        response.put("destination", destinationPath);
+                    this.runFileTask(context, () -> {
+                        try {
+                            ArchiveJob job = this.fileManager.startUnzip(workingDirectory, serverId, zipPath, destinationPath, workingPath, this::broadcastArchiveProgress);
 
-                        this.sendResponse(context, ApiResponse.success(response, "File unzipped successfully"));
+                            context.response().setStatusCode(202);
+                            this.sendResponse(context, ApiResponse.success(job.toMap(), "Unzip started"));
 
-                    } catch (SecurityException e) {
-                        Logger.warn("Security violation: attempted unzip operation outside server directory for server {}: {}", serverId, e.getMessage());
-                        this.sendError(context, "Security violation: " + e.getMessage(), 403);
-                    } catch (Exception e) {
-                        Logger.error("Failed to unzip file for server {}", serverId, e);
-                        this.sendError(context, "Failed to unzip file: " + e.getMessage());
-                    }
+                        } catch (SecurityException e) {
+                            Logger.warn("Security violation: attempted unzip operation outside server directory for server {}: {}", serverId, e.getMessage());
+                            this.sendError(context, "Security violation: " + e.getMessage(), 403);
+                        } catch (Exception e) {
+                            Logger.error("Failed to unzip file for server {}", serverId, e);
+                            this.sendError(context, "Failed to unzip file: " + e.getMessage());
+                        }
+                    });
                 })
                 .exceptionally(throwable -> {
                     this.sendError(context, "Failed to find server: " + throwable.getMessage());
@@ -2276,22 +2552,24 @@ public final class ApiRoutes {
             }
         }
 
-        try {
-            this.fileManager.zipTemplateFiles(sourcePaths, zipPath);
+        this.runFileTask(context, () -> {
+            try {
+                this.fileManager.zipTemplateFiles(sourcePaths, zipPath);
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("zipPath", zipPath);
-            response.put("sources", sourcePaths);
+                Map<String, Object> response = new HashMap<>();
+                response.put("zipPath", zipPath);
+                response.put("sources", sourcePaths);
 
-            this.sendResponse(context, ApiResponse.success(response, "Template files zipped successfully"));
+                this.sendResponse(context, ApiResponse.success(response, "Template files zipped successfully"));
 
-        } catch (SecurityException e) {
-            Logger.warn("Security violation: attempted zip operation outside templates directory: {}", e.getMessage());
-            this.sendError(context, "Security violation: " + e.getMessage(), 403);
-        } catch (Exception e) {
-            Logger.error("Failed to zip template files", e);
-            this.sendError(context, "Failed to zip template files: " + e.getMessage());
-        }
+            } catch (SecurityException e) {
+                Logger.warn("Security violation: attempted zip operation outside templates directory: {}", e.getMessage());
+                this.sendError(context, "Security violation: " + e.getMessage(), 403);
+            } catch (Exception e) {
+                Logger.error("Failed to zip template files", e);
+                this.sendError(context, "Failed to zip template files: " + e.getMessage());
+            }
+        });
     }
 
     private void unzipTemplateFile(RoutingContext context) {
@@ -2320,21 +2598,169 @@ public final class ApiRoutes {
             return;
         }
 
-        try {
-            this.fileManager.unzipTemplateFile(zipPath, destinationPath);
+        this.runFileTask(context, () -> {
+            try {
+                ArchiveJob job = this.fileManager.startTemplateUnzip(zipPath, destinationPath, this::broadcastArchiveProgress);
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("zipPath", zipPath);
-            response.put("destination", destinationPath);
+                context.response().setStatusCode(202);
+                this.sendResponse(context, ApiResponse.success(job.toMap(), "Template unzip started"));
 
-            this.sendResponse(context, ApiResponse.success(response, "Template file unzipped successfully"));
+            } catch (SecurityException e) {
+                Logger.warn("Security violation: attempted unzip operation outside templates directory: {}", e.getMessage());
+                this.sendError(context, "Security violation: " + e.getMessage(), 403);
+            } catch (Exception e) {
+                Logger.error("Failed to unzip template file", e);
+                this.sendError(context, "Failed to unzip template file: " + e.getMessage());
+            }
+        });
+    }
 
-        } catch (SecurityException e) {
-            Logger.warn("Security violation: attempted unzip operation outside templates directory: {}", e.getMessage());
-            this.sendError(context, "Security violation: " + e.getMessage(), 403);
-        } catch (Exception e) {
-            Logger.error("Failed to unzip template file", e);
-            this.sendError(context, "Failed to unzip template file: " + e.getMessage());
+    private void downloadZip(RoutingContext context) {
+        String serverId = context.pathParam("id");
+        List<String> sourcePaths = this.parseZipSources(context);
+        String workingPath = context.request().getParam("workingPath");
+
+        if (sourcePaths.isEmpty()) {
+            this.sendError(context, "At least one path is required", 400);
+            return;
+        }
+
+        if (workingPath != null && !this.fileManager.isValidPath(workingPath)) {
+            this.sendError(context, "Invalid working path: directory traversal not allowed", 400);
+            return;
+        }
+
+        for (String path : sourcePaths) {
+            if (!this.fileManager.isValidPath(path)) {
+                this.sendError(context, "Invalid source path: directory traversal not allowed", 400);
+                return;
+            }
+        }
+
+        String fileName = this.zipDownloadName(context, serverId);
+        ServiceProvider provider = AtlasBase.getInstance().getProviderManager().getProvider();
+
+        provider.getServer(serverId)
+                .thenAccept(serverOpt -> {
+                    if (serverOpt.isEmpty()) {
+                        this.sendError(context, "Server not found: " + serverId, 404);
+                        return;
+                    }
+
+                    AtlasServer server = serverOpt.get();
+                    String workingDirectory = server.getWorkingDirectory();
+
+                    if (workingDirectory == null || workingDirectory.isEmpty()) {
+                        this.sendError(context, "Server working directory not set: " + serverId, 500);
+                        return;
+                    }
+
+                    this.runFileTask(context, () -> {
+                        try {
+                            this.fileManager.streamZip(context, workingDirectory, sourcePaths, workingPath, fileName);
+
+                        } catch (SecurityException e) {
+                            Logger.warn("Security violation: attempted zip download outside server directory for server {}: {}", serverId, e.getMessage());
+                            this.sendError(context, "Security violation: " + e.getMessage(), 403);
+                        } catch (Exception e) {
+                            Logger.error("Failed to stream zip for server {}", serverId, e);
+                            this.sendError(context, "Failed to download zip: " + e.getMessage());
+                        }
+                    });
+                })
+                .exceptionally(throwable -> {
+                    this.sendError(context, "Failed to find server: " + throwable.getMessage());
+                    return null;
+                });
+    }
+
+    private void downloadTemplateZip(RoutingContext context) {
+        List<String> sourcePaths = this.parseZipSources(context);
+
+        if (sourcePaths.isEmpty()) {
+            this.sendError(context, "At least one path is required", 400);
+            return;
+        }
+
+        for (String path : sourcePaths) {
+            if (!this.fileManager.isValidPath(path)) {
+                this.sendError(context, "Invalid source path: directory traversal not allowed", 400);
+                return;
+            }
+        }
+
+        this.runFileTask(context, () -> {
+            try {
+                this.fileManager.streamTemplateZip(context, sourcePaths, this.zipDownloadName(context, "templates"));
+
+            } catch (SecurityException e) {
+                Logger.warn("Security violation: attempted zip download outside templates directory: {}", e.getMessage());
+                this.sendError(context, "Security violation: " + e.getMessage(), 403);
+            } catch (Exception e) {
+                Logger.error("Failed to stream template zip", e);
+                this.sendError(context, "Failed to download template zip: " + e.getMessage());
+            }
+        });
+    }
+
+    private List<String> parseZipSources(RoutingContext context) {
+        List<String> sourcePaths = new ArrayList<>();
+        for (String value : context.queryParam("paths")) {
+            for (String path : value.split(",")) {
+                if (!path.isBlank()) {
+                    sourcePaths.add(path.trim());
+                }
+            }
+        }
+        return sourcePaths;
+    }
+
+    private String zipDownloadName(RoutingContext context, String fallback) {
+        String name = context.request().getParam("name");
+        if (name == null || name.isBlank()) {
+            name = fallback;
+        }
+        return name.endsWith(".zip") ? name : name + ".zip";
+    }
+
+    private void getArchiveJob(RoutingContext context) {
+        String jobId = context.pathParam("jobId");
+
+        this.fileManager.getArchiveJob(jobId).ifPresentOrElse(
+                job -> this.sendResponse(context, ApiResponse.success(job.toMap())),
+                () -> this.sendError(context, "Job not found: " + jobId, 404));
+    }
+
+    private void cancelArchiveJob(RoutingContext context) {
+        String jobId = context.pathParam("jobId");
+
+        Optional<ArchiveJob> job = this.fileManager.getArchiveJob(jobId);
+        if (job.isEmpty()) {
+            this.sendError(context, "Job not found: " + jobId, 404);
+            return;
+        }
+
+        if (!this.fileManager.cancelArchiveJob(jobId)) {
+            this.sendError(context, "Job already finished: " + jobId, 409);
+            return;
+        }
+
+        this.sendResponse(context, ApiResponse.success(job.get().toMap(), "Cancellation requested"));
+    }
+
+    private void broadcastArchiveProgress(ArchiveJob job) {
+        AtlasBase atlasInstance = AtlasBase.getInstance();
+        if (atlasInstance == null || atlasInstance.getApiManager() == null || atlasInstance.getApiManager().getWebSocketManager() == null) {
+            return;
+        }
+
+        WebSocketManager webSocketManager = atlasInstance.getApiManager().getWebSocketManager();
+        WebSocketMessage message = WebSocketMessage.create("archive-progress", this.objectMapper.valueToTree(job.toMap()), job.getServerId());
+
+        if (job.getServerId() != null) {
+            webSocketManager.sendToServerConnections(job.getServerId(), message);
+        } else {
+            webSocketManager.broadcastMessage(message);
         }
     }
 }
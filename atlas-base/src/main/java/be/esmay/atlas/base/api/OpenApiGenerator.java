@@ -90,6 +90,7 @@ public final class OpenApiGenerator {
         paths.addPathItem("/api/v1/groups/{group}/scale", createScalePath());
         paths.addPathItem("/api/v1/groups/{group}/stop", createStopGroupPath());
         paths.addPathItem("/api/v1/scaling", createScalingPath());
+        paths.addPathItem("/api/v1/images", createImagePullsPath());
         paths.addPathItem("/api/v1/metrics", createMetricsPath());
         paths.addPathItem("/api/v1/utilization", createUtilizationPath());
         paths.addPathItem("/api/v1/servers/{id}/ws", createWebSocketPath());
@@ -885,6 +886,21 @@ public final class OpenApiGenerator {
                                 .schema(new Schema<>().$ref("#/components/schemas/ScalingResponse")))))));
     }
 
+    private static PathItem createImagePullsPath() {
+        return new PathItem()
+            .get(new Operation()
+                .operationId("getImagePulls")
+                .summary("List image pulls")
+                .description("Returns the state of every container image the Docker provider has checked or pulled. Empty for other providers.")
+                .addTagsItem("Scaling")
+                .responses(createStandardResponses()
+                    .addApiResponse("200", new ApiResponse()
+                        .description("Image pull states")
+                        .content(new Content()
+                            .addMediaType("application/json", new MediaType()
+                                .schema(new Schema<>().$ref("#/components/schemas/ImagePullsResponse")))))));
+    }
+
     private static PathItem createMetricsPath() {
         return new PathItem()
             .get(new Operation()
@@ -1143,6 +1159,18 @@ public final class OpenApiGenerator {
                     .addProperty("type", new StringSchema().example("NormalScaler"))))
                 .addProperty("timestamp", new Schema<>().type("integer").format("int64").example(1752700258719L))),
             
+            Map.entry("ImagePullsResponse", new ObjectSchema()
+                .addProperty("status", new StringSchema().example("success"))
+                .addProperty("data", new ArraySchema().items(new ObjectSchema()
+                    .addProperty("image", new StringSchema().example("itzg/minecraft-server:latest"))
+                    .addProperty("state", new StringSchema()._enum(List.of("UNKNOWN", "PULLING", "READY", "FAILED")))
+                    .addProperty("bytesDone", new Schema<>().type("integer").format("int64"))
+                    .addProperty("bytesTotal", new Schema<>().type("integer").format("int64"))
+                    .addProperty("status", new StringSchema().nullable(true))
+                    .addProperty("error", new StringSchema().nullable(true))
+                    .addProperty("startedAt", new Schema<>().type("integer").format("int64"))))
+                .addProperty("timestamp", new Schema<>().type("integer").format("int64").example(1752700258719L))),
+            
             Map.entry("MetricsResponse", new ObjectSchema()
                 .addProperty("status", new StringSchema().example("success"))
                 .addProperty("data", new ObjectSchema()
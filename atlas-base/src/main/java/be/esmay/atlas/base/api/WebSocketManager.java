@@ -393,6 +393,10 @@ public final class WebSocketManager {
             });
     }
 
+    public int getConnectionCount() {
+        return this.connections.size();
+    }
+
     public void broadcastMessage(WebSocketMessage message) {
         String json;
         try {
@@ -559,6 +563,7 @@ public final class WebSocketManager {
                             diskData.put("used", metrics.getDiskUsed());
                             diskData.put("total", metrics.getDiskTotal());
                             diskData.put("percentage", metrics.getDiskPercentage());
+                            diskData.put("ageMillis", metrics.getDiskAgeMillis());
                             
                             Map<String, Object> networkData = new HashMap<>();
                             networkData.put("downloadBytes", metrics.getNetworkReceiveBytes());
@@ -601,6 +606,7 @@ public final class WebSocketManager {
                                         diskData.put("used", freshMetrics.getDiskUsed());
                                         diskData.put("total", freshMetrics.getDiskTotal());
                                         diskData.put("percentage", freshMetrics.getDiskPercentage());
+                                        diskData.put("ageMillis", freshMetrics.getDiskAgeMillis());
                                         
                                         Map<String, Object> networkData = new HashMap<>();
                                         networkData.put("downloadBytes", freshMetrics.getNetworkReceiveBytes());
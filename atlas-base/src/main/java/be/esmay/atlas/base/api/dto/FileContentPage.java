@@ -0,0 +1,22 @@
+package be.esmay.atlas.base.api.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public final class FileContentPage {
+
+    private final String content;
+    private final long offset;
+    private final long length;
+    private final long fileSize;
+
+    public long getNextOffset() {
+        return this.offset + this.length;
+    }
+
+    public boolean hasMore() {
+        return this.getNextOffset() < this.fileSize;
+    }
+}
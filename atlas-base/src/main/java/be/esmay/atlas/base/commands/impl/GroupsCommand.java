@@ -102,8 +102,8 @@ public final class GroupsCommand implements AtlasCommand {
 
         for (Scaler scaler : scalerManager.getScalers()) {
             double utilization = scaler.getCurrentUtilization();
-            int autoServers = scaler.getAutoScaledServers().size();
-            int manualServers = scaler.getManuallyScaledServers().size();
+            int autoServers = scaler.getAutoScaledServerCount();
+            int manualServers = scaler.getManuallyScaledServerCount();
             int totalPlayers = scaler.getTotalOnlinePlayers();
 
             String status = this.getGroupStatus(scaler);
@@ -212,7 +212,7 @@ public final class GroupsCommand implements AtlasCommand {
 
         double utilization = scaler.getCurrentUtilization();
         ScalerConfig.Conditions conditions = scaler.getScalerConfig().getGroup().getScaling().getConditions();
-        int currentAutoServers = scaler.getAutoScaledServers().size();
+        int currentAutoServers = scaler.getAutoScaledServerCount();
         int minServers = scaler.getScalerConfig().getGroup().getServer().getMinServers();
         int maxServers = scaler.getScalerConfig().getGroup().getServer().getMaxServers();
 
@@ -267,7 +267,7 @@ public final class MetricsCommand implements AtlasCommand {
             Logger.info("  ✓ Utilization within optimal range");
         }
         
-        int currentServers = scaler.getAutoScaledServers().size();
+        int currentServers = scaler.getAutoScaledServerCount();
         int minServers = scaler.getScalerConfig().getGroup().getServer().getMinServers();
         int maxServers = scaler.getScalerConfig().getGroup().getServer().getMaxServers();
         
@@ -285,7 +285,7 @@ public final class MetricsCommand implements AtlasCommand {
         
         double utilization = scaler.getCurrentUtilization();
         ScalerConfig.Conditions conditions = scaler.getScalerConfig().getGroup().getScaling().getConditions();
-        int currentAutoServers = scaler.getAutoScaledServers().size();
+        int currentAutoServers = scaler.getAutoScaledServerCount();
         int minServers = scaler.getScalerConfig().getGroup().getServer().getMinServers();
         int maxServers = scaler.getScalerConfig().getGroup().getServer().getMaxServers();
         
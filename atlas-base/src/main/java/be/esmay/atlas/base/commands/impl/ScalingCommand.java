@@ -5,6 +5,7 @@ import be.esmay.atlas.base.commands.AtlasCommand;
 import be.esmay.atlas.base.config.impl.ScalerConfig;
 import be.esmay.atlas.base.scaler.Scaler;
 import be.esmay.atlas.base.scaler.ScalerManager;
+import be.esmay.atlas.base.scaler.ScalerTickStats;
 import be.esmay.atlas.base.utils.Logger;
 
 import java.util.Arrays;
@@ -93,18 +94,21 @@ public final class ScalingCommand implements AtlasCommand {
 
         for (Scaler scaler : scalerManager.getScalers()) {
             String pausedStatus = scaler.isPaused() ? " [PAUSED]" : "";
-            Logger.info("Group: " + scaler.getGroupName() + pausedStatus);
+            String imageStatus = scalerManager.getImagePendingGroups().contains(scaler.getGroupName()) ? " [IMAGE PENDING]" : "";
+            Logger.info("Group: " + scaler.getGroupName() + pausedStatus + imageStatus);
             Logger.info("  " + scaler.getScalingStatus());
 
             double utilization = scaler.getCurrentUtilization();
             ScalerConfig.Conditions conditions = scaler.getScalerConfig().getGroup().getScaling().getConditions();
-            int currentAutoServers = scaler.getAutoScaledServers().size();
+            int currentAutoServers = scaler.getAutoScaledServerCount();
             int minServers = scaler.getScalerConfig().getGroup().getServer().getMinServers();
             int maxServers = scaler.getScalerConfig().getGroup().getServer().getMaxServers();
 
             String statusDetail;
             if (scaler.isPaused()) {
                 statusDetail = "Paused - No automatic scaling";
+            } else if (!imageStatus.isEmpty()) {
+                statusDetail = "Waiting for image pull - scaling resumes once it is available";
             } else if (utilization >= conditions.getScaleUpThreshold()) {
                 if (maxServers == -1 || currentAutoServers < maxServers) {
                     statusDetail = "Ready to scale UP (utilization above " + String.format("%.1f%%", conditions.getScaleUpThreshold() * 100) + " threshold)";
@@ -122,6 +126,13 @@ public final class ScalingCommand implements AtlasCommand {
             }
 
             Logger.info("  Status: " + statusDetail);
+
+            ScalerTickStats tickStats = scalerManager.getTickStats(scaler.getGroupName());
+            if (tickStats != null) {
+                Logger.info(String.format("  Checks: %d every %.1fs, last %.1f ms, avg %.1f ms, max %.1f ms, %d overruns, %d waited for a slot",
+                        tickStats.getTicks(), tickStats.getIntervalMillis() / 1000.0, tickStats.getLastMillis(),
+                        tickStats.getAverageMillis(), tickStats.getMaxMillis(), tickStats.getOverruns(), tickStats.getThrottled()));
+            }
             Logger.info("");
         }
     }
@@ -299,8 +310,8 @@ public final class ScalingCommand implements AtlasCommand {
         Logger.info("  Scale Down: " + String.format("%.1f%%", conditions.getScaleDownThreshold() * 100));
         Logger.info("");
         Logger.info("Current Status:");
-        Logger.info("  Auto-scaled servers: " + scaler.getAutoScaledServers().size());
-        Logger.info("  Manual servers: " + scaler.getManuallyScaledServers().size());
+        Logger.info("  Auto-scaled servers: " + scaler.getAutoScaledServerCount());
+        Logger.info("  Manual servers: " + scaler.getManuallyScaledServerCount());
         Logger.info("  Current utilization: " + String.format("%.1f%%", scaler.getCurrentUtilization() * 100));
         Logger.info("  Scaling paused: " + (scaler.isPaused() ? "Yes" : "No"));
     }
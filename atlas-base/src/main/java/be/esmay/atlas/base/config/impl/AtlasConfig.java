@@ -46,6 +46,9 @@ public final class AtlasConfig extends ConfigurateConfig {
 
         private Database database;
 
+        @Setting("metrics-history")
+        private MetricsHistory metricsHistory = new MetricsHistory();
+
     }
 
     @Data
@@ -72,6 +75,35 @@ public final class AtlasConfig extends ConfigurateConfig {
         @Setting("api-key")
         private String apiKey;
 
+        private String transport = "auto";
+
+        @Setting("tcp-no-delay")
+        private boolean tcpNoDelay = true;
+
+        @Setting("so-backlog")
+        private int soBacklog = 128;
+
+        @Setting("write-buffer-low-water-mark")
+        private int writeBufferLowWaterMark = 32 * 1024;
+
+        @Setting("write-buffer-high-water-mark")
+        private int writeBufferHighWaterMark = 64 * 1024;
+
+        @Setting("pooled-allocator")
+        private boolean pooledAllocator = true;
+
+        @Setting("prefer-direct-buffers")
+        private boolean preferDirectBuffers = true;
+
+        @Setting("worker-threads")
+        private int workerThreads = 0;
+
+        @Setting("file-io-threads")
+        private int fileIoThreads = 8;
+
+        @Setting("file-io-queue-capacity")
+        private int fileIoQueueCapacity = 256;
+
     }
 
     @Getter
@@ -99,6 +131,15 @@ public final class AtlasConfig extends ConfigurateConfig {
         @Setting("host-ip-override")
         private String hostIpOverride;
 
+        @Setting("state-reconciliation-seconds")
+        private int stateReconciliationSeconds = 300;
+
+        @Setting("concurrent-image-pulls")
+        private int concurrentImagePulls = 2;
+
+        @Setting("image-refresh-minutes")
+        private int imageRefreshMinutes = 60;
+
     }
 
     @Getter
@@ -126,6 +167,12 @@ public final class AtlasConfig extends ConfigurateConfig {
         @Setting("s3-cache")
         private S3Cache s3Cache;
 
+        @Setting("blob-store")
+        private BlobStore blobStore = new BlobStore();
+
+        @Setting("overlay-dynamic-servers")
+        private boolean overlayDynamicServers = false;
+
     }
 
     @Data
@@ -155,6 +202,29 @@ public final class AtlasConfig extends ConfigurateConfig {
         @Setting("ttl-seconds")
         private int ttlSeconds = 3600;
 
+        @Setting("parallel-downloads")
+        private int parallelDownloads = 8;
+
+        @Setting("multipart-threshold-mb")
+        private int multipartThresholdMb = 32;
+
+        @Setting("part-size-mb")
+        private int partSizeMb = 8;
+
+    }
+
+    @Data
+    @ConfigSerializable
+    public static class BlobStore {
+
+        private boolean enabled = false;
+
+        private String directory = "cache/template-blobs";
+
+        @Setting("mutable-patterns")
+        private List<String> mutablePatterns = List.of("*.yml", "*.yaml", "*.properties", "*.json", "*.toml", "*.conf",
+                "*.cfg", "*.ini", "*.txt", "*.db", "*.sqlite", "*.dat", "*.mca", "*.log", "*.lock");
+
     }
 
     @Getter
@@ -166,6 +236,15 @@ public final class AtlasConfig extends ConfigurateConfig {
 
         private int cooldown;
 
+        @Setting("max-concurrent-starts")
+        private int maxConcurrentStarts = 8;
+
+        @Setting("max-concurrent-ticks")
+        private int maxConcurrentTicks = 4;
+
+        @Setting("jitter-percent")
+        private int jitterPercent = 10;
+
     }
 
     @Data
@@ -185,6 +264,34 @@ public final class AtlasConfig extends ConfigurateConfig {
         @Setting("retention-days")
         private int retentionDays = 30;
 
+        @Setting("activity-queue-capacity")
+        private int activityQueueCapacity = 10000;
+
+        @Setting("activity-batch-size")
+        private int activityBatchSize = 100;
+
+        @Setting("activity-flush-interval-ms")
+        private long activityFlushIntervalMs = 500;
+
+    }
+
+    @Data
+    @ConfigSerializable
+    public static class MetricsHistory {
+
+        private boolean enabled = true;
+
+        private boolean persist = false;
+
+        @Setting("raw-points")
+        private int rawPoints = 360;
+
+        @Setting("minute-points")
+        private int minutePoints = 720;
+
+        @Setting("hour-points")
+        private int hourPoints = 168;
+
     }
 
 }
\ No newline at end of file
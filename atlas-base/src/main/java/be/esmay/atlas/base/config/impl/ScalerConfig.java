@@ -1,6 +1,8 @@
 package be.esmay.atlas.base.config.impl;
 
 import be.esmay.atlas.base.config.ConfigurateConfig;
+import be.esmay.atlas.base.scaler.MetadataCondition;
+import be.esmay.atlas.base.scaler.MetadataConditionParser;
 import be.esmay.atlas.base.utils.Logger;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -19,11 +21,28 @@ import java.util.Map;
 public final class ScalerConfig extends ConfigurateConfig {
 
     private final Group group;
+    private final MetadataCondition scaleUpMetadataCondition;
+    private final MetadataCondition scaleDownProtectedCondition;
 
+    /**
+     * @throws IllegalArgumentException if a metadata condition in the group file is invalid
+     */
     public ScalerConfig(File file, String fileName) {
         super(file, fileName);
 
         this.group = this.loadOrCreateConfig("group", Group.class);
+
+        Conditions conditions = this.group != null && this.group.getScaling() != null ? this.group.getScaling().getConditions() : null;
+        this.scaleUpMetadataCondition = compileCondition(fileName, "scale-up-metadata-condition", conditions != null ? conditions.getScaleUpMetadataCondition() : null);
+        this.scaleDownProtectedCondition = compileCondition(fileName, "scale-down-protected-condition", conditions != null ? conditions.getScaleDownProtectedCondition() : null);
+    }
+
+    private static MetadataCondition compileCondition(String fileName, String setting, String expression) {
+        try {
+            return MetadataConditionParser.compile(expression);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + setting + " in group file " + fileName + ": " + e.getMessage(), e);
+        }
     }
 
     public void updateAndSave() {
@@ -63,6 +82,29 @@ public final class ScalerConfig extends ConfigurateConfig {
         @Setting("cron-jobs")
         private List<CronJob> cronJobs;
 
+        @Setting("warm-pool")
+        private WarmPool warmPool;
+
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @ConfigSerializable
+    public static class WarmPool {
+
+        @Default
+        private int size = 0;
+
+        @Setting("max-host-cpu-usage")
+        @Default
+        private double maxHostCpuUsage = 0.85;
+
+        @Setting("max-host-memory-usage")
+        @Default
+        private double maxHostMemoryUsage = 0.85;
+
     }
 
     @Data
@@ -110,6 +152,20 @@ public final class ScalerConfig extends ConfigurateConfig {
 
         private Conditions conditions;
 
+        private Predictive predictive;
+
+        @Setting("max-concurrent-starts")
+        @Default
+        private int maxConcurrentStarts = 4;
+
+        @Setting("check-interval")
+        @Default
+        private int checkInterval = 0;
+
+        @Setting("jitter-percent")
+        @Default
+        private int jitterPercent = -1;
+
     }
 
     @Data
@@ -133,6 +189,27 @@ public final class ScalerConfig extends ConfigurateConfig {
 
     }
 
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @ConfigSerializable
+    public static class Predictive {
+
+        @Setting("trend-window-seconds")
+        @Default
+        private int trendWindowSeconds = 300;
+
+        @Setting("seasonal-days")
+        @Default
+        private int seasonalDays = 7;
+
+        @Setting("default-startup-seconds")
+        @Default
+        private int defaultStartupSeconds = 90;
+
+    }
+
     @Data
     @Builder
     @NoArgsConstructor
@@ -14,6 +14,7 @@ import java.util.stream.Stream;
 public final class DirectoryManager {
 
     private static final String SERVERS_DIR = "servers";
+    private static final String OVERLAYS_DIR = "overlays";
 
     public String createServerDirectory(AtlasServer server) {
         try {
@@ -67,7 +68,20 @@ public final class DirectoryManager {
     }
 
 
+    /**
+     * Where the writable layer of a layered server directory lives, next to {@link #SERVERS_DIR}
+     * rather than inside it so the merged view can be mounted on the server directory itself.
+     */
+    public Path getOverlayStatePath(Path serverDirectory) {
+        Path absolute = serverDirectory.toAbsolutePath().normalize();
+        return Paths.get(OVERLAYS_DIR, absolute.getParent().getFileName().toString(), absolute.getFileName().toString());
+    }
+
     public void deleteDirectoryRecursively(Path directory) throws IOException {
+        if (!this.releaseOverlay(directory)) {
+            return;
+        }
+
         this.makeDirectoryTreeWritable(directory);
 
         try (Stream<Path> paths = Files.walk(directory)) {
@@ -81,6 +95,39 @@ public final class DirectoryManager {
         }
     }
 
+    /**
+     * Unmounts a layered directory and drops its writable layer; the template layers are shared
+     * and stay. Returns {@code false} if the directory is still mounted and must not be walked.
+     */
+    private boolean releaseOverlay(Path directory) throws IOException {
+        if (!directory.toAbsolutePath().normalize().startsWith(Paths.get(SERVERS_DIR).toAbsolutePath())) {
+            return true;
+        }
+
+        if (OverlayMounts.isMounted(directory)) {
+            if (!OverlayMounts.unmount(directory)) {
+                Logger.warn("Could not unmount layered directory: " + directory);
+                return false;
+            }
+            Logger.debug("Unmounted layered directory: " + directory);
+        }
+
+        Path statePath = this.getOverlayStatePath(directory);
+        if (Files.exists(statePath)) {
+            this.makeDirectoryTreeWritable(statePath);
+            try (Stream<Path> paths = Files.walk(statePath)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                    try {
+                        Files.delete(path);
+                    } catch (IOException e) {
+                        Logger.warn("Could not delete: " + path + " - " + e.getMessage());
+                    }
+                });
+            }
+        }
+        return true;
+    }
+
     private void makeDirectoryTreeWritable(Path directory) {
         try (Stream<Path> paths = Files.walk(directory)) {
             paths.forEach(path -> path.toFile().setWritable(true));
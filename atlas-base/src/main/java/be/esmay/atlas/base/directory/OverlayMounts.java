@@ -0,0 +1,267 @@
+package be.esmay.atlas.base.directory;
+
+import be.esmay.atlas.base.utils.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Mounts layered server directories with overlayfs, or fuse-overlayfs when the kernel mount is not
+ * permitted. A mode that fails for lack of capability (no permission, no overlay support, no
+ * binary) is not tried again, so callers can fall back to plain copies without paying for a
+ * failing mount on every start. Any other failure only affects the server being mounted.
+ */
+public final class OverlayMounts {
+
+    private static final long COMMAND_TIMEOUT_SECONDS = 30;
+    private static final Path MOUNT_INFO = Paths.get("/proc/self/mountinfo");
+    private static final List<String> CAPABILITY_ERRORS = List.of(
+            "operation not permitted", "must be superuser", "only root", "unknown filesystem type",
+            "no such device", "device not found", "/dev/fuse");
+
+    private static final Map<Path, List<Path>> mountedLayers = new ConcurrentHashMap<>();
+
+    private static volatile boolean kernelOverlayUsable = true;
+    private static volatile boolean fuseOverlayUsable = true;
+
+    private OverlayMounts() {
+    }
+
+    public static boolean isAvailable() {
+        return kernelOverlayUsable || fuseOverlayUsable;
+    }
+
+    /**
+     * Mounts {@code lowerLayers} under a writable {@code upper} layer at {@code merged}. Layers
+     * are given in the order templates are applied, so later layers win.
+     */
+    public static boolean mount(List<Path> lowerLayers, Path upper, Path work, Path merged) {
+        List<String> lowers = new ArrayList<>();
+        for (int i = lowerLayers.size() - 1; i >= 0; i--) {
+            lowers.add(escape(lowerLayers.get(i)));
+        }
+
+        String options = "lowerdir=" + String.join(":", lowers)
+                + ",upperdir=" + escape(upper)
+                + ",workdir=" + escape(work);
+        String target = merged.toAbsolutePath().toString();
+
+        if (kernelOverlayUsable) {
+            CommandResult result = run("mount", "-t", "overlay", "overlay", "-o", options, target);
+            if (result.succeeded()) {
+                registerLayers(merged, lowerLayers);
+                return true;
+            }
+
+            if (result.isCapabilityFailure()) {
+                kernelOverlayUsable = false;
+                Logger.warn("Kernel overlayfs mount is not permitted ({}), trying fuse-overlayfs for layered server directories", result.output());
+            } else {
+                Logger.warn("Kernel overlayfs mount failed for {}: {}", target, result.output());
+            }
+        }
+
+        if (fuseOverlayUsable) {
+            CommandResult result = run("fuse-overlayfs", "-o", options, target);
+            if (result.succeeded()) {
+                registerLayers(merged, lowerLayers);
+                return true;
+            }
+
+            if (result.isCapabilityFailure()) {
+                fuseOverlayUsable = false;
+                Logger.warn("fuse-overlayfs is not available ({}), dynamic servers will use copied templates", result.output());
+            } else {
+                Logger.warn("fuse-overlayfs mount failed for {}: {}", target, result.output());
+            }
+        }
+
+        return false;
+    }
+
+    public static boolean unmount(Path merged) {
+        String target = merged.toAbsolutePath().toString();
+        boolean unmounted = run("umount", target).succeeded() || run("fusermount3", "-u", target).succeeded() || run("fusermount", "-u", target).succeeded();
+        if (unmounted) {
+            mountedLayers.remove(merged.toAbsolutePath().normalize());
+        }
+        return unmounted;
+    }
+
+    /**
+     * Returns the lower layers of every overlay that is currently mounted: those mounted by this
+     * process, plus the lower directories the kernel lists for overlayfs mounts that outlived a
+     * restart.
+     */
+    public static Set<Path> getMountedLayers() {
+        Set<Path> layers = new HashSet<>();
+        mountedLayers.values().forEach(layers::addAll);
+
+        if (!Files.isReadable(MOUNT_INFO)) {
+            return layers;
+        }
+
+        try {
+            for (String line : Files.readAllLines(MOUNT_INFO)) {
+                int separator = line.indexOf(" - ");
+                if (separator < 0) {
+                    continue;
+                }
+
+                String[] fields = line.substring(separator + 3).split(" ");
+                if (fields.length < 3 || !fields[0].equals("overlay")) {
+                    continue;
+                }
+
+                for (String option : splitEscaped(unescapeMountPoint(fields[2]), ',')) {
+                    if (option.startsWith("lowerdir=")) {
+                        for (String lower : splitEscaped(option.substring("lowerdir=".length()), ':')) {
+                            layers.add(Paths.get(lower.replaceAll("\\\\(.)", "$1")).toAbsolutePath().normalize());
+                        }
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            Logger.debug("Failed to read overlay layers from the mount table: {}", e.getMessage());
+        }
+        return layers;
+    }
+
+    private static void registerLayers(Path merged, List<Path> lowerLayers) {
+        mountedLayers.put(merged.toAbsolutePath().normalize(), lowerLayers.stream()
+                .map(layer -> layer.toAbsolutePath().normalize())
+                .toList());
+    }
+
+    public static boolean isMounted(Path directory) {
+        if (!Files.isReadable(MOUNT_INFO) || !Files.isDirectory(directory)) {
+            return false;
+        }
+
+        String target;
+        try {
+            target = directory.toRealPath().toString();
+        } catch (IOException e) {
+            return false;
+        }
+
+        try {
+            for (String line : Files.readAllLines(MOUNT_INFO)) {
+                String[] fields = line.split(" ");
+                if (fields.length > 4 && unescapeMountPoint(fields[4]).equals(target)) {
+                    return true;
+                }
+            }
+        } catch (IOException e) {
+            Logger.debug("Failed to read mount table: {}", e.getMessage());
+        }
+        return false;
+    }
+
+    private static CommandResult run(String... command) {
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            String output;
+            try (InputStream in = process.getInputStream()) {
+                output = new String(in.readAllBytes(), StandardCharsets.UTF_8).trim();
+            }
+
+            if (!process.waitFor(COMMAND_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                Logger.warn("Command timed out: {}", command[0]);
+                return new CommandResult(true, -1, command[0] + " timed out");
+            }
+
+            if (process.exitValue() != 0) {
+                Logger.debug("{} exited with {}: {}", command[0], process.exitValue(), output);
+            }
+            return new CommandResult(true, process.exitValue(), output);
+        } catch (IOException e) {
+            Logger.debug("Could not run {}: {}", command[0], e.getMessage());
+            return new CommandResult(false, -1, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new CommandResult(true, -1, command[0] + " was interrupted");
+        }
+    }
+
+    private static String escape(Path path) {
+        return path.toAbsolutePath().normalize().toString().chars()
+                .mapToObj(c -> c == '\\' || c == ',' || c == ':' ? "\\" + (char) c : String.valueOf((char) c))
+                .collect(Collectors.joining());
+    }
+
+    /**
+     * Splits on {@code delimiter}, skipping delimiters escaped by {@link #escape(Path)}. The escapes
+     * are kept, so the parts can be split again.
+     */
+    private static List<String> splitEscaped(String value, char delimiter) {
+        List<String> parts = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                current.append(c).append(value.charAt(++i));
+            } else if (c == delimiter) {
+                parts.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        parts.add(current.toString());
+        return parts;
+    }
+
+    private static String unescapeMountPoint(String field) {
+        StringBuilder builder = new StringBuilder(field.length());
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == '\\' && i + 3 < field.length()) {
+                builder.append((char) Integer.parseInt(field.substring(i + 1, i + 4), 8));
+                i += 3;
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @param started whether the command could be run at all; a missing binary is not
+     */
+    private record CommandResult(boolean started, int exitCode, String output) {
+
+        boolean succeeded() {
+            return this.started && this.exitCode == 0;
+        }
+
+        /**
+         * Whether the mode cannot work on this host at all, as opposed to a failure caused by the
+         * directories of one server.
+         */
+        boolean isCapabilityFailure() {
+            if (!this.started) {
+                return true;
+            }
+
+            String message = this.output == null ? "" : this.output.toLowerCase(Locale.ROOT);
+            return CAPABILITY_ERRORS.stream().anyMatch(message::contains);
+        }
+
+    }
+
+}
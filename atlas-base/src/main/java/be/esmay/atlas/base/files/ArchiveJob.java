@@ -0,0 +1,84 @@
+package be.esmay.atlas.base.files;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A background archive operation, such as extracting an uploaded zip. Progress is measured in
+ * compressed bytes read from the archive.
+ */
+@Getter
+public final class ArchiveJob {
+
+    private final String id = UUID.randomUUID().toString();
+    private final String type;
+    private final String serverId;
+    private final String source;
+    private final String destination;
+    private final long createdAt = System.currentTimeMillis();
+
+    @Setter
+    private volatile Status status = Status.QUEUED;
+    @Setter
+    private volatile long processedBytes;
+    @Setter
+    private volatile long totalBytes;
+    @Setter
+    private volatile int processedEntries;
+    @Setter
+    private volatile int totalEntries;
+    @Setter
+    private volatile String error;
+    @Setter
+    private volatile long finishedAt;
+    private volatile boolean cancelRequested;
+
+    public ArchiveJob(String type, String serverId, String source, String destination) {
+        this.type = type;
+        this.serverId = serverId;
+        this.source = source;
+        this.destination = destination;
+    }
+
+    public void requestCancel() {
+        this.cancelRequested = true;
+    }
+
+    public boolean isFinished() {
+        return this.status == Status.COMPLETED || this.status == Status.FAILED || this.status == Status.CANCELLED;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("jobId", this.id);
+        data.put("type", this.type);
+        data.put("status", this.status.name());
+        data.put("source", this.source);
+        data.put("destination", this.destination);
+        data.put("processedBytes", this.processedBytes);
+        data.put("totalBytes", this.totalBytes);
+        data.put("processedEntries", this.processedEntries);
+        data.put("totalEntries", this.totalEntries);
+        data.put("progress", this.totalBytes > 0 ? Math.min(100.0, this.processedBytes * 100.0 / this.totalBytes) : (this.isFinished() ? 100.0 : 0.0));
+        if (this.serverId != null) {
+            data.put("serverId", this.serverId);
+        }
+        if (this.error != null) {
+            data.put("error", this.error);
+        }
+        return data;
+    }
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        CANCELLED
+    }
+
+}
@@ -0,0 +1,134 @@
+package be.esmay.atlas.base.files;
+
+import be.esmay.atlas.base.utils.Logger;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs archive jobs in the background, at most {@link #MAX_CONCURRENT_JOBS} at a time, and keeps
+ * finished jobs around for a while so their outcome can still be queried.
+ */
+public final class ArchiveJobManager {
+
+    private static final int MAX_CONCURRENT_JOBS = 2;
+    private static final long PROGRESS_INTERVAL_MS = 500;
+    private static final long FINISHED_RETENTION_MS = 60 * 60 * 1000L;
+
+    private final ZipArchiver archiver;
+    private final Map<String, ArchiveJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicInteger threadCounter = new AtomicInteger();
+    private final ExecutorService executor = Executors.newFixedThreadPool(MAX_CONCURRENT_JOBS, r -> {
+        Thread thread = new Thread(r, "Atlas-Archive-" + this.threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ArchiveJobManager(ZipArchiver archiver) {
+        this.archiver = archiver;
+    }
+
+    /**
+     * Extracts {@code zipFile} into {@code destination} in the background. The listener is called
+     * when the job starts, on progress at most every {@value #PROGRESS_INTERVAL_MS} ms, and when it
+     * finishes.
+     */
+    public ArchiveJob submitUnzip(String serverId, Path zipFile, Path destination, String source, String destinationLabel, Consumer<ArchiveJob> listener) {
+        this.pruneFinished();
+
+        ArchiveJob job = new ArchiveJob("unzip", serverId, source, destinationLabel);
+        this.jobs.put(job.getId(), job);
+
+        this.executor.execute(() -> {
+            if (job.isCancelRequested()) {
+                this.finish(job, ArchiveJob.Status.CANCELLED, null, listener);
+                return;
+            }
+
+            job.setStatus(ArchiveJob.Status.RUNNING);
+            this.notify(listener, job);
+
+            long[] lastReport = {System.currentTimeMillis()};
+            try {
+                ZipArchiver.Result result = this.archiver.extract(zipFile, destination, (processedBytes, totalBytes, processedEntries, totalEntries) -> {
+                    job.setProcessedBytes(processedBytes);
+                    job.setTotalBytes(totalBytes);
+                    job.setProcessedEntries(processedEntries);
+                    job.setTotalEntries(totalEntries);
+
+                    long now = System.currentTimeMillis();
+                    if (now - lastReport[0] >= PROGRESS_INTERVAL_MS) {
+                        lastReport[0] = now;
+                        this.notify(listener, job);
+                    }
+                }, job::isCancelRequested);
+
+                Logger.info("Successfully extracted {} files ({} bytes) from {}", result.files(), result.bytes(), source);
+                this.finish(job, ArchiveJob.Status.COMPLETED, null, listener);
+            } catch (CancellationException e) {
+                Logger.info("Extraction of {} was cancelled", source);
+                this.finish(job, ArchiveJob.Status.CANCELLED, null, listener);
+            } catch (Exception e) {
+                Logger.error("Failed to unzip {}", source, e);
+                this.finish(job, ArchiveJob.Status.FAILED, e.getMessage(), listener);
+            }
+        });
+
+        return job;
+    }
+
+    public Optional<ArchiveJob> getJob(String jobId) {
+        return Optional.ofNullable(this.jobs.get(jobId));
+    }
+
+    /**
+     * Requests cancellation of a job. Returns {@code false} if the job does not exist or already
+     * finished. Files extracted before the cancellation are kept.
+     */
+    public boolean cancel(String jobId) {
+        ArchiveJob job = this.jobs.get(jobId);
+        if (job == null || job.isFinished()) {
+            return false;
+        }
+
+        job.requestCancel();
+        return true;
+    }
+
+    public void shutdown() {
+        this.jobs.values().forEach(ArchiveJob::requestCancel);
+        this.executor.shutdownNow();
+    }
+
+    private void finish(ArchiveJob job, ArchiveJob.Status status, String error, Consumer<ArchiveJob> listener) {
+        job.setError(error);
+        job.setFinishedAt(System.currentTimeMillis());
+        job.setStatus(status);
+        this.notify(listener, job);
+    }
+
+    private void notify(Consumer<ArchiveJob> listener, ArchiveJob job) {
+        if (listener == null) {
+            return;
+        }
+
+        try {
+            listener.accept(job);
+        } catch (Exception e) {
+            Logger.debug("Failed to report progress of archive job {}: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private void pruneFinished() {
+        long cutoff = System.currentTimeMillis() - FINISHED_RETENTION_MS;
+        this.jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt() < cutoff);
+    }
+
+}
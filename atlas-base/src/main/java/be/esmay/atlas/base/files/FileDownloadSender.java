@@ -0,0 +1,179 @@
+package be.esmay.atlas.base.files;
+
+import be.esmay.atlas.base.utils.Logger;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Sends a file as a download with {@link HttpServerResponse#sendFile}, so the content is copied
+ * by the kernel and never held in memory.
+ *
+ * <p>Supports conditional requests through {@code ETag}/{@code If-None-Match} and
+ * {@code Last-Modified}/{@code If-Modified-Since}, and resumable downloads through a single
+ * {@code Range}, optionally guarded by {@code If-Range}.
+ */
+public final class FileDownloadSender {
+
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+
+    public void send(RoutingContext context, Path file, String fileName) throws IOException {
+        HttpServerRequest request = context.request();
+        HttpServerResponse response = context.response();
+
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long size = attributes.size();
+        long lastModifiedSeconds = attributes.lastModifiedTime().toInstant().getEpochSecond();
+        String etag = "\"" + Long.toHexString(size) + "-" + Long.toHexString(attributes.lastModifiedTime().toMillis()) + "\"";
+        String lastModified = HTTP_DATE.format(Instant.ofEpochSecond(lastModifiedSeconds));
+
+        response.putHeader("ETag", etag)
+                .putHeader("Last-Modified", lastModified)
+                .putHeader("Accept-Ranges", "bytes");
+
+        if (this.isNotModified(request, etag, lastModifiedSeconds)) {
+            response.setStatusCode(304).end();
+            return;
+        }
+
+        response.putHeader("Content-Type", this.probeContentType(file))
+                .putHeader("Content-Disposition", "attachment; filename=\"" + fileName.replace("\"", "") + "\"");
+
+        String rangeHeader = request.getHeader("Range");
+        if (rangeHeader == null || !this.rangeStillValid(request.getHeader("If-Range"), etag, lastModifiedSeconds)) {
+            this.sendFile(response, file, 0, size);
+            return;
+        }
+
+        long[] range = this.parseRange(rangeHeader, size);
+        if (range == null) {
+            this.sendFile(response, file, 0, size);
+            return;
+        }
+
+        if (range.length == 0) {
+            response.setStatusCode(416)
+                    .putHeader("Content-Range", "bytes */" + size)
+                    .end();
+            return;
+        }
+
+        long start = range[0];
+        long end = range[1];
+        response.setStatusCode(206)
+                .putHeader("Content-Range", "bytes " + start + "-" + end + "/" + size);
+        this.sendFile(response, file, start, end - start + 1);
+    }
+
+    private void sendFile(HttpServerResponse response, Path file, long offset, long length) {
+        response.sendFile(file.toString(), offset, length)
+                .onFailure(throwable -> Logger.debug("File download of {} ended early: {}", file, throwable.getMessage()));
+    }
+
+    private boolean isNotModified(HttpServerRequest request, String etag, long lastModifiedSeconds) {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            return this.matchesEtag(ifNoneMatch, etag);
+        }
+
+        Long ifModifiedSince = this.parseHttpDate(request.getHeader("If-Modified-Since"));
+        return ifModifiedSince != null && lastModifiedSeconds <= ifModifiedSince;
+    }
+
+    private boolean rangeStillValid(String ifRange, String etag, long lastModifiedSeconds) {
+        if (ifRange == null) {
+            return true;
+        }
+
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.trim().equals(etag);
+        }
+
+        Long date = this.parseHttpDate(ifRange);
+        return date != null && date == lastModifiedSeconds;
+    }
+
+    private boolean matchesEtag(String header, String etag) {
+        for (String candidate : header.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag) || value.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses a single byte range. Returns {@code null} if the header should be ignored, an empty
+     * array if the range cannot be satisfied, or the inclusive start and end offsets.
+     */
+    private long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+
+        try {
+            String startPart = spec.substring(0, dash).trim();
+            String endPart = spec.substring(dash + 1).trim();
+
+            if (startPart.isEmpty()) {
+                if (endPart.isEmpty()) {
+                    return null;
+                }
+
+                long suffix = Long.parseLong(endPart);
+                if (suffix <= 0 || size == 0) {
+                    return new long[0];
+                }
+                return new long[]{Math.max(0, size - suffix), size - 1};
+            }
+
+            long start = Long.parseLong(startPart);
+            long end = endPart.isEmpty() ? size - 1 : Math.min(Long.parseLong(endPart), size - 1);
+            if (start >= size || start > end) {
+                return new long[0];
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Long parseHttpDate(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toEpochSecond();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private String probeContentType(Path file) {
+        try {
+            String contentType = Files.probeContentType(file);
+            return contentType != null ? contentType : "application/octet-stream";
+        } catch (Exception e) {
+            return "application/octet-stream";
+        }
+    }
+
+}
@@ -0,0 +1,51 @@
+package be.esmay.atlas.base.files;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded worker pool for blocking file-system work done on behalf of API requests, so it never
+ * runs on a Vert.x event loop. When both the threads and the queue are busy, new tasks are rejected
+ * instead of piling up.
+ */
+public final class FileIoExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger threadCounter = new AtomicInteger();
+
+    public FileIoExecutor(int threads, int queueCapacity) {
+        int poolSize = Math.max(1, threads);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), r -> {
+                    Thread thread = new Thread(r, "Atlas-FileIO-" + this.threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Queues a task.
+     *
+     * @throws RejectedExecutionException if the pool and its queue are full
+     */
+    public void execute(Runnable task) {
+        this.executor.execute(task);
+    }
+
+    public int getActiveCount() {
+        return this.executor.getActiveCount();
+    }
+
+    public int getQueuedCount() {
+        return this.executor.getQueue().size();
+    }
+
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+
+}
@@ -1,17 +1,23 @@
 package be.esmay.atlas.base.files;
 
+import be.esmay.atlas.base.api.dto.FileContentPage;
 import be.esmay.atlas.base.api.dto.FileInfo;
 import be.esmay.atlas.base.api.dto.FileListResponse;
 import be.esmay.atlas.base.api.dto.UploadSession;
 import be.esmay.atlas.base.utils.Logger;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
 import io.vertx.core.streams.ReadStream;
 import io.vertx.ext.web.RoutingContext;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
@@ -21,17 +27,29 @@ import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
-import java.util.zip.ZipOutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
 public final class FileManager {
     
     private static final String TEMPLATES_DIR = "templates";
+    public static final int MAX_CONTENT_PAGE_SIZE = 1024 * 1024;
     private final Map<String, UploadSession> uploadSessions = new ConcurrentHashMap<>();
+    private final FileDownloadSender downloadSender = new FileDownloadSender();
+    private final ZipArchiver archiver = new ZipArchiver();
+    private final ArchiveJobManager archiveJobs = new ArchiveJobManager(this.archiver);
+    private final ExecutorService streamExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final FileIoExecutor ioExecutor;
+
+    public FileManager(FileIoExecutor ioExecutor) {
+        this.ioExecutor = ioExecutor;
+    }
 
     public FileListResponse listFiles(String workingDirectory, String requestedPath) throws Exception {
         this.validateWorkingDirectory(workingDirectory);
@@ -73,7 +91,11 @@ public final class FileManager {
             .build();
     }
 
-    public String readFileContents(String workingDirectory, String requestedFilePath) throws Exception {
+    /**
+     * Reads up to {@code length} bytes of a file starting at {@code offset}, capped at
+     * {@link #MAX_CONTENT_PAGE_SIZE}. Use {@link FileContentPage#getNextOffset()} to continue.
+     */
+    public FileContentPage readFileContents(String workingDirectory, String requestedFilePath, long offset, int length) throws Exception {
         this.validateWorkingDirectory(workingDirectory);
         
         Path serverBasePath = Paths.get(workingDirectory).toAbsolutePath().normalize();
@@ -90,7 +112,7 @@ public final class FileManager {
         }
 
         try {
-            return Files.readString(targetPath);
+            return this.readContentPage(targetPath, offset, length);
         } catch (Exception e) {
             throw new RuntimeException("Failed to read file contents: " + e.getMessage(), e);
         }
@@ -110,6 +132,7 @@ public final class FileManager {
         }
 
         try {
+            this.detachHardlink(targetPath);
             Files.writeString(targetPath, content);
         } catch (Exception e) {
             throw new RuntimeException("Failed to write file contents: " + e.getMessage(), e);
@@ -169,26 +192,9 @@ public final class FileManager {
 
         String fileName = targetPath.getFileName().toString();
 
-        String contentType;
-        try {
-            contentType = Files.probeContentType(targetPath);
-            if (contentType == null) {
-                contentType = "application/octet-stream";
-            }
-        } catch (Exception e) {
-            contentType = "application/octet-stream";
-        }
-
         try {
-            byte[] fileBytes = Files.readAllBytes(targetPath);
-            
-            context.response()
-                .putHeader("Content-Type", contentType)
-                .putHeader("Content-Disposition", "attachment; filename=\"" + fileName + "\"")
-                .putHeader("Content-Length", String.valueOf(fileBytes.length))
-                .end(io.vertx.core.buffer.Buffer.buffer(fileBytes));
-                
-        } catch (Exception e) {
+            this.downloadSender.send(context, targetPath, fileName);
+        } catch (IOException e) {
             throw new RuntimeException("Failed to read file for download: " + e.getMessage(), e);
         }
 
@@ -216,6 +222,7 @@ public final class FileManager {
         final long maxFileSize = 8L * 1024 * 1024 * 1024; // 8GB limit
         
         try {
+            this.detachHardlink(targetFilePath);
             FileChannel fileChannel = FileChannel.open(targetFilePath, 
                 StandardOpenOption.CREATE, 
                 StandardOpenOption.WRITE, 
@@ -224,29 +231,46 @@ public final class FileManager {
             final long[] totalBytesWritten = {0};
             
             bodyStream.handler(buffer -> {
+                // Each write runs on the file I/O pool; the body stays paused until it is done.
+                bodyStream.pause();
                 try {
-                    if (totalBytesWritten[0] + buffer.length() > maxFileSize) {
+                    this.ioExecutor.execute(() -> {
                         try {
-                            fileChannel.close();
-                            Files.deleteIfExists(targetFilePath);
+                            if (totalBytesWritten[0] + buffer.length() > maxFileSize) {
+                                try {
+                                    fileChannel.close();
+                                    Files.deleteIfExists(targetFilePath);
+                                } catch (IOException e) {
+                                    Logger.error("Failed to cleanup after size limit exceeded", e);
+                                }
+                                future.completeExceptionally(new RuntimeException("File size exceeds maximum limit of 8GB"));
+                                return;
+                            }
+
+                            ByteBuffer data = buffer.getByteBuf().nioBuffer();
+                            while (data.hasRemaining()) {
+                                totalBytesWritten[0] += fileChannel.write(data);
+                            }
+                            bodyStream.resume();
                         } catch (IOException e) {
-                            Logger.error("Failed to cleanup after size limit exceeded", e);
+                            Logger.error("Failed to write chunk to file: " + targetPath, e);
+                            try {
+                                fileChannel.close();
+                                Files.deleteIfExists(targetFilePath);
+                            } catch (IOException closeEx) {
+                                Logger.error("Failed to close file channel", closeEx);
+                            }
+                            future.completeExceptionally(new RuntimeException("Failed to write to file: " + e.getMessage(), e));
                         }
-                        future.completeExceptionally(new RuntimeException("File size exceeds maximum limit of 8GB"));
-                        return;
-                    }
-
-                    int bytesWritten = fileChannel.write(buffer.getByteBuf().nioBuffer());
-                    totalBytesWritten[0] += bytesWritten;
-                } catch (IOException e) {
-                    Logger.error("Failed to write chunk to file: " + targetPath, e);
+                    });
+                } catch (RejectedExecutionException e) {
                     try {
                         fileChannel.close();
                         Files.deleteIfExists(targetFilePath);
                     } catch (IOException closeEx) {
                         Logger.error("Failed to close file channel", closeEx);
                     }
-                    future.completeExceptionally(new RuntimeException("Failed to write to file: " + e.getMessage(), e));
+                    future.completeExceptionally(new RuntimeException("File I/O queue is full, try again later"));
                 }
             });
             
@@ -270,6 +294,7 @@ public final class FileManager {
                 future.completeExceptionally(new RuntimeException("Upload failed: " + throwable.getMessage(), throwable));
             });
             
+            bodyStream.resume();
         } catch (Exception e) {
             future.completeExceptionally(new RuntimeException("Failed to open file for upload: " + e.getMessage(), e));
         }
@@ -364,65 +389,69 @@ public final class FileManager {
             resolvedPaths.add(resolved);
         }
         
-        final long[] totalBytesCompressed = {0};
-        long maxCompressedSize = 8L * 1024 * 1024 * 1024; // 8GB limit
-        final int[] filesCompressed = {0};
-        
-        try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(zipPath))) {
-            for (Path sourcePath : resolvedPaths) {
-                if (Files.isDirectory(sourcePath)) {
-                    Files.walk(sourcePath)
-                        .filter(path -> !Files.isDirectory(path))
-                        .forEach(path -> {
-                            try {
-                                Path relativePath = currentWorkingPath.relativize(path);
-                                ZipEntry entry = new ZipEntry(relativePath.toString().replace("\\", "/"));
-                                zos.putNextEntry(entry);
-                                
-                                byte[] bytes = Files.readAllBytes(path);
-                                totalBytesCompressed[0] += bytes.length;
-                                filesCompressed[0]++;
-                                
-                                if (totalBytesCompressed[0] > maxCompressedSize) {
-                                    throw new RuntimeException("Compressed size exceeds maximum limit of 8GB");
-                                }
-                                
-                                zos.write(bytes);
-                                zos.closeEntry();
-                            } catch (IOException e) {
-                                throw new RuntimeException("Failed to add file to zip: " + path, e);
-                            }
-                        });
-                } else {
-                    Path relativePath = currentWorkingPath.relativize(sourcePath);
-                    ZipEntry entry = new ZipEntry(relativePath.toString().replace("\\", "/"));
-                    zos.putNextEntry(entry);
-                    
-                    byte[] bytes = Files.readAllBytes(sourcePath);
-                    totalBytesCompressed[0] += bytes.length;
-                    
-                    if (totalBytesCompressed[0] > maxCompressedSize) {
-                        throw new RuntimeException("Compressed size exceeds maximum limit of 8GB");
-                    }
-                    
-                    zos.write(bytes);
-                    zos.closeEntry();
-                    filesCompressed[0]++;
-                }
-            }
+        ZipArchiver.Result result;
+        try (OutputStream out = Files.newOutputStream(zipPath)) {
+            result = this.archiver.writeZip(currentWorkingPath, resolvedPaths, out, zipPath, () -> false);
         } catch (Exception e) {
             Files.deleteIfExists(zipPath);
             throw new RuntimeException("Failed to create zip file: " + e.getMessage(), e);
         }
         
-        Logger.info("Successfully created zip file {} with {} files ({} bytes)", zipFilePath, filesCompressed[0], totalBytesCompressed[0]);
+        Logger.info("Successfully created zip file {} with {} files ({} bytes)", zipFilePath, result.files(), result.bytes());
     }
 
     public void zipFiles(String workingDirectory, List<String> sourcePaths, String zipFilePath) throws Exception {
         this.zipFiles(workingDirectory, sourcePaths, zipFilePath, null);
     }
 
+    /**
+     * Streams the sources as a zip straight into the response, without creating the archive on
+     * disk. Paths are validated before anything is sent.
+     */
+    public void streamZip(RoutingContext context, String workingDirectory, List<String> sourcePaths, String workingPath, String fileName) throws Exception {
+        this.validateWorkingDirectory(workingDirectory);
+        
+        Path serverBasePath = Paths.get(workingDirectory).toAbsolutePath().normalize();
+        Path currentWorkingPath = this.resolvePath(serverBasePath, workingPath != null ? workingPath : "/");
+        this.validatePathWithinServer(currentWorkingPath, serverBasePath);
+        
+        List<Path> resolvedPaths = new ArrayList<>();
+        for (String sourcePath : sourcePaths) {
+            Path resolved = this.resolvePath(currentWorkingPath, sourcePath);
+            this.validatePathWithinServer(resolved, serverBasePath);
+            
+            if (!Files.exists(resolved)) {
+                throw new IllegalArgumentException("Source path does not exist: " + sourcePath);
+            }
+            resolvedPaths.add(resolved);
+        }
+        
+        this.streamZipResponse(context, currentWorkingPath, resolvedPaths, fileName);
+    }
+
     public void unzipFile(String workingDirectory, String zipFilePath, String destinationPath, String workingPath) throws Exception {
+        Path[] paths = this.resolveUnzipPaths(workingDirectory, zipFilePath, destinationPath, workingPath);
+        
+        ZipArchiver.Result result;
+        try {
+            result = this.archiver.extract(paths[0], paths[1], null, () -> false);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to unzip file: " + e.getMessage(), e);
+        }
+        
+        Logger.info("Successfully extracted {} files ({} bytes) from {}", result.files(), result.bytes(), zipFilePath);
+    }
+
+    /**
+     * Validates the paths and extracts the zip in the background. The listener receives the job
+     * as it progresses.
+     */
+    public ArchiveJob startUnzip(String workingDirectory, String serverId, String zipFilePath, String destinationPath, String workingPath, Consumer<ArchiveJob> listener) throws Exception {
+        Path[] paths = this.resolveUnzipPaths(workingDirectory, zipFilePath, destinationPath, workingPath);
+        return this.archiveJobs.submitUnzip(serverId, paths[0], paths[1], zipFilePath, destinationPath, listener);
+    }
+
+    private Path[] resolveUnzipPaths(String workingDirectory, String zipFilePath, String destinationPath, String workingPath) throws Exception {
         this.validateWorkingDirectory(workingDirectory);
         
         Path serverBasePath = Paths.get(workingDirectory).toAbsolutePath().normalize();
@@ -451,76 +480,7 @@ public final class FileManager {
             throw new IllegalArgumentException("Destination is not a directory: " + destinationPath);
         }
         
-        long totalBytesExtracted = 0;
-        long maxExtractedSize = 8L * 1024 * 1024 * 1024; // 8GB limit
-        int filesExtracted = 0;
-        int maxFiles = 10000; // Maximum number of files to extract
-        
-        try (ZipInputStream zis = new ZipInputStream(Files.newInputStream(zipPath))) {
-            ZipEntry entry;
-            
-            while ((entry = zis.getNextEntry()) != null) {
-                if (filesExtracted >= maxFiles) {
-                    throw new RuntimeException("Zip file contains too many entries (max " + maxFiles + ")");
-                }
-                
-                String entryName = entry.getName();
-                
-                if (entryName.contains("..") || entryName.startsWith("/")) {
-                    Logger.warn("Skipping potentially malicious zip entry: {}", entryName);
-                    continue;
-                }
-                
-                Path entryPath = destPath.resolve(entryName).normalize();
-                
-                if (!entryPath.startsWith(destPath)) {
-                    Logger.warn("Skipping zip entry with path traversal: {}", entryName);
-                    continue;
-                }
-                
-                this.validatePathWithinServer(entryPath, serverBasePath);
-                
-                if (entry.isDirectory()) {
-                    Files.createDirectories(entryPath);
-                } else {
-                    Path parentDir = entryPath.getParent();
-                    if (parentDir != null && !Files.exists(parentDir)) {
-                        Files.createDirectories(parentDir);
-                    }
-                    
-                    try (var outputStream = Files.newOutputStream(entryPath)) {
-                        byte[] buffer = new byte[8192];
-                        int bytesRead;
-                        long entryBytesWritten = 0;
-                        long maxEntrySize = 1024L * 1024 * 1024; // 1GB per file limit
-                        
-                        while ((bytesRead = zis.read(buffer)) != -1) {
-                            entryBytesWritten += bytesRead;
-                            totalBytesExtracted += bytesRead;
-                            
-                            if (entryBytesWritten > maxEntrySize) {
-                                Files.deleteIfExists(entryPath);
-                                throw new RuntimeException("Zip entry '" + entryName + "' exceeds maximum size of 1GB");
-                            }
-                            
-                            if (totalBytesExtracted > maxExtractedSize) {
-                                Files.deleteIfExists(entryPath);
-                                throw new RuntimeException("Total extracted size exceeds maximum limit of 8GB");
-                            }
-                            
-                            outputStream.write(buffer, 0, bytesRead);
-                        }
-                    }
-                }
-                
-                filesExtracted++;
-                zis.closeEntry();
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to unzip file: " + e.getMessage(), e);
-        }
-        
-        Logger.info("Successfully extracted {} files ({} bytes) from {}", filesExtracted, totalBytesExtracted, zipFilePath);
+        return new Path[]{zipPath, destPath};
     }
 
     public void unzipFile(String workingDirectory, String zipFilePath, String destinationPath) throws Exception {
@@ -566,6 +526,25 @@ public final class FileManager {
         return serverBasePath.resolve(normalizedPath).normalize();
     }
     
+    /**
+     * Template files are hardlinked into server directories, so writing into one in place would
+     * change every server sharing it. Such a file is unlinked first and written fresh.
+     */
+    private void detachHardlink(Path file) throws IOException {
+        if (!Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+
+        try {
+            Object links = Files.getAttribute(file, "unix:nlink", LinkOption.NOFOLLOW_LINKS);
+            if (links instanceof Integer count && count > 1) {
+                Files.delete(file);
+            }
+        } catch (UnsupportedOperationException e) {
+            Logger.debug("Link count not available for {}", file);
+        }
+    }
+    
     private void validatePathWithinServer(Path targetPath, Path serverBasePath) {
         if (!targetPath.startsWith(serverBasePath)) {
             throw new SecurityException("Path traversal detected: requested path is outside server directory");
@@ -573,11 +552,19 @@ public final class FileManager {
     }
     
     private FileInfo createFileInfo(Path filePath) throws Exception {
-        BasicFileAttributes attrs = Files.readAttributes(filePath, BasicFileAttributes.class);
+        // One stat per entry; only symlinks need a second one to describe their target.
+        BasicFileAttributes attrs = Files.readAttributes(filePath, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        boolean isSymlink = attrs.isSymbolicLink();
+        if (isSymlink) {
+            try {
+                attrs = Files.readAttributes(filePath, BasicFileAttributes.class);
+            } catch (IOException e) {
+                Logger.debug("Failed to resolve symlink target of {}: {}", filePath, e.getMessage());
+            }
+        }
         
         String fileName = filePath.getFileName().toString();
         boolean isDirectory = attrs.isDirectory();
-        boolean isSymlink = attrs.isSymbolicLink();
 
         Long fileSize = isDirectory ? null : attrs.size();
 
@@ -701,6 +688,7 @@ public final class FileManager {
         
         long totalSize = 0;
         
+        this.detachHardlink(targetFilePath);
         try (FileChannel outputChannel = FileChannel.open(targetFilePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
             for (int i = 0; i < session.getTotalChunks(); i++) {
                 Path chunkFile = this.getChunkFile(uploadId, i);
@@ -792,7 +780,7 @@ public final class FileManager {
             .build();
     }
 
-    public String readTemplateFileContents(String requestedFilePath) throws Exception {
+    public FileContentPage readTemplateFileContents(String requestedFilePath, long offset, int length) throws Exception {
         Path templatesBasePath = Paths.get(TEMPLATES_DIR).toAbsolutePath().normalize();
         Path targetPath = this.resolveTemplatePath(templatesBasePath, requestedFilePath);
         
@@ -807,12 +795,59 @@ public final class FileManager {
         }
 
         try {
-            return Files.readString(targetPath);
+            return this.readContentPage(targetPath, offset, length);
         } catch (Exception e) {
             throw new RuntimeException("Failed to read template file contents: " + e.getMessage(), e);
         }
     }
 
+    private FileContentPage readContentPage(Path file, long offset, int length) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long start = Math.min(Math.max(0, offset), fileSize);
+            int requested = length <= 0 ? MAX_CONTENT_PAGE_SIZE : Math.min(length, MAX_CONTENT_PAGE_SIZE);
+            int toRead = (int) Math.min(requested, fileSize - start);
+
+            ByteBuffer buffer = ByteBuffer.allocate(toRead);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0) {
+                    break;
+                }
+            }
+
+            byte[] bytes = buffer.array();
+            int read = buffer.position();
+            if (start + read < fileSize) {
+                read = this.trimToCharBoundary(bytes, read);
+            }
+
+            return FileContentPage.builder()
+                .content(new String(bytes, 0, read, StandardCharsets.UTF_8))
+                .offset(start)
+                .length(read)
+                .fileSize(fileSize)
+                .build();
+        }
+    }
+
+    /**
+     * Drops a UTF-8 sequence cut off at the end of a page, so it is decoded whole on the next one.
+     */
+    private int trimToCharBoundary(byte[] bytes, int length) {
+        int lead = length - 1;
+        while (lead >= 0 && length - lead < 4 && (bytes[lead] & 0xC0) == 0x80) {
+            lead--;
+        }
+
+        if (lead < 0) {
+            return length;
+        }
+
+        int b = bytes[lead] & 0xFF;
+        int expected = b >= 0xF0 ? 4 : b >= 0xE0 ? 3 : b >= 0xC0 ? 2 : 1;
+        return length - lead < expected ? lead : length;
+    }
+
     public void writeTemplateFileContents(String requestedFilePath, String content) throws Exception {
         Path templatesBasePath = Paths.get(TEMPLATES_DIR).toAbsolutePath().normalize();
         
@@ -880,26 +915,9 @@ public final class FileManager {
 
         String fileName = targetPath.getFileName().toString();
 
-        String contentType;
         try {
-            contentType = Files.probeContentType(targetPath);
-            if (contentType == null) {
-                contentType = "application/octet-stream";
-            }
-        } catch (Exception e) {
-            contentType = "application/octet-stream";
-        }
-
-        try {
-            byte[] fileBytes = Files.readAllBytes(targetPath);
-            
-            context.response()
-                .putHeader("Content-Type", contentType)
-                .putHeader("Content-Disposition", "attachment; filename=\"" + fileName + "\"")
-                .putHeader("Content-Length", String.valueOf(fileBytes.length))
-                .end(io.vertx.core.buffer.Buffer.buffer(fileBytes));
-                
-        } catch (Exception e) {
+            this.downloadSender.send(context, targetPath, fileName);
+        } catch (IOException e) {
             throw new RuntimeException("Failed to read template file for download: " + e.getMessage(), e);
         }
     }
@@ -935,29 +953,46 @@ public final class FileManager {
             final long[] totalBytesWritten = {0};
             
             bodyStream.handler(buffer -> {
+                // Each write runs on the file I/O pool; the body stays paused until it is done.
+                bodyStream.pause();
                 try {
-                    if (totalBytesWritten[0] + buffer.length() > maxFileSize) {
+                    this.ioExecutor.execute(() -> {
                         try {
-                            fileChannel.close();
-                            Files.deleteIfExists(targetFilePath);
+                            if (totalBytesWritten[0] + buffer.length() > maxFileSize) {
+                                try {
+                                    fileChannel.close();
+                                    Files.deleteIfExists(targetFilePath);
+                                } catch (IOException e) {
+                                    Logger.error("Failed to cleanup after size limit exceeded", e);
+                                }
+                                future.completeExceptionally(new RuntimeException("File size exceeds maximum limit of 8GB"));
+                                return;
+                            }
+
+                            ByteBuffer data = buffer.getByteBuf().nioBuffer();
+                            while (data.hasRemaining()) {
+                                totalBytesWritten[0] += fileChannel.write(data);
+                            }
+                            bodyStream.resume();
                         } catch (IOException e) {
-                            Logger.error("Failed to cleanup after size limit exceeded", e);
+                            Logger.error("Failed to write chunk to template file: " + targetPath, e);
+                            try {
+                                fileChannel.close();
+                                Files.deleteIfExists(targetFilePath);
+                            } catch (IOException closeEx) {
+                                Logger.error("Failed to close file channel", closeEx);
+                            }
+                            future.completeExceptionally(new RuntimeException("Failed to write to template file: " + e.getMessage(), e));
                         }
-                        future.completeExceptionally(new RuntimeException("File size exceeds maximum limit of 8GB"));
-                        return;
-                    }
-
-                    int bytesWritten = fileChannel.write(buffer.getByteBuf().nioBuffer());
-                    totalBytesWritten[0] += bytesWritten;
-                } catch (IOException e) {
-                    Logger.error("Failed to write chunk to template file: " + targetPath, e);
+                    });
+                } catch (RejectedExecutionException e) {
                     try {
                         fileChannel.close();
                         Files.deleteIfExists(targetFilePath);
                     } catch (IOException closeEx) {
                         Logger.error("Failed to close file channel", closeEx);
                     }
-                    future.completeExceptionally(new RuntimeException("Failed to write to template file: " + e.getMessage(), e));
+                    future.completeExceptionally(new RuntimeException("File I/O queue is full, try again later"));
                 }
             });
             
@@ -980,6 +1015,7 @@ public final class FileManager {
                 future.completeExceptionally(new RuntimeException("Template upload failed: " + throwable.getMessage(), throwable));
             });
             
+            bodyStream.resume();
         } catch (Exception e) {
             future.completeExceptionally(new RuntimeException("Failed to open template file for upload: " + e.getMessage(), e));
         }
@@ -1071,61 +1107,36 @@ public final class FileManager {
             resolvedPaths.add(resolved);
         }
         
-        final long[] totalBytesCompressed = {0};
-        long maxCompressedSize = 8L * 1024 * 1024 * 1024; // 8GB limit
-        final int[] filesCompressed = {0};
-        
-        try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(zipPath))) {
-            for (Path sourcePath : resolvedPaths) {
-                if (Files.isDirectory(sourcePath)) {
-                    Files.walk(sourcePath)
-                        .filter(path -> !Files.isDirectory(path))
-                        .forEach(path -> {
-                            try {
-                                Path relativePath = templatesBasePath.relativize(path);
-                                ZipEntry entry = new ZipEntry(relativePath.toString().replace("\\", "/"));
-                                zos.putNextEntry(entry);
-                                
-                                byte[] bytes = Files.readAllBytes(path);
-                                totalBytesCompressed[0] += bytes.length;
-                                filesCompressed[0]++;
-                                
-                                if (totalBytesCompressed[0] > maxCompressedSize) {
-                                    throw new RuntimeException("Template compressed size exceeds maximum limit of 8GB");
-                                }
-                                
-                                zos.write(bytes);
-                                zos.closeEntry();
-                            } catch (IOException e) {
-                                throw new RuntimeException("Failed to add template file to zip: " + path, e);
-                            }
-                        });
-                } else {
-                    Path relativePath = templatesBasePath.relativize(sourcePath);
-                    ZipEntry entry = new ZipEntry(relativePath.toString().replace("\\", "/"));
-                    zos.putNextEntry(entry);
-                    
-                    byte[] bytes = Files.readAllBytes(sourcePath);
-                    totalBytesCompressed[0] += bytes.length;
-                    
-                    if (totalBytesCompressed[0] > maxCompressedSize) {
-                        throw new RuntimeException("Template compressed size exceeds maximum limit of 8GB");
-                    }
-                    
-                    zos.write(bytes);
-                    zos.closeEntry();
-                    filesCompressed[0]++;
-                }
-            }
+        ZipArchiver.Result result;
+        try (OutputStream out = Files.newOutputStream(zipPath)) {
+            result = this.archiver.writeZip(templatesBasePath, resolvedPaths, out, zipPath, () -> false);
         } catch (Exception e) {
             Files.deleteIfExists(zipPath);
             throw new RuntimeException("Failed to create template zip file: " + e.getMessage(), e);
         }
         
-        Logger.info("Successfully created template zip file {} with {} files ({} bytes)", zipFilePath, filesCompressed[0], totalBytesCompressed[0]);
+        Logger.info("Successfully created template zip file {} with {} files ({} bytes)", zipFilePath, result.files(), result.bytes());
     }
 
     public void unzipTemplateFile(String zipFilePath, String destinationPath) throws Exception {
+        Path[] paths = this.resolveTemplateUnzipPaths(zipFilePath, destinationPath);
+        
+        ZipArchiver.Result result;
+        try {
+            result = this.archiver.extract(paths[0], paths[1], null, () -> false);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to unzip template file: " + e.getMessage(), e);
+        }
+        
+        Logger.info("Successfully extracted {} files ({} bytes) from template {}", result.files(), result.bytes(), zipFilePath);
+    }
+
+    public ArchiveJob startTemplateUnzip(String zipFilePath, String destinationPath, Consumer<ArchiveJob> listener) throws Exception {
+        Path[] paths = this.resolveTemplateUnzipPaths(zipFilePath, destinationPath);
+        return this.archiveJobs.submitUnzip(null, paths[0], paths[1], zipFilePath, destinationPath, listener);
+    }
+
+    private Path[] resolveTemplateUnzipPaths(String zipFilePath, String destinationPath) throws Exception {
         Path templatesBasePath = Paths.get(TEMPLATES_DIR).toAbsolutePath().normalize();
         
         if (!Files.exists(templatesBasePath)) {
@@ -1154,76 +1165,53 @@ public final class FileManager {
             throw new IllegalArgumentException("Template destination is not a directory: " + destinationPath);
         }
         
-        long totalBytesExtracted = 0;
-        long maxExtractedSize = 8L * 1024 * 1024 * 1024; // 8GB limit
-        int filesExtracted = 0;
-        int maxFiles = 10000; // Maximum number of files to extract
+        return new Path[]{zipPath, destPath};
+    }
+
+    /**
+     * Streams the template sources as a zip straight into the response, without creating the
+     * archive on disk.
+     */
+    public void streamTemplateZip(RoutingContext context, List<String> sourcePaths, String fileName) throws Exception {
+        Path templatesBasePath = Paths.get(TEMPLATES_DIR).toAbsolutePath().normalize();
         
-        try (ZipInputStream zis = new ZipInputStream(Files.newInputStream(zipPath))) {
-            ZipEntry entry;
+        List<Path> resolvedPaths = new ArrayList<>();
+        for (String sourcePath : sourcePaths) {
+            Path resolved = this.resolveTemplatePath(templatesBasePath, sourcePath);
+            this.validatePathWithinTemplates(resolved, templatesBasePath);
             
-            while ((entry = zis.getNextEntry()) != null) {
-                if (filesExtracted >= maxFiles) {
-                    throw new RuntimeException("Template zip file contains too many entries (max " + maxFiles + ")");
-                }
-                
-                String entryName = entry.getName();
-                
-                if (entryName.contains("..") || entryName.startsWith("/")) {
-                    Logger.warn("Skipping potentially malicious template zip entry: {}", entryName);
-                    continue;
-                }
-                
-                Path entryPath = destPath.resolve(entryName).normalize();
-                
-                if (!entryPath.startsWith(destPath)) {
-                    Logger.warn("Skipping template zip entry with path traversal: {}", entryName);
-                    continue;
-                }
-                
-                this.validatePathWithinTemplates(entryPath, templatesBasePath);
-                
-                if (entry.isDirectory()) {
-                    Files.createDirectories(entryPath);
-                } else {
-                    Path parentDir = entryPath.getParent();
-                    if (parentDir != null && !Files.exists(parentDir)) {
-                        Files.createDirectories(parentDir);
-                    }
-                    
-                    try (var outputStream = Files.newOutputStream(entryPath)) {
-                        byte[] buffer = new byte[8192];
-                        int bytesRead;
-                        long entryBytesWritten = 0;
-                        long maxEntrySize = 1024L * 1024 * 1024; // 1GB per file limit
-                        
-                        while ((bytesRead = zis.read(buffer)) != -1) {
-                            entryBytesWritten += bytesRead;
-                            totalBytesExtracted += bytesRead;
-                            
-                            if (entryBytesWritten > maxEntrySize) {
-                                Files.deleteIfExists(entryPath);
-                                throw new RuntimeException("Template zip entry '" + entryName + "' exceeds maximum size of 1GB");
-                            }
-                            
-                            if (totalBytesExtracted > maxExtractedSize) {
-                                Files.deleteIfExists(entryPath);
-                                throw new RuntimeException("Total extracted size exceeds maximum limit of 8GB");
-                            }
-                            
-                            outputStream.write(buffer, 0, bytesRead);
-                        }
-                    }
-                }
-                
-                filesExtracted++;
-                zis.closeEntry();
+            if (!Files.exists(resolved)) {
+                throw new IllegalArgumentException("Template source path does not exist: " + sourcePath);
             }
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to unzip template file: " + e.getMessage(), e);
+            resolvedPaths.add(resolved);
         }
         
-        Logger.info("Successfully extracted {} files ({} bytes) from template {}", filesExtracted, totalBytesExtracted, zipFilePath);
+        this.streamZipResponse(context, templatesBasePath, resolvedPaths, fileName);
+    }
+
+    private void streamZipResponse(RoutingContext context, Path basePath, List<Path> sources, String fileName) {
+        HttpServerResponse response = context.response();
+        response.putHeader("Content-Type", "application/zip")
+            .putHeader("Content-Disposition", "attachment; filename=\"" + fileName.replace("\"", "") + "\"");
+        
+        this.streamExecutor.execute(() -> {
+            HttpResponseOutputStream out = new HttpResponseOutputStream(response);
+            try {
+                ZipArchiver.Result result = this.archiver.writeZip(basePath, sources, out, null, () -> false);
+                Logger.debug("Streamed zip {} with {} files ({} bytes)", fileName, result.files(), result.bytes());
+            } catch (Exception e) {
+                Logger.warn("Streaming zip {} failed: {}", fileName, e.getMessage());
+                out.abort();
+            }
+        });
+    }
+
+    public Optional<ArchiveJob> getArchiveJob(String jobId) {
+        return this.archiveJobs.getJob(jobId);
+    }
+
+    public boolean cancelArchiveJob(String jobId) {
+        return this.archiveJobs.cancel(jobId);
     }
     
     private Path resolveTemplatePath(Path templatesBasePath, String requestedPath) {
@@ -1244,4 +1232,12 @@ public final class FileManager {
             throw new SecurityException("Path traversal detected: requested path is outside templates directory");
         }
     }
+
+    /**
+     * Cancels running archive jobs and stops the threads that stream zip downloads.
+     */
+    public void shutdown() {
+        this.archiveJobs.shutdown();
+        this.streamExecutor.shutdownNow();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,121 @@
+package be.esmay.atlas.base.files;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blocking {@link OutputStream} over a chunked HTTP response, for producers running on a worker
+ * thread. Writes wait while the response's write queue is full, so a slow client slows the
+ * producer down instead of buffering the whole body in memory.
+ */
+final class HttpResponseOutputStream extends OutputStream {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final HttpServerResponse response;
+    private final byte[] buffer = new byte[CHUNK_SIZE];
+    private int count;
+    private volatile boolean clientClosed;
+    private boolean closed;
+
+    HttpResponseOutputStream(HttpServerResponse response) {
+        this.response = response;
+        this.response.setChunked(true);
+        this.response.closeHandler(v -> this.clientClosed = true);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (this.count == this.buffer.length) {
+            this.flushBuffer();
+        }
+        this.buffer[this.count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (this.count == this.buffer.length) {
+                this.flushBuffer();
+            }
+
+            int chunk = Math.min(length, this.buffer.length - this.count);
+            System.arraycopy(bytes, offset, this.buffer, this.count, chunk);
+            this.count += chunk;
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+
+        this.closed = true;
+        this.flushBuffer();
+        this.response.end();
+    }
+
+    /**
+     * Drops the connection without ending the response, so the client sees the body was cut
+     * short instead of receiving a complete-looking one.
+     */
+    void abort() {
+        if (this.closed) {
+            return;
+        }
+
+        this.closed = true;
+        this.count = 0;
+        this.response.reset();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (this.clientClosed) {
+            throw new IOException("Client closed the connection");
+        }
+
+        if (this.count == 0) {
+            return;
+        }
+
+        this.response.write(Buffer.buffer().appendBytes(this.buffer, 0, this.count));
+        this.count = 0;
+
+        if (this.response.writeQueueFull()) {
+            this.awaitDrain();
+        }
+    }
+
+    private void awaitDrain() throws IOException {
+        CountDownLatch drained = new CountDownLatch(1);
+        this.response.drainHandler(v -> drained.countDown());
+
+        // The queue may have drained before the handler was set.
+        if (!this.response.writeQueueFull()) {
+            return;
+        }
+
+        try {
+            while (!drained.await(1, TimeUnit.SECONDS)) {
+                if (this.clientClosed) {
+                    throw new IOException("Client closed the connection");
+                }
+                if (!this.response.writeQueueFull()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the client", e);
+        }
+    }
+
+}
@@ -0,0 +1,258 @@
+package be.esmay.atlas.base.files;
+
+import be.esmay.atlas.base.utils.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams zip archives to and from disk without holding whole files in memory.
+ *
+ * <p>Archives are written entry by entry into any {@link OutputStream}, so they can go straight
+ * into an HTTP response. Files that are already compressed are written without compressing them again.
+ *
+ * <p>Extraction rejects entries that would land outside the destination (zip-slip), and stops
+ * at {@link #MAX_ENTRIES} entries, {@link #MAX_ENTRY_SIZE} per entry, {@link #MAX_TOTAL_SIZE} in
+ * total, or an entry that inflates more than {@link #MAX_COMPRESSION_RATIO} times its compressed
+ * size (zip bombs).
+ */
+public final class ZipArchiver {
+
+    public static final long MAX_TOTAL_SIZE = 8L * 1024 * 1024 * 1024;
+    public static final long MAX_ENTRY_SIZE = 1024L * 1024 * 1024;
+    public static final int MAX_ENTRIES = 10000;
+    public static final int MAX_COMPRESSION_RATIO = 100;
+
+    private static final long RATIO_CHECK_THRESHOLD = 1024 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(
+            "zip", "jar", "gz", "tgz", "xz", "bz2", "7z", "zst", "mca", "mcr",
+            "png", "jpg", "jpeg", "gif", "webp", "ogg", "mp3", "mp4");
+
+    /**
+     * Writes all files under {@code sources} to {@code out} as a zip archive, named relative to
+     * {@code base}. The stream is finished and closed only once every file is written; when
+     * writing fails it is left open and unfinished, so the caller can discard it rather than end
+     * up with a truncated archive that still reads as a valid zip.
+     *
+     * @param exclude a file to leave out, such as the archive being written, or {@code null}
+     */
+    public Result writeZip(Path base, List<Path> sources, OutputStream out, Path exclude, BooleanSupplier cancelled) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long totalBytes = 0;
+        int files = 0;
+
+        ZipOutputStream zos = new ZipOutputStream(out);
+        for (Path source : sources) {
+            try (Stream<Path> walk = Files.walk(source)) {
+                Iterator<Path> iterator = walk.iterator();
+                while (iterator.hasNext()) {
+                    Path path = iterator.next();
+                    if (!Files.isRegularFile(path) || path.equals(exclude)) {
+                        continue;
+                    }
+
+                    if (cancelled.getAsBoolean()) {
+                        throw new CancellationException("Zip cancelled");
+                    }
+
+                    totalBytes += this.addEntry(zos, base, path, buffer);
+                    files++;
+
+                    if (totalBytes > MAX_TOTAL_SIZE) {
+                        throw new IOException("Archive size exceeds maximum limit of 8GB");
+                    }
+                }
+            }
+        }
+
+        // Closing writes the central directory, so only a complete archive gets one.
+        zos.close();
+        return new Result(files, totalBytes);
+    }
+
+    private long addEntry(ZipOutputStream zos, Path base, Path file, byte[] buffer) throws IOException {
+        ZipEntry entry = new ZipEntry(base.relativize(file).toString().replace("\\", "/"));
+
+        // Already-compressed files are deflated at level 0 in a single pass. Storing them would
+        // need the CRC and size up front, i.e. a second read, and a file a running server rewrites
+        // between the two reads would fail the whole archive.
+        boolean compressed = this.isCompressed(file);
+        if (compressed) {
+            zos.setLevel(Deflater.NO_COMPRESSION);
+        }
+
+        long written = 0;
+        try {
+            zos.putNextEntry(entry);
+            try (InputStream in = Files.newInputStream(file)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    zos.write(buffer, 0, read);
+                    written += read;
+                }
+            }
+            zos.closeEntry();
+        } finally {
+            if (compressed) {
+                zos.setLevel(Deflater.DEFAULT_COMPRESSION);
+            }
+        }
+        return written;
+    }
+
+    private boolean isCompressed(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 && COMPRESSED_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Extracts {@code zipFile} into {@code destination}, reporting progress in compressed bytes
+     * read. Entries outside the destination are skipped; exceeding a limit fails the extraction.
+     */
+    public Result extract(Path zipFile, Path destination, ProgressListener listener, BooleanSupplier cancelled) throws IOException {
+        Path destinationRoot = destination.toAbsolutePath().normalize();
+        Path destinationReal = destinationRoot.toRealPath();
+        byte[] buffer = new byte[BUFFER_SIZE];
+
+        try (ZipFile zip = new ZipFile(zipFile.toFile())) {
+            int totalEntries = zip.size();
+            if (totalEntries > MAX_ENTRIES) {
+                throw new IOException("Zip file contains too many entries (max " + MAX_ENTRIES + ")");
+            }
+
+            long totalCompressed = 0;
+            long declaredSize = 0;
+            Enumeration<? extends ZipEntry> scan = zip.entries();
+            while (scan.hasMoreElements()) {
+                ZipEntry entry = scan.nextElement();
+                totalCompressed += Math.max(0, entry.getCompressedSize());
+                declaredSize += Math.max(0, entry.getSize());
+            }
+
+            if (declaredSize > MAX_TOTAL_SIZE) {
+                throw new IOException("Total extracted size exceeds maximum limit of 8GB");
+            }
+
+            long processedCompressed = 0;
+            long totalBytes = 0;
+            int entriesDone = 0;
+            int files = 0;
+
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (cancelled.getAsBoolean()) {
+                    throw new CancellationException("Unzip cancelled");
+                }
+
+                Path entryPath = this.resolveEntry(destinationRoot, entry.getName());
+                if (entryPath != null && entry.isDirectory()) {
+                    Files.createDirectories(entryPath);
+                } else if (entryPath != null) {
+                    Path parent = entryPath.getParent();
+                    Files.createDirectories(parent);
+
+                    // A symlink inside the destination could still point the entry elsewhere.
+                    if (!parent.toRealPath().startsWith(destinationReal)) {
+                        Logger.warn("Skipping zip entry that resolves outside the destination: {}", entry.getName());
+                    } else {
+                        totalBytes += this.extractEntry(zip, entry, entryPath, buffer, totalBytes, cancelled);
+                        files++;
+                    }
+                }
+
+                processedCompressed += Math.max(0, entry.getCompressedSize());
+                entriesDone++;
+                if (listener != null) {
+                    listener.onProgress(processedCompressed, totalCompressed, entriesDone, totalEntries);
+                }
+            }
+
+            return new Result(files, totalBytes);
+        }
+    }
+
+    private Path resolveEntry(Path destination, String entryName) {
+        if (entryName.contains("..") || entryName.startsWith("/") || entryName.startsWith("\\")) {
+            Logger.warn("Skipping potentially malicious zip entry: {}", entryName);
+            return null;
+        }
+
+        Path entryPath = destination.resolve(entryName).normalize();
+        if (!entryPath.startsWith(destination) || entryPath.equals(destination)) {
+            Logger.warn("Skipping zip entry with path traversal: {}", entryName);
+            return null;
+        }
+
+        return entryPath;
+    }
+
+    private long extractEntry(ZipFile zip, ZipEntry entry, Path entryPath, byte[] buffer, long totalSoFar, BooleanSupplier cancelled) throws IOException {
+        long compressedSize = entry.getCompressedSize();
+        long written = 0;
+        boolean complete = false;
+
+        // Replace rather than overwrite, so a file hardlinked from the template store is never written through.
+        if (Files.isRegularFile(entryPath, LinkOption.NOFOLLOW_LINKS)) {
+            Files.delete(entryPath);
+        }
+
+        try (InputStream in = zip.getInputStream(entry); OutputStream out = Files.newOutputStream(entryPath, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE, LinkOption.NOFOLLOW_LINKS)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                written += read;
+
+                if (written > MAX_ENTRY_SIZE) {
+                    throw new IOException("Zip entry '" + entry.getName() + "' exceeds maximum size of 1GB");
+                }
+                if (totalSoFar + written > MAX_TOTAL_SIZE) {
+                    throw new IOException("Total extracted size exceeds maximum limit of 8GB");
+                }
+                if (written > RATIO_CHECK_THRESHOLD && compressedSize > 0 && written / compressedSize > MAX_COMPRESSION_RATIO) {
+                    throw new IOException("Zip entry '" + entry.getName() + "' exceeds maximum compression ratio of " + MAX_COMPRESSION_RATIO);
+                }
+                if (cancelled.getAsBoolean()) {
+                    throw new CancellationException("Unzip cancelled");
+                }
+
+                out.write(buffer, 0, read);
+            }
+            complete = true;
+        } finally {
+            if (!complete) {
+                Files.deleteIfExists(entryPath);
+            }
+        }
+
+        return written;
+    }
+
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(long processedBytes, long totalBytes, int processedEntries, int totalEntries);
+    }
+
+    public record Result(int files, long bytes) {
+    }
+
+}
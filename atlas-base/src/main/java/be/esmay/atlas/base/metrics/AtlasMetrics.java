@@ -0,0 +1,141 @@
+package be.esmay.atlas.base.metrics;
+
+import lombok.Getter;
+import lombok.experimental.UtilityClass;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and histograms updated by Atlas internals as things happen, read by
+ * {@link OpenMetricsExporter} on every scrape.
+ *
+ * <p>Updating a meter only touches a {@link LongAdder}, so it is safe to do on hot paths such as
+ * packet handling.
+ */
+@UtilityClass
+public final class AtlasMetrics {
+
+    private static final int PACKET_ID_SLOTS = 256;
+
+    public static final LabeledHistogram SCALER_TICK_SECONDS = new LabeledHistogram(0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5);
+    public static final LabeledHistogram SERVER_START_SECONDS = new LabeledHistogram(5, 10, 15, 20, 30, 45, 60, 90, 120, 180, 300);
+    public static final LabeledCounter SCALE_UPS = new LabeledCounter();
+    public static final LabeledCounter SCALE_DOWNS = new LabeledCounter();
+    public static final LabeledCounter SCALER_TICK_OVERRUNS = new LabeledCounter();
+    public static final LabeledCounter SCALER_TICKS_THROTTLED = new LabeledCounter();
+
+    private static final LongAdder[] PACKETS_RECEIVED = createPacketCounters();
+    private static final LongAdder[] PACKETS_SENT = createPacketCounters();
+
+    public static void recordPacketReceived(int packetId) {
+        if (packetId >= 0 && packetId < PACKET_ID_SLOTS) {
+            PACKETS_RECEIVED[packetId].increment();
+        }
+    }
+
+    public static void recordPacketsSent(int packetId, int count) {
+        if (packetId >= 0 && packetId < PACKET_ID_SLOTS) {
+            PACKETS_SENT[packetId].add(count);
+        }
+    }
+
+    static long getPacketsReceived(int packetId) {
+        return PACKETS_RECEIVED[packetId].sum();
+    }
+
+    static long getPacketsSent(int packetId) {
+        return PACKETS_SENT[packetId].sum();
+    }
+
+    static int getPacketIdSlots() {
+        return PACKET_ID_SLOTS;
+    }
+
+    private static LongAdder[] createPacketCounters() {
+        LongAdder[] counters = new LongAdder[PACKET_ID_SLOTS];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    /**
+     * A counter with one value per label, such as a group name.
+     */
+    public static final class LabeledCounter {
+
+        @Getter
+        private final Map<String, LongAdder> values = new ConcurrentHashMap<>();
+
+        public void increment(String label) {
+            this.values.computeIfAbsent(label, key -> new LongAdder()).increment();
+        }
+
+    }
+
+    /**
+     * A histogram with fixed bucket bounds and one set of buckets per label.
+     */
+    public static final class LabeledHistogram {
+
+        @Getter
+        private final double[] bounds;
+        @Getter
+        private final Map<String, Buckets> values = new ConcurrentHashMap<>();
+
+        public LabeledHistogram(double... bounds) {
+            this.bounds = bounds;
+        }
+
+        public void observe(String label, double value) {
+            this.values.computeIfAbsent(label, key -> new Buckets(this.bounds.length)).observe(this.bounds, value);
+        }
+
+    }
+
+    public static final class Buckets {
+
+        private final LongAdder[] counts;
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder sum = new DoubleAdder();
+
+        private Buckets(int bounds) {
+            this.counts = new LongAdder[bounds];
+            for (int i = 0; i < bounds; i++) {
+                this.counts[i] = new LongAdder();
+            }
+        }
+
+        private void observe(double[] bounds, double value) {
+            for (int i = 0; i < bounds.length; i++) {
+                if (value <= bounds[i]) {
+                    this.counts[i].increment();
+                    break;
+                }
+            }
+
+            this.count.increment();
+            this.sum.add(value);
+        }
+
+        /**
+         * Returns the number of values in the bucket, not including lower buckets.
+         */
+        long getBucketCount(int index) {
+            return this.counts[index].sum();
+        }
+
+        long getCount() {
+            return this.count.sum();
+        }
+
+        double getSum() {
+            return this.sum.sum();
+        }
+
+    }
+
+}
@@ -0,0 +1,383 @@
+package be.esmay.atlas.base.metrics;
+
+import be.esmay.atlas.base.utils.Logger;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Tracks the disk usage of server working directories without walking them on every read.
+ *
+ * <p>A directory is walked once when it is first requested. After that, every subdirectory is
+ * watched, and only the directories that reported changes are listed again, which keeps the
+ * cost proportional to what changed rather than to the size of the worlds. A full walk still runs
+ * every few minutes to correct any drift, and after the watch service lost events. When a
+ * directory cannot be watched, it falls back to a full walk every minute.
+ *
+ * <p>All bookkeeping runs on a single thread; readers only read the cached total.
+ */
+public final class DiskUsageTracker {
+
+    private static final long FLUSH_INTERVAL_MS = 2000;
+    private static final long VERIFY_INTERVAL_MS = TimeUnit.MINUTES.toMillis(10);
+    private static final long UNWATCHED_SCAN_INTERVAL_MS = TimeUnit.MINUTES.toMillis(1);
+
+    private final Map<String, TrackedDirectory> trackedDirectories = new ConcurrentHashMap<>();
+    private final Map<WatchKey, TrackedDirectory> watchKeyOwners = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "Disk-Usage");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private WatchService watchService;
+    private Thread watchThread;
+
+    public void start() {
+        try {
+            this.watchService = FileSystems.getDefault().newWatchService();
+            this.watchThread = new Thread(this::processWatchEvents, "Disk-Usage-Watcher");
+            this.watchThread.setDaemon(true);
+            this.watchThread.start();
+        } catch (IOException | UnsupportedOperationException e) {
+            Logger.warn("File watching is not available, disk usage will be measured by periodic scans: {}", e.getMessage());
+            this.watchService = null;
+        }
+
+        this.scheduler.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        this.scheduler.shutdownNow();
+
+        if (this.watchService != null) {
+            try {
+                this.watchService.close();
+            } catch (IOException e) {
+                Logger.debug("Error closing disk usage watch service: {}", e.getMessage());
+            }
+        }
+
+        this.trackedDirectories.clear();
+        this.watchKeyOwners.clear();
+    }
+
+    /**
+     * Returns the cached disk usage of the server's working directory. The first call for a
+     * server starts tracking it and returns {@code null} until the initial scan has finished.
+     */
+    public DiskUsage getUsage(String serverId, Path root) {
+        TrackedDirectory tracked = this.trackedDirectories.get(serverId);
+        if (tracked == null || !tracked.root.equals(root)) {
+            this.track(serverId, root);
+            return null;
+        }
+
+        if (tracked.measuredAt == 0) {
+            return null;
+        }
+
+        return new DiskUsage(tracked.totalBytes, tracked.measuredAt);
+    }
+
+    public void untrack(String serverId) {
+        TrackedDirectory tracked = this.trackedDirectories.remove(serverId);
+        if (tracked != null) {
+            this.execute(() -> this.cancelWatches(tracked, new ArrayList<>(tracked.watchKeys.keySet())));
+        }
+    }
+
+    private void track(String serverId, Path root) {
+        TrackedDirectory tracked = new TrackedDirectory(serverId, root);
+        tracked.watched = this.watchService != null;
+        TrackedDirectory previous = this.trackedDirectories.put(serverId, tracked);
+
+        this.execute(() -> {
+            if (previous != null) {
+                this.cancelWatches(previous, new ArrayList<>(previous.watchKeys.keySet()));
+            }
+
+            this.fullScan(tracked);
+        });
+    }
+
+    private void execute(Runnable task) {
+        if (!this.scheduler.isShutdown()) {
+            this.scheduler.execute(task);
+        }
+    }
+
+    private void flush() {
+        long now = System.currentTimeMillis();
+
+        for (TrackedDirectory tracked : this.trackedDirectories.values()) {
+            try {
+                long verifyInterval = tracked.watched ? VERIFY_INTERVAL_MS : UNWATCHED_SCAN_INTERVAL_MS;
+                if (tracked.fullScanRequested || now - tracked.lastFullScan >= verifyInterval) {
+                    this.fullScan(tracked);
+                    continue;
+                }
+
+                Iterator<Path> dirty = tracked.dirtyDirectories.iterator();
+                while (dirty.hasNext()) {
+                    Path directory = dirty.next();
+                    dirty.remove();
+                    this.rescanDirectory(tracked, directory);
+                }
+
+                if (tracked.watched && tracked.measuredAt > 0) {
+                    tracked.measuredAt = now;
+                }
+            } catch (Exception e) {
+                Logger.debug("Failed to update disk usage of {}: {}", tracked.root, e.getMessage());
+                tracked.fullScanRequested = true;
+            }
+        }
+    }
+
+    private void fullScan(TrackedDirectory tracked) {
+        if (this.trackedDirectories.get(tracked.serverId) != tracked) {
+            return;
+        }
+
+        tracked.fullScanRequested = false;
+        tracked.dirtyDirectories.clear();
+
+        Map<Path, Long> sizes = new HashMap<>();
+        if (Files.isDirectory(tracked.root)) {
+            try {
+                this.walk(tracked, tracked.root, sizes);
+            } catch (IOException e) {
+                Logger.debug("Failed to scan disk usage of {}: {}", tracked.root, e.getMessage());
+                tracked.lastFullScan = System.currentTimeMillis();
+                return;
+            }
+        }
+
+        List<Path> removed = new ArrayList<>();
+        for (Path directory : tracked.directorySizes.keySet()) {
+            if (!sizes.containsKey(directory)) {
+                removed.add(directory);
+            }
+        }
+        this.cancelWatches(tracked, removed);
+
+        long total = sizes.values().stream().mapToLong(Long::longValue).sum();
+        if (tracked.lastFullScan > 0 && total != tracked.totalBytes) {
+            Logger.debug("Corrected disk usage of {} by {} bytes", tracked.root, total - tracked.totalBytes);
+        }
+
+        tracked.directorySizes.clear();
+        tracked.directorySizes.putAll(sizes);
+        tracked.totalBytes = total;
+
+        long now = System.currentTimeMillis();
+        tracked.lastFullScan = now;
+        tracked.measuredAt = now;
+    }
+
+    /**
+     * Lists one directory again after it reported changes. New subdirectories are walked and
+     * watched; a directory that no longer exists is dropped together with everything below it.
+     */
+    private void rescanDirectory(TrackedDirectory tracked, Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            List<Path> removed = new ArrayList<>();
+            for (Path known : tracked.directorySizes.keySet()) {
+                if (known.startsWith(directory)) {
+                    removed.add(known);
+                }
+            }
+
+            for (Path path : removed) {
+                Long size = tracked.directorySizes.remove(path);
+                tracked.totalBytes -= size != null ? size : 0L;
+            }
+            this.cancelWatches(tracked, removed);
+            return;
+        }
+
+        long size = 0L;
+        List<Path> newDirectories = new ArrayList<>();
+        try (Stream<Path> children = Files.list(directory)) {
+            for (Path child : (Iterable<Path>) children::iterator) {
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(child, BasicFileAttributes.class);
+                } catch (IOException e) {
+                    continue;
+                }
+
+                if (attributes.isDirectory()) {
+                    if (!tracked.directorySizes.containsKey(child)) {
+                        newDirectories.add(child);
+                    }
+                } else if (attributes.isRegularFile()) {
+                    size += attributes.size();
+                }
+            }
+        }
+
+        Long previous = tracked.directorySizes.put(directory, size);
+        tracked.totalBytes += size - (previous != null ? previous : 0L);
+        if (!tracked.watchKeys.containsKey(directory)) {
+            this.watch(tracked, directory);
+        }
+
+        for (Path newDirectory : newDirectories) {
+            Map<Path, Long> sizes = new HashMap<>();
+            this.walk(tracked, newDirectory, sizes);
+            for (Map.Entry<Path, Long> entry : sizes.entrySet()) {
+                Long replaced = tracked.directorySizes.put(entry.getKey(), entry.getValue());
+                tracked.totalBytes += entry.getValue() - (replaced != null ? replaced : 0L);
+            }
+        }
+    }
+
+    private void walk(TrackedDirectory tracked, Path start, Map<Path, Long> sizes) throws IOException {
+        Files.walkFileTree(start, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) {
+                sizes.putIfAbsent(directory, 0L);
+                if (!tracked.watchKeys.containsKey(directory)) {
+                    DiskUsageTracker.this.watch(tracked, directory);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (attributes.isRegularFile()) {
+                    sizes.merge(file.getParent(), attributes.size(), Long::sum);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exception) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void watch(TrackedDirectory tracked, Path directory) {
+        if (this.watchService == null || !tracked.watched) {
+            return;
+        }
+
+        try {
+            WatchKey key = directory.register(this.watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            tracked.watchKeys.put(directory, key);
+            this.watchKeyOwners.put(key, tracked);
+        } catch (IOException e) {
+            Logger.warn("Cannot watch {}, falling back to periodic disk usage scans for it: {}", tracked.root, e.getMessage());
+            tracked.watched = false;
+            this.cancelWatches(tracked, new ArrayList<>(tracked.watchKeys.keySet()));
+        }
+    }
+
+    private void cancelWatches(TrackedDirectory tracked, Iterable<Path> directories) {
+        for (Path directory : directories) {
+            WatchKey key = tracked.watchKeys.remove(directory);
+            if (key != null) {
+                key.cancel();
+                this.watchKeyOwners.remove(key);
+            }
+        }
+    }
+
+    private void processWatchEvents() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = this.watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            TrackedDirectory tracked = this.watchKeyOwners.get(key);
+            Path directory = (Path) key.watchable();
+
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (tracked == null) {
+                    continue;
+                }
+
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    tracked.fullScanRequested = true;
+                    continue;
+                }
+
+                tracked.dirtyDirectories.add(directory);
+                if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                    Path child = directory.resolve((Path) event.context());
+                    if (tracked.watchKeys.containsKey(child)) {
+                        tracked.dirtyDirectories.add(child);
+                    }
+                }
+            }
+
+            if (!key.reset() && tracked != null) {
+                tracked.dirtyDirectories.add(directory);
+            }
+        }
+    }
+
+    private static final class TrackedDirectory {
+
+        private final String serverId;
+        private final Path root;
+        private final Map<Path, Long> directorySizes = new HashMap<>();
+        private final Map<Path, WatchKey> watchKeys = new ConcurrentHashMap<>();
+        private final Set<Path> dirtyDirectories = ConcurrentHashMap.newKeySet();
+
+        private volatile long totalBytes;
+        private volatile long measuredAt;
+        private volatile long lastFullScan;
+        private volatile boolean fullScanRequested;
+        private volatile boolean watched;
+
+        private TrackedDirectory(String serverId, Path root) {
+            this.serverId = serverId;
+            this.root = root;
+        }
+
+    }
+
+    /**
+     * @param bytes      the total size of the regular files in the directory
+     * @param measuredAt when the value was last known to be current
+     */
+    public record DiskUsage(long bytes, long measuredAt) {
+
+        public long getAgeMillis() {
+            return Math.max(0, System.currentTimeMillis() - this.measuredAt);
+        }
+
+    }
+
+}
@@ -0,0 +1,65 @@
+package be.esmay.atlas.base.metrics;
+
+import be.esmay.atlas.base.utils.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.OptionalDouble;
+
+/**
+ * Host memory use as the kernel sees it. Uses {@code MemAvailable} from {@code /proc/meminfo}
+ * rather than free memory, since page cache the kernel can reclaim is not pressure; on a host
+ * running game servers free memory alone sits near zero most of the time.
+ */
+public final class HostMemory {
+
+    private static final Path PROC_MEMINFO = Paths.get("/proc/meminfo");
+
+    private HostMemory() {
+    }
+
+    /**
+     * Returns the fraction of host memory in use, or empty when it cannot be read, for example on
+     * a kernel without {@code MemAvailable} or a non-Linux host.
+     */
+    public static OptionalDouble usedFraction() {
+        if (!Files.isReadable(PROC_MEMINFO)) {
+            return OptionalDouble.empty();
+        }
+
+        try {
+            return usedFraction(Files.readAllLines(PROC_MEMINFO));
+        } catch (IOException | RuntimeException e) {
+            Logger.debug("Failed to read /proc/meminfo: {}", e.getMessage());
+            return OptionalDouble.empty();
+        }
+    }
+
+    static OptionalDouble usedFraction(List<String> meminfo) {
+        long total = -1;
+        long available = -1;
+
+        for (String line : meminfo) {
+            if (line.startsWith("MemTotal:")) {
+                total = parseKilobytes(line);
+            } else if (line.startsWith("MemAvailable:")) {
+                available = parseKilobytes(line);
+            }
+        }
+
+        if (total <= 0 || available < 0) {
+            return OptionalDouble.empty();
+        }
+
+        return OptionalDouble.of(Math.max(0.0, 1.0 - (double) Math.min(available, total) / total));
+    }
+
+    private static long parseKilobytes(String line) {
+        String[] parts = line.trim().split("\\s+");
+        return parts.length < 2 ? -1 : Long.parseLong(parts[1]);
+    }
+
+}
@@ -0,0 +1,142 @@
+package be.esmay.atlas.base.metrics;
+
+import be.esmay.atlas.base.utils.Logger;
+import lombok.RequiredArgsConstructor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores completed minute and hour buckets in the Atlas database, so history survives a restart.
+ */
+@RequiredArgsConstructor
+public final class MetricsHistoryRepository {
+
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS metrics_history ("
+            + "entity_type VARCHAR(10) NOT NULL, "
+            + "entity_id VARCHAR(100) NOT NULL, "
+            + "metric VARCHAR(20) NOT NULL, "
+            + "resolution VARCHAR(4) NOT NULL, "
+            + "bucket_start BIGINT NOT NULL, "
+            + "min_value DOUBLE PRECISION NOT NULL, "
+            + "max_value DOUBLE PRECISION NOT NULL, "
+            + "avg_value DOUBLE PRECISION NOT NULL, "
+            + "sample_count INT NOT NULL, "
+            + "PRIMARY KEY (resolution, bucket_start, entity_type, entity_id, metric))";
+
+    private static final String INSERT = "INSERT INTO metrics_history "
+            + "(entity_type, entity_id, metric, resolution, bucket_start, min_value, max_value, avg_value, sample_count) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_SINCE = "SELECT entity_type, entity_id, metric, bucket_start, min_value, max_value, avg_value, sample_count "
+            + "FROM metrics_history WHERE resolution = ? AND bucket_start >= ?";
+
+    private static final String DELETE_BEFORE = "DELETE FROM metrics_history WHERE resolution = ? AND bucket_start < ?";
+
+    private final DataSource dataSource;
+
+    public void initialize() throws SQLException {
+        try (Connection connection = this.dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_TABLE);
+        }
+    }
+
+    public void saveAll(List<Row> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        try (Connection connection = this.dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+                for (Row row : rows) {
+                    statement.setString(1, row.entityType().name());
+                    statement.setString(2, row.entityId());
+                    statement.setString(3, row.metric().name());
+                    statement.setString(4, row.resolution().getKey());
+                    statement.setLong(5, row.point().timestamp());
+                    statement.setDouble(6, row.point().min());
+                    statement.setDouble(7, row.point().max());
+                    statement.setDouble(8, row.point().avg());
+                    statement.setInt(9, row.point().count());
+                    statement.addBatch();
+                }
+
+                statement.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            Logger.warn("Failed to persist {} metrics history buckets: {}", rows.size(), e.getMessage());
+        }
+    }
+
+    public List<Row> findSince(MetricsHistoryStore.Resolution resolution, long since) {
+        List<Row> rows = new ArrayList<>();
+
+        try (Connection connection = this.dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_SINCE)) {
+            statement.setString(1, resolution.getKey());
+            statement.setLong(2, since);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    MetricsHistoryStore.EntityType entityType = this.parseEnum(MetricsHistoryStore.EntityType.class, resultSet.getString("entity_type"));
+                    MetricsHistoryStore.Metric metric = this.parseEnum(MetricsHistoryStore.Metric.class, resultSet.getString("metric"));
+                    if (entityType == null || metric == null) {
+                        continue;
+                    }
+
+                    RollupSeries.Point point = new RollupSeries.Point(
+                            resultSet.getLong("bucket_start"),
+                            resultSet.getDouble("min_value"),
+                            resultSet.getDouble("max_value"),
+                            resultSet.getDouble("avg_value"),
+                            resultSet.getInt("sample_count"));
+                    rows.add(new Row(entityType, resultSet.getString("entity_id"), metric, resolution, point));
+                }
+            }
+        } catch (SQLException e) {
+            Logger.warn("Failed to load {} metrics history: {}", resolution.getKey(), e.getMessage());
+        }
+
+        return rows;
+    }
+
+    public int deleteBefore(MetricsHistoryStore.Resolution resolution, long cutoff) {
+        try (Connection connection = this.dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(DELETE_BEFORE)) {
+            statement.setString(1, resolution.getKey());
+            statement.setLong(2, cutoff);
+            return statement.executeUpdate();
+        } catch (SQLException e) {
+            Logger.warn("Failed to delete old {} metrics history: {}", resolution.getKey(), e.getMessage());
+            return 0;
+        }
+    }
+
+    private <E extends Enum<E>> E parseEnum(Class<E> type, String name) {
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return null;
+        }
+    }
+
+    public record Row(MetricsHistoryStore.EntityType entityType, String entityId, MetricsHistoryStore.Metric metric,
+                      MetricsHistoryStore.Resolution resolution, RollupSeries.Point point) {
+    }
+
+}
@@ -0,0 +1,190 @@
+package be.esmay.atlas.base.metrics;
+
+import be.esmay.atlas.base.AtlasBase;
+import be.esmay.atlas.base.config.impl.AtlasConfig;
+import be.esmay.atlas.base.scaler.Scaler;
+import be.esmay.atlas.base.utils.Logger;
+import be.esmay.atlas.common.enums.ServerStatus;
+import be.esmay.atlas.common.models.AtlasServer;
+import be.esmay.atlas.common.models.ServerResourceMetrics;
+import lombok.Getter;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples every running server and every group into the {@link MetricsHistoryStore} every five
+ * seconds. Group values are the sums over their running servers.
+ *
+ * <p>When persistence is enabled, each minute and hour bucket is written to the database once it
+ * is complete, and the stored buckets are loaded back on startup.
+ */
+public final class MetricsHistoryService {
+
+    private static final long SAMPLE_INTERVAL_MS = MetricsHistoryStore.Resolution.RAW.getMillis();
+    private static final long MAX_METRICS_AGE_MS = 30_000L;
+
+    @Getter
+    private final MetricsHistoryStore store;
+    private final MetricsHistoryRepository repository;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "Metrics-History");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private long lastPersistedMinute;
+    private long lastPersistedHour;
+
+    public MetricsHistoryService(AtlasConfig.MetricsHistory config, DataSource dataSource) {
+        this.store = new MetricsHistoryStore(config.getRawPoints(), config.getMinutePoints(), config.getHourPoints());
+        this.repository = config.isPersist() && dataSource != null ? new MetricsHistoryRepository(dataSource) : null;
+    }
+
+    public void start() {
+        // The buckets Atlas starts in are incomplete, so persisting begins with the next ones.
+        long now = System.currentTimeMillis();
+        this.lastPersistedMinute = now / MetricsHistoryStore.Resolution.MINUTE.getMillis() + 1;
+        this.lastPersistedHour = now / MetricsHistoryStore.Resolution.HOUR.getMillis() + 1;
+
+        if (this.repository != null) {
+            this.scheduler.execute(this::loadPersisted);
+        }
+
+        this.scheduler.scheduleAtFixedRate(this::tick, SAMPLE_INTERVAL_MS, SAMPLE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        this.scheduler.shutdown();
+        try {
+            if (!this.scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
+                this.scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            this.scheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            this.sample(now);
+
+            this.store.prune(MetricsHistoryStore.EntityType.SERVER, now - this.store.getWindowMillis(MetricsHistoryStore.Resolution.RAW));
+
+            if (this.repository != null) {
+                this.persistCompletedBuckets(now);
+            }
+        } catch (Exception e) {
+            Logger.error("Error in metrics history cycle", e);
+        }
+    }
+
+    private void sample(long now) {
+        AtlasBase atlasBase = AtlasBase.getInstance();
+        if (atlasBase == null || atlasBase.getScalerManager() == null) {
+            return;
+        }
+
+        for (Scaler scaler : atlasBase.getScalerManager().getScalers()) {
+            Map<MetricsHistoryStore.Metric, Double> groupTotals = new EnumMap<>(MetricsHistoryStore.Metric.class);
+            for (MetricsHistoryStore.Metric metric : MetricsHistoryStore.Metric.values()) {
+                groupTotals.put(metric, 0.0);
+            }
+
+            for (AtlasServer server : scaler.getServers()) {
+                if (server.getServerInfo() == null || server.getServerInfo().getStatus() != ServerStatus.RUNNING) {
+                    continue;
+                }
+
+                Map<MetricsHistoryStore.Metric, Double> values = new EnumMap<>(MetricsHistoryStore.Metric.class);
+                values.put(MetricsHistoryStore.Metric.PLAYERS, (double) server.getServerInfo().getOnlinePlayers());
+
+                ServerResourceMetrics metrics = server.getResourceMetrics();
+                if (metrics != null && now - metrics.getLastUpdated() <= MAX_METRICS_AGE_MS) {
+                    values.put(MetricsHistoryStore.Metric.CPU, metrics.getCpuUsage());
+                    values.put(MetricsHistoryStore.Metric.MEMORY, (double) metrics.getMemoryUsed());
+                    values.put(MetricsHistoryStore.Metric.DISK, (double) metrics.getDiskUsed());
+                    values.put(MetricsHistoryStore.Metric.NETWORK_RECEIVE, metrics.getNetworkReceiveBandwidth());
+                    values.put(MetricsHistoryStore.Metric.NETWORK_SEND, metrics.getNetworkSendBandwidth());
+                }
+
+                this.store.record(MetricsHistoryStore.EntityType.SERVER, server.getServerId(), now, values);
+                values.forEach((metric, value) -> groupTotals.merge(metric, value, Double::sum));
+            }
+
+            this.store.record(MetricsHistoryStore.EntityType.GROUP, scaler.getGroupName(), now, groupTotals);
+        }
+    }
+
+    private void persistCompletedBuckets(long now) {
+        long currentMinute = now / MetricsHistoryStore.Resolution.MINUTE.getMillis();
+        if (currentMinute > this.lastPersistedMinute) {
+            this.persistBuckets(MetricsHistoryStore.Resolution.MINUTE, this.lastPersistedMinute, currentMinute);
+            this.lastPersistedMinute = currentMinute;
+        }
+
+        long currentHour = now / MetricsHistoryStore.Resolution.HOUR.getMillis();
+        if (currentHour > this.lastPersistedHour) {
+            this.persistBuckets(MetricsHistoryStore.Resolution.HOUR, this.lastPersistedHour, currentHour);
+            this.lastPersistedHour = currentHour;
+
+            for (MetricsHistoryStore.Resolution resolution : List.of(MetricsHistoryStore.Resolution.MINUTE, MetricsHistoryStore.Resolution.HOUR)) {
+                int deleted = this.repository.deleteBefore(resolution, now - this.store.getWindowMillis(resolution));
+                Logger.debug("Deleted {} expired {} metrics history buckets", deleted, resolution.getKey());
+            }
+        }
+    }
+
+    /**
+     * Writes the buckets from {@code firstBucket} up to, but not including, {@code endBucket}.
+     * The bucket in progress is never written, so every stored bucket is final.
+     */
+    private void persistBuckets(MetricsHistoryStore.Resolution resolution, long firstBucket, long endBucket) {
+        List<MetricsHistoryRepository.Row> rows = new ArrayList<>();
+        long first = Math.max(firstBucket, endBucket - this.store.getCapacity(resolution));
+
+        for (MetricsHistoryStore.EntityType type : MetricsHistoryStore.EntityType.values()) {
+            for (String id : this.store.getIds(type)) {
+                for (MetricsHistoryStore.Metric metric : MetricsHistoryStore.Metric.values()) {
+                    for (long bucket = first; bucket < endBucket; bucket++) {
+                        RollupSeries.Point point = this.store.getBucket(type, id, metric, resolution, bucket * resolution.getMillis());
+                        if (point != null) {
+                            rows.add(new MetricsHistoryRepository.Row(type, id, metric, resolution, point));
+                        }
+                    }
+                }
+            }
+        }
+
+        this.repository.saveAll(rows);
+    }
+
+    private void loadPersisted() {
+        try {
+            this.repository.initialize();
+        } catch (Exception e) {
+            Logger.error("Failed to initialize metrics history table", e);
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        int loaded = 0;
+        for (MetricsHistoryStore.Resolution resolution : List.of(MetricsHistoryStore.Resolution.MINUTE, MetricsHistoryStore.Resolution.HOUR)) {
+            for (MetricsHistoryRepository.Row row : this.repository.findSince(resolution, now - this.store.getWindowMillis(resolution))) {
+                this.store.restore(row.entityType(), row.entityId(), row.metric(), row.resolution(), row.point());
+                loaded++;
+            }
+        }
+
+        Logger.info("Loaded {} metrics history buckets", loaded);
+    }
+
+}
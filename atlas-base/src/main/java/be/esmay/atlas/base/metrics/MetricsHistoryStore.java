@@ -0,0 +1,217 @@
+package be.esmay.atlas.base.metrics;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory metric history for servers and groups.
+ *
+ * <p>Every entity has one {@link RollupSeries} per metric and resolution. A value is recorded
+ * into all three resolutions at once, so the minute and hour buckets are exact rollups of the
+ * raw values. The rings have a fixed size, so each entity uses the same amount of memory no
+ * matter how long Atlas runs; servers are dropped once they stop reporting.
+ */
+public final class MetricsHistoryStore {
+
+    private final Map<Resolution, Integer> capacities;
+    private final Map<EntityType, Map<String, EntitySeries>> entities = new EnumMap<>(EntityType.class);
+
+    public MetricsHistoryStore(int rawPoints, int minutePoints, int hourPoints) {
+        this.capacities = new EnumMap<>(Resolution.class);
+        this.capacities.put(Resolution.RAW, Math.max(1, rawPoints));
+        this.capacities.put(Resolution.MINUTE, Math.max(1, minutePoints));
+        this.capacities.put(Resolution.HOUR, Math.max(1, hourPoints));
+
+        for (EntityType type : EntityType.values()) {
+            this.entities.put(type, new ConcurrentHashMap<>());
+        }
+    }
+
+    public void record(EntityType type, String id, long timestamp, Map<Metric, Double> values) {
+        EntitySeries series = this.entities.get(type).computeIfAbsent(id, key -> new EntitySeries());
+        series.record(timestamp, values);
+    }
+
+    public void restore(EntityType type, String id, Metric metric, Resolution resolution, RollupSeries.Point point) {
+        EntitySeries series = this.entities.get(type).computeIfAbsent(id, key -> new EntitySeries());
+        series.restore(metric, resolution, point);
+    }
+
+    public boolean contains(EntityType type, String id) {
+        return this.entities.get(type).containsKey(id);
+    }
+
+    public Collection<String> getIds(EntityType type) {
+        return this.entities.get(type).keySet();
+    }
+
+    /**
+     * Returns the buckets between {@code from} and {@code to} for each requested metric, or
+     * {@code null} if the entity has no history.
+     */
+    public Map<Metric, List<RollupSeries.Point>> query(EntityType type, String id, Resolution resolution, long from, long to, Set<Metric> metrics) {
+        EntitySeries series = this.entities.get(type).get(id);
+        if (series == null) {
+            return null;
+        }
+
+        return series.query(resolution, from, to, metrics);
+    }
+
+    /**
+     * Returns the bucket of the given resolution starting at {@code bucketStart}, or
+     * {@code null} if it holds no values.
+     */
+    public RollupSeries.Point getBucket(EntityType type, String id, Metric metric, Resolution resolution, long bucketStart) {
+        EntitySeries series = this.entities.get(type).get(id);
+        if (series == null) {
+            return null;
+        }
+
+        return series.getBucket(metric, resolution, bucketStart);
+    }
+
+    /**
+     * Drops the history of every entity of the type whose last recorded value is older than the
+     * cutoff.
+     */
+    public int prune(EntityType type, long cutoff) {
+        List<String> stale = new ArrayList<>();
+        this.entities.get(type).forEach((id, series) -> {
+            if (series.getLastRecordedAt() < cutoff) {
+                stale.add(id);
+            }
+        });
+
+        stale.forEach(this.entities.get(type)::remove);
+        return stale.size();
+    }
+
+    public int getCapacity(Resolution resolution) {
+        return this.capacities.get(resolution);
+    }
+
+    /**
+     * Returns how far back the given resolution reaches.
+     */
+    public long getWindowMillis(Resolution resolution) {
+        return this.capacities.get(resolution) * resolution.getMillis();
+    }
+
+    private final class EntitySeries {
+
+        private final Map<Metric, Map<Resolution, RollupSeries>> series = new EnumMap<>(Metric.class);
+        private long lastRecordedAt;
+
+        private EntitySeries() {
+            for (Metric metric : Metric.values()) {
+                Map<Resolution, RollupSeries> byResolution = new EnumMap<>(Resolution.class);
+                for (Resolution resolution : Resolution.values()) {
+                    byResolution.put(resolution, new RollupSeries(resolution.getMillis(), MetricsHistoryStore.this.capacities.get(resolution)));
+                }
+                this.series.put(metric, byResolution);
+            }
+        }
+
+        private synchronized void record(long timestamp, Map<Metric, Double> values) {
+            this.lastRecordedAt = Math.max(this.lastRecordedAt, timestamp);
+            values.forEach((metric, value) -> {
+                if (value == null) {
+                    return;
+                }
+
+                for (RollupSeries rollup : this.series.get(metric).values()) {
+                    rollup.record(timestamp, value);
+                }
+            });
+        }
+
+        /**
+         * Restored points only carry their bucket start, which is never later than the values in
+         * the bucket, so a restored entity is never kept longer than it would have been.
+         */
+        private synchronized void restore(Metric metric, Resolution resolution, RollupSeries.Point point) {
+            this.lastRecordedAt = Math.max(this.lastRecordedAt, point.timestamp());
+            this.series.get(metric).get(resolution).restore(point.timestamp(), point.min(), point.max(), point.avg(), point.count());
+        }
+
+        private synchronized Map<Metric, List<RollupSeries.Point>> query(Resolution resolution, long from, long to, Set<Metric> metrics) {
+            Map<Metric, List<RollupSeries.Point>> result = new EnumMap<>(Metric.class);
+            for (Metric metric : metrics) {
+                result.put(metric, this.series.get(metric).get(resolution).query(from, to));
+            }
+            return result;
+        }
+
+        private synchronized RollupSeries.Point getBucket(Metric metric, Resolution resolution, long bucketStart) {
+            return this.series.get(metric).get(resolution).get(bucketStart / resolution.getMillis());
+        }
+
+        private synchronized long getLastRecordedAt() {
+            return this.lastRecordedAt;
+        }
+
+    }
+
+    public enum EntityType {
+        SERVER,
+        GROUP
+    }
+
+    @Getter
+    public enum Metric {
+        CPU("cpu"),
+        MEMORY("memory"),
+        DISK("disk"),
+        NETWORK_RECEIVE("networkReceive"),
+        NETWORK_SEND("networkSend"),
+        PLAYERS("players");
+
+        private final String key;
+
+        Metric(String key) {
+            this.key = key;
+        }
+
+        public static Metric fromKey(String key) {
+            for (Metric metric : values()) {
+                if (metric.key.equalsIgnoreCase(key)) {
+                    return metric;
+                }
+            }
+            return null;
+        }
+    }
+
+    @Getter
+    public enum Resolution {
+        RAW("5s", 5_000L),
+        MINUTE("1m", 60_000L),
+        HOUR("1h", 3_600_000L);
+
+        private final String key;
+        private final long millis;
+
+        Resolution(String key, long millis) {
+            this.key = key;
+            this.millis = millis;
+        }
+
+        public static Resolution fromKey(String key) {
+            for (Resolution resolution : values()) {
+                if (resolution.key.equalsIgnoreCase(key)) {
+                    return resolution;
+                }
+            }
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,273 @@
+package be.esmay.atlas.base.metrics;
+
+import be.esmay.atlas.base.AtlasBase;
+import be.esmay.atlas.base.activity.ActivityService;
+import be.esmay.atlas.base.api.WebSocketManager;
+import be.esmay.atlas.base.network.NettyServer;
+import be.esmay.atlas.base.scaler.Scaler;
+import be.esmay.atlas.base.scaler.ScalerManager;
+import be.esmay.atlas.common.enums.ServerStatus;
+import be.esmay.atlas.common.models.AtlasServer;
+import be.esmay.atlas.common.models.ServerResourceMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Renders Atlas' state in the OpenMetrics text format.
+ *
+ * <p>Nothing is computed during a scrape beyond reading values that are already maintained: the
+ * {@link AtlasMetrics} meters, the scaler aggregates and the latest resource metrics of each
+ * server. The output is written into a buffer that is kept between scrapes.
+ */
+public final class OpenMetricsExporter {
+
+    public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+
+    private final StringBuilder buffer = new StringBuilder(INITIAL_BUFFER_SIZE);
+    private final List<ServerEntry> servers = new ArrayList<>();
+
+    public synchronized String scrape() {
+        this.buffer.setLength(0);
+
+        AtlasBase atlasBase = AtlasBase.getInstance();
+        ScalerManager scalerManager = atlasBase.getScalerManager();
+
+        this.collectServers(scalerManager);
+        this.writeServers();
+        this.writeGroups(scalerManager);
+        this.writeScaler(scalerManager);
+        this.writeInternals(atlasBase);
+
+        this.buffer.append("# EOF\n");
+        this.servers.clear();
+        return this.buffer.toString();
+    }
+
+    private void collectServers(ScalerManager scalerManager) {
+        if (scalerManager == null) {
+            return;
+        }
+
+        for (Scaler scaler : scalerManager.getScalers()) {
+            for (AtlasServer server : scaler.getServers()) {
+                this.servers.add(new ServerEntry(server, scaler.getGroupName()));
+            }
+        }
+    }
+
+    private void writeServers() {
+        this.family("atlas_server_up", "gauge", "Whether the server is running");
+        for (ServerEntry entry : this.servers) {
+            ServerStatus status = entry.server().getServerInfo() != null ? entry.server().getServerInfo().getStatus() : null;
+            this.serverSample("atlas_server_up", entry, status == ServerStatus.RUNNING ? 1 : 0);
+        }
+
+        this.family("atlas_server_players", "gauge", "Players online on the server");
+        for (ServerEntry entry : this.servers) {
+            this.serverSample("atlas_server_players", entry, entry.server().getServerInfo() != null ? entry.server().getServerInfo().getOnlinePlayers() : 0);
+        }
+
+        this.family("atlas_server_max_players", "gauge", "Player capacity of the server");
+        for (ServerEntry entry : this.servers) {
+            this.serverSample("atlas_server_max_players", entry, entry.server().getServerInfo() != null ? entry.server().getServerInfo().getMaxPlayers() : 0);
+        }
+
+        this.resourceFamily("atlas_server_cpu_usage_percent", "CPU usage of the server container, 100 is one core", ServerResourceMetrics::getCpuUsage);
+        this.resourceFamily("atlas_server_memory_used_bytes", "Memory used by the server container", ServerResourceMetrics::getMemoryUsed);
+        this.resourceFamily("atlas_server_memory_limit_bytes", "Memory limit of the server container", ServerResourceMetrics::getMemoryTotal);
+        this.resourceFamily("atlas_server_disk_used_bytes", "Size of the server working directory", ServerResourceMetrics::getDiskUsed);
+        this.resourceFamily("atlas_server_network_receive_bytes_per_second", "Bytes received per second by the server container", ServerResourceMetrics::getNetworkReceiveBandwidth);
+        this.resourceFamily("atlas_server_network_send_bytes_per_second", "Bytes sent per second by the server container", ServerResourceMetrics::getNetworkSendBandwidth);
+    }
+
+    private void resourceFamily(String name, String help, ToDoubleFunction<ServerResourceMetrics> value) {
+        this.family(name, "gauge", help);
+        for (ServerEntry entry : this.servers) {
+            ServerResourceMetrics metrics = entry.server().getResourceMetrics();
+            if (metrics != null) {
+                this.serverSample(name, entry, value.applyAsDouble(metrics));
+            }
+        }
+    }
+
+    private void writeGroups(ScalerManager scalerManager) {
+        if (scalerManager == null) {
+            return;
+        }
+
+        this.groupFamily(scalerManager, "atlas_group_servers", "Servers in the group", scaler -> scaler.getAggregates().getServerCount(false));
+        this.groupFamily(scalerManager, "atlas_group_running_servers", "Running servers in the group", scaler -> scaler.getAggregates().getServerCount(ServerStatus.RUNNING, false));
+        this.groupFamily(scalerManager, "atlas_group_standby_servers", "Warm standby servers in the group", Scaler::getStandbyServerCount);
+        this.groupFamily(scalerManager, "atlas_group_players", "Players online in the group", scaler -> scaler.getAggregates().getOnlinePlayers(false));
+        this.groupFamily(scalerManager, "atlas_group_capacity", "Player capacity of the running servers in the group", scaler -> scaler.getAggregates().getMaxPlayers(ServerStatus.RUNNING, false));
+        this.groupFamily(scalerManager, "atlas_group_utilization_ratio", "Utilization the scaler decides on", Scaler::getCurrentUtilization);
+        this.groupFamily(scalerManager, "atlas_group_pending_removals", "Servers of the group being removed", scaler -> scaler.getPendingRemovals().size());
+    }
+
+    private void groupFamily(ScalerManager scalerManager, String name, String help, ToDoubleFunction<Scaler> value) {
+        this.family(name, "gauge", help);
+        for (Scaler scaler : scalerManager.getScalers()) {
+            this.buffer.append(name).append("{group=\"");
+            this.appendEscaped(scaler.getGroupName());
+            this.buffer.append("\"} ");
+            this.appendValue(value.applyAsDouble(scaler));
+            this.buffer.append('\n');
+        }
+    }
+
+    private void writeScaler(ScalerManager scalerManager) {
+        this.histogram("atlas_scaler_tick_seconds", "Time taken by one scaling check of a group", AtlasMetrics.SCALER_TICK_SECONDS);
+        this.counter("atlas_scaler_scale_ups", "Scale-up decisions made for a group", AtlasMetrics.SCALE_UPS);
+        this.counter("atlas_scaler_scale_downs", "Scale-down decisions made for a group", AtlasMetrics.SCALE_DOWNS);
+        this.counter("atlas_scaler_tick_overruns", "Scaling checks of a group that took longer than its interval", AtlasMetrics.SCALER_TICK_OVERRUNS);
+        this.counter("atlas_scaler_ticks_throttled", "Scaling checks of a group that waited because all tick slots were busy", AtlasMetrics.SCALER_TICKS_THROTTLED);
+        this.histogram("atlas_server_start_seconds", "Time from server creation until it reported running", AtlasMetrics.SERVER_START_SECONDS);
+
+        if (scalerManager != null) {
+            this.gauge("atlas_server_starts_running", "Server starts in progress across all groups", scalerManager.getStartLimiter().getRunning());
+            this.gauge("atlas_server_starts_queued", "Server starts waiting for a start slot", scalerManager.getStartLimiter().getQueued());
+        }
+    }
+
+    private void writeInternals(AtlasBase atlasBase) {
+        NettyServer nettyServer = atlasBase.getNettyServer();
+        if (nettyServer != null && nettyServer.getConnectionManager() != null) {
+            this.gauge("atlas_netty_connections", "Open plugin connections", nettyServer.getConnectionManager().getConnectionCount());
+            this.gauge("atlas_netty_authenticated_connections", "Authenticated plugin connections", nettyServer.getConnectionManager().getAuthenticatedConnectionCount());
+        }
+
+        this.packetFamily("atlas_packets_received", "Packets received from plugins by packet id", true);
+        this.packetFamily("atlas_packets_sent", "Packets sent to plugins by packet id", false);
+
+        WebSocketManager webSocketManager = atlasBase.getApiManager() != null ? atlasBase.getApiManager().getWebSocketManager() : null;
+        if (webSocketManager != null) {
+            this.gauge("atlas_websocket_connections", "Open API WebSocket connections", webSocketManager.getConnectionCount());
+        }
+
+        ActivityService activityService = atlasBase.getActivityService();
+        if (activityService != null) {
+            this.gauge("atlas_activity_write_queue_depth", "Activity records waiting to be written", activityService.getPendingWriteCount());
+
+            this.family("atlas_activity_dropped", "counter", "Activity records dropped because the write queue was full");
+            this.buffer.append("atlas_activity_dropped_total ").append(activityService.getDroppedWriteCount()).append('\n');
+        }
+    }
+
+    private void packetFamily(String name, String help, boolean received) {
+        this.family(name, "counter", help);
+        for (int packetId = 0; packetId < AtlasMetrics.getPacketIdSlots(); packetId++) {
+            long value = received ? AtlasMetrics.getPacketsReceived(packetId) : AtlasMetrics.getPacketsSent(packetId);
+            if (value == 0) {
+                continue;
+            }
+
+            this.buffer.append(name).append("_total{packet=\"0x");
+            if (packetId < 0x10) {
+                this.buffer.append('0');
+            }
+            this.buffer.append(Integer.toHexString(packetId)).append("\"} ").append(value).append('\n');
+        }
+    }
+
+    private void counter(String name, String help, AtlasMetrics.LabeledCounter counter) {
+        this.family(name, "counter", help);
+        for (Map.Entry<String, LongAdder> entry : counter.getValues().entrySet()) {
+            this.buffer.append(name).append("_total{group=\"");
+            this.appendEscaped(entry.getKey());
+            this.buffer.append("\"} ").append(entry.getValue().sum()).append('\n');
+        }
+    }
+
+    private void histogram(String name, String help, AtlasMetrics.LabeledHistogram histogram) {
+        this.family(name, "histogram", help);
+
+        double[] bounds = histogram.getBounds();
+        for (Map.Entry<String, AtlasMetrics.Buckets> entry : histogram.getValues().entrySet()) {
+            AtlasMetrics.Buckets buckets = entry.getValue();
+            long count = buckets.getCount();
+
+            long cumulative = 0;
+            for (int i = 0; i < bounds.length; i++) {
+                cumulative += buckets.getBucketCount(i);
+                this.histogramBucket(name, entry.getKey(), Double.toString(bounds[i]), cumulative);
+            }
+            this.histogramBucket(name, entry.getKey(), "+Inf", count);
+
+            this.buffer.append(name).append("_count{group=\"");
+            this.appendEscaped(entry.getKey());
+            this.buffer.append("\"} ").append(count).append('\n');
+
+            this.buffer.append(name).append("_sum{group=\"");
+            this.appendEscaped(entry.getKey());
+            this.buffer.append("\"} ");
+            this.appendValue(buckets.getSum());
+            this.buffer.append('\n');
+        }
+    }
+
+    private void histogramBucket(String name, String group, String bound, long value) {
+        this.buffer.append(name).append("_bucket{group=\"");
+        this.appendEscaped(group);
+        this.buffer.append("\",le=\"").append(bound).append("\"} ").append(value).append('\n');
+    }
+
+    private void gauge(String name, String help, double value) {
+        this.family(name, "gauge", help);
+        this.buffer.append(name).append(' ');
+        this.appendValue(value);
+        this.buffer.append('\n');
+    }
+
+    private void family(String name, String type, String help) {
+        this.buffer.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        this.buffer.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    }
+
+    private void serverSample(String name, ServerEntry entry, double value) {
+        this.buffer.append(name).append("{server=\"");
+        this.appendEscaped(entry.server().getName());
+        this.buffer.append("\",server_id=\"");
+        this.appendEscaped(entry.server().getServerId());
+        this.buffer.append("\",group=\"");
+        this.appendEscaped(entry.group());
+        this.buffer.append("\"} ");
+        this.appendValue(value);
+        this.buffer.append('\n');
+    }
+
+    private void appendValue(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            this.buffer.append((long) value);
+        } else if (Double.isNaN(value)) {
+            this.buffer.append("NaN");
+        } else {
+            this.buffer.append(value);
+        }
+    }
+
+    private void appendEscaped(String value) {
+        if (value == null) {
+            return;
+        }
+
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '\\' -> this.buffer.append("\\\\");
+                case '"' -> this.buffer.append("\\\"");
+                case '\n' -> this.buffer.append("\\n");
+                default -> this.buffer.append(ch);
+            }
+        }
+    }
+
+    private record ServerEntry(AtlasServer server, String group) {
+    }
+
+}
@@ -0,0 +1,113 @@
+package be.esmay.atlas.base.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A fixed-size ring of time buckets holding the minimum, maximum and average of the values
+ * recorded into each bucket. Recording into a bucket that has wrapped around overwrites it, so
+ * the memory used never grows.
+ */
+public final class RollupSeries {
+
+    private final long resolutionMillis;
+    private final int capacity;
+    private final int[] bucketIds;
+    private final float[] minimums;
+    private final float[] maximums;
+    private final float[] sums;
+    private final int[] counts;
+    private int latestBucketId = -1;
+
+    RollupSeries(long resolutionMillis, int capacity) {
+        this.resolutionMillis = resolutionMillis;
+        this.capacity = capacity;
+        this.bucketIds = new int[capacity];
+        this.minimums = new float[capacity];
+        this.maximums = new float[capacity];
+        this.sums = new float[capacity];
+        this.counts = new int[capacity];
+        Arrays.fill(this.bucketIds, -1);
+    }
+
+    void record(long timestamp, double value) {
+        int bucketId = (int) (timestamp / this.resolutionMillis);
+        int slot = bucketId % this.capacity;
+
+        if (this.bucketIds[slot] != bucketId) {
+            this.bucketIds[slot] = bucketId;
+            this.minimums[slot] = (float) value;
+            this.maximums[slot] = (float) value;
+            this.sums[slot] = (float) value;
+            this.counts[slot] = 1;
+        } else {
+            this.minimums[slot] = Math.min(this.minimums[slot], (float) value);
+            this.maximums[slot] = Math.max(this.maximums[slot], (float) value);
+            this.sums[slot] += (float) value;
+            this.counts[slot]++;
+        }
+
+        this.latestBucketId = Math.max(this.latestBucketId, bucketId);
+    }
+
+    /**
+     * Puts back a bucket that was loaded from storage. Buckets older than what the ring can hold
+     * are ignored.
+     */
+    void restore(long bucketStart, double min, double max, double avg, int count) {
+        int bucketId = (int) (bucketStart / this.resolutionMillis);
+        if (count <= 0 || (this.latestBucketId >= 0 && bucketId <= this.latestBucketId - this.capacity)) {
+            return;
+        }
+
+        int slot = bucketId % this.capacity;
+        this.bucketIds[slot] = bucketId;
+        this.minimums[slot] = (float) min;
+        this.maximums[slot] = (float) max;
+        this.sums[slot] = (float) (avg * count);
+        this.counts[slot] = count;
+        this.latestBucketId = Math.max(this.latestBucketId, bucketId);
+    }
+
+    List<Point> query(long from, long to) {
+        List<Point> points = new ArrayList<>();
+        if (this.latestBucketId < 0) {
+            return points;
+        }
+
+        long first = Math.max(from / this.resolutionMillis, (long) this.latestBucketId - this.capacity + 1);
+        long last = Math.min(to / this.resolutionMillis, this.latestBucketId);
+
+        for (long bucketId = Math.max(0, first); bucketId <= last; bucketId++) {
+            Point point = this.get(bucketId);
+            if (point != null) {
+                points.add(point);
+            }
+        }
+
+        return points;
+    }
+
+    /**
+     * Returns the bucket starting at {@code bucketId * resolution}, or {@code null} if it holds
+     * no values.
+     */
+    Point get(long bucketId) {
+        int slot = (int) (bucketId % this.capacity);
+        if (this.bucketIds[slot] != bucketId || this.counts[slot] == 0) {
+            return null;
+        }
+
+        int count = this.counts[slot];
+        return new Point(bucketId * this.resolutionMillis, this.minimums[slot], this.maximums[slot], this.sums[slot] / count, count);
+    }
+
+    /**
+     * @param timestamp the start of the bucket
+     * @param count     the number of values recorded into the bucket
+     */
+    public record Point(long timestamp, double min, double max, double avg, int count) {
+    }
+
+}
@@ -1,17 +1,20 @@
 package be.esmay.atlas.base.network;
 
 import be.esmay.atlas.base.AtlasBase;
+import be.esmay.atlas.base.metrics.AtlasMetrics;
 import be.esmay.atlas.base.network.connection.Connection;
 import be.esmay.atlas.base.network.connection.ConnectionManager;
 import be.esmay.atlas.base.network.security.AuthenticationHandler;
-import be.esmay.atlas.base.provider.ServiceProvider;
 import be.esmay.atlas.base.scaler.Scaler;
+import be.esmay.atlas.base.scaler.ScalerManager;
+import be.esmay.atlas.base.scaler.ServerRegistry;
 import be.esmay.atlas.base.utils.Logger;
 import be.esmay.atlas.common.enums.ServerStatus;
 import be.esmay.atlas.common.models.AtlasServer;
 import be.esmay.atlas.common.models.ServerInfo;
 import be.esmay.atlas.common.network.packet.Packet;
 import be.esmay.atlas.common.network.packet.PacketHandler;
+import be.esmay.atlas.common.network.packet.WireFormat;
 import be.esmay.atlas.common.network.packet.packets.AtlasServerUpdatePacket;
 import be.esmay.atlas.common.network.packet.packets.AuthenticationPacket;
 import be.esmay.atlas.common.network.packet.packets.HandshakePacket;
@@ -20,15 +23,18 @@ import be.esmay.atlas.common.network.packet.packets.MetadataUpdatePacket;
 import be.esmay.atlas.common.network.packet.packets.ServerAddPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerCommandPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerControlPacket;
+import be.esmay.atlas.common.network.packet.packets.ServerDeltaPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerInfoUpdatePacket;
 import be.esmay.atlas.common.network.packet.packets.ServerListPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerListRequestPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerRemovePacket;
+import be.esmay.atlas.common.network.packet.packets.ServerResyncRequestPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerUpdatePacket;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
@@ -58,6 +64,7 @@ public final class AtlasChannelHandler extends SimpleChannelInboundHandler<Packe
     @Override
     protected void channelRead0(ChannelHandlerContext ctx, Packet packet) throws Exception {
         this.currentContext = ctx;
+        AtlasMetrics.recordPacketReceived(packet.getId());
         packet.handle(this);
         this.currentContext = null;
     }
@@ -74,19 +81,24 @@ public final class AtlasChannelHandler extends SimpleChannelInboundHandler<Packe
 
         boolean accepted = this.authHandler.authenticate(packet.getAuthToken());
         String reason = accepted ? "Accepted" : "Invalid authentication token";
+        WireFormat wireFormat = WireFormat.negotiate(packet.getWireFormat());
 
         HandshakePacket response = new HandshakePacket(
                 packet.getPluginType(),
                 packet.getVersion(),
                 packet.getAuthToken(),
                 accepted,
-                reason
+                reason,
+                wireFormat
         );
 
         if (this.currentContext != null) {
             this.currentContext.writeAndFlush(response);
 
             if (accepted) {
+                WireFormat.apply(this.currentContext.channel(), wireFormat);
+                Logger.debug("Negotiated {} wire format with {} v{}", wireFormat, packet.getPluginType(), packet.getVersion());
+
                 Connection connection = this.connectionManager.getConnection(this.currentContext.channel());
                 if (connection != null) {
                     connection.setAuthenticated(true);
@@ -122,12 +134,10 @@ public final class AtlasChannelHandler extends SimpleChannelInboundHandler<Packe
         HeartbeatPacket response = new HeartbeatPacket("atlas-base", System.currentTimeMillis());
         this.currentContext.writeAndFlush(response);
 
-        AtlasBase atlasInstance = AtlasBase.getInstance();
-        if (atlasInstance != null && atlasInstance.getScalerManager() != null) {
-            atlasInstance.getScalerManager().getScalers().forEach(scaler -> {
-                scaler.updateServerHeartbeat(packet.getServerId());
-                scaler.updateServerStatus(packet.getServerId(), ServerStatus.RUNNING);
-            });
+        Scaler scaler = this.findScalerForServer(packet.getServerId());
+        if (scaler != null) {
+            scaler.updateServerHeartbeat(packet.getServerId());
+            scaler.updateServerStatus(packet.getServerId(), ServerStatus.RUNNING);
         }
 
         Logger.debug("Heartbeat received from server {}", packet.getServerId());
@@ -180,21 +190,13 @@ public final class AtlasChannelHandler extends SimpleChannelInboundHandler<Packe
 
         connection.updateHeartbeat();
 
-        AtlasBase atlasInstance = AtlasBase.getInstance();
-        if (atlasInstance != null && atlasInstance.getScalerManager() != null) {
-            boolean found = false;
-            for (Scaler scaler : atlasInstance.getScalerManager().getScalers()) {
-                if (scaler.getServer(serverId) != null) {
-                    scaler.updateServerInfo(serverId, serverInfo);
-                    found = true;
-                    break;
-                }
-            }
-            
-            if (!found) {
-                Logger.debug("Server {} not found in any scaler tracking", serverId);
-            }
+        Scaler scaler = this.findScalerForServer(serverId);
+        if (scaler == null) {
+            Logger.debug("Server {} not found in any scaler tracking", serverId);
+            return;
         }
+
+        scaler.updateServerInfo(serverId, serverInfo);
     }
 
     @Override
@@ -206,8 +208,11 @@ public final class AtlasChannelHandler extends SimpleChannelInboundHandler<Packe
     public void handleServerListRequest(ServerListRequestPacket packet) {
         Logger.debug("Server list request received from: {}", packet.getRequesterId());
 
+        ServerRegistry serverRegistry = AtlasBase.getInstance().getScalerManager().getServerRegistry();
         List<AtlasServer> atlasServers = this.getAllAtlasServers().stream()
                 .filter(server -> server.getServerInfo() != null && server.getServerInfo().getStatus() == ServerStatus.RUNNING)
+                .filter(server -> !serverRegistry.isStandby(server.getServerId()))
+                .map(this::getPublishedState)
                 .collect(Collectors.toList());
 
         ServerListPacket response = new ServerListPacket(atlasServers);
@@ -219,15 +224,72 @@ public final class AtlasChannelHandler extends SimpleChannelInboundHandler<Packe
         Logger.debug("Sent server list with {} non-proxy servers", atlasServers.size());
     }
 
+    @Override
+    public void handleServerDelta(ServerDeltaPacket packet) {
+        Logger.warn("Backend server attempted to send ServerDeltaPacket, ignoring");
+    }
+
+    @Override
+    public void handleServerResyncRequest(ServerResyncRequestPacket packet) {
+        Logger.debug("Resync of server {} requested by: {}", packet.getServerId(), packet.getRequesterId());
+
+        if (this.currentContext == null) {
+            return;
+        }
+
+        AtlasBase atlasInstance = AtlasBase.getInstance();
+        if (atlasInstance == null || atlasInstance.getNettyServer() == null) {
+            return;
+        }
+
+        AtlasServer snapshot = atlasInstance.getNettyServer().getStateTracker().getSnapshot(packet.getServerId());
+        if (snapshot != null) {
+            this.currentContext.writeAndFlush(new ServerUpdatePacket(snapshot));
+            return;
+        }
+
+        AtlasServer server = atlasInstance.getScalerManager() != null ? atlasInstance.getScalerManager().getServerFromTracking(packet.getServerId()) : null;
+
+        if (server == null) {
+            this.currentContext.writeAndFlush(new ServerRemovePacket(packet.getServerId(), "Server no longer exists"));
+            return;
+        }
+
+        if (atlasInstance.getScalerManager().getServerRegistry().isStandby(server.getServerId())) {
+            this.currentContext.writeAndFlush(new ServerRemovePacket(packet.getServerId(), "Server is a standby server"));
+            return;
+        }
+
+        atlasInstance.getNettyServer().broadcastServerUpdate(server);
+    }
+
+    private AtlasServer getPublishedState(AtlasServer server) {
+        AtlasBase atlasInstance = AtlasBase.getInstance();
+        if (atlasInstance == null || atlasInstance.getNettyServer() == null) {
+            return server;
+        }
+
+        AtlasServer snapshot = atlasInstance.getNettyServer().getStateTracker().getSnapshot(server.getServerId());
+        return snapshot != null ? snapshot : server;
+    }
+
     private List<AtlasServer> getAllAtlasServers() {
         AtlasBase atlasInstance = AtlasBase.getInstance();
         if (atlasInstance == null || atlasInstance.getScalerManager() == null) {
             return List.of();
         }
 
-        return atlasInstance.getScalerManager().getScalers().stream()
-                .flatMap(scaler -> scaler.getServers().stream())
-                .collect(Collectors.toList());
+        return atlasInstance.getScalerManager().getAllServersFromTracking();
+    }
+
+    private Scaler findScalerForServer(String serverId) {
+        AtlasBase atlasInstance = AtlasBase.getInstance();
+        if (atlasInstance == null || atlasInstance.getScalerManager() == null) {
+            return null;
+        }
+
+        ScalerManager scalerManager = atlasInstance.getScalerManager();
+        return scalerManager.getScalerForServer(scalerManager.getServerFromTracking(serverId));
     }
 
     @Override
@@ -271,18 +333,9 @@ public final class AtlasChannelHandler extends SimpleChannelInboundHandler<Packe
 
         String serverIdentifier = packet.getServerIdentifier();
         ServerControlPacket.ControlAction action = packet.getAction();
-        ServiceProvider provider = atlasInstance.getProviderManager().getProvider();
+        ServerRegistry serverRegistry = atlasInstance.getScalerManager().getServerRegistry();
 
-        provider.getServer(serverIdentifier).thenCompose(serverOpt -> {
-            if (serverOpt.isPresent()) {
-                return CompletableFuture.completedFuture(serverOpt);
-            }
-
-            return provider.getAllServers()
-                    .thenApply(servers -> servers.stream()
-                            .filter(server -> server.getName().equals(serverIdentifier))
-                            .findFirst());
-        }).thenAccept(serverOpt -> {
+        CompletableFuture.supplyAsync(() -> Optional.ofNullable(serverRegistry.findServer(serverIdentifier))).thenAccept(serverOpt -> {
             if (serverOpt.isEmpty()) {
                 Logger.warn("Server not found: {} for control action: {}", serverIdentifier, action);
                 return;
@@ -331,17 +384,10 @@ public final class AtlasChannelHandler extends SimpleChannelInboundHandler<Packe
             return;
         }
         
-        for (Scaler scaler : atlasInstance.getScalerManager().getScalers()) {
-            AtlasServer server = scaler.getServers().stream()
-                    .filter(s -> s.getServerId().equals(packet.getServerId()))
-                    .findFirst()
-                    .orElse(null);
-                    
-            if (server != null) {
-                server.setMetadata(packet.getMetadata());
-                Logger.debug("Updated metadata for server: {}", server.getName());
-                break;
-            }
+        AtlasServer server = atlasInstance.getScalerManager().getServerFromTracking(packet.getServerId());
+        if (server != null) {
+            server.setMetadata(packet.getMetadata());
+            Logger.debug("Updated metadata for server: {}", server.getName());
         }
     }
 
@@ -1,5 +1,6 @@
 package be.esmay.atlas.base.network;
 
+import be.esmay.atlas.base.AtlasBase;
 import be.esmay.atlas.base.config.impl.AtlasConfig;
 import be.esmay.atlas.base.network.connection.ConnectionManager;
 import be.esmay.atlas.base.utils.SecureKeyGen;
@@ -11,12 +12,15 @@ import be.esmay.atlas.base.network.security.AuthenticationHandler;
 import be.esmay.atlas.base.network.security.ConnectionValidator;
 import be.esmay.atlas.base.utils.Logger;
 import be.esmay.atlas.common.models.AtlasServer;
+import be.esmay.atlas.common.network.NettyTransport;
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.WriteBufferWaterMark;
 import lombok.Getter;
 
 import java.util.concurrent.CompletableFuture;
@@ -28,6 +32,7 @@ public final class NettyServer {
     private final ConnectionManager connectionManager;
     private final AuthenticationHandler authHandler;
     private final ConnectionValidator connectionValidator;
+    private final ServerStateTracker stateTracker;
     
     private EventLoopGroup bossGroup;
     private EventLoopGroup workerGroup;
@@ -43,6 +48,7 @@ public final class NettyServer {
         this.connectionManager = new ConnectionManager(networkConfig.getConnectionTimeout());
         this.authHandler = new AuthenticationHandler(this);
         this.connectionValidator = new ConnectionValidator(networkConfig);
+        this.stateTracker = new ServerStateTracker();
     }
     
     public CompletableFuture<Void> start() {
@@ -52,12 +58,13 @@ public final class NettyServer {
         
         return CompletableFuture.runAsync(() -> {
             try {
-                this.bossGroup = new NioEventLoopGroup(1);
-                this.workerGroup = new NioEventLoopGroup();
+                NettyTransport transport = NettyTransport.select(this.networkConfig.getTransport());
+                this.bossGroup = transport.createEventLoopGroup(1);
+                this.workerGroup = transport.createEventLoopGroup(this.networkConfig.getWorkerThreads());
                 
                 ServerBootstrap bootstrap = new ServerBootstrap();
                 ServerBootstrap groupedBootstrap = bootstrap.group(this.bossGroup, this.workerGroup);
-                ServerBootstrap channelBootstrap = groupedBootstrap.channel(NioServerSocketChannel.class);
+                ServerBootstrap channelBootstrap = groupedBootstrap.channel(transport.getServerChannelClass());
                 
                 AtlasChannelInitializer channelInitializer = new AtlasChannelInitializer(
                     this.connectionManager, 
@@ -66,8 +73,20 @@ public final class NettyServer {
                 );
                 
                 ServerBootstrap childHandlerBootstrap = channelBootstrap.childHandler(channelInitializer);
-                ServerBootstrap optionBootstrap = childHandlerBootstrap.option(ChannelOption.SO_BACKLOG, 128);
-                ServerBootstrap childOptionBootstrap = optionBootstrap.childOption(ChannelOption.SO_KEEPALIVE, true);
+                ByteBufAllocator allocator = this.createAllocator();
+                WriteBufferWaterMark waterMark = new WriteBufferWaterMark(
+                    this.networkConfig.getWriteBufferLowWaterMark(),
+                    this.networkConfig.getWriteBufferHighWaterMark()
+                );
+                
+                ServerBootstrap optionBootstrap = childHandlerBootstrap
+                    .option(ChannelOption.SO_BACKLOG, this.networkConfig.getSoBacklog())
+                    .option(ChannelOption.ALLOCATOR, allocator);
+                ServerBootstrap childOptionBootstrap = optionBootstrap
+                    .childOption(ChannelOption.SO_KEEPALIVE, true)
+                    .childOption(ChannelOption.TCP_NODELAY, this.networkConfig.isTcpNoDelay())
+                    .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, waterMark)
+                    .childOption(ChannelOption.ALLOCATOR, allocator);
                 
                 this.channelFuture = childOptionBootstrap.bind(
                     this.networkConfig.getBindAddress(), 
@@ -75,9 +94,10 @@ public final class NettyServer {
                 ).sync();
                 
                 this.running = true;
-                Logger.info("Netty server started on {}:{}", 
+                Logger.info("Netty server started on {}:{} using {} transport", 
                     this.networkConfig.getBindAddress(), 
-                    this.networkConfig.getPort());
+                    this.networkConfig.getPort(),
+                    transport);
                 
                 this.channelFuture.channel().closeFuture().sync();
             } catch (Exception e) {
@@ -89,6 +109,15 @@ public final class NettyServer {
         });
     }
     
+    private ByteBufAllocator createAllocator() {
+        boolean preferDirect = this.networkConfig.isPreferDirectBuffers();
+        if (this.networkConfig.isPooledAllocator()) {
+            return new PooledByteBufAllocator(preferDirect);
+        }
+        
+        return new UnpooledByteBufAllocator(preferDirect);
+    }
+    
     public void shutdown() {
         if (!this.running) {
             return;
@@ -99,6 +128,8 @@ public final class NettyServer {
         if (this.connectionManager != null) {
             this.connectionManager.shutdown();
         }
+
+        this.stateTracker.clear();
         
         if (this.channelFuture != null) {
             this.channelFuture.channel().close();
@@ -116,21 +147,27 @@ public final class NettyServer {
     }
     
     public void broadcastServerUpdate(AtlasServer atlasServer) {
-        if (!this.running) {
+        if (!this.running || this.isStandby(atlasServer)) {
             return;
         }
         
-        ServerUpdatePacket packet = new ServerUpdatePacket(atlasServer);
-        this.connectionManager.broadcastPacket(packet);
+        this.stateTracker.update(atlasServer, (snapshot, delta) -> {
+            ServerUpdatePacket packet = new ServerUpdatePacket(snapshot);
+            if (delta == null) {
+                this.connectionManager.broadcastPacket(packet);
+                return;
+            }
+
+            this.connectionManager.broadcastPacket(delta, packet);
+        });
     }
     
     public void broadcastServerAdd(AtlasServer atlasServer) {
-        if (!this.running) {
+        if (!this.running || this.isStandby(atlasServer)) {
             return;
         }
         
-        ServerAddPacket packet = new ServerAddPacket(atlasServer);
-        this.connectionManager.broadcastPacket(packet);
+        this.stateTracker.replace(atlasServer, snapshot -> this.connectionManager.broadcastPacket(new ServerAddPacket(snapshot)));
     }
     
     public void broadcastServerRemove(String serverId, String reason) {
@@ -138,10 +175,21 @@ public final class NettyServer {
             return;
         }
         
+        this.stateTracker.forget(serverId);
+
         ServerRemovePacket packet = new ServerRemovePacket(serverId, reason);
         this.connectionManager.broadcastPacket(packet);
     }
     
+    /**
+     * Standby servers of a warm pool are not advertised until they are promoted.
+     */
+    private boolean isStandby(AtlasServer atlasServer) {
+        AtlasBase atlasInstance = AtlasBase.getInstance();
+        return atlasInstance != null && atlasInstance.getScalerManager() != null
+                && atlasInstance.getScalerManager().getServerRegistry().isStandby(atlasServer.getServerId());
+    }
+
     public void sendToServer(String serverId, Packet packet) {
         if (!this.running) {
             return;
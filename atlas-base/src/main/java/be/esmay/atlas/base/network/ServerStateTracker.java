@@ -0,0 +1,98 @@
+package be.esmay.atlas.base.network;
+
+import be.esmay.atlas.common.models.AtlasServer;
+import be.esmay.atlas.common.network.packet.packets.ServerDeltaPacket;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the last state broadcast for every server so updates can be sent as deltas.
+ *
+ * <p>Every published state is stamped with a version taken from a single increasing sequence,
+ * so a server's versions never go backwards, even when it is forgotten and tracked again.
+ * Publishing happens while the server's entry is locked, which keeps the packets of one server
+ * in version order on every connection.
+ */
+public final class ServerStateTracker {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong versionSequence = new AtomicLong();
+
+    /**
+     * Records the current state of the server and publishes it.
+     *
+     * <p>The publisher receives the new snapshot and the delta against the previous snapshot.
+     * The delta is {@code null} when the server was not tracked yet or the change cannot be
+     * expressed as a delta. Nothing is published when no tracked field changed.
+     */
+    public void update(AtlasServer server, BiConsumer<AtlasServer, ServerDeltaPacket> publisher) {
+        Entry entry = this.entries.computeIfAbsent(server.getServerId(), serverId -> new Entry());
+
+        synchronized (entry) {
+            AtlasServer current = server.copy();
+            AtlasServer previous = entry.snapshot;
+
+            long version = this.versionSequence.incrementAndGet();
+            current.setStateVersion(version);
+
+            ServerDeltaPacket delta = previous != null ? ServerDeltaPacket.between(previous, current, version) : null;
+            if (delta != null && delta.isEmpty()) {
+                return;
+            }
+
+            entry.snapshot = current;
+            publisher.accept(current, delta);
+        }
+    }
+
+    /**
+     * Records the current state of the server and always publishes it as a full snapshot.
+     */
+    public void replace(AtlasServer server, Consumer<AtlasServer> publisher) {
+        Entry entry = this.entries.computeIfAbsent(server.getServerId(), serverId -> new Entry());
+
+        synchronized (entry) {
+            AtlasServer current = server.copy();
+            current.setStateVersion(this.versionSequence.incrementAndGet());
+
+            entry.snapshot = current;
+            publisher.accept(current);
+        }
+    }
+
+    public AtlasServer getSnapshot(String serverId) {
+        if (serverId == null) {
+            return null;
+        }
+
+        Entry entry = this.entries.get(serverId);
+        if (entry == null) {
+            return null;
+        }
+
+        synchronized (entry) {
+            return entry.snapshot;
+        }
+    }
+
+    public void forget(String serverId) {
+        if (serverId == null) {
+            return;
+        }
+
+        this.entries.remove(serverId);
+    }
+
+    public void clear() {
+        this.entries.clear();
+    }
+
+    private static final class Entry {
+        private AtlasServer snapshot;
+    }
+
+}
@@ -1,5 +1,6 @@
 package be.esmay.atlas.base.network.connection;
 
+import be.esmay.atlas.base.metrics.AtlasMetrics;
 import be.esmay.atlas.common.network.packet.Packet;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
@@ -36,11 +37,13 @@ public final class Connection {
     public void sendPacket(Packet packet) {
         if (this.channel.isActive()) {
             this.channel.writeAndFlush(packet);
+            AtlasMetrics.recordPacketsSent(packet.getId(), 1);
         }
     }
     
     public ChannelFuture sendPacketAsync(Packet packet) {
         if (this.channel.isActive()) {
+            AtlasMetrics.recordPacketsSent(packet.getId(), 1);
             return this.channel.writeAndFlush(packet);
         }
         return null;
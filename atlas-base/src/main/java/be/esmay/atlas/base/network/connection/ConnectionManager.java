@@ -2,6 +2,7 @@ package be.esmay.atlas.base.network.connection;
 
 import be.esmay.atlas.base.AtlasBase;
 import be.esmay.atlas.base.lifecycle.ServerLifecycleService;
+import be.esmay.atlas.base.metrics.AtlasMetrics;
 import be.esmay.atlas.base.provider.DeletionOptions;
 import be.esmay.atlas.base.utils.Logger;
 import be.esmay.atlas.common.enums.ServerStatus;
@@ -9,13 +10,22 @@ import be.esmay.atlas.common.enums.ServerType;
 import be.esmay.atlas.common.models.AtlasServer;
 import be.esmay.atlas.common.models.ServerInfo;
 import be.esmay.atlas.common.network.packet.Packet;
+import be.esmay.atlas.common.network.packet.PacketEncoder;
+import be.esmay.atlas.common.network.packet.WireFormat;
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
@@ -70,10 +80,74 @@ public final class ConnectionManager {
     }
 
     public void broadcastPacket(Packet packet) {
+        this.broadcastPacket(packet, packet);
+    }
+
+    /**
+     * Broadcasts {@code binaryPacket} to connections that negotiated the binary wire format and
+     * {@code legacyPacket} to everyone else, for packets older plugin builds cannot decode.
+     *
+     * <p>Each packet is encoded once per wire format into a shared frame. Channels receive
+     * retained duplicates of that frame, and every event loop writes and flushes all of its
+     * channels in a single task.
+     */
+    public void broadcastPacket(Packet binaryPacket, Packet legacyPacket) {
+        Map<EventLoop, List<Channel>> channelsByLoop = new HashMap<>();
+        int recipients = 0;
         for (Connection connection : this.connections.values()) {
             if (connection.isAuthenticated() && connection.isActive()) {
-                connection.sendPacket(packet);
+                Channel channel = connection.getChannel();
+                channelsByLoop.computeIfAbsent(channel.eventLoop(), loop -> new ArrayList<>()).add(channel);
+                recipients++;
+            }
+        }
+
+        if (channelsByLoop.isEmpty()) {
+            return;
+        }
+
+        AtlasMetrics.recordPacketsSent(binaryPacket.getId(), recipients);
+
+        Map<WireFormat, ByteBuf> frames = new EnumMap<>(WireFormat.class);
+        List<ByteBuf> pendingFrames = null;
+        try {
+            for (Map.Entry<EventLoop, List<Channel>> entry : channelsByLoop.entrySet()) {
+                List<Channel> channels = entry.getValue();
+                List<ByteBuf> channelFrames = new ArrayList<>(channels.size());
+                pendingFrames = channelFrames;
+
+                for (Channel channel : channels) {
+                    WireFormat format = WireFormat.of(channel);
+                    Packet packet = format == WireFormat.BINARY ? binaryPacket : legacyPacket;
+                    ByteBuf frame = frames.computeIfAbsent(format, key -> PacketEncoder.encodeFrame(channel.alloc(), packet, key));
+                    channelFrames.add(frame.retainedDuplicate());
+                }
+
+                // From here on writeFrames owns the duplicates and releases them if it cannot write.
+                pendingFrames = null;
+                this.writeFrames(entry.getKey(), channels, channelFrames);
             }
+        } catch (Exception e) {
+            if (pendingFrames != null) {
+                pendingFrames.forEach(ByteBuf::release);
+            }
+            Logger.error("Failed to broadcast packet {}", e, binaryPacket.getClass().getSimpleName());
+        } finally {
+            frames.values().forEach(ByteBuf::release);
+        }
+    }
+
+    private void writeFrames(EventLoop eventLoop, List<Channel> channels, List<ByteBuf> channelFrames) {
+        try {
+            eventLoop.execute(() -> {
+                for (int i = 0; i < channels.size(); i++) {
+                    channels.get(i).write(channelFrames.get(i), channels.get(i).voidPromise());
+                }
+
+                channels.forEach(Channel::flush);
+            });
+        } catch (RejectedExecutionException e) {
+            channelFrames.forEach(ByteBuf::release);
         }
     }
 
@@ -190,11 +264,7 @@ public final class ConnectionManager {
             return null;
         }
 
-        return atlasInstance.getScalerManager().getScalers().stream()
-                .flatMap(scaler -> scaler.getServers().stream())
-                .filter(server -> server.getServerId().equals(serverId))
-                .findFirst()
-                .orElse(null);
+        return atlasInstance.getScalerManager().getServerFromTracking(serverId);
     }
 
 }
\ No newline at end of file
@@ -131,8 +131,8 @@ public abstract class ServiceProvider {
     public abstract CompletableFuture<Boolean> stopLogStream(String subscriptionId);
     
     /**
-     * Ensures that all required resources (images, etc.) are available before scaling.
-     * This method should block until all resources are ready.
+     * Starts preparing the resources (images, etc.) a group needs. Preparation runs in the
+     * background; callers should not block on the returned future from the scaling thread.
      * 
      * @param groupConfig the configuration for the server group
      * @return a CompletableFuture that completes when resources are ready
@@ -142,6 +142,17 @@ public abstract class ServiceProvider {
         return CompletableFuture.completedFuture(null);
     }
 
+    /**
+     * Checks without blocking whether a group's resources are ready for a start. Resources that
+     * are missing should be queued for preparation.
+     * 
+     * @param groupConfig the configuration for the server group
+     * @return true if servers of the group can be started now
+     */
+    public boolean areResourcesReady(ScalerConfig.Group groupConfig) {
+        return true;
+    }
+
     /**
      * Initializes the service provider after construction.
      * This method is called after all core services are initialized.
@@ -0,0 +1,298 @@
+package be.esmay.atlas.base.provider.impl;
+
+import be.esmay.atlas.base.utils.Logger;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.model.Container;
+import com.github.dockerjava.api.model.Event;
+import com.github.dockerjava.api.model.EventType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the state of every Atlas-managed container in memory by following Docker's event stream.
+ *
+ * <p>The table is seeded by listing the containers once, then updated on container events as
+ * they happen. Because an event stream can miss events while it reconnects, the table is also
+ * rebuilt from a full listing when it is older than the reconciliation interval or after the
+ * stream dropped. Looking up a container never talks to the daemon.
+ */
+public final class DockerContainerStateTracker {
+
+    private static final Map<String, String> MANAGED_LABEL = Map.of("atlas.managed", "true");
+    private static final String[] TRACKED_ACTIONS = {"create", "start", "restart", "die", "oom", "kill", "stop", "destroy", "health_status"};
+    private static final long RECONNECT_DELAY_SECONDS = 5;
+
+    private final DockerClient dockerClient;
+    private final Consumer<ContainerEvent> eventListener;
+    private final long reconciliationIntervalMillis;
+    private final Map<String, ContainerState> containers = new ConcurrentHashMap<>();
+    private final Set<String> containerIds = Collections.unmodifiableSet(this.containers.keySet());
+    private final ScheduledExecutorService reconnectScheduler;
+
+    private volatile Closeable eventStream;
+    private volatile boolean streamHealthy;
+    private volatile boolean running;
+    private volatile long lastReconciliation;
+
+    /**
+     * @param eventListener called on the event stream thread for every container event, after
+     *                      the table has been updated
+     */
+    public DockerContainerStateTracker(DockerClient dockerClient, long reconciliationIntervalMillis, Consumer<ContainerEvent> eventListener) {
+        this.dockerClient = dockerClient;
+        this.reconciliationIntervalMillis = reconciliationIntervalMillis;
+        this.eventListener = eventListener;
+        this.reconnectScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "Docker-Events");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        this.running = true;
+        this.subscribe();
+        this.reconcile();
+    }
+
+    public void stop() {
+        this.running = false;
+        this.closeStream();
+        this.reconnectScheduler.shutdownNow();
+    }
+
+    /**
+     * Rebuilds the table from a full listing if it is due, or if events may have been missed.
+     *
+     * @return {@code true} if a full listing was made
+     */
+    public boolean reconcileIfDue() {
+        boolean due = System.currentTimeMillis() - this.lastReconciliation >= this.reconciliationIntervalMillis;
+        if (!due && this.streamHealthy) {
+            return false;
+        }
+
+        this.reconcile();
+        return true;
+    }
+
+    /**
+     * Rebuilds the table from a full listing of the managed containers.
+     */
+    public synchronized void reconcile() {
+        long startedAt = System.currentTimeMillis();
+
+        List<Container> listed = this.dockerClient.listContainersCmd()
+                .withShowAll(true)
+                .withLabelFilter(MANAGED_LABEL)
+                .exec();
+
+        Map<String, ContainerState> fresh = new HashMap<>();
+        for (Container container : listed) {
+            ContainerState previous = this.containers.get(container.getId());
+            String health = previous != null ? previous.health() : null;
+            fresh.put(container.getId(), new ContainerState(container.getId(), container.getState(), health, null, false, startedAt));
+        }
+
+        // Entries touched by an event while the listing ran are newer than the listing.
+        this.containers.values().removeIf(state -> !fresh.containsKey(state.containerId()) && state.updatedAt() < startedAt);
+        fresh.forEach((containerId, state) -> this.containers.merge(containerId, state, (current, listedState) -> current.updatedAt() < startedAt ? listedState : current));
+        this.lastReconciliation = startedAt;
+
+        Logger.debug("Reconciled Docker container state table: {} managed containers", fresh.size());
+    }
+
+    /**
+     * Records a container Atlas just created, so lookups never lag behind Atlas' own actions
+     * while its create event is still on the way.
+     */
+    public void markCreated(String containerId) {
+        if (containerId != null) {
+            this.containers.putIfAbsent(containerId, new ContainerState(containerId, "created", null, null, false, System.currentTimeMillis()));
+        }
+    }
+
+    public ContainerState getState(String containerId) {
+        return containerId != null ? this.containers.get(containerId) : null;
+    }
+
+    public boolean exists(String containerId) {
+        return containerId != null && this.containers.containsKey(containerId);
+    }
+
+    /**
+     * Returns a live, read-only view of the ids of the known managed containers.
+     */
+    public Set<String> getContainerIds() {
+        return this.containerIds;
+    }
+
+    public boolean isStreamHealthy() {
+        return this.streamHealthy;
+    }
+
+    private void subscribe() {
+        if (!this.running) {
+            return;
+        }
+
+        try {
+            this.eventStream = this.dockerClient.eventsCmd()
+                    .withEventTypeFilter(EventType.CONTAINER)
+                    .withLabelFilter(MANAGED_LABEL)
+                    .withEventFilter(TRACKED_ACTIONS)
+                    .exec(new ResultCallback.Adapter<Event>() {
+                        @Override
+                        public void onStart(Closeable stream) {
+                            super.onStart(stream);
+                            DockerContainerStateTracker.this.streamHealthy = true;
+                            Logger.debug("Subscribed to Docker container events");
+                        }
+
+                        @Override
+                        public void onNext(Event event) {
+                            DockerContainerStateTracker.this.handleEvent(event);
+                        }
+
+                        @Override
+                        public void onError(Throwable throwable) {
+                            Logger.warn("Docker event stream failed: {}", throwable.getMessage());
+                            DockerContainerStateTracker.this.scheduleReconnect();
+                        }
+
+                        @Override
+                        public void onComplete() {
+                            DockerContainerStateTracker.this.scheduleReconnect();
+                        }
+                    });
+        } catch (Exception e) {
+            Logger.warn("Failed to subscribe to Docker events: {}", e.getMessage());
+            this.scheduleReconnect();
+        }
+    }
+
+    private void scheduleReconnect() {
+        this.streamHealthy = false;
+        this.closeStream();
+
+        if (!this.running || this.reconnectScheduler.isShutdown()) {
+            return;
+        }
+
+        this.reconnectScheduler.schedule(() -> {
+            this.subscribe();
+            try {
+                this.reconcile();
+            } catch (Exception e) {
+                Logger.debug("Reconciliation after Docker event stream reconnect failed: {}", e.getMessage());
+            }
+        }, RECONNECT_DELAY_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private void closeStream() {
+        Closeable stream = this.eventStream;
+        this.eventStream = null;
+        if (stream == null) {
+            return;
+        }
+
+        try {
+            stream.close();
+        } catch (IOException e) {
+            Logger.debug("Error closing Docker event stream: {}", e.getMessage());
+        }
+    }
+
+    private void handleEvent(Event event) {
+        String containerId = event.getId();
+        String action = event.getAction() != null ? event.getAction() : event.getStatus();
+        if (containerId == null || action == null) {
+            return;
+        }
+
+        Map<String, String> attributes = event.getActor() != null && event.getActor().getAttributes() != null
+                ? event.getActor().getAttributes()
+                : Map.of();
+
+        long now = System.currentTimeMillis();
+        ContainerState previous = this.containers.get(containerId);
+        String health = previous != null ? previous.health() : null;
+
+        if ("destroy".equals(action)) {
+            this.containers.remove(containerId);
+        } else if (action.startsWith("health_status")) {
+            String status = action.contains(":") ? action.substring(action.indexOf(':') + 1).trim() : null;
+            String state = previous != null ? previous.state() : "running";
+            this.containers.put(containerId, new ContainerState(containerId, state, status, previous != null ? previous.exitCode() : null, previous != null && previous.oomKilled(), now));
+        } else {
+            String state = switch (action) {
+                case "create" -> "created";
+                case "start", "restart" -> "running";
+                case "die", "stop", "kill" -> "exited";
+                default -> previous != null ? previous.state() : "running";
+            };
+
+            Integer exitCode = parseExitCode(attributes.get("exitCode"));
+            boolean oomKilled = "oom".equals(action) || (previous != null && previous.oomKilled() && !"start".equals(action));
+            if ("start".equals(action) || "restart".equals(action)) {
+                exitCode = null;
+                health = null;
+            } else if (exitCode == null && previous != null) {
+                exitCode = previous.exitCode();
+            }
+
+            this.containers.put(containerId, new ContainerState(containerId, state, health, exitCode, oomKilled, now));
+        }
+
+        try {
+            this.eventListener.accept(new ContainerEvent(containerId, action, attributes.get("name"), this.containers.get(containerId)));
+        } catch (Exception e) {
+            Logger.error("Error handling Docker event {} for container {}", action, containerId, e);
+        }
+    }
+
+    private static Integer parseExitCode(String exitCode) {
+        if (exitCode == null) {
+            return null;
+        }
+
+        try {
+            return Integer.parseInt(exitCode);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param state     Docker's container state, such as {@code running} or {@code exited}
+     * @param health    the last reported health status, or {@code null} if none was reported
+     * @param exitCode  the exit code of the last exit, or {@code null} while running
+     * @param oomKilled whether the last exit was caused by the out-of-memory killer
+     */
+    public record ContainerState(String containerId, String state, String health, Integer exitCode, boolean oomKilled, long updatedAt) {
+
+        public boolean isRunning() {
+            return "running".equals(this.state);
+        }
+
+    }
+
+    /**
+     * @param state the container's state after the event, or {@code null} if it was destroyed
+     */
+    public record ContainerEvent(String containerId, String action, String containerName, ContainerState state) {
+    }
+
+}
@@ -0,0 +1,312 @@
+package be.esmay.atlas.base.provider.impl;
+
+import be.esmay.atlas.base.utils.Logger;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.command.InspectImageResponse;
+import com.github.dockerjava.api.model.PullResponseItem;
+import com.github.dockerjava.api.model.ResponseItem;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Pulls container images in the background so a slow pull for one group never holds up the
+ * scaler or a start for another group.
+ *
+ * <p>Callers ask {@link #isReady(String)} instead of waiting: an image that is not present yet is
+ * queued for a pull and reported as pending until it lands. Floating tags such as {@code :latest}
+ * are pulled again periodically; the local image keeps serving starts while that happens.
+ */
+public final class DockerImageManager {
+
+    private static final long RETRY_DELAY_MILLIS = 60_000;
+    private static final long PROGRESS_INTERVAL_MILLIS = 2_000;
+
+    private final DockerClient dockerClient;
+    private final Consumer<ImagePull> progressListener;
+    private final Map<String, ImagePull> images = new ConcurrentHashMap<>();
+    private final ExecutorService pullExecutor;
+    private final ScheduledExecutorService refreshScheduler;
+
+    /**
+     * @param progressListener called from pull threads when a pull starts, makes progress or ends
+     */
+    public DockerImageManager(DockerClient dockerClient, int concurrentPulls, Consumer<ImagePull> progressListener) {
+        this.dockerClient = dockerClient;
+        this.progressListener = progressListener;
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.pullExecutor = Executors.newFixedThreadPool(Math.max(1, concurrentPulls), r -> {
+            Thread thread = new Thread(r, "Docker-ImagePull-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.refreshScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "Docker-ImageRefresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Checks floating tags against the registry every {@code intervalMinutes}; zero disables it.
+     */
+    public void start(int intervalMinutes) {
+        if (intervalMinutes <= 0) {
+            return;
+        }
+
+        this.refreshScheduler.scheduleWithFixedDelay(this::refreshFloatingTags, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    public void stop() {
+        this.refreshScheduler.shutdownNow();
+        this.pullExecutor.shutdownNow();
+    }
+
+    public static String normalize(String image) {
+        int lastSlash = image.lastIndexOf('/');
+        return image.indexOf(':', lastSlash + 1) >= 0 || image.contains("@") ? image : image + ":latest";
+    }
+
+    /**
+     * Whether the image is present locally. A missing image is queued for a pull, unless a failed
+     * pull is still waiting out its retry delay.
+     */
+    public boolean isReady(String image) {
+        ImagePull pull = this.images.get(normalize(image));
+        if (pull != null && pull.getState() == PullState.READY) {
+            return true;
+        }
+
+        this.prefetch(image);
+        return false;
+    }
+
+    /**
+     * Makes sure the image is present, pulling it in the background if needed.
+     *
+     * @return a future that completes once the image is present
+     */
+    public CompletableFuture<Void> prefetch(String image) {
+        String normalizedImage = normalize(image);
+        ImagePull pull = this.images.computeIfAbsent(normalizedImage, ImagePull::new);
+
+        synchronized (pull) {
+            if (pull.getState() == PullState.READY || pull.getState() == PullState.PULLING) {
+                return pull.future;
+            }
+
+            if (pull.getState() == PullState.FAILED && System.currentTimeMillis() < pull.failedAt + RETRY_DELAY_MILLIS) {
+                return pull.future;
+            }
+
+            pull.begin();
+        }
+
+        try {
+            this.pullExecutor.execute(() -> this.ensurePresent(pull));
+        } catch (RuntimeException e) {
+            pull.fail(e);
+        }
+        return pull.future;
+    }
+
+    public List<ImagePull> getPulls() {
+        return List.copyOf(this.images.values());
+    }
+
+    private void ensurePresent(ImagePull pull) {
+        try {
+            this.dockerClient.inspectImageCmd(pull.getImage()).exec();
+            pull.complete();
+            Logger.debug("Docker image {} found locally", pull.getImage());
+            return;
+        } catch (Exception ignored) {
+        }
+
+        try {
+            Logger.info("Docker image {} not found locally, pulling in the background", pull.getImage());
+            this.pull(pull);
+            this.dockerClient.inspectImageCmd(pull.getImage()).exec();
+            pull.complete();
+            Logger.info("Successfully pulled Docker image: {}", pull.getImage());
+        } catch (Exception e) {
+            pull.fail(e);
+            Logger.error("Failed to pull Docker image {}: {}", pull.getImage(), e.getMessage());
+        }
+        this.notifyProgress(pull);
+    }
+
+    private void refreshFloatingTags() {
+        for (ImagePull pull : this.images.values()) {
+            if (pull.getState() != PullState.READY || !pull.getImage().endsWith(":latest")) {
+                continue;
+            }
+
+            this.pullExecutor.execute(() -> {
+                try {
+                    String before = this.imageId(pull.getImage());
+                    this.pull(pull);
+                    String after = this.imageId(pull.getImage());
+                    if (before != null && !before.equals(after)) {
+                        Logger.info("Docker image {} was updated, new servers will use it", pull.getImage());
+                    }
+                } catch (Exception e) {
+                    Logger.warn("Failed to refresh Docker image {}: {}", pull.getImage(), e.getMessage());
+                }
+            });
+        }
+    }
+
+    private String imageId(String image) {
+        try {
+            InspectImageResponse response = this.dockerClient.inspectImageCmd(image).exec();
+            return response.getId();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Runs a pull to completion. The daemon reports registry and auth failures as items in the
+     * stream rather than as an error on the call, so those are collected and rethrown here.
+     */
+    private void pull(ImagePull pull) throws InterruptedException {
+        Map<String, long[]> layers = new LinkedHashMap<>();
+        long[] lastReport = {0};
+        String[] streamError = {null};
+
+        this.dockerClient.pullImageCmd(pull.getImage())
+                .exec(new ResultCallback.Adapter<PullResponseItem>() {
+                    @Override
+                    public void onNext(PullResponseItem item) {
+                        if (item.getErrorDetail() != null || item.getError() != null) {
+                            streamError[0] = item.getErrorDetail() != null && item.getErrorDetail().getMessage() != null
+                                    ? item.getErrorDetail().getMessage()
+                                    : item.getError();
+                            return;
+                        }
+
+                        ResponseItem.ProgressDetail detail = item.getProgressDetail();
+                        if (item.getId() != null && detail != null && detail.getTotal() != null && detail.getTotal() > 0) {
+                            layers.put(item.getId(), new long[]{detail.getCurrent() != null ? detail.getCurrent() : 0, detail.getTotal()});
+                        }
+
+                        long now = System.currentTimeMillis();
+                        if (now - lastReport[0] < PROGRESS_INTERVAL_MILLIS) {
+                            return;
+                        }
+                        lastReport[0] = now;
+
+                        long current = 0;
+                        long total = 0;
+                        for (long[] layer : layers.values()) {
+                            current += layer[0];
+                            total += layer[1];
+                        }
+                        pull.progress(current, total, item.getStatus());
+                        DockerImageManager.this.notifyProgress(pull);
+                    }
+                })
+                .awaitCompletion();
+
+        if (streamError[0] != null) {
+            throw new IllegalStateException("Pull of " + pull.getImage() + " failed: " + streamError[0]);
+        }
+    }
+
+    private void notifyProgress(ImagePull pull) {
+        try {
+            this.progressListener.accept(pull);
+        } catch (Exception e) {
+            Logger.debug("Image progress listener failed: {}", e.getMessage());
+        }
+    }
+
+    public enum PullState {
+        UNKNOWN,
+        PULLING,
+        READY,
+        FAILED
+    }
+
+    public static final class ImagePull {
+
+        private final String image;
+        private volatile PullState state = PullState.UNKNOWN;
+        private volatile long bytesDone;
+        private volatile long bytesTotal;
+        private volatile String status;
+        private volatile String error;
+        private volatile long startedAt;
+        private volatile long failedAt;
+        private CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private ImagePull(String image) {
+            this.image = image;
+        }
+
+        public String getImage() {
+            return this.image;
+        }
+
+        public PullState getState() {
+            return this.state;
+        }
+
+        private synchronized void begin() {
+            if (this.future.isDone()) {
+                this.future = new CompletableFuture<>();
+            }
+            this.state = PullState.PULLING;
+            this.startedAt = System.currentTimeMillis();
+            this.bytesDone = 0;
+            this.bytesTotal = 0;
+            this.status = null;
+            this.error = null;
+        }
+
+        private void progress(long bytesDone, long bytesTotal, String status) {
+            this.bytesDone = bytesDone;
+            this.bytesTotal = bytesTotal;
+            this.status = status;
+        }
+
+        private synchronized void complete() {
+            this.state = PullState.READY;
+            this.future.complete(null);
+        }
+
+        private synchronized void fail(Throwable throwable) {
+            this.state = PullState.FAILED;
+            this.failedAt = System.currentTimeMillis();
+            this.error = throwable.getMessage();
+            this.future.completeExceptionally(throwable);
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("image", this.image);
+            map.put("state", this.state.name());
+            map.put("bytesDone", this.bytesDone);
+            map.put("bytesTotal", this.bytesTotal);
+            map.put("status", this.status);
+            map.put("error", this.error);
+            map.put("startedAt", this.startedAt);
+            return map;
+        }
+
+    }
+
+}
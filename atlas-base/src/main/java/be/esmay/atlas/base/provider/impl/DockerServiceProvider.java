@@ -1,11 +1,14 @@
 package be.esmay.atlas.base.provider.impl;
 
 import be.esmay.atlas.base.AtlasBase;
+import be.esmay.atlas.base.api.dto.WebSocketMessage;
 import be.esmay.atlas.base.config.impl.AtlasConfig;
 import be.esmay.atlas.base.config.impl.ScalerConfig;
 import be.esmay.atlas.base.directory.DirectoryManager;
+import be.esmay.atlas.base.directory.OverlayMounts;
 import be.esmay.atlas.base.lifecycle.ServerLifecycleManager;
 import be.esmay.atlas.base.lifecycle.ServerLifecycleService;
+import be.esmay.atlas.base.metrics.DiskUsageTracker;
 import be.esmay.atlas.base.provider.DeletionOptions;
 import be.esmay.atlas.base.provider.DeletionReason;
 import be.esmay.atlas.base.provider.ServiceProvider;
@@ -20,6 +23,7 @@ import be.esmay.atlas.common.models.AtlasServer;
 import be.esmay.atlas.common.models.ServerInfo;
 import be.esmay.atlas.common.models.ServerResourceMetrics;
 import be.esmay.atlas.common.models.ServerStats;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.dockerjava.api.DockerClient;
 import com.github.dockerjava.api.async.ResultCallback;
 import com.github.dockerjava.api.command.CreateContainerCmd;
@@ -29,20 +33,15 @@ import com.github.dockerjava.api.command.LogContainerCmd;
 import com.github.dockerjava.api.model.Bind;
 import com.github.dockerjava.api.model.Container;
 import com.github.dockerjava.api.model.ContainerNetwork;
-import com.github.dockerjava.api.model.CpuStatsConfig;
 import com.github.dockerjava.api.model.ExposedPort;
 import com.github.dockerjava.api.model.Frame;
 import com.github.dockerjava.api.model.Info;
 import com.github.dockerjava.api.model.Network;
 import com.github.dockerjava.api.model.NetworkSettings;
 import com.github.dockerjava.api.model.PortBinding;
-import com.github.dockerjava.api.model.PullResponseItem;
-import com.github.dockerjava.api.model.StatisticNetworksConfig;
-import com.github.dockerjava.api.model.Statistics;
 import com.github.dockerjava.api.model.Volume;
 import com.github.dockerjava.core.DefaultDockerClientConfig;
 import com.github.dockerjava.core.DockerClientBuilder;
-import com.github.dockerjava.core.InvocationBuilder;
 
 import java.io.Closeable;
 import java.io.File;
@@ -69,7 +68,6 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 
 public final class DockerServiceProvider extends ServiceProvider {
 
@@ -78,27 +76,29 @@ public final class DockerServiceProvider extends ServiceProvider {
     private final Map<String, String> serverContainerIds;
     private final Map<String, Closeable> logStreamConnections;
     private final Map<String, Map<String, Consumer<String>>> logSubscribers;
-    private final Map<String, NetworkStatsCache> networkStatsCache;
     private final ExecutorService executorService;
     private final Set<String> manuallyStoppedStaticServers;
+    private final DockerContainerStateTracker containerStateTracker;
+    private final DockerStatsCollector statsCollector;
 
     private final Set<Integer> usedProxyPorts;
     private final Map<String, Integer> serverNameToPort;
     private final Map<String, Integer> serverIdToPort;
     private static final int PROXY_PORT_START = 25565;
 
-    private static final Map<String, CompletableFuture<Void>> IMAGE_PULL_FUTURES = new ConcurrentHashMap<>();
-    private static final Set<String> PULLED_IMAGES = ConcurrentHashMap.newKeySet();
+    private final DockerImageManager imageManager;
+    private final ObjectMapper objectMapper = new ObjectMapper();
 
     private final String cachedHostIp;
 
+    private volatile TemplateManager templateManager;
+
     public DockerServiceProvider(AtlasConfig.ServiceProvider serviceProviderConfig) {
         super("docker");
         this.dockerConfig = serviceProviderConfig.getDocker();
         this.serverContainerIds = new ConcurrentHashMap<>();
         this.logStreamConnections = new ConcurrentHashMap<>();
         this.logSubscribers = new ConcurrentHashMap<>();
-        this.networkStatsCache = new ConcurrentHashMap<>();
         this.usedProxyPorts = ConcurrentHashMap.newKeySet();
         this.serverNameToPort = new ConcurrentHashMap<>();
         this.serverIdToPort = new ConcurrentHashMap<>();
@@ -130,6 +130,8 @@ public final class DockerServiceProvider extends ServiceProvider {
         java.util.logging.Logger.getGlobal().setLevel(java.util.logging.Level.OFF);
 
         this.dockerClient = DockerClientBuilder.getInstance(configBuilder.build()).build();
+        this.statsCollector = new DockerStatsCollector(this.dockerClient);
+        this.imageManager = new DockerImageManager(this.dockerClient, this.dockerConfig.getConcurrentImagePulls(), this::broadcastImagePull);
 
         try {
             Info info = this.dockerClient.infoCmd().exec();
@@ -147,6 +149,10 @@ public final class DockerServiceProvider extends ServiceProvider {
         }
 
         this.cleanupOldAtlasContainers();
+
+        this.containerStateTracker = new DockerContainerStateTracker(this.dockerClient, this.dockerConfig.getStateReconciliationSeconds() * 1000L, this::handleContainerEvent);
+        this.containerStateTracker.start();
+        this.imageManager.start(this.dockerConfig.getImageRefreshMinutes());
     }
 
     @Override
@@ -195,6 +201,7 @@ public final class DockerServiceProvider extends ServiceProvider {
                 }
 
                 this.serverContainerIds.put(atlasServer.getServerId(), containerId);
+                this.containerStateTracker.markCreated(containerId);
                 this.dockerClient.startContainerCmd(containerId).exec();
 
                 InspectContainerResponse containerInfo = this.dockerClient.inspectContainerCmd(containerId).exec();
@@ -530,6 +537,11 @@ public final class DockerServiceProvider extends ServiceProvider {
         this.logSubscribers.remove(serverId);
         this.serverIdToPort.remove(serverId);
 
+        DiskUsageTracker diskUsageTracker = AtlasBase.getInstance().getDiskUsageTracker();
+        if (diskUsageTracker != null) {
+            diskUsageTracker.untrack(serverId);
+        }
+
         Logger.debug("Cleaned up all tracking for server: {}", serverId);
     }
 
@@ -661,113 +673,52 @@ public final class DockerServiceProvider extends ServiceProvider {
                     return Optional.empty();
                 }
 
-                InvocationBuilder.AsyncResultCallback<Statistics> callback = new InvocationBuilder.AsyncResultCallback<>();
-                this.dockerClient.statsCmd(containerId).withNoStream(true).exec(callback);
-                Statistics stats = callback.awaitResult();
-                callback.close();
-
-                if (stats == null) {
+                DockerStatsCollector.StatsSample sample = this.statsCollector.getLatest(containerId);
+                if (sample == null) {
+                    DockerContainerStateTracker.ContainerState state = this.containerStateTracker.getState(containerId);
+                    if (state != null && state.isRunning()) {
+                        this.statsCollector.open(containerId);
+                    }
                     return Optional.empty();
                 }
 
-                long memoryUsed = stats.getMemoryStats().getUsage();
-                long memoryLimit = stats.getMemoryStats().getLimit();
-
-                double cpuDelta = stats.getCpuStats().getCpuUsage().getTotalUsage() -
-                        stats.getPreCpuStats().getCpuUsage().getTotalUsage();
-                double systemDelta = stats.getCpuStats().getSystemCpuUsage() -
-                        stats.getPreCpuStats().getSystemCpuUsage();
-                double cpuUsage = 0.0;
-                if (systemDelta > 0.0 && cpuDelta > 0.0) {
-                    cpuUsage = (cpuDelta / systemDelta) * stats.getCpuStats().getOnlineCpus() * 100.0;
-                }
-
                 AtlasServer server = AtlasBase.getInstance().getScalerManager().getServerFromTracking(serverId);
                 long diskUsed = 0;
                 long diskTotal = 0;
-                if (server != null && server.getWorkingDirectory() != null) {
+                long diskLastUpdated = 0;
+                DiskUsageTracker diskUsageTracker = AtlasBase.getInstance().getDiskUsageTracker();
+                if (server != null && server.getWorkingDirectory() != null && diskUsageTracker != null) {
                     File workingDir = new File(server.getWorkingDirectory());
-                    diskUsed = this.getDirectorySize(workingDir);
-                    diskTotal = workingDir.getTotalSpace();
-                }
-
-                long networkReceiveBytes = 0;
-                long networkSendBytes = 0;
-                double networkReceiveBandwidth = 0.0;
-                double networkSendBandwidth = 0.0;
-
-                if (stats.getNetworks() != null) {
-                    for (Map.Entry<String, StatisticNetworksConfig> entry : stats.getNetworks().entrySet()) {
-                        StatisticNetworksConfig networkStats = entry.getValue();
-                        networkReceiveBytes += networkStats.getRxBytes();
-                        networkSendBytes += networkStats.getTxBytes();
+                    DiskUsageTracker.DiskUsage diskUsage = diskUsageTracker.getUsage(serverId, workingDir.toPath());
+                    if (diskUsage != null) {
+                        diskUsed = diskUsage.bytes();
+                        diskLastUpdated = diskUsage.measuredAt();
                     }
-
-                    String previousStatsKey = "docker_network_" + serverId;
-                    NetworkStatsCache previousStats = this.networkStatsCache.get(previousStatsKey);
-                    long currentTime = System.currentTimeMillis();
-
-                    if (previousStats != null) {
-                        long timeDelta = currentTime - previousStats.timestamp;
-                        if (timeDelta > 0) {
-                            double timeDeltaSec = timeDelta / 1000.0;
-                            networkReceiveBandwidth = (networkReceiveBytes - previousStats.rxBytes) / timeDeltaSec;
-                            networkSendBandwidth = (networkSendBytes - previousStats.txBytes) / timeDeltaSec;
-                        }
-                    }
-
-                    this.networkStatsCache.put(previousStatsKey, new NetworkStatsCache(networkReceiveBytes, networkSendBytes, currentTime));
+                    diskTotal = workingDir.getTotalSpace();
                 }
 
                 ServerResourceMetrics metrics = ServerResourceMetrics.builder()
-                        .cpuUsage(cpuUsage)
-                        .memoryUsed(memoryUsed)
-                        .memoryTotal(memoryLimit)
+                        .cpuUsage(sample.cpuUsage())
+                        .memoryUsed(sample.memoryUsed())
+                        .memoryTotal(sample.memoryLimit())
                         .diskUsed(diskUsed)
                         .diskTotal(diskTotal)
-                        .networkReceiveBytes(networkReceiveBytes)
-                        .networkSendBytes(networkSendBytes)
-                        .networkReceiveBandwidth(networkReceiveBandwidth)
-                        .networkSendBandwidth(networkSendBandwidth)
-                        .lastUpdated(System.currentTimeMillis())
+                        .diskLastUpdated(diskLastUpdated)
+                        .networkReceiveBytes(sample.networkRxBytes())
+                        .networkSendBytes(sample.networkTxBytes())
+                        .networkReceiveBandwidth(sample.networkRxBandwidth())
+                        .networkSendBandwidth(sample.networkTxBandwidth())
+                        .lastUpdated(sample.timestamp())
                         .build();
 
                 return Optional.of(metrics);
             } catch (Exception e) {
-                String errorMessage = e.getMessage();
-                if (errorMessage != null && (errorMessage.contains("404") || errorMessage.contains("No such container"))) {
-                    Logger.debug("Container not found when getting metrics for server {} - cleaning up", serverId);
-                    this.serverContainerIds.remove(serverId);
-                    return Optional.empty();
-                }
                 Logger.debug("Failed to get resource metrics for server " + serverId + ": " + e.getMessage());
                 return Optional.empty();
             }
         }, this.executorService);
     }
 
-    private long getDirectorySize(File directory) {
-        if (!directory.exists() || !directory.isDirectory()) {
-            return 0;
-        }
-
-        try {
-            return Files.walk(directory.toPath())
-                    .filter(Files::isRegularFile)
-                    .mapToLong(path -> {
-                        try {
-                            return Files.size(path);
-                        } catch (IOException e) {
-                            return 0;
-                        }
-                    })
-                    .sum();
-        } catch (IOException e) {
-            Logger.debug("Failed to calculate directory size for " + directory.getPath() + ": " + e.getMessage());
-            return 0;
-        }
-    }
-
     @Override
     public CompletableFuture<List<String>> getServerLogs(String serverId, int lines) {
         return CompletableFuture.supplyAsync(() -> {
@@ -832,12 +783,32 @@ public final class DockerServiceProvider extends ServiceProvider {
 
     @Override
     public CompletableFuture<Void> ensureResourcesReady(ScalerConfig.Group groupConfig) {
-        return CompletableFuture.runAsync(() -> {
-            ScalerConfig.Docker dockerGroupConfig = groupConfig.getServiceProvider().getDocker();
-            if (dockerGroupConfig != null && dockerGroupConfig.getImage() != null) {
-                this.ensureImageExists(dockerGroupConfig.getImage());
-            }
-        }, this.executorService);
+        ScalerConfig.Docker dockerGroupConfig = groupConfig.getServiceProvider().getDocker();
+        if (dockerGroupConfig == null || dockerGroupConfig.getImage() == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return this.imageManager.prefetch(dockerGroupConfig.getImage());
+    }
+
+    @Override
+    public boolean areResourcesReady(ScalerConfig.Group groupConfig) {
+        ScalerConfig.Docker dockerGroupConfig = groupConfig.getServiceProvider().getDocker();
+        return dockerGroupConfig == null || dockerGroupConfig.getImage() == null || this.imageManager.isReady(dockerGroupConfig.getImage());
+    }
+
+    public List<DockerImageManager.ImagePull> getImagePulls() {
+        return this.imageManager.getPulls();
+    }
+
+    private void broadcastImagePull(DockerImageManager.ImagePull pull) {
+        AtlasBase atlasInstance = AtlasBase.getInstance();
+        if (atlasInstance == null || atlasInstance.getApiManager() == null || atlasInstance.getApiManager().getWebSocketManager() == null) {
+            return;
+        }
+
+        atlasInstance.getApiManager().getWebSocketManager().broadcastMessage(
+                WebSocketMessage.create("image-pull-progress", this.objectMapper.valueToTree(pull.toMap())));
     }
 
     @Override
@@ -879,6 +850,9 @@ public final class DockerServiceProvider extends ServiceProvider {
     private String createDockerContainer(ScalerConfig.Group groupConfig, AtlasServer atlasServer) {
         try {
             ScalerConfig.Docker dockerGroupConfig = groupConfig.getServiceProvider().getDocker();
+            if (!this.imageManager.isReady(dockerGroupConfig.getImage())) {
+                throw new IllegalStateException("Docker image " + dockerGroupConfig.getImage() + " is still being pulled");
+            }
 
             List<String> envVars = new ArrayList<>();
             envVars.add("EULA=TRUE");
@@ -1030,72 +1004,6 @@ public final class DockerServiceProvider extends ServiceProvider {
         return binds.toArray(new Bind[0]);
     }
 
-    private void ensureImageExists(String image) {
-        String normalizedImage = image.contains(":") ? image : image + ":latest";
-
-        if (PULLED_IMAGES.contains(normalizedImage)) {
-            return;
-        }
-
-        CompletableFuture<Void> existingPull = IMAGE_PULL_FUTURES.get(normalizedImage);
-        if (existingPull != null) {
-            try {
-                existingPull.get();
-                return;
-            } catch (Exception e) {
-                throw new RuntimeException("Failed waiting for image pull: " + normalizedImage, e);
-            }
-        }
-
-        try {
-            this.dockerClient.inspectImageCmd(normalizedImage).exec();
-            PULLED_IMAGES.add(normalizedImage);
-            Logger.debug("Docker image {} found locally", normalizedImage);
-            return;
-        } catch (Exception ignored) {
-        }
-
-        CompletableFuture<Void> pullFuture = new CompletableFuture<>();
-        CompletableFuture<Void> existing = IMAGE_PULL_FUTURES.putIfAbsent(normalizedImage, pullFuture);
-
-        if (existing != null) {
-            try {
-                existing.get();
-                return;
-            } catch (Exception e) {
-                throw new RuntimeException("Failed waiting for image pull: " + normalizedImage, e);
-            }
-        }
-
-        try {
-            Logger.info("Docker image {} not found locally. Starting pull - this will block all scaling until complete...", normalizedImage);
-
-            this.dockerClient.pullImageCmd(normalizedImage)
-                    .exec(new ResultCallback.Adapter<PullResponseItem>() {
-                        @Override
-                        public void onNext(PullResponseItem item) {
-                            String status = item.getStatus();
-
-                            if (status != null && status.contains("Digest")) {
-                                Logger.info("Pulling {}: {}", normalizedImage, status);
-                            }
-                        }
-                    })
-                    .awaitCompletion();
-
-            PULLED_IMAGES.add(normalizedImage);
-            pullFuture.complete(null);
-            Logger.info("Successfully pulled Docker image: {} - scaling can now resume", normalizedImage);
-
-        } catch (Exception e) {
-            pullFuture.completeExceptionally(e);
-            Logger.error("Failed to pull Docker image {}: {}", normalizedImage, e.getMessage());
-            throw new RuntimeException("Could not pull required Docker image: " + normalizedImage, e);
-        } finally {
-            IMAGE_PULL_FUTURES.remove(normalizedImage);
-        }
-    }
-
     private Long parseMemory(String memory) {
         try {
             memory = memory.trim().toLowerCase();
@@ -1284,50 +1192,20 @@ public final class DockerServiceProvider extends ServiceProvider {
                     throw new IllegalArgumentException("Container ID not found for server: " + serverId);
                 }
 
-                final Statistics[] statsContainer = new Statistics[1];
-
-                ResultCallback.Adapter<Statistics> callback =
-                        new ResultCallback.Adapter<Statistics>() {
-                            @Override
-                            public void onNext(Statistics statistics) {
-                                statsContainer[0] = statistics;
-                            }
-                        };
-
-                this.dockerClient.statsCmd(containerId).exec(callback);
-                Thread.sleep(1000);
-                callback.close();
-
-                Statistics statistics = statsContainer[0];
-                if (statistics == null) {
+                DockerStatsCollector.StatsSample sample = this.statsCollector.awaitLatest(containerId, 2, TimeUnit.SECONDS);
+                if (sample == null) {
                     throw new RuntimeException("Failed to collect statistics for container: " + containerId);
                 }
 
-                double cpuUsage = this.calculateCpuUsage(statistics);
-                long memoryUsed = statistics.getMemoryStats().getUsage() != null ? statistics.getMemoryStats().getUsage() : 0L;
-                long memoryLimit = statistics.getMemoryStats().getLimit() != null ? statistics.getMemoryStats().getLimit() : 0L;
-
-                Map<String, StatisticNetworksConfig> networkStats = statistics.getNetworks();
-                long networkRx = 0L;
-                long networkTx = 0L;
-                if (networkStats != null) {
-                    for (StatisticNetworksConfig net : networkStats.values()) {
-                        if (net != null) {
-                            networkRx += net.getRxBytes() != null ? net.getRxBytes() : 0L;
-                            networkTx += net.getTxBytes() != null ? net.getTxBytes() : 0L;
-                        }
-                    }
-                }
-
                 return ServerStats.builder()
-                        .cpuUsagePercent(cpuUsage)
-                        .memoryUsedBytes(memoryUsed)
-                        .memoryTotalBytes(memoryLimit)
+                        .cpuUsagePercent(sample.cpuUsage())
+                        .memoryUsedBytes(sample.memoryUsed())
+                        .memoryTotalBytes(sample.memoryLimit())
                         .diskUsedBytes(0L)
                         .diskTotalBytes(0L)
-                        .networkRxBytes(networkRx)
-                        .networkTxBytes(networkTx)
-                        .timestamp(System.currentTimeMillis())
+                        .networkRxBytes(sample.networkRxBytes())
+                        .networkTxBytes(sample.networkTxBytes())
+                        .timestamp(sample.timestamp())
                         .build();
 
             } catch (Exception e) {
@@ -1337,38 +1215,6 @@ public final class DockerServiceProvider extends ServiceProvider {
         }, this.executorService);
     }
 
-    private double calculateCpuUsage(Statistics statistics) {
-        CpuStatsConfig cpuStats = statistics.getCpuStats();
-        CpuStatsConfig preCpuStats = statistics.getPreCpuStats();
-
-        if (cpuStats == null || preCpuStats == null) {
-            return 0.0;
-        }
-
-        Long cpuTotal = cpuStats.getCpuUsage() != null ? cpuStats.getCpuUsage().getTotalUsage() : null;
-        Long preCpuTotal = preCpuStats.getCpuUsage() != null ? preCpuStats.getCpuUsage().getTotalUsage() : null;
-        Long systemTotal = cpuStats.getSystemCpuUsage();
-        Long preSystemTotal = preCpuStats.getSystemCpuUsage();
-
-        if (cpuTotal == null || preCpuTotal == null || systemTotal == null || preSystemTotal == null) {
-            return 0.0;
-        }
-
-        double cpuDelta = cpuTotal - preCpuTotal;
-        double systemDelta = systemTotal - preSystemTotal;
-
-        if (systemDelta > 0.0 && cpuDelta > 0.0) {
-            Long onlineCpusLong = cpuStats.getOnlineCpus();
-            int onlineCpus = onlineCpusLong != null ? onlineCpusLong.intValue() : Runtime.getRuntime().availableProcessors();
-            if (onlineCpus == 0) {
-                onlineCpus = Runtime.getRuntime().availableProcessors();
-            }
-            return (cpuDelta / systemDelta) * onlineCpus * 100.0;
-        }
-
-        return 0.0;
-    }
-
     public DockerClient getDockerClient() {
         return this.dockerClient;
     }
@@ -1377,6 +1223,9 @@ public final class DockerServiceProvider extends ServiceProvider {
     public void shutdown() {
         Logger.info("Shutting down DockerServiceProvider");
 
+        this.containerStateTracker.stop();
+        this.imageManager.stop();
+        this.statsCollector.closeAll();
         this.stopAndRemoveAllContainers();
 
         this.logStreamConnections.values().forEach(connection -> {
@@ -1388,6 +1237,10 @@ public final class DockerServiceProvider extends ServiceProvider {
         });
         this.logStreamConnections.clear();
 
+        if (this.templateManager != null) {
+            this.templateManager.close();
+        }
+
         try {
             this.dockerClient.close();
         } catch (IOException e) {
@@ -1733,14 +1586,8 @@ public final class DockerServiceProvider extends ServiceProvider {
 
     public void validateServerState() {
         try {
-            List<Container> containers = this.dockerClient.listContainersCmd()
-                    .withShowAll(true)
-                    .withLabelFilter(Map.of("atlas.managed", "true"))
-                    .exec();
-
-            Set<String> actualContainerIds = containers.stream()
-                    .map(Container::getId)
-                    .collect(Collectors.toSet());
+            boolean reconciled = this.containerStateTracker.reconcileIfDue();
+            Set<String> actualContainerIds = this.containerStateTracker.getContainerIds();
 
             List<String> zombieServerIds = new ArrayList<>();
             List<AtlasServer> allServers = AtlasBase.getInstance().getScalerManager().getAllServersFromTracking();
@@ -1812,10 +1659,12 @@ public final class DockerServiceProvider extends ServiceProvider {
                 }
             }
 
-            for (Container container : containers) {
-                String containerId = container.getId();
-                if (!this.serverContainerIds.containsValue(containerId)) {
-                    Logger.warn("Detected untracked container: {} ({})", container.getNames()[0], containerId.substring(0, 12));
+            if (reconciled) {
+                Set<String> trackedContainerIds = new HashSet<>(this.serverContainerIds.values());
+                for (String containerId : actualContainerIds) {
+                    if (!trackedContainerIds.contains(containerId)) {
+                        Logger.warn("Detected untracked container: {}", containerId.substring(0, 12));
+                    }
                 }
             }
 
@@ -1824,6 +1673,55 @@ public final class DockerServiceProvider extends ServiceProvider {
         }
     }
 
+    private void handleContainerEvent(DockerContainerStateTracker.ContainerEvent event) {
+        if ("start".equals(event.action()) || "restart".equals(event.action())) {
+            this.statsCollector.open(event.containerId());
+            return;
+        }
+
+        if ("destroy".equals(event.action())) {
+            this.statsCollector.close(event.containerId());
+            return;
+        }
+
+        if (!"die".equals(event.action())) {
+            return;
+        }
+
+        this.statsCollector.close(event.containerId());
+
+        String serverId = this.serverContainerIds.entrySet().stream()
+                .filter(entry -> entry.getValue().equals(event.containerId()))
+                .map(Map.Entry::getKey)
+                .findFirst()
+                .orElse(null);
+        if (serverId == null) {
+            return;
+        }
+
+        AtlasBase atlasBase = AtlasBase.getInstance();
+        if (atlasBase == null || atlasBase.getScalerManager() == null) {
+            return;
+        }
+
+        AtlasServer server = atlasBase.getScalerManager().getServerFromTracking(serverId);
+        if (server == null || server.isShutdown() || this.manuallyStoppedStaticServers.contains(serverId)) {
+            return;
+        }
+
+        Scaler scaler = atlasBase.getScalerManager().getScaler(server.getGroup());
+        if (scaler == null || scaler.getManuallyStopped().contains(serverId)) {
+            return;
+        }
+
+        DockerContainerStateTracker.ContainerState state = event.state();
+        String reason = state != null && state.oomKilled()
+                ? "killed by the out-of-memory killer"
+                : "exit code " + (state != null && state.exitCode() != null ? state.exitCode() : "unknown");
+
+        this.executorService.submit(() -> scaler.handleContainerExit(serverId, reason));
+    }
+
     @Override
     public CompletableFuture<AtlasServer> startServerCompletely(AtlasServer server, StartOptions options) {
         if (server == null) {
@@ -1862,7 +1760,7 @@ public final class DockerServiceProvider extends ServiceProvider {
             this.prepareServerDirectory(server, options);
         }
 
-        if (options.isApplyTemplates()) {
+        if (options.isApplyTemplates() && !this.mountOverlayDirectory(server)) {
             this.applyServerTemplates(server, options);
         }
         if (options.isValidateResources()) {
@@ -1947,13 +1845,8 @@ public final class DockerServiceProvider extends ServiceProvider {
             boolean downloadOnStartup = atlasBase.getConfigManager().getAtlasConfig().getAtlas().getTemplates().isDownloadOnStartup();
 
             if (downloadOnStartup && groupConfig.getTemplates() != null && !groupConfig.getTemplates().isEmpty()) {
-                TemplateManager templateManager = new TemplateManager(
-                        atlasBase.getConfigManager().getAtlasConfig().getAtlas().getTemplates(),
-                        atlasBase.getConfigManager().getAtlasConfig().getAtlas().getS3()
-                );
                 boolean isStaticServer = server.getType() == ServerType.STATIC;
-                templateManager.applyTemplatesWithPluginCleanup(server.getWorkingDirectory(), groupConfig.getTemplates(), isStaticServer);
-                templateManager.close();
+                this.getTemplateManager(atlasBase).applyTemplatesWithPluginCleanup(server.getWorkingDirectory(), groupConfig.getTemplates(), isStaticServer);
                 Logger.debug("Applied templates to server: {}", server.getName());
             } else {
                 Logger.debug("Skipping template application for server: {} (downloadOnStartup={}, templates={})",
@@ -1962,6 +1855,85 @@ public final class DockerServiceProvider extends ServiceProvider {
         }
     }
 
+    /**
+     * Mounts a dynamic server's working directory as an overlay of its template layers, so the
+     * server only writes what it changes. Returns false when templates should be copied instead.
+     */
+    private boolean mountOverlayDirectory(AtlasServer server) {
+        AtlasBase atlasBase = AtlasBase.getInstance();
+        if (atlasBase == null || server.getType() != ServerType.DYNAMIC || server.getWorkingDirectory() == null) {
+            return false;
+        }
+
+        AtlasConfig.Templates templatesConfig = atlasBase.getConfigManager().getAtlasConfig().getAtlas().getTemplates();
+        ScalerConfig.Group groupConfig = this.getGroupConfigForServer(server);
+        if (!templatesConfig.isOverlayDynamicServers() || !templatesConfig.isDownloadOnStartup() || groupConfig == null
+                || groupConfig.getTemplates() == null || groupConfig.getTemplates().isEmpty() || !OverlayMounts.isAvailable()) {
+            return false;
+        }
+
+        Path merged = Paths.get(server.getWorkingDirectory());
+        if (OverlayMounts.isMounted(merged)) {
+            Logger.debug("Overlay already mounted for server: {}", server.getName());
+            return true;
+        }
+
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(merged)) {
+            if (entries.iterator().hasNext()) {
+                return false;
+            }
+        } catch (IOException e) {
+            return false;
+        }
+
+        Optional<List<Path>> layers = this.getTemplateManager(atlasBase).resolveLayers(groupConfig.getTemplates());
+        if (layers.isEmpty() || layers.get().isEmpty()) {
+            return false;
+        }
+
+        DirectoryManager directoryManager = new DirectoryManager();
+        Path statePath = directoryManager.getOverlayStatePath(merged);
+        try {
+            Files.createDirectories(statePath.resolve("upper"));
+            Files.createDirectories(statePath.resolve("work"));
+        } catch (IOException e) {
+            Logger.error("Failed to create overlay directories for server: " + server.getName(), e);
+            return false;
+        }
+
+        if (!OverlayMounts.mount(layers.get(), statePath.resolve("upper"), statePath.resolve("work"), merged)) {
+            try {
+                directoryManager.deleteDirectoryRecursively(statePath);
+            } catch (IOException e) {
+                Logger.warn("Failed to clean up overlay directories for server: {}", server.getName());
+            }
+            return false;
+        }
+
+        Logger.debug("Mounted overlay with {} template layers for server: {}", layers.get().size(), server.getName());
+        return true;
+    }
+
+    /**
+     * Shared across starts so the template store's hash cache and the S3 client are reused.
+     */
+    private TemplateManager getTemplateManager(AtlasBase atlasBase) {
+        TemplateManager manager = this.templateManager;
+        if (manager != null) {
+            return manager;
+        }
+
+        synchronized (this) {
+            if (this.templateManager == null) {
+                this.templateManager = new TemplateManager(
+                        atlasBase.getConfigManager().getAtlasConfig().getAtlas().getTemplates(),
+                        atlasBase.getConfigManager().getAtlasConfig().getAtlas().getS3()
+                );
+            }
+            return this.templateManager;
+        }
+    }
+
     private void validateStartResources(AtlasServer server, StartOptions options) throws Exception {
         // Nothing for now, might add resource validation in the future
 
@@ -2156,18 +2128,6 @@ public final class DockerServiceProvider extends ServiceProvider {
         });
     }
 
-    private static class NetworkStatsCache {
-        final long rxBytes;
-        final long txBytes;
-        final long timestamp;
-
-        NetworkStatsCache(long rxBytes, long txBytes, long timestamp) {
-            this.rxBytes = rxBytes;
-            this.txBytes = txBytes;
-            this.timestamp = timestamp;
-        }
-    }
-
     @Override
     public String getContainerIdForServer(String serverId) {
         return this.serverContainerIds.get(serverId);
@@ -0,0 +1,260 @@
+package be.esmay.atlas.base.provider.impl;
+
+import be.esmay.atlas.base.utils.Logger;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.model.CpuStatsConfig;
+import com.github.dockerjava.api.model.StatisticNetworksConfig;
+import com.github.dockerjava.api.model.Statistics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps one streaming stats subscription open per running container and holds the latest sample
+ * of each one.
+ *
+ * <p>Docker pushes a sample about once a second on every open stream. Each sample is turned into
+ * a {@link StatsSample} using the previous sample of the same stream, so CPU usage and network
+ * bandwidth are deltas between two consecutive samples. Readers only read the latest sample and
+ * never wait on the daemon.
+ */
+public final class DockerStatsCollector {
+
+    private final DockerClient dockerClient;
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    public DockerStatsCollector(DockerClient dockerClient) {
+        this.dockerClient = dockerClient;
+    }
+
+    /**
+     * Opens a stats stream for the container, unless one is already open.
+     */
+    public void open(String containerId) {
+        if (containerId == null) {
+            return;
+        }
+
+        if (this.subscriptions.containsKey(containerId)) {
+            return;
+        }
+
+        Subscription subscription = new Subscription(containerId);
+        if (this.subscriptions.putIfAbsent(containerId, subscription) == null) {
+            subscription.start();
+        }
+    }
+
+    public void close(String containerId) {
+        if (containerId == null) {
+            return;
+        }
+
+        Subscription subscription = this.subscriptions.remove(containerId);
+        if (subscription != null) {
+            subscription.close();
+        }
+    }
+
+    public void closeAll() {
+        this.subscriptions.keySet().forEach(this::close);
+    }
+
+    public boolean isOpen(String containerId) {
+        return containerId != null && this.subscriptions.containsKey(containerId);
+    }
+
+    /**
+     * Returns the latest sample of the container, or {@code null} if no stream is open or the
+     * stream has not delivered a sample yet.
+     */
+    public StatsSample getLatest(String containerId) {
+        Subscription subscription = containerId != null ? this.subscriptions.get(containerId) : null;
+        return subscription != null ? subscription.latest.get() : null;
+    }
+
+    /**
+     * Returns the latest sample of the container, opening a stream and waiting up to the timeout
+     * for its first sample if needed.
+     *
+     * @return the sample, or {@code null} if none arrived in time
+     */
+    public StatsSample awaitLatest(String containerId, long timeout, TimeUnit unit) throws InterruptedException {
+        this.open(containerId);
+
+        Subscription subscription = this.subscriptions.get(containerId);
+        if (subscription == null) {
+            return null;
+        }
+
+        StatsSample sample = subscription.latest.get();
+        if (sample != null) {
+            return sample;
+        }
+
+        try {
+            return subscription.firstSample.get(timeout, unit);
+        } catch (ExecutionException | TimeoutException e) {
+            return subscription.latest.get();
+        }
+    }
+
+    public int getOpenStreamCount() {
+        return this.subscriptions.size();
+    }
+
+    private static StatsSample toSample(String containerId, Statistics statistics, StatsSample previous, long now) {
+        CpuStatsConfig cpuStats = statistics.getCpuStats();
+        long cpuTotal = cpuStats != null && cpuStats.getCpuUsage() != null && cpuStats.getCpuUsage().getTotalUsage() != null
+                ? cpuStats.getCpuUsage().getTotalUsage()
+                : 0L;
+        long systemTotal = cpuStats != null && cpuStats.getSystemCpuUsage() != null ? cpuStats.getSystemCpuUsage() : 0L;
+
+        int onlineCpus = cpuStats != null && cpuStats.getOnlineCpus() != null ? cpuStats.getOnlineCpus().intValue() : 0;
+        if (onlineCpus == 0) {
+            onlineCpus = Runtime.getRuntime().availableProcessors();
+        }
+
+        long memoryUsed = 0L;
+        long memoryLimit = 0L;
+        if (statistics.getMemoryStats() != null) {
+            memoryUsed = statistics.getMemoryStats().getUsage() != null ? statistics.getMemoryStats().getUsage() : 0L;
+            memoryLimit = statistics.getMemoryStats().getLimit() != null ? statistics.getMemoryStats().getLimit() : 0L;
+        }
+
+        long rxBytes = 0L;
+        long txBytes = 0L;
+        if (statistics.getNetworks() != null) {
+            for (StatisticNetworksConfig network : statistics.getNetworks().values()) {
+                if (network != null) {
+                    rxBytes += network.getRxBytes() != null ? network.getRxBytes() : 0L;
+                    txBytes += network.getTxBytes() != null ? network.getTxBytes() : 0L;
+                }
+            }
+        }
+
+        double cpuUsage = 0.0;
+        double rxBandwidth = 0.0;
+        double txBandwidth = 0.0;
+        if (previous != null) {
+            double cpuDelta = cpuTotal - previous.cpuTotal();
+            double systemDelta = systemTotal - previous.systemCpuTotal();
+            if (systemDelta > 0.0 && cpuDelta > 0.0) {
+                cpuUsage = (cpuDelta / systemDelta) * onlineCpus * 100.0;
+            }
+
+            long timeDelta = now - previous.timestamp();
+            if (timeDelta > 0) {
+                double timeDeltaSec = timeDelta / 1000.0;
+                rxBandwidth = Math.max(0, rxBytes - previous.networkRxBytes()) / timeDeltaSec;
+                txBandwidth = Math.max(0, txBytes - previous.networkTxBytes()) / timeDeltaSec;
+            }
+        }
+
+        return new StatsSample(containerId, cpuUsage, memoryUsed, memoryLimit, rxBytes, txBytes, rxBandwidth, txBandwidth, cpuTotal, systemTotal, now);
+    }
+
+    private final class Subscription {
+
+        private final String containerId;
+        private final AtomicReference<StatsSample> latest = new AtomicReference<>();
+        private final CompletableFuture<StatsSample> firstSample = new CompletableFuture<>();
+        private volatile Closeable stream;
+        private volatile boolean closed;
+
+        private Subscription(String containerId) {
+            this.containerId = containerId;
+        }
+
+        private void start() {
+            try {
+                DockerStatsCollector.this.dockerClient.statsCmd(this.containerId).exec(new ResultCallback.Adapter<Statistics>() {
+                    @Override
+                    public void onStart(Closeable stream) {
+                        super.onStart(stream);
+                        Subscription.this.stream = stream;
+                        if (Subscription.this.closed) {
+                            Subscription.this.close();
+                        }
+                    }
+
+                    @Override
+                    public void onNext(Statistics statistics) {
+                        Subscription.this.accept(statistics);
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        Logger.debug("Stats stream for container {} failed: {}", Subscription.this.containerId.substring(0, 12), throwable.getMessage());
+                        Subscription.this.detach();
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        Subscription.this.detach();
+                    }
+                });
+            } catch (Exception e) {
+                Logger.debug("Failed to open stats stream for container {}: {}", this.containerId.substring(0, 12), e.getMessage());
+                this.detach();
+            }
+        }
+
+        private void accept(Statistics statistics) {
+            if (statistics == null || this.closed) {
+                return;
+            }
+
+            StatsSample sample = toSample(this.containerId, statistics, this.latest.get(), System.currentTimeMillis());
+            this.latest.set(sample);
+            this.firstSample.complete(sample);
+        }
+
+        /**
+         * Forgets a stream that ended on Docker's side, so the next open starts a fresh one.
+         */
+        private void detach() {
+            this.closed = true;
+            this.firstSample.complete(null);
+            DockerStatsCollector.this.subscriptions.remove(this.containerId, this);
+        }
+
+        private void close() {
+            this.closed = true;
+            this.firstSample.complete(null);
+
+            Closeable current = this.stream;
+            if (current == null) {
+                return;
+            }
+
+            try {
+                current.close();
+            } catch (IOException e) {
+                Logger.debug("Error closing stats stream for container {}: {}", this.containerId.substring(0, 12), e.getMessage());
+            }
+        }
+
+    }
+
+    /**
+     * @param cpuUsage           CPU usage since the previous sample, where 100 is one full core
+     * @param networkRxBytes     total bytes received since the container started
+     * @param networkRxBandwidth bytes received per second since the previous sample
+     * @param cpuTotal           cumulative CPU time of the container, kept for the next delta
+     * @param systemCpuTotal     cumulative CPU time of the host, kept for the next delta
+     */
+    public record StatsSample(String containerId, double cpuUsage, long memoryUsed, long memoryLimit,
+                              long networkRxBytes, long networkTxBytes, double networkRxBandwidth, double networkTxBandwidth,
+                              long cpuTotal, long systemCpuTotal, long timestamp) {
+    }
+
+}
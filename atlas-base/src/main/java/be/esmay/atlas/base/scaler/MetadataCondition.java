@@ -0,0 +1,16 @@
+package be.esmay.atlas.base.scaler;
+
+import java.util.Map;
+
+/**
+ * A compiled metadata condition, produced by {@link MetadataConditionParser#compile(String)}.
+ *
+ * <p>Conditions are immutable and safe to share between threads. Evaluating one does not parse
+ * or allocate anything beyond what a regex match or reading a numeric metadata value needs.
+ */
+@FunctionalInterface
+public interface MetadataCondition {
+
+    boolean test(Map<String, String> metadata);
+
+}
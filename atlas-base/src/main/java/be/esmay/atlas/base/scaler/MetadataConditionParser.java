@@ -3,20 +3,24 @@ package be.esmay.atlas.base.scaler;
 import lombok.experimental.UtilityClass;
 
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 @UtilityClass
 public final class MetadataConditionParser {
 
-    private static final ConcurrentHashMap<String, Pattern> PATTERN_CACHE = new ConcurrentHashMap<>();
     private static final int MAX_EXPRESSION_LENGTH = 1000;
-    private static final int MAX_PATTERN_CACHE_SIZE = 100;
-
-    public static boolean evaluate(String expression, Map<String, String> metadata) {
+    private static final int MAX_PATTERN_LENGTH = 100;
+
+    /**
+     * Compiles the expression into a condition tree that can be evaluated repeatedly.
+     *
+     * @return the compiled condition, or {@code null} if the expression is empty
+     * @throws IllegalArgumentException if the expression is invalid
+     */
+    public static MetadataCondition compile(String expression) {
         if (expression == null || expression.trim().isEmpty()) {
-            return true;
+            return null;
         }
 
         String trimmed = expression.trim();
@@ -24,175 +28,241 @@ public final class MetadataConditionParser {
             throw new IllegalArgumentException("Expression too long: " + trimmed.length() + " > " + MAX_EXPRESSION_LENGTH);
         }
 
-        if (metadata == null) {
-            metadata = new ConcurrentHashMap<>();
-        }
+        return parseExpression(trimmed);
+    }
 
-        return parseExpression(trimmed, metadata);
+    public static boolean evaluate(String expression, Map<String, String> metadata) {
+        MetadataCondition condition = compile(expression);
+        return condition == null || condition.test(metadata != null ? metadata : Map.of());
     }
 
-    private static boolean parseExpression(String expression, Map<String, String> metadata) {
+    private static MetadataCondition parseExpression(String expression) {
         expression = expression.trim();
+        if (expression.isEmpty()) {
+            throw new IllegalArgumentException("Missing operand in expression");
+        }
+
+        if (!hasBalancedParentheses(expression)) {
+            throw new IllegalArgumentException("Unbalanced parentheses in expression: " + expression);
+        }
 
         int orIndex = findOperatorIndex(expression, " OR ");
         if (orIndex != -1) {
-            String left = expression.substring(0, orIndex).trim();
-            String right = expression.substring(orIndex + 4).trim();
-            return parseExpression(left, metadata) || parseExpression(right, metadata);
+            MetadataCondition left = parseExpression(expression.substring(0, orIndex));
+            MetadataCondition right = parseExpression(expression.substring(orIndex + 4));
+            return new Or(left, right);
         }
 
         int andIndex = findOperatorIndex(expression, " AND ");
         if (andIndex != -1) {
-            String left = expression.substring(0, andIndex).trim();
-            String right = expression.substring(andIndex + 5).trim();
-            return parseExpression(left, metadata) && parseExpression(right, metadata);
+            MetadataCondition left = parseExpression(expression.substring(0, andIndex));
+            MetadataCondition right = parseExpression(expression.substring(andIndex + 5));
+            return new And(left, right);
         }
 
         if (expression.startsWith("(") && expression.endsWith(")")) {
-            return parseExpression(expression.substring(1, expression.length() - 1), metadata);
+            return parseExpression(expression.substring(1, expression.length() - 1));
         }
 
         if (expression.startsWith("NOT ")) {
-            return !parseExpression(expression.substring(4), metadata);
+            return new Not(parseExpression(expression.substring(4)));
         }
 
-        return evaluateCondition(expression, metadata);
+        return parseCondition(expression);
+    }
+
+    private static boolean hasBalancedParentheses(String expression) {
+        int parenthesesLevel = 0;
+        for (int index = 0; index < expression.length(); index++) {
+            char ch = expression.charAt(index);
+            if (ch == '(') {
+                parenthesesLevel++;
+            } else if (ch == ')' && --parenthesesLevel < 0) {
+                return false;
+            }
+        }
+
+        return parenthesesLevel == 0;
     }
 
     private static int findOperatorIndex(String expression, String operator) {
         int parenthesesLevel = 0;
         int index = 0;
-        
+
         while (index <= expression.length() - operator.length()) {
             char ch = expression.charAt(index);
             if (ch == '(') {
                 parenthesesLevel++;
             } else if (ch == ')') {
                 parenthesesLevel--;
-            } else if (parenthesesLevel == 0 && expression.substring(index).startsWith(operator)) {
+            } else if (parenthesesLevel == 0 && expression.startsWith(operator, index)) {
                 return index;
             }
             index++;
         }
-        
+
         return -1;
     }
 
-    private static boolean evaluateCondition(String condition, Map<String, String> metadata) {
-        condition = condition.trim();
-
+    private static MetadataCondition parseCondition(String condition) {
         if (condition.contains("!=")) {
             String[] parts = condition.split("!=", 2);
-            String key = parts[0].trim();
-            String expectedValue = parts[1].trim();
-            String actualValue = metadata.get(key);
-            return actualValue == null || !actualValue.equals(expectedValue);
+            return new NotEquals(parseKey(parts[0], condition), parts[1].trim());
         }
 
         if (condition.contains("~=")) {
             String[] parts = condition.split("~=", 2);
-            String key = parts[0].trim();
-            String regex = parts[1].trim();
-            String actualValue = metadata.get(key);
-            return actualValue != null && matchesRegexSafely(actualValue, regex);
+            return new Matches(parseKey(parts[0], condition), compilePattern(parts[1].trim()));
         }
 
         if (condition.contains(">=")) {
             String[] parts = condition.split(">=", 2);
-            String key = parts[0].trim();
-            String expectedValue = parts[1].trim();
-            return compareNumeric(metadata.get(key), expectedValue, ">=");
+            return new Compare(parseKey(parts[0], condition), ComparisonOperator.GREATER_OR_EQUAL, parseNumber(parts[1], condition));
         }
 
         if (condition.contains("<=")) {
             String[] parts = condition.split("<=", 2);
-            String key = parts[0].trim();
-            String expectedValue = parts[1].trim();
-            return compareNumeric(metadata.get(key), expectedValue, "<=");
+            return new Compare(parseKey(parts[0], condition), ComparisonOperator.LESS_OR_EQUAL, parseNumber(parts[1], condition));
         }
 
         if (condition.contains(">")) {
             String[] parts = condition.split(">", 2);
-            String key = parts[0].trim();
-            String expectedValue = parts[1].trim();
-            return compareNumeric(metadata.get(key), expectedValue, ">");
+            return new Compare(parseKey(parts[0], condition), ComparisonOperator.GREATER, parseNumber(parts[1], condition));
         }
 
         if (condition.contains("<")) {
             String[] parts = condition.split("<", 2);
-            String key = parts[0].trim();
-            String expectedValue = parts[1].trim();
-            return compareNumeric(metadata.get(key), expectedValue, "<");
+            return new Compare(parseKey(parts[0], condition), ComparisonOperator.LESS, parseNumber(parts[1], condition));
         }
 
         if (condition.contains("=")) {
             String[] parts = condition.split("=", 2);
-            String key = parts[0].trim();
-            String expectedValue = parts[1].trim();
-            String actualValue = metadata.get(key);
-            return actualValue != null && actualValue.equals(expectedValue);
+            return new Equals(parseKey(parts[0], condition), parts[1].trim());
         }
 
         if (condition.startsWith("!")) {
-            String key = condition.substring(1).trim();
-            return !metadata.containsKey(key);
+            return new Missing(parseKey(condition.substring(1), condition));
         }
 
-        return metadata.containsKey(condition);
+        return new Present(parseKey(condition, condition));
     }
 
-    private static boolean compareNumeric(String actualValue, String expectedValue, String operator) {
-        if (actualValue == null) {
-            return false;
+    private static String parseKey(String key, String condition) {
+        String trimmed = key.trim();
+        if (trimmed.isEmpty() || trimmed.indexOf('(') != -1 || trimmed.indexOf(')') != -1 || trimmed.indexOf(' ') != -1) {
+            throw new IllegalArgumentException("Invalid metadata key in condition: " + condition);
         }
 
+        return trimmed;
+    }
+
+    private static double parseNumber(String value, String condition) {
         try {
-            double actual = Double.parseDouble(actualValue);
-            double expected = Double.parseDouble(expectedValue);
-
-            switch (operator) {
-                case ">" -> {
-                    return actual > expected;
-                }
-                case "<" -> {
-                    return actual < expected;
-                }
-                case ">=" -> {
-                    return actual >= expected;
-                }
-                case "<=" -> {
-                    return actual <= expected;
-                }
-                default -> {
-                    return false;
-                }
-            }
+            return Double.parseDouble(value.trim());
         } catch (NumberFormatException e) {
-            return false;
+            throw new IllegalArgumentException("Expected a number in condition: " + condition, e);
         }
     }
 
-    private static boolean matchesRegexSafely(String actualValue, String regex) {
-        if (regex.length() > 100) {
-            throw new IllegalArgumentException("Regex pattern too long (max 100 chars): " + regex.length());
+    private static Pattern compilePattern(String regex) {
+        if (regex.length() > MAX_PATTERN_LENGTH) {
+            throw new IllegalArgumentException("Regex pattern too long (max " + MAX_PATTERN_LENGTH + " chars): " + regex.length());
         }
 
         try {
-            if (PATTERN_CACHE.size() >= MAX_PATTERN_CACHE_SIZE) {
-                PATTERN_CACHE.clear();
+            return Pattern.compile(regex);
+        } catch (PatternSyntaxException e) {
+            throw new IllegalArgumentException("Invalid regex pattern: " + regex, e);
+        }
+    }
+
+    private enum ComparisonOperator {
+        GREATER,
+        LESS,
+        GREATER_OR_EQUAL,
+        LESS_OR_EQUAL
+    }
+
+    private record Or(MetadataCondition left, MetadataCondition right) implements MetadataCondition {
+        @Override
+        public boolean test(Map<String, String> metadata) {
+            return this.left.test(metadata) || this.right.test(metadata);
+        }
+    }
+
+    private record And(MetadataCondition left, MetadataCondition right) implements MetadataCondition {
+        @Override
+        public boolean test(Map<String, String> metadata) {
+            return this.left.test(metadata) && this.right.test(metadata);
+        }
+    }
+
+    private record Not(MetadataCondition condition) implements MetadataCondition {
+        @Override
+        public boolean test(Map<String, String> metadata) {
+            return !this.condition.test(metadata);
+        }
+    }
+
+    private record Present(String key) implements MetadataCondition {
+        @Override
+        public boolean test(Map<String, String> metadata) {
+            return metadata.containsKey(this.key);
+        }
+    }
+
+    private record Missing(String key) implements MetadataCondition {
+        @Override
+        public boolean test(Map<String, String> metadata) {
+            return !metadata.containsKey(this.key);
+        }
+    }
+
+    private record Equals(String key, String value) implements MetadataCondition {
+        @Override
+        public boolean test(Map<String, String> metadata) {
+            String actualValue = metadata.get(this.key);
+            return actualValue != null && actualValue.equals(this.value);
+        }
+    }
+
+    private record NotEquals(String key, String value) implements MetadataCondition {
+        @Override
+        public boolean test(Map<String, String> metadata) {
+            String actualValue = metadata.get(this.key);
+            return actualValue == null || !actualValue.equals(this.value);
+        }
+    }
+
+    private record Matches(String key, Pattern pattern) implements MetadataCondition {
+        @Override
+        public boolean test(Map<String, String> metadata) {
+            String actualValue = metadata.get(this.key);
+            return actualValue != null && this.pattern.matcher(actualValue).matches();
+        }
+    }
+
+    private record Compare(String key, ComparisonOperator operator, double expected) implements MetadataCondition {
+        @Override
+        public boolean test(Map<String, String> metadata) {
+            String actualValue = metadata.get(this.key);
+            if (actualValue == null) {
+                return false;
             }
 
-            Pattern pattern = PATTERN_CACHE.computeIfAbsent(regex, r -> {
-                try {
-                    return Pattern.compile(r);
-                } catch (PatternSyntaxException e) {
-                    throw new IllegalArgumentException("Invalid regex pattern: " + r, e);
-                }
-            });
+            double actual;
+            try {
+                actual = Double.parseDouble(actualValue);
+            } catch (NumberFormatException e) {
+                return false;
+            }
 
-            return pattern.matcher(actualValue).matches();
-        } catch (PatternSyntaxException e) {
-            throw new IllegalArgumentException("Invalid regex pattern: " + regex, e);
+            return switch (this.operator) {
+                case GREATER -> actual > this.expected;
+                case LESS -> actual < this.expected;
+                case GREATER_OR_EQUAL -> actual >= this.expected;
+                case LESS_OR_EQUAL -> actual <= this.expected;
+            };
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,196 @@
+package be.esmay.atlas.base.scaler;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Forecasts the player count of a group from its recent history.
+ *
+ * <p>Two forecasts are made and the higher one wins, since under-provisioning costs more than
+ * an idle server:
+ * <ul>
+ *     <li>a linear trend fitted over the last few minutes of samples</li>
+ *     <li>a seasonal forecast that takes the change recent days saw between the same time of day
+ *     and the end of the horizon, and applies it to the current count</li>
+ * </ul>
+ *
+ * <p>The forecaster never reads the clock; every timestamp is passed in. Replaying the same
+ * samples therefore always yields the same forecasts, which makes recorded player curves easy
+ * to replay when tuning a group.
+ */
+public final class PlayerCountForecaster {
+
+    private static final long MINUTE_MILLIS = 60_000L;
+    private static final int MINUTES_PER_DAY = 1440;
+    private static final long MIN_TREND_SPAN_MILLIS = 30_000L;
+    private static final long MAX_STARTUP_LATENCY_MILLIS = 600_000L;
+    private static final double STARTUP_LATENCY_WEIGHT = 0.3;
+
+    private final long trendWindowMillis;
+    private final int seasonalDays;
+    private final Deque<Sample> recentSamples = new ArrayDeque<>();
+
+    private final long[] bucketDays;
+    private final double[][] bucketSums;
+    private final int[][] bucketCounts;
+
+    private double startupLatencyMillis = -1;
+
+    public PlayerCountForecaster(long trendWindowMillis, int seasonalDays) {
+        this.trendWindowMillis = trendWindowMillis;
+        this.seasonalDays = Math.max(0, seasonalDays);
+
+        int days = this.seasonalDays + 1;
+        this.bucketDays = new long[days];
+        this.bucketSums = new double[days][];
+        this.bucketCounts = new int[days][];
+        for (int i = 0; i < days; i++) {
+            this.bucketDays[i] = -1;
+        }
+    }
+
+    public synchronized void record(long timestamp, int players) {
+        Sample last = this.recentSamples.peekLast();
+        if (last != null && timestamp < last.timestamp()) {
+            return;
+        }
+
+        this.recentSamples.addLast(new Sample(timestamp, players));
+        while (!this.recentSamples.isEmpty() && this.recentSamples.peekFirst().timestamp() < timestamp - this.trendWindowMillis) {
+            this.recentSamples.removeFirst();
+        }
+
+        long minute = Math.floorDiv(timestamp, MINUTE_MILLIS);
+        long day = Math.floorDiv(minute, MINUTES_PER_DAY);
+        int slot = (int) Math.floorMod(minute, MINUTES_PER_DAY);
+        int index = (int) Math.floorMod(day, this.bucketDays.length);
+
+        if (this.bucketDays[index] != day) {
+            this.bucketDays[index] = day;
+            this.bucketSums[index] = new double[MINUTES_PER_DAY];
+            this.bucketCounts[index] = new int[MINUTES_PER_DAY];
+        }
+
+        this.bucketSums[index][slot] += players;
+        this.bucketCounts[index][slot]++;
+    }
+
+    /**
+     * Records how long a server took from creation until it reported RUNNING. Samples above ten
+     * minutes are ignored; they come from servers that were restarted long after creation.
+     */
+    public synchronized void recordStartupLatency(long latencyMillis) {
+        if (latencyMillis <= 0 || latencyMillis > MAX_STARTUP_LATENCY_MILLIS) {
+            return;
+        }
+
+        this.startupLatencyMillis = this.startupLatencyMillis < 0
+                ? latencyMillis
+                : this.startupLatencyMillis + STARTUP_LATENCY_WEIGHT * (latencyMillis - this.startupLatencyMillis);
+    }
+
+    public synchronized long getStartupLatencyMillis(long defaultMillis) {
+        return this.startupLatencyMillis < 0 ? defaultMillis : (long) this.startupLatencyMillis;
+    }
+
+    /**
+     * Forecasts the player count {@code horizonMillis} after {@code now}.
+     */
+    public synchronized Forecast forecast(long now, long horizonMillis) {
+        Sample last = this.recentSamples.peekLast();
+        int current = last != null ? last.players() : 0;
+
+        double trend = this.trendForecast(current, now + horizonMillis);
+        double seasonal = this.seasonalForecast(current, now, horizonMillis);
+        double projected = Math.max(current, Math.max(trend, seasonal));
+
+        return new Forecast(current, trend, seasonal, projected);
+    }
+
+    private double trendForecast(int current, long target) {
+        if (this.recentSamples.size() < 3) {
+            return current;
+        }
+
+        long origin = this.recentSamples.peekFirst().timestamp();
+        long span = this.recentSamples.peekLast().timestamp() - origin;
+        if (span < MIN_TREND_SPAN_MILLIS) {
+            return current;
+        }
+
+        double count = this.recentSamples.size();
+        double sumX = 0;
+        double sumY = 0;
+        double sumXX = 0;
+        double sumXY = 0;
+
+        for (Sample sample : this.recentSamples) {
+            double x = sample.timestamp() - origin;
+            sumX += x;
+            sumY += sample.players();
+            sumXX += x * x;
+            sumXY += x * sample.players();
+        }
+
+        double denominator = count * sumXX - sumX * sumX;
+        if (denominator == 0) {
+            return current;
+        }
+
+        double slope = (count * sumXY - sumX * sumY) / denominator;
+        double intercept = (sumY - slope * sumX) / count;
+
+        return Math.max(0, intercept + slope * (target - origin));
+    }
+
+    private double seasonalForecast(int current, long now, long horizonMillis) {
+        long nowMinute = Math.floorDiv(now, MINUTE_MILLIS);
+        long targetMinute = Math.floorDiv(now + horizonMillis, MINUTE_MILLIS);
+
+        double totalChange = 0;
+        int days = 0;
+
+        for (int daysBack = 1; daysBack <= this.seasonalDays; daysBack++) {
+            long offset = (long) daysBack * MINUTES_PER_DAY;
+            double then = this.bucketAverage(nowMinute - offset);
+            double later = this.bucketAverage(targetMinute - offset);
+            if (Double.isNaN(then) || Double.isNaN(later)) {
+                continue;
+            }
+
+            totalChange += later - then;
+            days++;
+        }
+
+        if (days == 0) {
+            return current;
+        }
+
+        return Math.max(0, current + totalChange / days);
+    }
+
+    private double bucketAverage(long minute) {
+        long day = Math.floorDiv(minute, MINUTES_PER_DAY);
+        int index = (int) Math.floorMod(day, this.bucketDays.length);
+        if (this.bucketDays[index] != day) {
+            return Double.NaN;
+        }
+
+        int slot = (int) Math.floorMod(minute, MINUTES_PER_DAY);
+        int count = this.bucketCounts[index][slot];
+        return count == 0 ? Double.NaN : this.bucketSums[index][slot] / count;
+    }
+
+    private record Sample(long timestamp, int players) {
+    }
+
+    /**
+     * @param current   the last recorded player count
+     * @param trend     the linear-trend forecast
+     * @param seasonal  the time-of-day forecast
+     * @param projected the forecast used for scaling, never below the current count
+     */
+    public record Forecast(int current, double trend, double seasonal, double projected) {
+    }
+
+}
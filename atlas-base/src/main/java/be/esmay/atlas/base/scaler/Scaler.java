@@ -5,6 +5,8 @@ import be.esmay.atlas.base.activity.ActivityType;
 import be.esmay.atlas.base.config.impl.ScalerConfig;
 import be.esmay.atlas.base.lifecycle.ServerLifecycleManager;
 import be.esmay.atlas.base.lifecycle.ServerLifecycleService;
+import be.esmay.atlas.base.metrics.AtlasMetrics;
+import be.esmay.atlas.base.metrics.HostMemory;
 import be.esmay.atlas.base.provider.DeletionOptions;
 import be.esmay.atlas.base.provider.StartOptions;
 import be.esmay.atlas.base.provider.ServiceProvider;
@@ -14,8 +16,10 @@ import be.esmay.atlas.common.enums.ServerStatus;
 import be.esmay.atlas.common.enums.ServerType;
 import be.esmay.atlas.common.models.AtlasServer;
 import be.esmay.atlas.common.models.ServerInfo;
+import com.sun.management.OperatingSystemMXBean;
 import lombok.Getter;
 
+import java.lang.management.ManagementFactory;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -23,6 +27,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalDouble;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -37,13 +42,17 @@ public abstract class Scaler {
     protected final ServiceProvider serviceProvider;
     protected final ServerLifecycleManager lifecycleManager;
     protected final ServerLifecycleService lifecycleService;
-    protected final Map<String, AtlasServer> servers = new ConcurrentHashMap<>();
+    protected final ServerRegistry serverRegistry;
+    protected final Map<String, AtlasServer> servers;
+    protected final ScalerAggregates aggregates = new ScalerAggregates();
+    protected final StartLimiter startLimiter;
     protected final Set<String> pendingRemovals = ConcurrentHashMap.newKeySet();
     protected final Set<String> reservedNames = ConcurrentHashMap.newKeySet();
 
     @Getter
     protected final Set<String> manuallyStopped = ConcurrentHashMap.newKeySet();
     protected final Set<String> currentlyRestarting = ConcurrentHashMap.newKeySet();
+    private final Set<String> startLatencyRecorded = ConcurrentHashMap.newKeySet();
 
     protected volatile boolean shutdown = false;
     protected volatile boolean paused = false;
@@ -60,6 +69,9 @@ public abstract class Scaler {
         this.serviceProvider = AtlasBase.getInstance().getProviderManager().getProvider();
         this.lifecycleManager = new ServerLifecycleManager();
         this.lifecycleService = new ServerLifecycleService(AtlasBase.getInstance());
+        this.serverRegistry = AtlasBase.getInstance().getScalerManager().getServerRegistry();
+        this.servers = this.serverRegistry.getGroupView(groupName);
+        this.startLimiter = new StartLimiter(scalerConfig.getGroup().getScaling().getMaxConcurrentStarts());
     }
 
     protected void recordScalingActivity(String direction, int serversBefore, int serversAfter, String triggeredBy, String reason, List<String> serversAdded, List<String> serversRemoved) {
@@ -102,23 +114,7 @@ public abstract class Scaler {
     public int getLowestAvailableNumber() {
         if (this.isUuidIdentifier()) return 1;
 
-        Set<Integer> usedNumbers = this.servers.values().stream()
-                .map(server -> this.extractServerNumber(server.getName()))
-                .filter(num -> num > 0)
-                .collect(Collectors.toSet());
-
-        Set<Integer> reservedNumbers = this.reservedNames.stream()
-                .map(this::extractServerNumber)
-                .filter(num -> num > 0)
-                .collect(Collectors.toSet());
-
-        for (int i = 1; i <= this.getMaxServers(); i++) {
-            if (!usedNumbers.contains(i) && !reservedNumbers.contains(i)) {
-                return i;
-            }
-        }
-
-        return usedNumbers.size() + reservedNumbers.size() + 1;
+        return this.aggregates.getLowestAvailableNumber();
     }
 
     public void scaleServers() {
@@ -135,12 +131,15 @@ public abstract class Scaler {
             return;
         }
 
+        this.maintainWarmPool();
+
         ScaleType scaleType = this.needsScaling();
 
         switch (scaleType) {
             case UP -> {
                 Logger.debug("Scaling up servers for group: {} (current utilization: {}%)", this.groupName, String.format("%.2f", this.getCurrentUtilization() * 100));
 
+                AtlasMetrics.SCALE_UPS.increment(this.groupName);
                 CompletableFuture<Void> upscaleFuture = this.autoUpscale();
 
                 upscaleFuture.exceptionally(throwable -> {
@@ -150,6 +149,7 @@ public abstract class Scaler {
             }
             case DOWN -> {
                 Logger.debug("Scaling down servers for group: {} (current utilization: {}%)", this.groupName, String.format("%.2f", this.getCurrentUtilization() * 100));
+                AtlasMetrics.SCALE_DOWNS.increment(this.groupName);
                 this.autoScaleDown();
             }
             case NONE ->
@@ -185,12 +185,13 @@ public abstract class Scaler {
         this.addServer(server);
         Logger.debug("Added manual server to tracking before creation: {} with STARTING status", serverName);
         
-        CompletableFuture<AtlasServer> createFuture = this.serviceProvider.startServerCompletely(server, StartOptions.scalingUp());
+        CompletableFuture<AtlasServer> createFuture = this.submitStart(server);
 
         int serversBefore = this.servers.size();
         
         CompletableFuture<Void> acceptFuture = createFuture.thenAccept(startedServer -> {
-            this.servers.put(startedServer.getServerId(), startedServer);
+            this.serverRegistry.register(startedServer);
+            this.refreshAggregates(startedServer);
             Logger.debug("Updated manual server after successful start: {}", startedServer.getName());
 
             this.recordScalingActivity(
@@ -206,51 +207,36 @@ public abstract class Scaler {
 
         return acceptFuture.exceptionally(throwable -> {
             Logger.error("Failed to create manual server: {}", serverId, throwable);
-            this.reservedNames.remove(serverName);
+            this.releaseReservedName(serverName);
             this.removeServerFromTracking(serverId);
             return null;
         });
     }
 
     public CompletableFuture<Void> autoUpscale() {
-        int currentAutoServers = this.getAutoScaledServers().size();
+        int currentAutoServers = this.getAutoScaledServerCount();
         int minServers = this.getMinServers();
+        boolean belowMinimum = currentAutoServers < minServers;
 
-        if (currentAutoServers < minServers) {
-            int serversToCreate = minServers - currentAutoServers;
-            int serversBefore = this.servers.size();
-            Logger.debug("Scaling up to minimum servers for group: {}. Creating {} servers to reach minimum of {}", this.groupName, serversToCreate, minServers);
-
-            List<CompletableFuture<Void>> futures = new ArrayList<>();
-            for (int i = 0; i < serversToCreate; i++) {
-                futures.add(this.createAutoScaledServer());
-            }
-
-            CompletableFuture<Void> allFuture = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
-
-            return allFuture.thenRun(() -> {
-                this.lastScaleUpTime = Instant.now();
+        if (!belowMinimum && !this.canScaleUp()) {
+            return CompletableFuture.completedFuture(null);
+        }
 
-                this.recordScalingActivity(
-                    "up", 
-                    serversBefore, 
-                    this.servers.size(),
-                    "scaler", 
-                    "minimum_servers_enforcement",
-                    null,
-                    null
-                );
-            });
+        int serversToCreate = belowMinimum ? minServers - currentAutoServers : this.getScaleUpDeficit();
+        int maxServers = this.getMaxServers();
+        if (maxServers != -1) {
+            serversToCreate = Math.min(serversToCreate, maxServers - currentAutoServers);
         }
 
-        if (!this.canScaleUp()) {
+        if (serversToCreate <= 0) {
             return CompletableFuture.completedFuture(null);
         }
 
+        String reason = belowMinimum ? "minimum_servers_enforcement" : "utilization_threshold";
         int serversBefore = this.servers.size();
-        CompletableFuture<Void> createFuture = this.createAutoScaledServer();
+        Logger.debug("Scaling up group: {} by {} servers ({})", this.groupName, serversToCreate, reason);
 
-        return createFuture.thenRun(() -> {
+        return this.createAutoScaledServers(serversToCreate).thenAccept(startedServers -> {
             this.lastScaleUpTime = Instant.now();
 
             this.recordScalingActivity(
@@ -258,18 +244,72 @@ public abstract class Scaler {
                 serversBefore, 
                 this.servers.size(),
                 "scaler", 
-                "utilization_threshold",
-                null,
+                reason,
+                startedServers,
                 null
             );
         });
     }
 
-    private CompletableFuture<Void> createAutoScaledServer() {
+    /**
+     * Returns how many auto-scaled servers to add so utilization drops back below the scale-up
+     * threshold. Always at least one, since this is only asked once scaling up was decided.
+     */
+    protected int getScaleUpDeficit() {
+        double threshold = this.scalerConfig.getGroup().getScaling().getConditions().getScaleUpThreshold();
+        int provisionedServers = this.getAutoScaledServerCount();
+        int capacity = this.getAutoScaledCapacity();
+        if (provisionedServers == 0 || capacity == 0 || threshold <= 0) {
+            return 1;
+        }
+
+        double usableCapacity = (double) capacity / provisionedServers * threshold;
+        int requiredServers = (int) Math.ceil(this.getAutoScaledOnlinePlayers() / usableCapacity);
+        return Math.max(1, requiredServers - provisionedServers);
+    }
+
+    /**
+     * Adds {@code count} auto-scaled servers as one batch. Standby servers are promoted first,
+     * identifiers for the rest are reserved up front, and all starts are queued on the start
+     * limiters at once. A failed start is reported on its own and does not fail the batch.
+     *
+     * @return the names of the servers that were promoted or started
+     */
+    private CompletableFuture<List<String>> createAutoScaledServers(int count) {
+        List<CompletableFuture<AtlasServer>> futures = new ArrayList<>();
+
+        int promoted = 0;
+        while (promoted < count) {
+            AtlasServer standbyServer = this.promoteStandbyServer();
+            if (standbyServer == null)
+                break;
+
+            futures.add(CompletableFuture.completedFuture(standbyServer));
+            promoted++;
+        }
+
+        for (String serverName : this.getNextIdentifiers(count - promoted)) {
+            futures.add(this.startAutoScaledServer(serverName, false));
+        }
+
+        if (promoted > 0) {
+            this.maintainWarmPool();
+        }
+
+        List<CompletableFuture<String>> names = futures.stream()
+                .map(future -> future.handle((server, throwable) -> server != null ? server.getName() : null))
+                .toList();
+
+        return CompletableFuture.allOf(names.toArray(new CompletableFuture[0])).thenApply(ignored -> names.stream()
+                .map(CompletableFuture::join)
+                .filter(name -> name != null)
+                .collect(Collectors.toList()));
+    }
+
+    private CompletableFuture<AtlasServer> startAutoScaledServer(String serverName, boolean standby) {
         ServerType serverType = ServerType.valueOf(this.scalerConfig.getGroup().getServer().getType().toUpperCase());
-        String serverName = this.getNextIdentifier();
         String serverId = UUID.randomUUID().toString();
-        Logger.debug("Creating auto-scaled server: {} (ID: {}) for group: {}", serverName, serverId, this.groupName);
+        Logger.debug("Creating {} server: {} (ID: {}) for group: {}", standby ? "standby" : "auto-scaled", serverName, serverId, this.groupName);
 
         ServerInfo initialServerInfo = ServerInfo.builder()
                 .status(ServerStatus.STARTING)
@@ -289,25 +329,142 @@ public abstract class Scaler {
                 .lastHeartbeat(System.currentTimeMillis())
                 .serverInfo(initialServerInfo)
                 .build();
+
+        if (standby) {
+            this.serverRegistry.markStandby(serverId);
+        }
         
         this.addServer(server);
         Logger.debug("Added server to tracking before creation: {} with STARTING status", serverName);
         
-        CompletableFuture<AtlasServer> createFuture = this.serviceProvider.startServerCompletely(server, StartOptions.scalingUp());
+        CompletableFuture<AtlasServer> createFuture = this.submitStart(server);
 
-        CompletableFuture<Void> acceptFuture = createFuture.thenAccept(startedServer -> {
-            this.servers.put(startedServer.getServerId(), startedServer);
-            Logger.debug("Updated server after successful start: {}", startedServer.getName());
-        });
+        return createFuture.whenComplete((startedServer, throwable) -> {
+            if (throwable == null) {
+                this.serverRegistry.register(startedServer);
+                this.refreshAggregates(startedServer);
+                Logger.debug("Updated server after successful start: {}", startedServer.getName());
+                return;
+            }
 
-        return acceptFuture.exceptionally(throwable -> {
             Logger.error("Failed to create auto-scaled server: {}", serverId, throwable);
-            this.reservedNames.remove(serverName);
+            this.releaseReservedName(serverName);
             this.removeServerFromTracking(serverId);
-            return null;
+            this.recordStartFailure(server, throwable);
         });
     }
 
+    /**
+     * Starts the server once both this group's and the global start limiter allow it.
+     */
+    private CompletableFuture<AtlasServer> submitStart(AtlasServer server) {
+        StartLimiter globalLimiter = AtlasBase.getInstance().getScalerManager().getStartLimiter();
+        return this.startLimiter.submit(() -> globalLimiter.submit(() -> this.serviceProvider.startServerCompletely(server, StartOptions.scalingUp())));
+    }
+
+    private void recordStartFailure(AtlasServer server, Throwable throwable) {
+        try {
+            Throwable cause = throwable.getCause() != null ? throwable.getCause() : throwable;
+            AtlasBase.getInstance().getActivityService().createActivity(ActivityType.ERROR_EVENT)
+                .serverId(server.getServerId())
+                .serverName(server.getName())
+                .groupName(this.groupName)
+                .triggeredBy("scaler")
+                .description(String.format("Failed to start server %s during scale up: %s", server.getName(), cause.getMessage()))
+                .metadata("error", String.valueOf(cause.getMessage()))
+                .record();
+        } catch (Exception e) {
+            Logger.error("Failed to record start failure for server: {}", server.getName(), e);
+        }
+    }
+
+    /**
+     * Promotes a running standby server to an active one and advertises it to clients.
+     *
+     * @return the promoted server, or {@code null} if no standby server is ready
+     */
+    private AtlasServer promoteStandbyServer() {
+        for (AtlasServer server : this.getStandbyServers()) {
+            if (server.getServerInfo() == null || server.getServerInfo().getStatus() != ServerStatus.RUNNING)
+                continue;
+
+            if (!this.serverRegistry.clearStandby(server.getServerId()))
+                continue;
+
+            this.refreshAggregates(server);
+            Logger.info("Promoted standby server {} to active in group: {}", server.getName(), this.groupName);
+
+            AtlasBase atlasInstance = AtlasBase.getInstance();
+            if (atlasInstance != null && atlasInstance.getNettyServer() != null) {
+                atlasInstance.getNettyServer().broadcastServerAdd(server);
+            }
+
+            return server;
+        }
+
+        return null;
+    }
+
+    /**
+     * Brings the number of standby servers to the configured warm-pool size. Refills start in the
+     * background. While the host is above its CPU or memory limits the pool is not refilled and
+     * shrinks by one server per tick.
+     */
+    protected void maintainWarmPool() {
+        ScalerConfig.WarmPool warmPool = this.scalerConfig.getGroup().getWarmPool();
+        List<AtlasServer> standbyServers = this.getStandbyServers();
+
+        int targetSize = warmPool != null ? Math.max(0, warmPool.getSize()) : 0;
+        if (targetSize == 0 && standbyServers.isEmpty())
+            return;
+
+        if (targetSize > 0 && this.isHostUnderPressure(warmPool)) {
+            targetSize = Math.max(0, standbyServers.size() - 1);
+            Logger.debug("Host under resource pressure, shrinking warm pool of group {} to {}", this.groupName, targetSize);
+        }
+
+        if (standbyServers.size() > targetSize) {
+            AtlasServer excessServer = standbyServers.stream()
+                    .filter(server -> !this.pendingRemovals.contains(server.getServerId()))
+                    .max(Comparator.comparingLong(AtlasServer::getCreatedAt))
+                    .orElse(null);
+
+            if (excessServer != null) {
+                Logger.info("Removing standby server {} from warm pool of group: {}", excessServer.getName(), this.groupName);
+                this.remove(excessServer);
+            }
+            return;
+        }
+
+        if (this.shutdown)
+            return;
+
+        int maxServers = this.getMaxServers();
+        if (maxServers != -1) {
+            targetSize = Math.min(targetSize, maxServers - this.getAutoScaledServerCount());
+        }
+
+        for (String serverName : this.getNextIdentifiers(targetSize - standbyServers.size())) {
+            this.startAutoScaledServer(serverName, true);
+        }
+    }
+
+    /**
+     * Whether the host is too busy to keep standby servers. A figure that cannot be read, such as
+     * memory on a non-Linux host, is left out of the check rather than counted as pressure.
+     */
+    private boolean isHostUnderPressure(ScalerConfig.WarmPool warmPool) {
+        OperatingSystemMXBean osBean = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+        double cpuUsage = osBean.getCpuLoad();
+        if (cpuUsage >= 0 && cpuUsage > warmPool.getMaxHostCpuUsage()) {
+            return true;
+        }
+
+        OptionalDouble memoryUsage = HostMemory.usedFraction();
+        return memoryUsage.isPresent() && memoryUsage.getAsDouble() > warmPool.getMaxHostMemoryUsage();
+    }
+
     private void autoScaleDown() {
         if (!this.canScaleDown())
             return;
@@ -361,6 +518,7 @@ public abstract class Scaler {
 
     private void manualScaleDown() {
         AtlasServer serverToRemove = this.servers.values().stream()
+                .filter(server -> !this.serverRegistry.isStandby(server.getServerId()))
                 .filter(server -> server.getServerInfo() != null && server.getServerInfo().getStatus() == ServerStatus.RUNNING)
                 .min(Comparator.comparingInt((AtlasServer server) -> server.getServerInfo() != null ? server.getServerInfo().getOnlinePlayers() : 0)
                         .thenComparing(AtlasServer::getCreatedAt, Comparator.reverseOrder()))
@@ -396,7 +554,21 @@ public abstract class Scaler {
                 .map(this::shutdownServer)
                 .toArray(CompletableFuture[]::new)).join();
 
-        this.servers.clear();
+        this.serverRegistry.unregisterGroup(this.groupName);
+        this.aggregates.clear();
+    }
+
+    /**
+     * Reserves {@code count} identifiers in one step, so a batch never races another caller for
+     * the same numbers.
+     */
+    public synchronized List<String> getNextIdentifiers(int count) {
+        List<String> serverNames = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            serverNames.add(this.getNextIdentifier());
+        }
+
+        return serverNames;
     }
 
     public synchronized String getNextIdentifier() {
@@ -413,10 +585,31 @@ public abstract class Scaler {
 
         int nextNumber = this.getLowestAvailableNumber();
         String serverName = pattern.replace("{id}", String.valueOf(nextNumber));
-        this.reservedNames.add(serverName);
+        if (this.reservedNames.add(serverName)) {
+            this.aggregates.reserveNumber(this.extractServerNumber(serverName));
+        }
+
         return serverName;
     }
 
+    private void releaseReservedName(String serverName) {
+        if (serverName != null && this.reservedNames.remove(serverName)) {
+            this.aggregates.releaseReservedNumber(this.extractServerNumber(serverName));
+        }
+    }
+
+    /**
+     * Re-reads the server's status, players and name into the group's aggregates. Call this after
+     * changing a tracked server outside of {@link #updateServerStatus} and {@link #updateServerInfo}.
+     */
+    public void refreshAggregates(AtlasServer server) {
+        if (server == null || !this.servers.containsKey(server.getServerId())) {
+            return;
+        }
+
+        this.aggregates.update(server, this.extractServerNumber(server.getName()), this.serverRegistry.isStandby(server.getServerId()));
+    }
+
     public void removeManualServer(String serverId) {
         AtlasServer server = this.servers.get(serverId);
         if (server != null && server.isManuallyScaled()) {
@@ -494,75 +687,64 @@ public abstract class Scaler {
                 serverId, server.getType(), 
                 server.getServerInfo() != null ? server.getServerInfo().getStatus() : "null",
                 this.groupName);
+            this.serverRegistry.unregister(serverId);
         }
-        this.servers.remove(serverId);
+        this.aggregates.remove(serverId);
         this.pendingRemovals.remove(serverId);
+        this.startLatencyRecorded.remove(serverId);
         Logger.debug("Removed server {} from tracking and pending removals", serverId);
     }
 
     public List<AtlasServer> getAutoScaledServers() {
         return this.servers.values().stream()
                 .filter(server -> !server.isManuallyScaled())
+                .filter(server -> !this.serverRegistry.isStandby(server.getServerId()))
                 .collect(Collectors.toList());
     }
 
     public List<AtlasServer> getManuallyScaledServers() {
         return this.servers.values().stream()
                 .filter(AtlasServer::isManuallyScaled)
+                .filter(server -> !this.serverRegistry.isStandby(server.getServerId()))
                 .collect(Collectors.toList());
     }
 
-    public int getTotalOnlinePlayers() {
+    public List<AtlasServer> getStandbyServers() {
         return this.servers.values().stream()
-                .filter(server -> server.getServerInfo() != null)
-                .mapToInt(server -> server.getServerInfo().getOnlinePlayers())
-                .sum();
+                .filter(server -> this.serverRegistry.isStandby(server.getServerId()))
+                .collect(Collectors.toList());
     }
 
-    public int getAutoScaledOnlinePlayers() {
-        return this.getAutoScaledServers().stream()
-                .filter(server -> server.getServerInfo() != null)
-                .mapToInt(server -> server.getServerInfo().getOnlinePlayers())
-                .sum();
+    public int getStandbyServerCount() {
+        return this.aggregates.getStandbyServerCount();
     }
 
-    public double getCurrentUtilization() {
-        List<AtlasServer> autoServers = this.getAutoScaledServers();
-        if (autoServers.isEmpty())
-            return 0.0;
-
-        List<AtlasServer> runningServers = autoServers.stream()
-                .filter(server -> server.getServerInfo() != null && server.getServerInfo().getStatus() == ServerStatus.RUNNING)
-                .toList();
-
-        int avgMaxPlayers;
-        if (!runningServers.isEmpty()) {
-            avgMaxPlayers = runningServers.stream()
-                    .mapToInt(server -> server.getServerInfo().getMaxPlayers())
-                    .sum() / runningServers.size();
-        } else {
-            avgMaxPlayers = 20;
-        }
+    public int getAutoScaledServerCount() {
+        return this.aggregates.getServerCount(true);
+    }
 
-        int totalPlayers = 0;
-        int totalCapacity = 0;
+    public int getManuallyScaledServerCount() {
+        return this.aggregates.getServerCount(false) - this.aggregates.getServerCount(true);
+    }
 
-        for (AtlasServer server : autoServers) {
-            if (server.getServerInfo() == null) continue;
+    public int getServerCount(ServerStatus status) {
+        return this.aggregates.getServerCount(status, false);
+    }
 
-            totalPlayers += server.getServerInfo().getOnlinePlayers();
+    public int getTotalOnlinePlayers() {
+        return this.aggregates.getOnlinePlayers(false);
+    }
 
-            if (server.getServerInfo().getStatus() == ServerStatus.RUNNING) {
-                totalCapacity += server.getServerInfo().getMaxPlayers();
-            } else if (server.getServerInfo().getStatus() == ServerStatus.STARTING) {
-                totalCapacity += avgMaxPlayers;
-            }
-        }
+    public int getAutoScaledOnlinePlayers() {
+        return this.aggregates.getOnlinePlayers(true);
+    }
 
-        if (totalCapacity == 0)
-            return 0.0;
+    public int getAutoScaledCapacity() {
+        return this.aggregates.getAutoScaledCapacity(20);
+    }
 
-        return (double) totalPlayers / totalCapacity;
+    public double getCurrentUtilization() {
+        return this.aggregates.getAutoScaledUtilization(20);
     }
 
     public boolean canScaleUp() {
@@ -572,16 +754,17 @@ public abstract class Scaler {
             return !this.shutdown;
         }
 
-        return !this.shutdown && this.getAutoScaledServers().size() < maxServers;
+        return !this.shutdown && this.getAutoScaledServerCount() < maxServers;
     }
 
     public boolean canScaleDown() {
-        return !this.shutdown && this.getAutoScaledServers().size() > this.getMinServers();
+        return !this.shutdown && this.getAutoScaledServerCount() > this.getMinServers();
     }
 
     public void addServer(AtlasServer server) {
-        this.servers.put(server.getServerId(), server);
-        this.reservedNames.remove(server.getName());
+        this.serverRegistry.register(server);
+        this.refreshAggregates(server);
+        this.releaseReservedName(server.getName());
 
         if (server.getServerInfo() != null) {
             ServerStatus status = server.getServerInfo().getStatus();
@@ -606,8 +789,12 @@ public abstract class Scaler {
 
         ServerStatus oldStatus = server.getServerInfo().getStatus();
         server.getServerInfo().setStatus(status);
+        this.refreshAggregates(server);
 
         if (oldStatus != ServerStatus.RUNNING && status == ServerStatus.RUNNING) {
+            this.recordStartLatency(server);
+            this.onServerRunning(server);
+
             AtlasBase atlasInstance = AtlasBase.getInstance();
             if (atlasInstance == null || atlasInstance.getNettyServer() == null)
                 return;
@@ -642,12 +829,16 @@ public abstract class Scaler {
         int oldPlayerCount = server.getServerInfo() != null ? server.getServerInfo().getOnlinePlayers() : 0;
         server.setServerInfo(serverInfo);
         server.setLastHeartbeat(System.currentTimeMillis());
+        this.refreshAggregates(server);
         
         this.checkPlayerCountChanges(serverId, oldPlayerCount, serverInfo.getOnlinePlayers(), server);
 
 
         ServerStatus newStatus = serverInfo.getStatus();
         if (oldStatus != ServerStatus.RUNNING && newStatus == ServerStatus.RUNNING) {
+            this.recordStartLatency(server);
+            this.onServerRunning(server);
+
             AtlasBase atlasInstance = AtlasBase.getInstance();
             if (atlasInstance == null || atlasInstance.getNettyServer() == null)
                 return;
@@ -676,6 +867,24 @@ public abstract class Scaler {
         atlasInstance.getNettyServer().broadcastServerUpdate(server);
     }
 
+    /**
+     * Records the time from creation until the server first reported RUNNING. Later restarts of
+     * the same server are not counted, as its creation time stays the same.
+     */
+    private void recordStartLatency(AtlasServer server) {
+        if (server.getCreatedAt() <= 0 || !this.startLatencyRecorded.add(server.getServerId()))
+            return;
+
+        long latency = System.currentTimeMillis() - server.getCreatedAt();
+        AtlasMetrics.SERVER_START_SECONDS.observe(this.groupName, latency / 1000.0);
+    }
+
+    /**
+     * Called when a tracked server reports RUNNING after having any other status.
+     */
+    protected void onServerRunning(AtlasServer server) {
+    }
+
     public void updateServerHeartbeat(String serverId) {
         AtlasServer server = this.servers.get(serverId);
         if (server == null)
@@ -689,9 +898,7 @@ public abstract class Scaler {
         double threshold = this.scalerConfig.getGroup().getScaling().getConditions().getScaleUpThreshold();
         int cooldownSeconds = this.getCooldownSeconds();
 
-        int startingServers = (int) this.getAutoScaledServers().stream()
-                .filter(server -> server.getServerInfo() != null && server.getServerInfo().getStatus() == ServerStatus.STARTING)
-                .count();
+        int startingServers = this.aggregates.getServerCount(ServerStatus.STARTING, true);
 
         boolean thresholdMet = utilization >= threshold;
         boolean canScale = this.canScaleUp();
@@ -741,9 +948,7 @@ public abstract class Scaler {
     }
 
     protected int getEmptyServerCount() {
-        return (int) this.getAutoScaledServers().stream()
-                .filter(server -> server.getServerInfo() != null && server.getServerInfo().getOnlinePlayers() == 0)
-                .count();
+        return this.aggregates.getEmptyServerCount(true);
     }
 
 
@@ -789,8 +994,8 @@ public abstract class Scaler {
 
     public String getScalingStatus() {
         double utilization = this.getCurrentUtilization();
-        int autoServers = this.getAutoScaledServers().size();
-        int manualServers = this.getManuallyScaledServers().size();
+        int autoServers = this.getAutoScaledServerCount();
+        int manualServers = this.getManuallyScaledServerCount();
         int totalPlayers = this.getTotalOnlinePlayers();
         int maxServers = this.getMaxServers();
 
@@ -810,6 +1015,7 @@ public abstract class Scaler {
         List<AtlasServer> serversToRemove = new ArrayList<>();
 
         for (AtlasServer server : this.servers.values()) {
+            this.aggregates.update(server, this.extractServerNumber(server.getName()), this.serverRegistry.isStandby(server.getServerId()));
             if (server.getServerInfo() == null) continue;
 
             long timeSinceLastHeartbeat = currentTime - server.getLastHeartbeat();
@@ -836,38 +1042,56 @@ public abstract class Scaler {
         }
 
         for (AtlasServer server : serversToRemove) {
-            String serverId = server.getServerId();
-
-            if (this.manuallyStopped.contains(serverId)) {
-                Logger.info("Skipping restart of manually stopped server: {}", server.getName());
-                this.handleServerActuallyStopped(server);
-                continue;
-            }
-            
-            this.pendingRemovals.add(serverId);
-            
-            if (server.getType() == ServerType.STATIC) {
-                this.lifecycleService.stopServer(server).thenRun(() -> {
-                    this.pendingRemovals.remove(serverId);
-                    Logger.debug("Completed heartbeat timeout stop of STATIC server: {} (removed from pending)", server.getName());
-                }).exceptionally(throwable -> {
-                    this.pendingRemovals.remove(serverId);
-                    Logger.error("Failed to stop STATIC server {} after heartbeat timeout (removed from pending)", server.getName(), throwable);
-                    return null;
-                });
-            } else {
-                this.lifecycleService.removeServer(server, DeletionOptions.connectionLost()).thenRun(() -> {
-                    this.pendingRemovals.remove(serverId);
-                    Logger.debug("Completed heartbeat timeout removal of DYNAMIC server: {} (removed from pending)", server.getName());
-                }).exceptionally(throwable -> {
-                    this.pendingRemovals.remove(serverId);
-                    Logger.error("Failed to remove DYNAMIC server {} after heartbeat timeout (removed from pending)", server.getName(), throwable);
-                    return null;
-                });
-            }
+            this.recoverUnresponsiveServer(server);
         }
+    }
 
-        this.serviceProvider.validateServerState();
+    /**
+     * Handles a container that exited on its own while its server was running, without waiting
+     * for the heartbeat timeout to notice.
+     */
+    public void handleContainerExit(String serverId, String reason) {
+        if (this.shutdown || this.pendingRemovals.contains(serverId) || this.isCurrentlyRestarting(serverId))
+            return;
+
+        AtlasServer server = this.servers.get(serverId);
+        if (server == null || server.getServerInfo() == null || server.getServerInfo().getStatus() != ServerStatus.RUNNING)
+            return;
+
+        Logger.warn("Container of server {} exited unexpectedly ({})", server.getName(), reason);
+        this.recoverUnresponsiveServer(server);
+    }
+
+    private void recoverUnresponsiveServer(AtlasServer server) {
+        String serverId = server.getServerId();
+
+        if (this.manuallyStopped.contains(serverId)) {
+            Logger.info("Skipping restart of manually stopped server: {}", server.getName());
+            this.handleServerActuallyStopped(server);
+            return;
+        }
+        
+        this.pendingRemovals.add(serverId);
+        
+        if (server.getType() == ServerType.STATIC) {
+            this.lifecycleService.stopServer(server).thenRun(() -> {
+                this.pendingRemovals.remove(serverId);
+                Logger.debug("Completed heartbeat timeout stop of STATIC server: {} (removed from pending)", server.getName());
+            }).exceptionally(throwable -> {
+                this.pendingRemovals.remove(serverId);
+                Logger.error("Failed to stop STATIC server {} after heartbeat timeout (removed from pending)", server.getName(), throwable);
+                return null;
+            });
+        } else {
+            this.lifecycleService.removeServer(server, DeletionOptions.connectionLost()).thenRun(() -> {
+                this.pendingRemovals.remove(serverId);
+                Logger.debug("Completed heartbeat timeout removal of DYNAMIC server: {} (removed from pending)", server.getName());
+            }).exceptionally(throwable -> {
+                this.pendingRemovals.remove(serverId);
+                Logger.error("Failed to remove DYNAMIC server {} after heartbeat timeout (removed from pending)", server.getName(), throwable);
+                return null;
+            });
+        }
     }
 
     public boolean hasPendingRemovals() {
@@ -938,7 +1162,7 @@ public abstract class Scaler {
         if (maxServers != -1 && maxServers < this.getMinServers()) {
             throw new IllegalArgumentException("Max servers cannot be less than min servers");
         }
-        int currentAutoServers = this.getAutoScaledServers().size();
+        int currentAutoServers = this.getAutoScaledServerCount();
         if (maxServers != -1 && currentAutoServers > maxServers) {
             Logger.warn("Current auto-scaled servers ({}) exceed new max servers ({}). Excess servers will be scaled down over time.", 
                     currentAutoServers, maxServers);
@@ -1022,42 +1246,28 @@ public abstract class Scaler {
     }
 
     protected boolean evaluateScaleUpMetadataCondition() {
-        try {
-            String condition = this.scalerConfig.getGroup().getScaling().getConditions().getScaleUpMetadataCondition();
-            if (condition == null || condition.trim().isEmpty()) {
-                return true;
-            }
-
-            long matchingServers = this.servers.values().stream()
-                    .filter(server -> {
-                        try {
-                            return MetadataConditionParser.evaluate(condition, server.getMetadata());
-                        } catch (Exception e) {
-                            Logger.error("Error evaluating metadata condition for server {}: {}", server.getServerId(), e.getMessage());
-                            return false;
-                        }
-                    })
-                    .count();
-
-            return matchingServers == 0;
-        } catch (Exception e) {
-            Logger.error("Error evaluating scale-up metadata condition for group {}: {}", this.groupName, e.getMessage());
+        MetadataCondition condition = this.scalerConfig.getScaleUpMetadataCondition();
+        if (condition == null) {
             return true;
         }
-    }
 
-    protected boolean isServerProtectedFromScaleDown(AtlasServer server) {
-        try {
-            String condition = this.scalerConfig.getGroup().getScaling().getConditions().getScaleDownProtectedCondition();
-            if (condition == null || condition.trim().isEmpty()) {
+        for (AtlasServer server : this.servers.values()) {
+            if (this.testMetadataCondition(condition, server)) {
                 return false;
             }
-
-            return MetadataConditionParser.evaluate(condition, server.getMetadata());
-        } catch (Exception e) {
-            Logger.error("Error evaluating scale-down protection condition for server {}: {}", server.getServerId(), e.getMessage());
-            return true;
         }
+
+        return true;
+    }
+
+    protected boolean isServerProtectedFromScaleDown(AtlasServer server) {
+        MetadataCondition condition = this.scalerConfig.getScaleDownProtectedCondition();
+        return condition != null && this.testMetadataCondition(condition, server);
+    }
+
+    private boolean testMetadataCondition(MetadataCondition condition, AtlasServer server) {
+        Map<String, String> metadata = server.getMetadata();
+        return condition.test(metadata != null ? metadata : Map.of());
     }
 
 }
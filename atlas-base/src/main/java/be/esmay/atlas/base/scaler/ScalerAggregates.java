@@ -0,0 +1,275 @@
+package be.esmay.atlas.base.scaler;
+
+import be.esmay.atlas.common.enums.ServerStatus;
+import be.esmay.atlas.common.models.AtlasServer;
+import be.esmay.atlas.common.models.ServerInfo;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Running totals for the servers of one scaler.
+ *
+ * <p>Every tracked server contributes its status, player counts and identifier number. When a
+ * server changes, its previous contribution is subtracted and the new one added, so every read
+ * is constant time no matter how many servers the group has. Totals are kept for all servers
+ * and separately for auto-scaled servers, since scaling decisions only look at the latter.
+ *
+ * <p>The free identifier numbers are tracked the same way: numbers held by a server name or a
+ * reservation are occupied, and released numbers below the highest occupied one are kept in a
+ * sorted set so the lowest free number is always its first element.
+ */
+public final class ScalerAggregates {
+
+    private static final int UNKNOWN_STATUS = ServerStatus.values().length;
+
+    private final Map<String, Contribution> contributions = new HashMap<>();
+    private final Totals allServers = new Totals();
+    private final Totals autoScaledServers = new Totals();
+
+    private final Map<Integer, Integer> occupiedNumbers = new HashMap<>();
+    private final NavigableSet<Integer> releasedNumbers = new TreeSet<>();
+    private int highestNumber;
+    private int standbyServers;
+
+    /**
+     * Records the current state of the server, replacing its previous contribution.
+     *
+     * @param number  the identifier number in the server's name, or 0 if it has none
+     * @param standby whether the server is a warm-pool standby; standby servers only hold their
+     *                identifier number and are left out of every total except the standby count
+     */
+    public synchronized void update(AtlasServer server, int number, boolean standby) {
+        Contribution contribution = Contribution.of(server, number, standby);
+        Contribution previous = this.contributions.put(server.getServerId(), contribution);
+        if (contribution.equals(previous)) {
+            return;
+        }
+
+        if (previous != null) {
+            this.apply(previous, -1);
+        }
+
+        this.apply(contribution, 1);
+    }
+
+    public synchronized void remove(String serverId) {
+        Contribution previous = this.contributions.remove(serverId);
+        if (previous != null) {
+            this.apply(previous, -1);
+        }
+    }
+
+    public synchronized void clear() {
+        for (Contribution contribution : this.contributions.values()) {
+            this.releaseNumber(contribution.number());
+        }
+
+        this.contributions.clear();
+        this.allServers.reset();
+        this.autoScaledServers.reset();
+        this.standbyServers = 0;
+    }
+
+    public synchronized void reserveNumber(int number) {
+        this.occupyNumber(number);
+    }
+
+    public synchronized void releaseReservedNumber(int number) {
+        this.releaseNumber(number);
+    }
+
+    /**
+     * Returns the lowest identifier number that is neither used by a server nor reserved.
+     */
+    public synchronized int getLowestAvailableNumber() {
+        return this.releasedNumbers.isEmpty() ? this.highestNumber + 1 : this.releasedNumbers.first();
+    }
+
+    public synchronized int getStandbyServerCount() {
+        return this.standbyServers;
+    }
+
+    public synchronized int getServerCount(boolean autoScaledOnly) {
+        return this.totals(autoScaledOnly).servers;
+    }
+
+    public synchronized int getServerCount(ServerStatus status, boolean autoScaledOnly) {
+        return this.totals(autoScaledOnly).servers(status);
+    }
+
+    public synchronized int getOnlinePlayers(boolean autoScaledOnly) {
+        return this.totals(autoScaledOnly).onlinePlayers;
+    }
+
+    public synchronized int getOnlinePlayers(ServerStatus status, boolean autoScaledOnly) {
+        return this.totals(autoScaledOnly).onlinePlayers(status);
+    }
+
+    public synchronized int getMaxPlayers(ServerStatus status, boolean autoScaledOnly) {
+        return this.totals(autoScaledOnly).maxPlayers(status);
+    }
+
+    public synchronized int getEmptyServerCount(boolean autoScaledOnly) {
+        return this.totals(autoScaledOnly).emptyServers;
+    }
+
+    /**
+     * Capacity of the auto-scaled servers: the max players of running servers, plus the average
+     * running capacity for every server that is still starting.
+     *
+     * @param defaultCapacity capacity assumed for a starting server when none are running
+     */
+    public synchronized int getAutoScaledCapacity(int defaultCapacity) {
+        Totals totals = this.autoScaledServers;
+        int runningServers = totals.servers(ServerStatus.RUNNING);
+        int runningCapacity = totals.maxPlayers(ServerStatus.RUNNING);
+        int averageCapacity = runningServers > 0 ? runningCapacity / runningServers : defaultCapacity;
+
+        return runningCapacity + totals.servers(ServerStatus.STARTING) * averageCapacity;
+    }
+
+    /**
+     * Ratio of players to capacity across the auto-scaled servers.
+     */
+    public synchronized double getAutoScaledUtilization(int defaultCapacity) {
+        if (this.autoScaledServers.servers == 0) {
+            return 0.0;
+        }
+
+        int capacity = this.getAutoScaledCapacity(defaultCapacity);
+        if (capacity == 0) {
+            return 0.0;
+        }
+
+        return (double) this.autoScaledServers.onlinePlayers / capacity;
+    }
+
+    private Totals totals(boolean autoScaledOnly) {
+        return autoScaledOnly ? this.autoScaledServers : this.allServers;
+    }
+
+    private void apply(Contribution contribution, int sign) {
+        if (contribution.standby()) {
+            this.standbyServers += sign;
+        } else {
+            this.allServers.apply(contribution, sign);
+            if (!contribution.manuallyScaled()) {
+                this.autoScaledServers.apply(contribution, sign);
+            }
+        }
+
+        if (sign > 0) {
+            this.occupyNumber(contribution.number());
+        } else {
+            this.releaseNumber(contribution.number());
+        }
+    }
+
+    private void occupyNumber(int number) {
+        if (number <= 0) {
+            return;
+        }
+
+        int holders = this.occupiedNumbers.merge(number, 1, Integer::sum);
+        if (holders > 1) {
+            return;
+        }
+
+        this.releasedNumbers.remove(number);
+        for (int free = this.highestNumber + 1; free < number; free++) {
+            this.releasedNumbers.add(free);
+        }
+
+        this.highestNumber = Math.max(this.highestNumber, number);
+    }
+
+    private void releaseNumber(int number) {
+        if (number <= 0) {
+            return;
+        }
+
+        Integer holders = this.occupiedNumbers.get(number);
+        if (holders == null) {
+            return;
+        }
+
+        if (holders > 1) {
+            this.occupiedNumbers.put(number, holders - 1);
+            return;
+        }
+
+        this.occupiedNumbers.remove(number);
+        this.releasedNumbers.add(number);
+
+        while (this.highestNumber > 0 && this.releasedNumbers.remove(this.highestNumber)) {
+            this.highestNumber--;
+        }
+    }
+
+    private record Contribution(boolean hasInfo, int statusIndex, int onlinePlayers, int maxPlayers, boolean manuallyScaled, int number, boolean standby) {
+
+        static Contribution of(AtlasServer server, int number, boolean standby) {
+            ServerInfo serverInfo = server.getServerInfo();
+            if (serverInfo == null) {
+                return new Contribution(false, UNKNOWN_STATUS, 0, 0, server.isManuallyScaled(), number, standby);
+            }
+
+            int statusIndex = serverInfo.getStatus() != null ? serverInfo.getStatus().ordinal() : UNKNOWN_STATUS;
+            return new Contribution(true, statusIndex, serverInfo.getOnlinePlayers(), serverInfo.getMaxPlayers(), server.isManuallyScaled(), number, standby);
+        }
+
+    }
+
+    private static final class Totals {
+
+        private int servers;
+        private int onlinePlayers;
+        private int emptyServers;
+        private final int[] serversByStatus = new int[UNKNOWN_STATUS + 1];
+        private final int[] playersByStatus = new int[UNKNOWN_STATUS + 1];
+        private final int[] maxPlayersByStatus = new int[UNKNOWN_STATUS + 1];
+
+        void apply(Contribution contribution, int sign) {
+            this.servers += sign;
+            if (!contribution.hasInfo()) {
+                return;
+            }
+
+            this.onlinePlayers += sign * contribution.onlinePlayers();
+            if (contribution.onlinePlayers() == 0) {
+                this.emptyServers += sign;
+            }
+
+            this.serversByStatus[contribution.statusIndex()] += sign;
+            this.playersByStatus[contribution.statusIndex()] += sign * contribution.onlinePlayers();
+            this.maxPlayersByStatus[contribution.statusIndex()] += sign * contribution.maxPlayers();
+        }
+
+        int servers(ServerStatus status) {
+            return this.serversByStatus[status.ordinal()];
+        }
+
+        int onlinePlayers(ServerStatus status) {
+            return this.playersByStatus[status.ordinal()];
+        }
+
+        int maxPlayers(ServerStatus status) {
+            return this.maxPlayersByStatus[status.ordinal()];
+        }
+
+        void reset() {
+            this.servers = 0;
+            this.onlinePlayers = 0;
+            this.emptyServers = 0;
+            Arrays.fill(this.serversByStatus, 0);
+            Arrays.fill(this.playersByStatus, 0);
+            Arrays.fill(this.maxPlayersByStatus, 0);
+        }
+
+    }
+
+}
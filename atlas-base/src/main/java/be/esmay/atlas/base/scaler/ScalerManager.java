@@ -1,7 +1,9 @@
 package be.esmay.atlas.base.scaler;
 
 import be.esmay.atlas.base.AtlasBase;
+import be.esmay.atlas.base.config.impl.AtlasConfig;
 import be.esmay.atlas.base.config.impl.ScalerConfig;
+import be.esmay.atlas.base.metrics.AtlasMetrics;
 import be.esmay.atlas.base.provider.ServiceProvider;
 import be.esmay.atlas.base.scaler.impl.ProxyScaler;
 import be.esmay.atlas.base.utils.Logger;
@@ -12,21 +14,53 @@ import org.apache.commons.io.FileUtils;
 import java.io.File;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
-
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads the group scalers and runs their scaling checks.
+ *
+ * <p>Every group is scheduled on its own, with its own interval and a random jitter, so groups do
+ * not all hit the provider at the same moment. A single timer thread only dispatches checks; the
+ * checks themselves run on a shared worker pool, at most {@code max-concurrent-ticks} at a time.
+ * A check that finds no free slot waits for the next one to free up. Waiting checks are admitted
+ * proxies first, then by group {@code priority} (lowest first), the order the checks used to run
+ * in. A group is never waiting more than once, since its next check is only scheduled after the
+ * current one ran.
+ */
 @Getter
 public final class ScalerManager {
 
-    private final Set<Scaler> scalers = new HashSet<>();
+    private final Set<Scaler> scalers = ConcurrentHashMap.newKeySet();
+    private final Set<String> imagePendingGroups = ConcurrentHashMap.newKeySet();
+    private final Map<String, ScalerTickStats> tickStats = new ConcurrentHashMap<>();
+    private final ServerRegistry serverRegistry = new ServerRegistry();
+    private final StartLimiter startLimiter = new StartLimiter(0);
+
+    private final Map<Scaler, ScheduledFuture<?>> scheduledTicks = new ConcurrentHashMap<>();
+    private final PriorityBlockingQueue<WaitingTick> waitingTicks = new PriorityBlockingQueue<>(11, WaitingTick.ORDER);
+    private final AtomicLong waitingSequence = new AtomicLong();
+    private final AtomicBoolean validationRunning = new AtomicBoolean();
 
     private ScheduledExecutorService scheduledExecutor;
-    private ScheduledFuture<?> scalingTask;
+    private ExecutorService tickExecutor;
+    private Semaphore tickPermits;
+    private ScheduledFuture<?> validationTask;
 
     private volatile boolean isShuttingDown = false;
 
@@ -37,8 +71,9 @@ public final class ScalerManager {
     }
 
     public void initialize() {
+        this.startLimiter.setLimit(this.atlasBase.getConfigManager().getAtlasConfig().getAtlas().getScaling().getMaxConcurrentStarts());
         this.loadScalers();
-        this.ensureAllResourcesReady();
+        this.prefetchResources();
         this.startScalingTask();
     }
 
@@ -55,7 +90,13 @@ public final class ScalerManager {
                 .toList();
 
         for (File file : groupFiles) {
-            ScalerConfig scalerConfig = new ScalerConfig(file.getParentFile(), file.getName());
+            ScalerConfig scalerConfig;
+            try {
+                scalerConfig = new ScalerConfig(file.getParentFile(), file.getName());
+            } catch (IllegalArgumentException e) {
+                Logger.error("Skipping group file {}: {}", file.getName(), e.getMessage());
+                continue;
+            }
 
             String type = scalerConfig.getGroup().getScaling().getType();
             if (type == null) {
@@ -74,25 +115,29 @@ public final class ScalerManager {
         }
     }
 
-    private void ensureAllResourcesReady() {
+    /**
+     * Starts fetching every group's resources in the background. Scaling starts right away;
+     * groups whose resources are not ready yet are skipped by the scaling check until they are.
+     */
+    private void prefetchResources() {
         ServiceProvider provider = this.atlasBase.getProviderManager().getProvider();
-        
-        Logger.info("Ensuring all resources are ready before starting scalers...");
-        
+
         for (Scaler scaler : this.scalers) {
-            try {
-                provider.ensureResourcesReady(scaler.getScalerConfig().getGroup()).get();
-            } catch (Exception e) {
-                Logger.error("Failed to prepare resources for scaler {}: {}", scaler.getGroupName(), e.getMessage());
-                throw new RuntimeException("Cannot start scaling - resource preparation failed", e);
-            }
+            this.prefetchResources(provider, scaler.getScalerConfig().getGroup());
         }
-        
-        Logger.info("All Docker images are ready - starting scalers");
+    }
+
+    private void prefetchResources(ServiceProvider provider, ScalerConfig.Group group) {
+        provider.ensureResourcesReady(group).whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
+                Logger.error("Failed to prepare resources for group {}: {}", group.getName(), throwable.getMessage());
+            }
+        });
     }
 
     private void startScalingTask() {
-        int checkInterval = this.atlasBase.getConfigManager().getAtlasConfig().getAtlas().getScaling().getCheckInterval();
+        AtlasConfig.Scaling scalingConfig = this.atlasBase.getConfigManager().getAtlasConfig().getAtlas().getScaling();
+        int maxConcurrentTicks = Math.max(1, scalingConfig.getMaxConcurrentTicks());
 
         this.scheduledExecutor = new ScheduledThreadPoolExecutor(1, r -> {
             Thread thread = new Thread(r, "Atlas-Scaler");
@@ -100,46 +145,224 @@ public final class ScalerManager {
             return thread;
         });
 
-        Logger.info("Starting scaling task with interval: {} seconds", checkInterval);
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.tickExecutor = Executors.newFixedThreadPool(maxConcurrentTicks, r -> {
+            Thread thread = new Thread(r, "Atlas-Scaler-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.tickPermits = new Semaphore(maxConcurrentTicks);
+
+        Logger.info("Starting scaling for {} groups with default interval {} seconds, {} checks at once",
+                this.scalers.size(), scalingConfig.getCheckInterval(), maxConcurrentTicks);
+
+        for (Scaler scaler : this.scalers) {
+            this.scheduleFirstTick(scaler);
+        }
 
-        this.scalingTask = this.scheduledExecutor.scheduleWithFixedDelay(
-                this::performScalingCheck,
-                checkInterval,
-                checkInterval,
+        long validationInterval = Math.max(1, scalingConfig.getCheckInterval());
+        this.validationTask = this.scheduledExecutor.scheduleWithFixedDelay(
+                this::dispatchValidation,
+                validationInterval,
+                validationInterval,
                 TimeUnit.SECONDS
         );
     }
 
-    private void performScalingCheck() {
-        if (this.isShuttingDown) {
+    /**
+     * Proxies are checked first, as before; other groups start at a random point within their
+     * first interval so they spread out.
+     */
+    private void scheduleFirstTick(Scaler scaler) {
+        long delay = scaler instanceof ProxyScaler ? 0 : ThreadLocalRandom.current().nextLong(this.getIntervalMillis(scaler) + 1);
+        this.scheduleTick(scaler, delay);
+    }
+
+    private void scheduleTick(Scaler scaler, long delayMillis) {
+        if (this.isShuttingDown || this.scheduledExecutor == null || !this.scalers.contains(scaler)) {
+            this.scheduledTicks.remove(scaler);
             return;
         }
 
         try {
-            Logger.debug("Performing scaling check for {} scalers", this.scalers.size());
+            this.scheduledTicks.put(scaler, this.scheduledExecutor.schedule(() -> this.dispatchTick(scaler), delayMillis, TimeUnit.MILLISECONDS));
+        } catch (RejectedExecutionException e) {
+            this.scheduledTicks.remove(scaler);
+        }
+    }
+
+    private void cancelTick(Scaler scaler) {
+        ScheduledFuture<?> future = this.scheduledTicks.remove(scaler);
+        if (future != null) {
+            future.cancel(false);
+        }
+        this.waitingTicks.removeIf(waiting -> waiting.scaler() == scaler);
+    }
 
-            List<Scaler> sortedScalers = this.scalers.stream()
-                    .sorted(Comparator.comparing((Scaler scaler) -> !(scaler instanceof ProxyScaler))
-                            .thenComparingInt(scaler -> scaler.getScalerConfig().getGroup().getPriority()))
-                    .toList();
+    private void dispatchTick(Scaler scaler) {
+        if (this.isShuttingDown || !this.scalers.contains(scaler)) {
+            this.scheduledTicks.remove(scaler);
+            return;
+        }
 
-            for (Scaler scaler : sortedScalers) {
-                if (this.isShuttingDown) {
-                    break;
-                }
+        if (!this.tickPermits.tryAcquire()) {
+            this.getTickStats(scaler).recordThrottled();
+            AtlasMetrics.SCALER_TICKS_THROTTLED.increment(scaler.getGroupName());
+            Logger.debug("All scaling slots busy, check for group {} waits for a free slot", scaler.getGroupName());
+            this.waitingTicks.add(new WaitingTick(scaler, this.waitingSequence.incrementAndGet()));
 
+            // A slot may have been released between the failed acquire and queueing the check.
+            this.admitWaitingTicks();
+            return;
+        }
+
+        this.runTick(scaler);
+    }
+
+    /**
+     * Runs the check on the worker pool. The caller holds a slot, which is released when the
+     * check is done.
+     */
+    private void runTick(Scaler scaler) {
+        try {
+            this.tickExecutor.execute(() -> {
                 try {
-                    Logger.debug(scaler.getScalingStatus());
-                    scaler.scaleServers();
-                } catch (Exception e) {
-                    Logger.error("Error during scaling check for group: {}", scaler.getGroupName(), e);
+                    this.performScalingCheck(scaler);
+                } finally {
+                    this.scheduleTick(scaler, this.getNextDelayMillis(scaler));
+                    this.releaseTickPermit();
                 }
+            });
+        } catch (RejectedExecutionException e) {
+            this.tickPermits.release();
+        }
+    }
+
+    private void releaseTickPermit() {
+        this.tickPermits.release();
+        this.admitWaitingTicks();
+    }
+
+    /**
+     * Hands free slots to waiting checks, proxies first and then by group priority.
+     */
+    private void admitWaitingTicks() {
+        while (!this.waitingTicks.isEmpty() && this.tickPermits.tryAcquire()) {
+            WaitingTick next = this.waitingTicks.poll();
+            if (next == null) {
+                this.tickPermits.release();
+                return;
+            }
+
+            if (this.isShuttingDown || !this.scalers.contains(next.scaler())) {
+                this.tickPermits.release();
+                continue;
             }
+
+            this.runTick(next.scaler());
+        }
+    }
+
+    private void performScalingCheck(Scaler scaler) {
+        if (this.isShuttingDown) {
+            return;
+        }
+
+        ServiceProvider provider = this.atlasBase.getProviderManager().getProvider();
+        if (!provider.areResourcesReady(scaler.getScalerConfig().getGroup())) {
+            if (this.imagePendingGroups.add(scaler.getGroupName())) {
+                Logger.info("Group {} is waiting for its image, skipping scaling until it is pulled", scaler.getGroupName());
+            }
+            return;
+        }
+
+        if (this.imagePendingGroups.remove(scaler.getGroupName())) {
+            Logger.info("Image for group {} is ready, resuming scaling", scaler.getGroupName());
+        }
+
+        long tickStart = System.nanoTime();
+        try {
+            Logger.debug(scaler.getScalingStatus());
+            scaler.scaleServers();
         } catch (Exception e) {
-            Logger.error("Unexpected error during scaling check", e);
+            Logger.error("Error during scaling check for group: {}", scaler.getGroupName(), e);
+        } finally {
+            long duration = System.nanoTime() - tickStart;
+            long intervalMillis = this.getIntervalMillis(scaler);
+            ScalerTickStats stats = this.getTickStats(scaler);
+            long overrunsBefore = stats.getOverruns();
+
+            stats.record(duration, intervalMillis);
+            AtlasMetrics.SCALER_TICK_SECONDS.observe(scaler.getGroupName(), duration / 1_000_000_000.0);
+            if (stats.getOverruns() > overrunsBefore) {
+                AtlasMetrics.SCALER_TICK_OVERRUNS.increment(scaler.getGroupName());
+                Logger.debug("Scaling check for group {} took {} ms, longer than its {} ms interval",
+                        scaler.getGroupName(), duration / 1_000_000, intervalMillis);
+            }
+        }
+    }
+
+    /**
+     * Checks tracked servers against the provider once per global interval, instead of once per
+     * group check, on the same pool and slots as the group checks.
+     */
+    private void dispatchValidation() {
+        if (this.isShuttingDown || !this.validationRunning.compareAndSet(false, true)) {
+            return;
+        }
+
+        if (!this.tickPermits.tryAcquire()) {
+            this.validationRunning.set(false);
+            return;
+        }
+
+        try {
+            this.tickExecutor.execute(() -> {
+                try {
+                    this.atlasBase.getProviderManager().getProvider().validateServerState();
+                } catch (Exception e) {
+                    Logger.error("Error validating server state", e);
+                } finally {
+                    this.validationRunning.set(false);
+                    this.releaseTickPermit();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.tickPermits.release();
+            this.validationRunning.set(false);
         }
     }
 
+    private long getIntervalMillis(Scaler scaler) {
+        ScalerConfig.Scaling groupScaling = scaler.getScalerConfig().getGroup().getScaling();
+        int seconds = groupScaling != null && groupScaling.getCheckInterval() > 0
+                ? groupScaling.getCheckInterval()
+                : this.atlasBase.getConfigManager().getAtlasConfig().getAtlas().getScaling().getCheckInterval();
+        return Math.max(1, seconds) * 1000L;
+    }
+
+    private long getNextDelayMillis(Scaler scaler) {
+        ScalerConfig.Scaling groupScaling = scaler.getScalerConfig().getGroup().getScaling();
+        int jitterPercent = groupScaling != null && groupScaling.getJitterPercent() >= 0
+                ? groupScaling.getJitterPercent()
+                : this.atlasBase.getConfigManager().getAtlasConfig().getAtlas().getScaling().getJitterPercent();
+
+        long interval = this.getIntervalMillis(scaler);
+        long jitter = interval * Math.min(Math.max(jitterPercent, 0), 100) / 100;
+        if (jitter == 0) {
+            return interval;
+        }
+        return interval + ThreadLocalRandom.current().nextLong(-jitter, jitter + 1);
+    }
+
+    private ScalerTickStats getTickStats(Scaler scaler) {
+        return this.tickStats.computeIfAbsent(scaler.getGroupName(), key -> new ScalerTickStats());
+    }
+
+    public ScalerTickStats getTickStats(String groupName) {
+        return this.tickStats.get(groupName);
+    }
+
     public Scaler getScaler(String groupName) {
         Scaler exactMatch = this.scalers.stream()
                 .filter(scaler -> scaler.getGroupName().equals(groupName))
@@ -168,6 +391,7 @@ public final class ScalerManager {
     public void reloadScalers() {
         Logger.info("Reloading scaler configurations");
         for (Scaler scaler : this.scalers) {
+            this.cancelTick(scaler);
             try {
                 scaler.shutdown();
             } catch (Exception e) {
@@ -175,6 +399,12 @@ public final class ScalerManager {
             }
         }
         this.loadScalers();
+        this.imagePendingGroups.clear();
+        this.tickStats.clear();
+        this.prefetchResources();
+        for (Scaler scaler : this.scalers) {
+            this.scheduleFirstTick(scaler);
+        }
         this.atlasBase.getCronScheduler().reloadCronJobs();
         Logger.info("Scaler configurations reloaded successfully");
     }
@@ -183,9 +413,12 @@ public final class ScalerManager {
         Logger.info("Shutting down ScalerManager");
         this.isShuttingDown = true;
 
-        if (this.scalingTask != null) {
-            this.scalingTask.cancel(false);
+        if (this.validationTask != null) {
+            this.validationTask.cancel(false);
         }
+        this.scheduledTicks.values().forEach(future -> future.cancel(false));
+        this.scheduledTicks.clear();
+        this.waitingTicks.clear();
 
         if (this.scheduledExecutor != null) {
             this.scheduledExecutor.shutdown();
@@ -199,6 +432,18 @@ public final class ScalerManager {
             }
         }
 
+        if (this.tickExecutor != null) {
+            this.tickExecutor.shutdown();
+            try {
+                if (!this.tickExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    this.tickExecutor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                this.tickExecutor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+
         for (Scaler scaler : this.scalers) {
             try {
                 scaler.shutdown();
@@ -211,26 +456,29 @@ public final class ScalerManager {
     }
 
     public AtlasServer getServerFromTracking(String serverId) {
+        return this.serverRegistry.getServer(serverId);
+    }
+
+    public Scaler getScalerForServer(AtlasServer server) {
+        if (server == null || server.getGroup() == null) {
+            return null;
+        }
+
         for (Scaler scaler : this.scalers) {
-            AtlasServer server = scaler.getServer(serverId);
-            if (server != null) {
-                return server;
+            if (scaler.getGroupName().equals(server.getGroup())) {
+                return scaler;
             }
         }
+
         return null;
     }
 
     public List<AtlasServer> getAllServersFromTracking() {
-        return this.scalers.stream()
-                .flatMap(scaler -> scaler.getServers().stream())
-                .toList();
+        return List.copyOf(this.serverRegistry.getServers());
     }
 
     public List<AtlasServer> getServersByGroupFromTracking(String group) {
-        return this.scalers.stream()
-                .filter(scaler -> scaler.getGroupName().equals(group))
-                .flatMap(scaler -> scaler.getServers().stream())
-                .toList();
+        return List.copyOf(this.serverRegistry.getGroupServers(group));
     }
 
     public void loadScaler(String groupName) {
@@ -246,7 +494,14 @@ public final class ScalerManager {
             return;
         }
 
-        ScalerConfig scalerConfig = new ScalerConfig(groupFile.getParentFile(), groupFile.getName());
+        ScalerConfig scalerConfig;
+        try {
+            scalerConfig = new ScalerConfig(groupFile.getParentFile(), groupFile.getName());
+        } catch (IllegalArgumentException e) {
+            Logger.error("Failed to load group file {}: {}", groupFile.getName(), e.getMessage());
+            return;
+        }
+
         String type = scalerConfig.getGroup().getScaling().getType();
         
         if (type == null) {
@@ -260,15 +515,10 @@ public final class ScalerManager {
             return;
         }
 
-        try {
-            ServiceProvider provider = this.atlasBase.getProviderManager().getProvider();
-            provider.ensureResourcesReady(scalerConfig.getGroup()).get();
-        } catch (Exception e) {
-            Logger.error("Failed to prepare resources for scaler {}: {}", scaler.getGroupName(), e.getMessage());
-            return;
-        }
+        this.prefetchResources(this.atlasBase.getProviderManager().getProvider(), scalerConfig.getGroup());
 
         this.scalers.add(scaler);
+        this.scheduleFirstTick(scaler);
         this.atlasBase.getCronScheduler().scheduleCronJobsForScaler(scaler);
         Logger.info("Loaded scaler {} with type {}", scaler.getGroupName(), type);
     }
@@ -287,9 +537,23 @@ public final class ScalerManager {
         }
 
         this.scalers.remove(scaler);
+        this.cancelTick(scaler);
+        this.tickStats.remove(scaler.getGroupName());
         this.atlasBase.getCronScheduler().unscheduleCronJobsForGroup(groupName);
         Logger.info("Scaler {} unloaded successfully", groupName);
     }
 
-}
+    /**
+     * A check waiting for a free slot. Proxies go first, then lower {@code priority} values, then
+     * the check that has waited longest.
+     */
+    private record WaitingTick(Scaler scaler, long sequence) {
+
+        private static final Comparator<WaitingTick> ORDER = Comparator
+                .comparing((WaitingTick waiting) -> !(waiting.scaler() instanceof ProxyScaler))
+                .thenComparingInt(waiting -> waiting.scaler().getScalerConfig().getGroup().getPriority())
+                .thenComparingLong(WaitingTick::sequence);
 
+    }
+
+}
@@ -2,6 +2,7 @@ package be.esmay.atlas.base.scaler;
 
 import be.esmay.atlas.base.config.impl.ScalerConfig;
 import be.esmay.atlas.base.scaler.impl.NormalScaler;
+import be.esmay.atlas.base.scaler.impl.PredictiveScaler;
 import be.esmay.atlas.base.scaler.impl.ProxyScaler;
 import be.esmay.atlas.base.utils.Logger;
 
@@ -15,6 +16,7 @@ public final class ScalerRegistry {
     static {
         SCALERS.put("NORMAL", NormalScaler.class);
         SCALERS.put("PROXY", ProxyScaler.class);
+        SCALERS.put("PREDICTIVE", PredictiveScaler.class);
     }
 
     public static void registerScaler(String actionKey, Class<? extends Scaler> scalerClass) {
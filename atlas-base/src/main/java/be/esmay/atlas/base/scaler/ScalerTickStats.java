@@ -0,0 +1,84 @@
+package be.esmay.atlas.base.scaler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and overrun counters for the scaling checks of one group. A check overruns when it
+ * takes longer than the group's interval, which means the group is checked less often than
+ * configured.
+ */
+public final class ScalerTickStats {
+
+    private final LongAdder ticks = new LongAdder();
+    private final LongAdder overruns = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private volatile long lastNanos;
+    private volatile long maxNanos;
+    private volatile long lastTickAt;
+    private volatile long intervalMillis;
+
+    void record(long durationNanos, long intervalMillis) {
+        this.ticks.increment();
+        this.totalNanos.add(durationNanos);
+        this.lastNanos = durationNanos;
+        this.lastTickAt = System.currentTimeMillis();
+        this.intervalMillis = intervalMillis;
+
+        if (durationNanos > this.maxNanos) {
+            this.maxNanos = durationNanos;
+        }
+        if (durationNanos > intervalMillis * 1_000_000L) {
+            this.overruns.increment();
+        }
+    }
+
+    void recordThrottled() {
+        this.throttled.increment();
+    }
+
+    public long getTicks() {
+        return this.ticks.sum();
+    }
+
+    public long getOverruns() {
+        return this.overruns.sum();
+    }
+
+    public long getThrottled() {
+        return this.throttled.sum();
+    }
+
+    public double getLastMillis() {
+        return this.lastNanos / 1_000_000.0;
+    }
+
+    public double getMaxMillis() {
+        return this.maxNanos / 1_000_000.0;
+    }
+
+    public double getAverageMillis() {
+        long count = this.ticks.sum();
+        return count == 0 ? 0 : this.totalNanos.sum() / 1_000_000.0 / count;
+    }
+
+    public long getIntervalMillis() {
+        return this.intervalMillis;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("ticks", this.getTicks());
+        map.put("overruns", this.getOverruns());
+        map.put("throttled", this.getThrottled());
+        map.put("lastMillis", this.getLastMillis());
+        map.put("averageMillis", this.getAverageMillis());
+        map.put("maxMillis", this.getMaxMillis());
+        map.put("intervalMillis", this.intervalMillis);
+        map.put("lastTickAt", this.lastTickAt);
+        return map;
+    }
+
+}
@@ -0,0 +1,173 @@
+package be.esmay.atlas.base.scaler;
+
+import be.esmay.atlas.common.models.AtlasServer;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of every server tracked by any scaler.
+ *
+ * <p>Scalers register servers when they start tracking them and unregister them when tracking
+ * stops, so lookups by server id, name or service provider id never have to walk the scalers.
+ * Each group gets a live, read-only view that reflects registrations immediately.
+ *
+ * <p>Reads are lock-free. Writes are serialized so the secondary indexes always agree with the
+ * id index.
+ */
+public final class ServerRegistry {
+
+    private final Map<String, AtlasServer> serversById = new ConcurrentHashMap<>();
+    private final Map<String, AtlasServer> serversByName = new ConcurrentHashMap<>();
+    private final Map<String, AtlasServer> serversByServiceProviderId = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, AtlasServer>> serversByGroup = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, AtlasServer>> groupViews = new ConcurrentHashMap<>();
+    private final Set<String> standbyServerIds = ConcurrentHashMap.newKeySet();
+    private final Object writeLock = new Object();
+
+    /**
+     * Starts tracking the server, or replaces the tracked instance with the same server id.
+     */
+    public void register(AtlasServer server) {
+        if (server == null || server.getServerId() == null) {
+            return;
+        }
+
+        synchronized (this.writeLock) {
+            AtlasServer previous = this.serversById.put(server.getServerId(), server);
+            if (previous != null && previous != server) {
+                this.removeSecondaryIndexes(previous);
+            }
+
+            if (server.getName() != null) {
+                this.serversByName.put(server.getName(), server);
+            }
+
+            if (server.getServiceProviderId() != null) {
+                this.serversByServiceProviderId.put(server.getServiceProviderId(), server);
+            }
+
+            if (server.getGroup() != null) {
+                this.groupMap(server.getGroup()).put(server.getServerId(), server);
+            }
+        }
+    }
+
+    public AtlasServer unregister(String serverId) {
+        if (serverId == null) {
+            return null;
+        }
+
+        synchronized (this.writeLock) {
+            AtlasServer removed = this.serversById.remove(serverId);
+            if (removed != null) {
+                this.removeSecondaryIndexes(removed);
+            }
+
+            this.standbyServerIds.remove(serverId);
+
+            return removed;
+        }
+    }
+
+    public void unregisterGroup(String group) {
+        Map<String, AtlasServer> groupServers = group != null ? this.serversByGroup.get(group) : null;
+        if (groupServers == null) {
+            return;
+        }
+
+        for (String serverId : List.copyOf(groupServers.keySet())) {
+            this.unregister(serverId);
+        }
+    }
+
+    /**
+     * Marks the server as a warm-pool standby. Standby servers are tracked like any other server
+     * but are not advertised to clients until they are promoted.
+     */
+    public void markStandby(String serverId) {
+        if (serverId != null) {
+            this.standbyServerIds.add(serverId);
+        }
+    }
+
+    /**
+     * Promotes a standby server to an active one.
+     *
+     * @return {@code true} if the server was a standby server, which only one caller observes
+     */
+    public boolean clearStandby(String serverId) {
+        return serverId != null && this.standbyServerIds.remove(serverId);
+    }
+
+    public boolean isStandby(String serverId) {
+        return serverId != null && this.standbyServerIds.contains(serverId);
+    }
+
+    public AtlasServer getServer(String serverId) {
+        return serverId != null ? this.serversById.get(serverId) : null;
+    }
+
+    public AtlasServer getServerByName(String name) {
+        return name != null ? this.serversByName.get(name) : null;
+    }
+
+    public AtlasServer getServerByServiceProviderId(String serviceProviderId) {
+        return serviceProviderId != null ? this.serversByServiceProviderId.get(serviceProviderId) : null;
+    }
+
+    /**
+     * Finds a server by id first and by name second, the way commands and API routes accept
+     * either.
+     */
+    public AtlasServer findServer(String identifier) {
+        AtlasServer server = this.getServer(identifier);
+        return server != null ? server : this.getServerByName(identifier);
+    }
+
+    /**
+     * Returns a live, read-only view of the servers in the group, keyed by server id.
+     */
+    public Map<String, AtlasServer> getGroupView(String group) {
+        return this.groupViews.computeIfAbsent(group, key -> Collections.unmodifiableMap(this.groupMap(key)));
+    }
+
+    public Collection<AtlasServer> getGroupServers(String group) {
+        return this.getGroupView(group).values();
+    }
+
+    /**
+     * Returns a live, read-only view of every tracked server.
+     */
+    public Collection<AtlasServer> getServers() {
+        return Collections.unmodifiableCollection(this.serversById.values());
+    }
+
+    public int size() {
+        return this.serversById.size();
+    }
+
+    private void removeSecondaryIndexes(AtlasServer server) {
+        if (server.getName() != null) {
+            this.serversByName.remove(server.getName(), server);
+        }
+
+        if (server.getServiceProviderId() != null) {
+            this.serversByServiceProviderId.remove(server.getServiceProviderId(), server);
+        }
+
+        Map<String, AtlasServer> groupServers = server.getGroup() != null ? this.serversByGroup.get(server.getGroup()) : null;
+        if (groupServers != null) {
+            groupServers.remove(server.getServerId(), server);
+        }
+    }
+
+    private Map<String, AtlasServer> groupMap(String group) {
+        return this.serversByGroup.computeIfAbsent(group, key -> new ConcurrentHashMap<>());
+    }
+
+}
@@ -0,0 +1,87 @@
+package be.esmay.atlas.base.scaler;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Limits how many asynchronous server starts run at the same time.
+ *
+ * <p>Tasks over the limit are queued instead of blocking the caller, and start as soon as a
+ * running task completes, whether it succeeded or failed. A limit of 0 or less means unlimited.
+ */
+public final class StartLimiter {
+
+    private final Queue<Runnable> queue = new ArrayDeque<>();
+    private volatile int limit;
+    private int running;
+
+    public StartLimiter(int limit) {
+        this.limit = limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+        this.drain();
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        synchronized (this) {
+            this.queue.add(() -> this.run(task, result));
+        }
+
+        this.drain();
+        return result;
+    }
+
+    public synchronized int getRunning() {
+        return this.running;
+    }
+
+    public synchronized int getQueued() {
+        return this.queue.size();
+    }
+
+    private <T> void run(Supplier<CompletableFuture<T>> task, CompletableFuture<T> result) {
+        CompletableFuture<T> future;
+        try {
+            future = task.get();
+        } catch (Throwable throwable) {
+            future = CompletableFuture.failedFuture(throwable);
+        }
+
+        future.whenComplete((value, throwable) -> {
+            synchronized (this) {
+                this.running--;
+            }
+
+            this.drain();
+
+            if (throwable != null) {
+                result.completeExceptionally(throwable);
+            } else {
+                result.complete(value);
+            }
+        });
+    }
+
+    private void drain() {
+        while (true) {
+            Runnable next;
+            synchronized (this) {
+                if (this.queue.isEmpty() || (this.limit > 0 && this.running >= this.limit)) {
+                    return;
+                }
+
+                next = this.queue.poll();
+                this.running++;
+            }
+
+            next.run();
+        }
+    }
+
+}
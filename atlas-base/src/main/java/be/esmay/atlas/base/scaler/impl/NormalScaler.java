@@ -15,7 +15,7 @@ public final class NormalScaler extends Scaler {
         if (this.shutdown)
             return ScaleType.NONE;
 
-        if (this.getAutoScaledServers().size() < this.getMinServers() || this.shouldScaleUp())
+        if (this.getAutoScaledServerCount() < this.getMinServers() || this.shouldScaleUp())
             return ScaleType.UP;
 
         if (this.shouldScaleDown())
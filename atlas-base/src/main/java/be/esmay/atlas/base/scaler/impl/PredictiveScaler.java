@@ -0,0 +1,114 @@
+package be.esmay.atlas.base.scaler.impl;
+
+import be.esmay.atlas.base.config.impl.ScalerConfig;
+import be.esmay.atlas.base.scaler.PlayerCountForecaster;
+import be.esmay.atlas.base.scaler.Scaler;
+import be.esmay.atlas.base.utils.Logger;
+import be.esmay.atlas.common.enums.ScaleType;
+import be.esmay.atlas.common.enums.ServerStatus;
+import be.esmay.atlas.common.models.AtlasServer;
+import lombok.Getter;
+
+/**
+ * Scales ahead of demand. Player counts are sampled every tick and forecast over the time a new
+ * server needs to start, and enough servers are provisioned so the forecast stays below the
+ * scale-up threshold. Falls back to the normal threshold checks when the forecast is calm.
+ */
+public final class PredictiveScaler extends Scaler {
+
+    private static final int DEFAULT_SERVER_CAPACITY = 20;
+
+    @Getter
+    private final PlayerCountForecaster forecaster;
+    private final long defaultStartupMillis;
+    private volatile int forecastRequiredServers;
+
+    public PredictiveScaler(String groupName, ScalerConfig scalerConfig) {
+        super(groupName, scalerConfig);
+
+        ScalerConfig.Predictive predictive = scalerConfig.getGroup().getScaling().getPredictive();
+        if (predictive == null) {
+            predictive = ScalerConfig.Predictive.builder().build();
+        }
+
+        this.forecaster = new PlayerCountForecaster(predictive.getTrendWindowSeconds() * 1000L, predictive.getSeasonalDays());
+        this.defaultStartupMillis = predictive.getDefaultStartupSeconds() * 1000L;
+    }
+
+    @Override
+    public ScaleType needsScaling() {
+        if (this.shutdown)
+            return ScaleType.NONE;
+
+        long now = System.currentTimeMillis();
+        this.forecaster.record(now, this.getAutoScaledOnlinePlayers());
+
+        int provisionedServers = this.getAutoScaledServerCount();
+        if (provisionedServers < this.getMinServers())
+            return ScaleType.UP;
+
+        int requiredServers = this.getForecastRequiredServers(now);
+        this.forecastRequiredServers = requiredServers;
+        if (requiredServers > provisionedServers && this.canScaleUp() && this.evaluateScaleUpMetadataCondition())
+            return ScaleType.UP;
+
+        if (this.shouldScaleUp())
+            return ScaleType.UP;
+
+        if (requiredServers < provisionedServers && this.shouldScaleDown())
+            return ScaleType.DOWN;
+
+        return ScaleType.NONE;
+    }
+
+    @Override
+    protected int getScaleUpDeficit() {
+        return Math.max(super.getScaleUpDeficit(), this.forecastRequiredServers - this.getAutoScaledServerCount());
+    }
+
+    @Override
+    protected void onServerRunning(AtlasServer server) {
+        if (server.isManuallyScaled() || this.isCurrentlyRestarting(server.getServerId()) || server.getCreatedAt() <= 0)
+            return;
+
+        this.forecaster.recordStartupLatency(System.currentTimeMillis() - server.getCreatedAt());
+    }
+
+    /**
+     * Returns the number of auto-scaled servers needed to keep the players forecast for one
+     * startup latency from now below the scale-up threshold.
+     */
+    private int getForecastRequiredServers(long now) {
+        long horizon = this.forecaster.getStartupLatencyMillis(this.defaultStartupMillis);
+        PlayerCountForecaster.Forecast forecast = this.forecaster.forecast(now, horizon);
+
+        int runningServers = this.aggregates.getServerCount(ServerStatus.RUNNING, true);
+        int serverCapacity = runningServers > 0
+                ? this.aggregates.getMaxPlayers(ServerStatus.RUNNING, true) / runningServers
+                : DEFAULT_SERVER_CAPACITY;
+
+        double threshold = this.scalerConfig.getGroup().getScaling().getConditions().getScaleUpThreshold();
+        int requiredServers = requiredServers(forecast.projected(), serverCapacity, threshold);
+
+        Logger.debug("Forecast for group {}: {} players now, {} in {}s (trend: {}, seasonal: {}), {} servers required",
+                this.groupName,
+                forecast.current(),
+                String.format("%.1f", forecast.projected()),
+                horizon / 1000,
+                String.format("%.1f", forecast.trend()),
+                String.format("%.1f", forecast.seasonal()),
+                requiredServers);
+
+        return requiredServers;
+    }
+
+    /**
+     * Returns the number of servers of {@code serverCapacity} players needed to keep
+     * {@code projectedPlayers} below the scale-up threshold.
+     */
+    static int requiredServers(double projectedPlayers, int serverCapacity, double scaleUpThreshold) {
+        double usableCapacity = Math.max(1.0, serverCapacity * scaleUpThreshold);
+        return (int) Math.ceil(projectedPlayers / usableCapacity);
+    }
+
+}
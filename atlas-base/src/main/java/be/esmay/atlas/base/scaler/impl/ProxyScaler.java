@@ -5,9 +5,6 @@ import be.esmay.atlas.base.scaler.Scaler;
 import be.esmay.atlas.base.utils.Logger;
 import be.esmay.atlas.common.enums.ScaleType;
 import be.esmay.atlas.common.enums.ServerStatus;
-import be.esmay.atlas.common.models.AtlasServer;
-
-import java.util.List;
 
 public final class ProxyScaler extends Scaler {
 
@@ -21,7 +18,7 @@ public final class ProxyScaler extends Scaler {
             return ScaleType.NONE;
         }
 
-        if (this.getAutoScaledServers().size() < this.getMinServers()) {
+        if (this.getAutoScaledServerCount() < this.getMinServers()) {
             Logger.debug("Below minimum proxy servers for group: {}, scaling up", this.groupName);
             return ScaleType.UP;
         }
@@ -42,9 +39,7 @@ public final class ProxyScaler extends Scaler {
         double threshold = this.scalerConfig.getGroup().getScaling().getConditions().getScaleUpThreshold();
         int cooldownSeconds = this.getCooldownSeconds();
 
-        int startingProxies = (int) this.getAutoScaledServers().stream()
-                .filter(server -> server.getServerInfo() != null && server.getServerInfo().getStatus() == ServerStatus.STARTING)
-                .count();
+        int startingProxies = this.aggregates.getServerCount(ServerStatus.STARTING, true);
 
         boolean thresholdMet = utilization >= threshold;
         boolean canScale = this.canScaleUp();
@@ -82,44 +77,9 @@ public final class ProxyScaler extends Scaler {
     }
 
     private double getNetworkUtilization() {
-        List<AtlasServer> autoScaledProxies = this.getAutoScaledServers();
-        if (autoScaledProxies.isEmpty()) {
-            return 0.0;
-        }
-
-        List<AtlasServer> runningProxies = autoScaledProxies.stream()
-                .filter(server -> server.getServerInfo() != null && server.getServerInfo().getStatus() == ServerStatus.RUNNING)
-                .toList();
-
-        int avgProxyCapacity;
-        if (!runningProxies.isEmpty()) {
-            avgProxyCapacity = runningProxies.stream()
-                    .mapToInt(server -> server.getServerInfo() != null ? server.getServerInfo().getMaxPlayers() : 0)
-                    .sum() / runningProxies.size();
-        } else {
-            avgProxyCapacity = 100;
-        }
-
-        int totalNetworkPlayers = 0;
-        int totalNetworkCapacity = 0;
-
-        for (AtlasServer proxy : autoScaledProxies) {
-            totalNetworkPlayers += proxy.getServerInfo() != null ? proxy.getServerInfo().getOnlinePlayers() : 0;
-
-            if (proxy.getServerInfo() != null && proxy.getServerInfo().getStatus() == ServerStatus.RUNNING) {
-                totalNetworkCapacity += proxy.getServerInfo().getMaxPlayers();
-            } else if (proxy.getServerInfo() != null && proxy.getServerInfo().getStatus() == ServerStatus.STARTING) {
-                totalNetworkCapacity += avgProxyCapacity;
-            }
-        }
-
-        if (totalNetworkCapacity == 0) {
-            return 0.0;
-        }
-
-        double utilization = (double) totalNetworkPlayers / totalNetworkCapacity;
+        double utilization = this.aggregates.getAutoScaledUtilization(100);
 
-        Logger.debug("Network utilization for proxy group {}: {}% (players: {}, capacity: {})", this.groupName, String.format("%.1f", utilization * 100), totalNetworkPlayers, totalNetworkCapacity);
+        Logger.debug("Network utilization for proxy group {}: {}% (players: {}, capacity: {})", this.groupName, String.format("%.1f", utilization * 100), this.aggregates.getOnlinePlayers(true), this.aggregates.getAutoScaledCapacity(100));
 
         return utilization;
     }
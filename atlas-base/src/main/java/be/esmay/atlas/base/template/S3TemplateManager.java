@@ -2,11 +2,13 @@ package be.esmay.atlas.base.template;
 
 import be.esmay.atlas.base.config.impl.AtlasConfig;
 import be.esmay.atlas.base.utils.Logger;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3ClientBuilder;
@@ -16,43 +18,84 @@ import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
 import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
-import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
+/**
+ * Mirrors the S3 template prefix into the local cache directory. A manifest of object keys, ETags
+ * and sizes is kept next to the files; a sync lists the prefix once and downloads only objects
+ * whose ETag or size changed, so server starts do not touch S3 while the manifest is fresh.
+ *
+ * <p>Objects that fail to download do not keep the manifest stale, which would re-list the
+ * prefix on every start. They are retried in the background with exponential backoff, and the
+ * previous version of the file stays in use until a retry succeeds.
+ */
 public final class S3TemplateManager {
 
+    private static final String MANIFEST_FILE = ".atlas-manifest.json";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long MEGABYTE = 1024L * 1024L;
+    private static final long RETRY_BASE_MILLIS = 30_000L;
+    private static final long RETRY_MAX_MILLIS = 30 * 60_000L;
+
     private final AtlasConfig.Templates templatesConfig;
-    private final AtlasConfig.S3 s3Config;
     private final S3Client s3Client;
     private final Path cacheDirectory;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Object syncLock = new Object();
+    private final Map<String, RetryState> retries = new ConcurrentHashMap<>();
+    private final AtomicBoolean retryRunning = new AtomicBoolean();
+    private final ExecutorService retryExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "Atlas-TemplateRetry");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile TemplateSyncManifest manifest;
 
     public S3TemplateManager(AtlasConfig.Templates templatesConfig, AtlasConfig.S3 s3Config) {
+        this(templatesConfig, s3Config, createS3Client(s3Config));
+    }
+
+    /**
+     * Uses the given client, for example one pointed at a local S3-compatible server.
+     */
+    public S3TemplateManager(AtlasConfig.Templates templatesConfig, AtlasConfig.S3 s3Config, S3Client s3Client) {
         this.templatesConfig = templatesConfig;
-        this.s3Config = s3Config;
-        this.s3Client = this.createS3Client();
-        this.cacheDirectory = templatesConfig.getS3Cache() != null && templatesConfig.getS3Cache().isEnabled() 
-            ? Paths.get(templatesConfig.getS3Cache().getDirectory())
-            : null;
-        
-        if (this.cacheDirectory != null) {
-            try {
-                Files.createDirectories(this.cacheDirectory);
-            } catch (IOException e) {
-                Logger.error("Failed to create cache directory: " + this.cacheDirectory, e);
-            }
-        }
+        this.s3Client = s3Client;
+        this.cacheDirectory = this.createCacheDirectory();
+        this.manifest = this.loadManifest();
+        this.manifest.getPending().keySet().forEach(key -> this.retries.put(key, new RetryState(0, 0)));
     }
 
     public Optional<Path> downloadTemplate(String templatePath) {
@@ -61,15 +104,19 @@ public final class S3TemplateManager {
         }
 
         try {
-            String s3Key = this.templatesConfig.getS3PathPrefix() + templatePath;
-            
-            Optional<Path> cachedTemplate = this.getCachedTemplate(templatePath);
-            if (cachedTemplate.isPresent() && this.isCacheValid(cachedTemplate.get(), s3Key)) {
-                Logger.debug("Using cached template: " + templatePath);
-                return cachedTemplate;
+            this.syncIfStale();
+
+            if (!this.manifest.contains(templatePath)) {
+                return Optional.empty();
             }
 
-            return this.downloadFromS3(s3Key, templatePath);
+            Path localPath = this.resolveLocalPath(templatePath);
+            if (localPath == null || !Files.exists(localPath)) {
+                return Optional.empty();
+            }
+
+            Logger.debug("Using synced template: " + templatePath);
+            return Optional.of(localPath);
         } catch (Exception e) {
             Logger.error("Failed to download template from S3: " + templatePath, e);
             return Optional.empty();
@@ -81,21 +128,8 @@ public final class S3TemplateManager {
             return false;
         }
 
-        try {
-            String s3Key = this.templatesConfig.getS3PathPrefix() + templatePath;
-            HeadObjectRequest headRequest = HeadObjectRequest.builder()
-                .bucket(this.templatesConfig.getS3Bucket())
-                .key(s3Key)
-                .build();
-            
-            this.s3Client.headObject(headRequest);
-            return true;
-        } catch (NoSuchKeyException e) {
-            return false;
-        } catch (S3Exception e) {
-            Logger.error("Failed to check if template exists in S3: " + templatePath, e);
-            return false;
-        }
+        this.syncIfStale();
+        return this.manifest.contains(templatePath);
     }
 
     public TemplateMetadata getTemplateMetadata(String templatePath) {
@@ -103,6 +137,23 @@ public final class S3TemplateManager {
             return null;
         }
 
+        Instant cacheExpiration = null;
+        if (this.templatesConfig.getS3Cache() != null) {
+            cacheExpiration = Instant.now().plusSeconds(this.templatesConfig.getS3Cache().getTtlSeconds());
+        }
+
+        TemplateSyncManifest.Entry entry = this.manifest.getObjects().get(templatePath);
+        if (entry != null) {
+            return new TemplateMetadata(
+                templatePath,
+                TemplateSource.S3,
+                entry.getETag(),
+                entry.getSize(),
+                Instant.ofEpochMilli(entry.getLastModified()),
+                cacheExpiration
+            );
+        }
+
         try {
             String s3Key = this.templatesConfig.getS3PathPrefix() + templatePath;
             HeadObjectRequest headRequest = HeadObjectRequest.builder()
@@ -112,11 +163,6 @@ public final class S3TemplateManager {
             
             HeadObjectResponse response = this.s3Client.headObject(headRequest);
             
-            Instant cacheExpiration = null;
-            if (this.templatesConfig.getS3Cache() != null) {
-                cacheExpiration = Instant.now().plusSeconds(this.templatesConfig.getS3Cache().getTtlSeconds());
-            }
-            
             return new TemplateMetadata(
                 templatePath,
                 TemplateSource.S3,
@@ -132,6 +178,11 @@ public final class S3TemplateManager {
     }
 
     public boolean clearCache() {
+        synchronized (this.syncLock) {
+            this.manifest = new TemplateSyncManifest();
+            this.retries.clear();
+        }
+
         if (this.cacheDirectory == null || !Files.exists(this.cacheDirectory)) {
             Logger.debug("No cache directory to clear");
             return true;
@@ -157,6 +208,7 @@ public final class S3TemplateManager {
     }
     
     public void close() {
+        this.retryExecutor.shutdownNow();
         if (this.s3Client != null) {
             this.s3Client.close();
         }
@@ -200,95 +252,431 @@ public final class S3TemplateManager {
         return templates;
     }
 
-    private S3Client createS3Client() {
-        S3ClientBuilder builder = S3Client.builder();
-        
-        if (this.s3Config.getRegion() != null) {
-            builder.region(Region.of(this.s3Config.getRegion()));
+    /**
+     * Syncs the template prefix when the manifest is older than the cache TTL. A TTL of zero or
+     * less keeps a synced manifest until the cache is cleared.
+     */
+    public void syncIfStale() {
+        if (this.isFresh(this.manifest)) {
+            this.scheduleDueRetries();
+            return;
         }
-        
-        if (this.s3Config.getEndpoint() != null && !this.s3Config.getEndpoint().equals("https://s3.amazonaws.com")) {
-            builder.endpointOverride(URI.create(this.s3Config.getEndpoint()));
-            builder.forcePathStyle(true);
+
+        synchronized (this.syncLock) {
+            if (!this.isFresh(this.manifest)) {
+                this.sync();
+            }
         }
-        
-        AwsCredentialsProvider credentialsProvider = this.createCredentialsProvider();
-        builder.credentialsProvider(credentialsProvider);
-        
-        return builder.build();
     }
 
-    private AwsCredentialsProvider createCredentialsProvider() {
-        if (this.s3Config.getAccessKeyId() != null && this.s3Config.getSecretAccessKey() != null) {
-            AwsBasicCredentials credentials = AwsBasicCredentials.create(
-                this.s3Config.getAccessKeyId(),
-                this.s3Config.getSecretAccessKey()
-            );
-            return StaticCredentialsProvider.create(credentials);
+    private boolean isFresh(TemplateSyncManifest current) {
+        if (current.getSyncedAt() <= 0) {
+            return false;
         }
-        
-        return DefaultCredentialsProvider.create();
-    }
 
-    private Optional<Path> getCachedTemplate(String templatePath) {
-        if (this.cacheDirectory == null) {
-            return Optional.empty();
+        AtlasConfig.S3Cache cacheConfig = this.templatesConfig.getS3Cache();
+        if (cacheConfig == null || !cacheConfig.isEnabled()) {
+            return false;
         }
-        
-        Path cachedFile = this.cacheDirectory.resolve(templatePath);
-        return Files.exists(cachedFile) ? Optional.of(cachedFile) : Optional.empty();
-    }
 
-    private boolean isCacheValid(Path cachedFile, String s3Key) {
-        if (this.templatesConfig.getS3Cache() == null || this.templatesConfig.getS3Cache().getTtlSeconds() <= 0) {
+        if (cacheConfig.getTtlSeconds() <= 0) {
             return true;
         }
-        
+
+        return System.currentTimeMillis() < current.getSyncedAt() + cacheConfig.getTtlSeconds() * 1000L;
+    }
+
+    private void sync() {
+        String prefix = this.templatesConfig.getS3PathPrefix();
+        TemplateSyncManifest previous = this.manifest;
+        TreeMap<String, TemplateSyncManifest.Entry> remote = new TreeMap<>();
+
         try {
-            Instant fileTime = Files.getLastModifiedTime(cachedFile).toInstant();
-            Instant expiration = fileTime.plusSeconds(this.templatesConfig.getS3Cache().getTtlSeconds());
-            
-            if (Instant.now().isAfter(expiration)) {
-                return false;
-            }
-            
-            HeadObjectRequest headRequest = HeadObjectRequest.builder()
+            ListObjectsV2Request listRequest = ListObjectsV2Request.builder()
                 .bucket(this.templatesConfig.getS3Bucket())
-                .key(s3Key)
+                .prefix(prefix)
                 .build();
-            
-            HeadObjectResponse response = this.s3Client.headObject(headRequest);
-            return response.lastModified().isBefore(fileTime) || response.lastModified().equals(fileTime);
-        } catch (Exception e) {
-            Logger.warn("Failed to validate cache for template: " + cachedFile, e);
+
+            for (S3Object object : this.s3Client.listObjectsV2Paginator(listRequest).contents()) {
+                String relativeKey = object.key().substring(prefix.length());
+                if (relativeKey.isEmpty() || relativeKey.endsWith("/")) {
+                    continue;
+                }
+
+                if (this.resolveLocalPath(relativeKey) == null) {
+                    Logger.warn("Skipping S3 template object outside the cache directory: " + object.key());
+                    continue;
+                }
+
+                long lastModified = object.lastModified() != null ? object.lastModified().toEpochMilli() : 0;
+                remote.put(relativeKey, new TemplateSyncManifest.Entry(object.eTag(), object.size(), lastModified));
+            }
+        } catch (SdkException e) {
+            Logger.error("Failed to list templates in S3, using the local template cache", e);
+            return;
+        }
+
+        List<String> changed = new ArrayList<>();
+        for (Map.Entry<String, TemplateSyncManifest.Entry> entry : remote.entrySet()) {
+            if (!this.isUpToDate(entry.getKey(), entry.getValue(), previous.getObjects().get(entry.getKey()))) {
+                changed.add(entry.getKey());
+            }
+        }
+
+        Set<String> failed = this.downloadAll(prefix, changed, remote);
+
+        for (String removedKey : previous.getObjects().keySet()) {
+            if (!remote.containsKey(removedKey)) {
+                this.deleteLocalObject(removedKey);
+            }
+        }
+
+        // A failed download leaves the previous file in place, so keep serving it until a retry
+        // succeeds. Its old entry no longer matches the remote one, so the retry still happens.
+        TreeMap<String, TemplateSyncManifest.Entry> synced = new TreeMap<>(remote);
+        TreeMap<String, TemplateSyncManifest.Entry> pending = new TreeMap<>();
+        for (String failedKey : failed) {
+            pending.put(failedKey, remote.get(failedKey));
+
+            TemplateSyncManifest.Entry previousEntry = previous.getObjects().get(failedKey);
+            Path localPath = this.resolveLocalPath(failedKey);
+            if (previousEntry != null && localPath != null && Files.isRegularFile(localPath)) {
+                synced.put(failedKey, previousEntry);
+            } else {
+                synced.remove(failedKey);
+            }
+        }
+
+        this.retries.keySet().retainAll(failed);
+        this.scheduleRetries(failed);
+
+        TemplateSyncManifest updated = new TemplateSyncManifest(System.currentTimeMillis(), synced, pending);
+        this.saveManifest(updated);
+        this.manifest = updated;
+
+        Logger.debug("Synced S3 templates: " + remote.size() + " objects, " + (changed.size() - failed.size())
+            + " downloaded, " + failed.size() + " failed");
+    }
+
+    /**
+     * Starts retrying failed objects in the background when any is due, so the caller never waits
+     * on S3 for them.
+     */
+    private void scheduleDueRetries() {
+        if (this.retries.isEmpty() || !this.retryRunning.compareAndSet(false, true)) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        if (this.retries.values().stream().noneMatch(retry -> retry.nextAttemptAt() <= now)) {
+            this.retryRunning.set(false);
+            return;
+        }
+
+        try {
+            this.retryExecutor.execute(() -> {
+                try {
+                    this.retryPending(System.currentTimeMillis());
+                } catch (Exception e) {
+                    Logger.error("Failed to retry template downloads", e);
+                } finally {
+                    this.retryRunning.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.retryRunning.set(false);
+        }
+    }
+
+    /**
+     * Downloads the pending objects whose retry is due at {@code now}, without listing the prefix
+     * again.
+     */
+    void retryPending(long now) {
+        synchronized (this.syncLock) {
+            TemplateSyncManifest current = this.manifest;
+            List<String> due = current.getPending().keySet().stream()
+                .filter(key -> {
+                    RetryState retry = this.retries.get(key);
+                    return retry == null || retry.nextAttemptAt() <= now;
+                })
+                .toList();
+            if (due.isEmpty()) {
+                return;
+            }
+
+            Set<String> failed = this.downloadAll(this.templatesConfig.getS3PathPrefix(), due, current.getPending());
+
+            TreeMap<String, TemplateSyncManifest.Entry> objects = new TreeMap<>(current.getObjects());
+            TreeMap<String, TemplateSyncManifest.Entry> pending = new TreeMap<>(current.getPending());
+            for (String key : due) {
+                if (!failed.contains(key)) {
+                    objects.put(key, pending.remove(key));
+                    this.retries.remove(key);
+                }
+            }
+            this.scheduleRetries(failed);
+
+            TemplateSyncManifest updated = new TemplateSyncManifest(current.getSyncedAt(), objects, pending);
+            this.saveManifest(updated);
+            this.manifest = updated;
+
+            Logger.debug("Retried S3 template downloads: " + (due.size() - failed.size()) + " downloaded, " + failed.size() + " failed");
+        }
+    }
+
+    private void scheduleRetries(Collection<String> failedKeys) {
+        long now = System.currentTimeMillis();
+        for (String key : failedKeys) {
+            RetryState retry = this.retries.compute(key, (ignored, previous) -> {
+                int attempts = previous == null ? 1 : previous.attempts() + 1;
+                long delay = Math.min(RETRY_MAX_MILLIS, RETRY_BASE_MILLIS << Math.min(attempts - 1, 16));
+                return new RetryState(attempts, now + delay);
+            });
+            Logger.warn("Template object " + key + " failed to download " + retry.attempts() + " time(s), retrying in "
+                + (retry.nextAttemptAt() - now) / 1000 + "s");
+        }
+    }
+
+    private boolean isUpToDate(String relativeKey, TemplateSyncManifest.Entry remote, TemplateSyncManifest.Entry local) {
+        if (local == null || local.getSize() != remote.getSize() || local.getETag() == null || !local.getETag().equals(remote.getETag())) {
+            return false;
+        }
+
+        Path localPath = this.resolveLocalPath(relativeKey);
+        try {
+            return localPath != null && Files.isRegularFile(localPath) && Files.size(localPath) == remote.getSize();
+        } catch (IOException e) {
             return false;
         }
     }
 
-    private Optional<Path> downloadFromS3(String s3Key, String templatePath) {
+    /**
+     * Downloads the given objects with bounded parallelism. Objects above the multipart threshold
+     * are fetched as ranged parts that share the same pool. Returns the keys that failed.
+     */
+    private Set<String> downloadAll(String prefix, List<String> relativeKeys, Map<String, TemplateSyncManifest.Entry> remote) {
+        Set<String> failed = new HashSet<>();
+        if (relativeKeys.isEmpty()) {
+            return failed;
+        }
+
+        AtlasConfig.S3Cache cacheConfig = this.templatesConfig.getS3Cache();
+        int parallelism = cacheConfig != null ? Math.max(1, cacheConfig.getParallelDownloads()) : 1;
+        long threshold = cacheConfig != null ? Math.max(1, cacheConfig.getMultipartThresholdMb()) * MEGABYTE : Long.MAX_VALUE;
+        long partSize = cacheConfig != null ? Math.max(1, cacheConfig.getPartSizeMb()) * MEGABYTE : Long.MAX_VALUE;
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r, "Atlas-TemplateSync-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
         try {
-            GetObjectRequest getRequest = GetObjectRequest.builder()
-                .bucket(this.templatesConfig.getS3Bucket())
-                .key(s3Key)
-                .build();
-            
-            ResponseInputStream<GetObjectResponse> response = this.s3Client.getObject(getRequest);
-            
-            Path targetPath;
-            if (this.cacheDirectory != null) {
-                targetPath = this.cacheDirectory.resolve(templatePath);
-                Files.createDirectories(targetPath.getParent());
-            } else {
-                targetPath = Files.createTempFile("atlas-template-", ".tmp");
+            Map<String, CompletableFuture<Void>> downloads = new TreeMap<>();
+            for (String relativeKey : relativeKeys) {
+                TemplateSyncManifest.Entry entry = remote.get(relativeKey);
+                long size = entry.getSize();
+                downloads.put(relativeKey, this.downloadObject(executor, prefix + relativeKey, entry,
+                    this.resolveLocalPath(relativeKey), size > threshold ? partSize : Math.max(size, 1)));
             }
-            
-            Files.copy(response, targetPath, StandardCopyOption.REPLACE_EXISTING);
-            Logger.debug("Downloaded template from S3: " + templatePath + " to " + targetPath);
-            
-            return Optional.of(targetPath);
-        } catch (IOException | S3Exception e) {
-            Logger.error("Failed to download template from S3: " + s3Key, e);
-            return Optional.empty();
+
+            for (Map.Entry<String, CompletableFuture<Void>> download : downloads.entrySet()) {
+                try {
+                    download.getValue().join();
+                } catch (CompletionException e) {
+                    failed.add(download.getKey());
+                    Logger.error("Failed to download template object from S3: " + prefix + download.getKey(), e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return failed;
+    }
+
+    private CompletableFuture<Void> downloadObject(ExecutorService executor, String key, TemplateSyncManifest.Entry entry, Path target, long partSize) {
+        Path temporary = target.resolveSibling("." + target.getFileName() + "." + UUID.randomUUID() + ".part");
+        try {
+            Files.createDirectories(target.getParent());
+            Files.createFile(temporary);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        long size = entry.getSize();
+        boolean ranged = partSize < size;
+        List<CompletableFuture<Void>> parts = new ArrayList<>();
+        for (long start = 0; start < size || parts.isEmpty(); start += partSize) {
+            long partStart = start;
+            long partEnd = Math.min(size, start + partSize) - 1;
+            parts.add(CompletableFuture.runAsync(() -> this.downloadPart(key, entry.getETag(), temporary, ranged ? partStart : -1, partEnd), executor));
+        }
+
+        return CompletableFuture.allOf(parts.toArray(new CompletableFuture[0])).handle((ignored, throwable) -> {
+            try {
+                if (throwable != null) {
+                    throw throwable instanceof CompletionException completion ? completion : new CompletionException(throwable);
+                }
+
+                long written = Files.size(temporary);
+                if (written != size) {
+                    throw new IOException("Downloaded " + written + " of " + size + " bytes for " + key);
+                }
+
+                this.moveIntoPlace(temporary, target);
+                return null;
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            } finally {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException e) {
+                    Logger.warn("Failed to delete partial template download: " + temporary);
+                }
+            }
+        });
+    }
+
+    /**
+     * Writes one part of an object at its offset in the temporary file. Parts are fetched with
+     * {@code If-Match} on the listed ETag, so an object replaced during the sync fails instead of
+     * mixing two versions.
+     */
+    private void downloadPart(String key, String eTag, Path temporary, long start, long end) {
+        GetObjectRequest.Builder request = GetObjectRequest.builder()
+            .bucket(this.templatesConfig.getS3Bucket())
+            .key(key);
+        if (eTag != null) {
+            request.ifMatch(eTag);
+        }
+        if (start >= 0) {
+            request.range("bytes=" + start + "-" + end);
+        }
+
+        long position = Math.max(start, 0);
+        try (ResponseInputStream<GetObjectResponse> in = this.s3Client.getObject(request.build());
+             FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+                while (byteBuffer.hasRemaining()) {
+                    position += channel.write(byteBuffer, position);
+                }
+            }
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private void moveIntoPlace(Path temporary, Path target) throws IOException {
+        try {
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
         }
     }
-}
\ No newline at end of file
+
+    private void deleteLocalObject(String relativeKey) {
+        Path localPath = this.resolveLocalPath(relativeKey);
+        if (localPath == null) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(localPath);
+            Logger.debug("Removed template object deleted from S3: " + relativeKey);
+        } catch (IOException e) {
+            Logger.warn("Failed to remove template object deleted from S3: " + localPath, e);
+        }
+    }
+
+    private Path resolveLocalPath(String relativeKey) {
+        Path localPath = this.cacheDirectory.resolve(relativeKey).normalize();
+        if (!localPath.startsWith(this.cacheDirectory) || localPath.equals(this.cacheDirectory)) {
+            return null;
+        }
+        return localPath;
+    }
+
+    private Path createCacheDirectory() {
+        try {
+            if (this.templatesConfig.getS3Cache() != null && this.templatesConfig.getS3Cache().isEnabled()) {
+                Path directory = Paths.get(this.templatesConfig.getS3Cache().getDirectory()).toAbsolutePath().normalize();
+                Files.createDirectories(directory);
+                return directory;
+            }
+
+            return Files.createTempDirectory("atlas-templates-").toAbsolutePath().normalize();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to create template cache directory", e);
+        }
+    }
+
+    private TemplateSyncManifest loadManifest() {
+        Path manifestPath = this.cacheDirectory.resolve(MANIFEST_FILE);
+        if (!Files.exists(manifestPath)) {
+            return new TemplateSyncManifest();
+        }
+
+        try (InputStream in = Files.newInputStream(manifestPath)) {
+            return this.objectMapper.readValue(in, TemplateSyncManifest.class);
+        } catch (IOException e) {
+            Logger.warn("Failed to read template manifest, templates will be synced again", e);
+            return new TemplateSyncManifest();
+        }
+    }
+
+    private void saveManifest(TemplateSyncManifest updated) {
+        Path manifestPath = this.cacheDirectory.resolve(MANIFEST_FILE);
+        Path temporary = this.cacheDirectory.resolve(MANIFEST_FILE + "." + UUID.randomUUID() + ".tmp");
+        try {
+            this.objectMapper.writeValue(temporary.toFile(), updated);
+            this.moveIntoPlace(temporary, manifestPath);
+        } catch (IOException e) {
+            Logger.error("Failed to write template manifest", e);
+        } finally {
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException e) {
+                Logger.warn("Failed to delete temporary template manifest: " + temporary);
+            }
+        }
+    }
+
+    private static S3Client createS3Client(AtlasConfig.S3 s3Config) {
+        S3ClientBuilder builder = S3Client.builder();
+        
+        if (s3Config.getRegion() != null) {
+            builder.region(Region.of(s3Config.getRegion()));
+        }
+        
+        if (s3Config.getEndpoint() != null && !s3Config.getEndpoint().equals("https://s3.amazonaws.com")) {
+            builder.endpointOverride(URI.create(s3Config.getEndpoint()));
+            builder.forcePathStyle(true);
+        }
+        
+        AwsCredentialsProvider credentialsProvider = createCredentialsProvider(s3Config);
+        builder.credentialsProvider(credentialsProvider);
+        
+        return builder.build();
+    }
+
+    private static AwsCredentialsProvider createCredentialsProvider(AtlasConfig.S3 s3Config) {
+        if (s3Config.getAccessKeyId() != null && s3Config.getSecretAccessKey() != null) {
+            AwsBasicCredentials credentials = AwsBasicCredentials.create(
+                s3Config.getAccessKeyId(),
+                s3Config.getSecretAccessKey()
+            );
+            return StaticCredentialsProvider.create(credentials);
+        }
+        
+        return DefaultCredentialsProvider.create();
+    }
+
+    private record RetryState(int attempts, long nextAttemptAt) {
+    }
+}
@@ -0,0 +1,323 @@
+package be.esmay.atlas.base.template;
+
+import be.esmay.atlas.base.utils.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed store for template files. Every distinct file is kept once under its SHA-256
+ * hash and materialized into server directories as a hardlink, so applying a template only writes
+ * the files that differ from what the server already has.
+ *
+ * <p>Files matching a mutable pattern are copied instead: servers rewrite those in place, and
+ * through a hardlink the change would reach the store and every other server. When hardlinks are
+ * not possible, for example because the store is on another filesystem, files are copied as well.
+ */
+public final class TemplateBlobStore {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final List<PathMatcher> mutableNameMatchers = new ArrayList<>();
+    private final List<PathMatcher> mutablePathMatchers = new ArrayList<>();
+    private final Map<Path, HashedFile> hashCache = new ConcurrentHashMap<>();
+    private volatile boolean hardlinksSupported = true;
+
+    public TemplateBlobStore(Path root, List<String> mutablePatterns) {
+        this.root = root.toAbsolutePath().normalize();
+
+        if (mutablePatterns != null) {
+            for (String pattern : mutablePatterns) {
+                PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+                if (pattern.contains("/")) {
+                    this.mutablePathMatchers.add(matcher);
+                } else {
+                    this.mutableNameMatchers.add(matcher);
+                }
+            }
+        }
+    }
+
+    /**
+     * Materializes every file under {@code source} into {@code target}, keeping the relative layout.
+     */
+    public Result materializeDirectory(Path source, Path target) throws IOException {
+        Result result = new Result();
+
+        try (Stream<Path> paths = Files.walk(source)) {
+            Iterator<Path> iterator = paths.iterator();
+            while (iterator.hasNext()) {
+                Path sourcePath = iterator.next();
+                Path relativePath = source.relativize(sourcePath);
+                Path targetPath = target.resolve(relativePath);
+
+                try {
+                    if (Files.isDirectory(sourcePath)) {
+                        Files.createDirectories(targetPath);
+                    } else {
+                        this.materializeFile(sourcePath, targetPath, relativePath, result);
+                    }
+                } catch (IOException e) {
+                    Logger.error("Failed to materialize template path: " + sourcePath, e);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    public Result materializeFile(Path source, Path target) throws IOException {
+        Result result = new Result();
+        Files.createDirectories(target.getParent());
+        this.materializeFile(source, target, source.getFileName(), result);
+        return result;
+    }
+
+    private void materializeFile(Path source, Path target, Path relativePath, Result result) throws IOException {
+        HashedFile hashed = this.hash(source);
+
+        if (this.isMutable(relativePath)) {
+            if (this.hasContent(target, hashed)) {
+                result.skipped++;
+                return;
+            }
+
+            Files.createDirectories(target.getParent());
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+            result.copied++;
+            result.bytesWritten += hashed.size();
+            return;
+        }
+
+        Path blob = this.ingest(source, hashed);
+        if (Files.exists(target, LinkOption.NOFOLLOW_LINKS) && Files.isSameFile(target, blob)) {
+            result.skipped++;
+            return;
+        }
+
+        Files.createDirectories(target.getParent());
+        if (this.hardlinksSupported && this.link(blob, target)) {
+            result.linked++;
+            return;
+        }
+
+        // Copy from the template, not the blob, so the server gets a writable file.
+        Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        result.copied++;
+        result.bytesWritten += hashed.size();
+    }
+
+    private boolean link(Path blob, Path target) throws IOException {
+        Path temporary = target.resolveSibling("." + target.getFileName() + "." + UUID.randomUUID() + ".atlas-link");
+        try {
+            Files.createLink(temporary, blob);
+        } catch (UnsupportedOperationException e) {
+            this.disableHardlinks(e.getMessage());
+            return false;
+        } catch (FileSystemException e) {
+            // Only a cross-device link means no link will ever work. Anything else, such as a blob
+            // pruned concurrently or a full link count, only affects this file, which gets copied.
+            if (isCrossDevice(e)) {
+                this.disableHardlinks(e.getMessage());
+            } else {
+                Logger.debug("Could not link {} to the template store, copying it instead: {}", target, e.getMessage());
+            }
+            return false;
+        }
+
+        try {
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        return true;
+    }
+
+    private void disableHardlinks(String reason) {
+        this.hardlinksSupported = false;
+        Logger.warn("Hardlinks to the template store are not possible ({}), falling back to copies", reason);
+    }
+
+    private static boolean isCrossDevice(FileSystemException e) {
+        String reason = e.getReason();
+        return reason != null && (reason.contains("cross-device") || reason.contains("EXDEV") || reason.contains("different disk drive"));
+    }
+
+    /**
+     * Returns the blob for a file, copying it into the store first if its content is new.
+     */
+    private Path ingest(Path source, HashedFile hashed) throws IOException {
+        Path blob = this.root.resolve(hashed.hash().substring(0, 2)).resolve(hashed.hash());
+        if (Files.exists(blob)) {
+            return blob;
+        }
+
+        Files.createDirectories(blob.getParent());
+        Path temporary = blob.resolveSibling(hashed.hash() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            Files.copy(source, temporary);
+            this.makeReadOnly(temporary);
+            Files.move(temporary, blob, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileSystemException e) {
+            // Another server start may have stored the same content first.
+            if (!Files.exists(blob)) {
+                throw e;
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+
+        return blob;
+    }
+
+    private void makeReadOnly(Path file) {
+        try {
+            Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("r--r--r--"));
+        } catch (UnsupportedOperationException | IOException e) {
+            Logger.debug("Could not mark template blob read-only: {}", e.getMessage());
+        }
+    }
+
+    private boolean hasContent(Path target, HashedFile expected) throws IOException {
+        if (!Files.isRegularFile(target, LinkOption.NOFOLLOW_LINKS) || Files.size(target) != expected.size()) {
+            return false;
+        }
+        return this.digest(target).equals(expected.hash());
+    }
+
+    private boolean isMutable(Path relativePath) {
+        Path fileName = relativePath.getFileName();
+        for (PathMatcher matcher : this.mutableNameMatchers) {
+            if (fileName != null && matcher.matches(fileName)) {
+                return true;
+            }
+        }
+        for (PathMatcher matcher : this.mutablePathMatchers) {
+            if (matcher.matches(relativePath)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Hashes a template file, reusing the previous hash while its size and modification time are
+     * unchanged.
+     */
+    private HashedFile hash(Path file) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        long modified = attributes.lastModifiedTime().toMillis();
+
+        HashedFile cached = this.hashCache.get(key);
+        if (cached != null && cached.size() == attributes.size() && cached.modified() == modified) {
+            return cached;
+        }
+
+        HashedFile hashed = new HashedFile(this.digest(key), attributes.size(), modified);
+        this.hashCache.put(key, hashed);
+        return hashed;
+    }
+
+    private String digest(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Deletes blobs no server directory links to anymore. Blobs only referenced by copies are
+     * removed too; they are ingested again on the next start that needs them.
+     */
+    public int prune() {
+        if (!Files.exists(this.root)) {
+            return 0;
+        }
+
+        int removed = 0;
+        try (Stream<Path> paths = Files.walk(this.root)) {
+            Iterator<Path> iterator = paths.iterator();
+            while (iterator.hasNext()) {
+                Path path = iterator.next();
+                if (!Files.isRegularFile(path)) {
+                    continue;
+                }
+
+                try {
+                    Object links = Files.getAttribute(path, "unix:nlink");
+                    if (links instanceof Integer count && count <= 1) {
+                        Files.delete(path);
+                        removed++;
+                    }
+                } catch (UnsupportedOperationException | IOException e) {
+                    Logger.debug("Failed to prune template blob {}: {}", path, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            Logger.error("Failed to prune template blob store", e);
+        }
+
+        this.hashCache.clear();
+        return removed;
+    }
+
+    private record HashedFile(String hash, long size, long modified) {
+    }
+
+    public static final class Result {
+
+        private int linked;
+        private int copied;
+        private int skipped;
+        private long bytesWritten;
+
+        public void add(Result other) {
+            this.linked += other.linked;
+            this.copied += other.copied;
+            this.skipped += other.skipped;
+            this.bytesWritten += other.bytesWritten;
+        }
+
+        @Override
+        public String toString() {
+            return this.linked + " linked, " + this.copied + " copied (" + this.bytesWritten + " bytes), " + this.skipped + " unchanged";
+        }
+
+    }
+
+}
@@ -1,29 +1,50 @@
 package be.esmay.atlas.base.template;
 
 import be.esmay.atlas.base.config.impl.AtlasConfig;
+import be.esmay.atlas.base.directory.DirectoryManager;
+import be.esmay.atlas.base.directory.OverlayMounts;
 import be.esmay.atlas.base.utils.Logger;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public final class TemplateManager {
 
     private static final String TEMPLATES_DIR = "templates";
+    private static final String LAYERS_DIR = "cache/template-layers";
+    private static final long LAYER_GRACE_MILLIS = 10 * 60 * 1000L;
     
     private final S3TemplateManager s3Manager;
+    private final TemplateBlobStore blobStore;
     private final AtlasConfig.Templates templatesConfig;
+    private final Map<String, Path> currentLayers = new ConcurrentHashMap<>();
+    private final Map<Path, Long> layerResolvedAt = new ConcurrentHashMap<>();
+    private final Set<Path> layersPendingPrune = ConcurrentHashMap.newKeySet();
 
     public TemplateManager(AtlasConfig.Templates templatesConfig, AtlasConfig.S3 s3Config) {
         this.templatesConfig = templatesConfig;
         this.s3Manager = templatesConfig.isS3Enabled()
             ? new S3TemplateManager(templatesConfig, s3Config)
             : null;
+
+        AtlasConfig.BlobStore blobStoreConfig = templatesConfig.getBlobStore();
+        this.blobStore = blobStoreConfig != null && blobStoreConfig.isEnabled()
+            ? new TemplateBlobStore(Paths.get(blobStoreConfig.getDirectory()), blobStoreConfig.getMutablePatterns())
+            : null;
     }
 
     public void applyTemplates(String serverDirectoryPath, List<String> templates) {
@@ -93,6 +114,14 @@ public final class TemplateManager {
                 return;
             }
             
+            if (this.blobStore != null) {
+                TemplateBlobStore.Result result = Files.isDirectory(templateSourcePath)
+                    ? this.blobStore.materializeDirectory(templateSourcePath, serverDirectory)
+                    : this.blobStore.materializeFile(templateSourcePath, serverDirectory.resolve(templateSourcePath.getFileName()));
+                Logger.debug("Applied template " + templatePath + ": " + result);
+                return;
+            }
+            
             if (Files.isDirectory(templateSourcePath)) {
                 this.copyDirectoryContents(templateSourcePath, serverDirectory);
             } else {
@@ -105,6 +134,142 @@ public final class TemplateManager {
         }
     }
 
+    /**
+     * Returns read-only layers for the given templates, in the order they are applied, for use
+     * as overlay lower directories. Each layer is a snapshot keyed by the template's file sizes and
+     * modification times, so editing a template never changes a layer that is already mounted.
+     * Empty if a template is a single file and cannot be layered.
+     */
+    public Optional<List<Path>> resolveLayers(List<String> templates) {
+        List<Path> layers = new ArrayList<>();
+        
+        for (String template : templates) {
+            Path templateSourcePath = this.resolveTemplatePath(template);
+            if (templateSourcePath == null) {
+                Logger.warn("Template not found: " + template);
+                continue;
+            }
+            
+            if (!Files.isDirectory(templateSourcePath)) {
+                return Optional.empty();
+            }
+            
+            try {
+                layers.add(this.snapshotLayer(template, templateSourcePath));
+            } catch (IOException e) {
+                Logger.error("Failed to prepare template layer " + template, e);
+                return Optional.empty();
+            }
+        }
+        
+        return Optional.of(layers);
+    }
+
+    private Path snapshotLayer(String template, Path source) throws IOException {
+        String layerName = template.replaceAll("[^A-Za-z0-9._-]", "_");
+        Path layerPath = Paths.get(LAYERS_DIR, layerName, this.fingerprint(source)).toAbsolutePath().normalize();
+        this.layerResolvedAt.put(layerPath, System.currentTimeMillis());
+        
+        if (!Files.isDirectory(layerPath)) {
+            this.createLayer(source, layerPath);
+        }
+        
+        // Prune when the template changed, or when an older snapshot was still in use last time.
+        Path previous = this.currentLayers.put(layerName, layerPath);
+        if (!layerPath.equals(previous) || this.layersPendingPrune.contains(layerPath.getParent())) {
+            this.pruneLayers(layerPath.getParent(), layerPath);
+        }
+        
+        return layerPath;
+    }
+
+    private void createLayer(Path source, Path layerPath) throws IOException {
+        Files.createDirectories(layerPath.getParent());
+        Path temporary = layerPath.resolveSibling(layerPath.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            Files.createDirectories(temporary);
+            if (this.blobStore != null) {
+                this.blobStore.materializeDirectory(source, temporary);
+            } else {
+                this.copyDirectoryContents(source, temporary);
+            }
+            Files.move(temporary, layerPath, StandardCopyOption.ATOMIC_MOVE);
+            Logger.debug("Created template layer " + layerPath);
+        } catch (FileSystemException e) {
+            // Another server start may have created the same layer first.
+            if (!Files.isDirectory(layerPath)) {
+                throw e;
+            }
+        } finally {
+            if (Files.exists(temporary)) {
+                try {
+                    new DirectoryManager().deleteDirectoryRecursively(temporary);
+                } catch (IOException e) {
+                    Logger.warn("Failed to remove temporary template layer " + temporary);
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes the snapshots in {@code templateLayers} other than {@code keep} that no mounted
+     * server uses. Snapshots handed out in the last few minutes are kept too, since the server
+     * they were resolved for may not have mounted them yet.
+     */
+    private void pruneLayers(Path templateLayers, Path keep) {
+        Set<Path> mounted = OverlayMounts.getMountedLayers();
+        long cutoff = System.currentTimeMillis() - LAYER_GRACE_MILLIS;
+        boolean retained = false;
+        
+        try (DirectoryStream<Path> snapshots = Files.newDirectoryStream(templateLayers)) {
+            for (Path snapshot : snapshots) {
+                Path layer = snapshot.toAbsolutePath().normalize();
+                if (layer.equals(keep) || layer.getFileName().toString().endsWith(".tmp") || mounted.contains(layer)
+                    || this.layerResolvedAt.getOrDefault(layer, 0L) > cutoff) {
+                    retained |= !layer.equals(keep);
+                    continue;
+                }
+                
+                try {
+                    new DirectoryManager().deleteDirectoryRecursively(layer);
+                    this.layerResolvedAt.remove(layer);
+                    Logger.debug("Removed unused template layer " + layer);
+                } catch (IOException e) {
+                    retained = true;
+                    Logger.warn("Failed to remove unused template layer " + layer + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            Logger.warn("Failed to list template layers in " + templateLayers + ": " + e.getMessage());
+        }
+        
+        if (retained) {
+            this.layersPendingPrune.add(templateLayers);
+        } else {
+            this.layersPendingPrune.remove(templateLayers);
+        }
+    }
+
+    private String fingerprint(Path source) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        
+        try (Stream<Path> paths = Files.walk(source)) {
+            List<Path> files = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            for (Path file : files) {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                String line = source.relativize(file) + "|" + attributes.size() + "|" + attributes.lastModifiedTime().toMillis() + "\n";
+                digest.update(line.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        
+        return HexFormat.of().formatHex(digest.digest()).substring(0, 16);
+    }
+
     private void copyDirectoryContents(Path source, Path target) throws IOException {
         try (Stream<Path> paths = Files.walk(source)) {
             paths.forEach(sourcePath -> {
@@ -157,6 +322,23 @@ public final class TemplateManager {
     }
 
     public boolean clearCache() {
+        Path layersPath = Paths.get(LAYERS_DIR).toAbsolutePath().normalize();
+        if (Files.isDirectory(layersPath)) {
+            this.currentLayers.clear();
+            try (DirectoryStream<Path> templateLayers = Files.newDirectoryStream(layersPath)) {
+                for (Path templateLayer : templateLayers) {
+                    this.pruneLayers(templateLayer, null);
+                }
+            } catch (IOException e) {
+                Logger.warn("Failed to clear template layers: " + e.getMessage());
+            }
+        }
+        
+        if (this.blobStore != null) {
+            int removed = this.blobStore.prune();
+            Logger.debug("Removed " + removed + " unused template blobs");
+        }
+        
         if (this.s3Manager == null) {
             Logger.debug("S3 template manager not enabled, no cache to clear");
             return true;
@@ -0,0 +1,52 @@
+package be.esmay.atlas.base.template;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.TreeMap;
+
+/**
+ * Local record of the S3 template objects mirrored into the cache directory, keyed by the object
+ * key relative to the template prefix. An object is downloaded again only when its ETag or size
+ * no longer matches.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public final class TemplateSyncManifest {
+
+    private long syncedAt;
+    private TreeMap<String, Entry> objects = new TreeMap<>();
+
+    /**
+     * Listed objects whose download failed, with their remote entry. They are retried on their
+     * own schedule and move to {@link #objects} once downloaded.
+     */
+    private TreeMap<String, Entry> pending = new TreeMap<>();
+
+    /**
+     * Whether {@code path} is a synced object or a directory containing synced objects.
+     */
+    public boolean contains(String path) {
+        if (this.objects.containsKey(path)) {
+            return true;
+        }
+
+        String directory = path.endsWith("/") ? path : path + "/";
+        String next = this.objects.ceilingKey(directory);
+        return next != null && next.startsWith(directory);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static final class Entry {
+
+        private String eTag;
+        private long size;
+        private long lastModified;
+
+    }
+
+}
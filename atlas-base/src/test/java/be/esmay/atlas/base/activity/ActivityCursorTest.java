@@ -0,0 +1,55 @@
+package be.esmay.atlas.base.activity;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ActivityCursorTest {
+
+    @Test
+    void encodedCursorParsesBackToTheSamePosition() {
+        ActivityCursor cursor = new ActivityCursor(LocalDateTime.of(2026, 3, 2, 12, 30, 15, 123_456_000), "6f1c2a9e-0d4b-4f7e-9a51-3c2b8d7e6f10");
+
+        assertEquals(cursor, ActivityCursor.parse(cursor.encode()));
+    }
+
+    @Test
+    void encodedCursorIsSafeForHeadersAndQueryStrings() {
+        ActivityCursor cursor = new ActivityCursor(LocalDateTime.of(2026, 3, 2, 12, 0), "id with spaces|and+symbols/?");
+
+        String encoded = cursor.encode();
+
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"), encoded);
+        assertEquals(cursor, ActivityCursor.parse(encoded));
+    }
+
+    @Test
+    void cursorTakesTimestampAndIdFromTheActivity() {
+        ServerActivity activity = ActivityWriteQueueTest.activity("last-on-page");
+
+        ActivityCursor cursor = ActivityCursor.of(activity);
+
+        assertEquals(activity.getTimestamp(), cursor.timestamp());
+        assertEquals("last-on-page", cursor.id());
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThrows(IllegalArgumentException.class, () -> ActivityCursor.parse("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> ActivityCursor.parse(encode("no-separator")));
+        assertThrows(IllegalArgumentException.class, () -> ActivityCursor.parse(encode("2026-03-02T12:00|")));
+        assertThrows(IllegalArgumentException.class, () -> ActivityCursor.parse(encode("|some-id")));
+        assertThrows(IllegalArgumentException.class, () -> ActivityCursor.parse(encode("yesterday|some-id")));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,127 @@
+package be.esmay.atlas.base.activity;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pages through a seeded table where many activities share a timestamp, the case an offset-free
+ * cursor has to get right: a page boundary inside a run of equal timestamps must neither skip nor
+ * repeat rows.
+ */
+class ActivityRepositoryPagingTest {
+
+    private static final int ROWS = 5000;
+    private static final int DISTINCT_TIMESTAMPS = 40;
+    private static final int PAGE_SIZE = 97;
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2026, 3, 2, 12, 0);
+    private static final String[] GROUPS = {"lobby", "survival", "minigames"};
+
+    private static SessionFactory sessionFactory;
+    private static ActivityRepository repository;
+    private static List<ServerActivity> seeded;
+
+    @BeforeAll
+    static void seed() {
+        sessionFactory = ActivityTestDatabase.create();
+        repository = new ActivityRepository(sessionFactory);
+        seeded = new ArrayList<>(ROWS);
+
+        List<ServerActivity> chunk = new ArrayList<>(500);
+        for (int i = 0; i < ROWS; i++) {
+            ServerActivity activity = ServerActivity.builder()
+                    .id(String.format("activity-%05d", (i * 7919) % ROWS))
+                    .serverId("server-" + (i % 10))
+                    .groupName(GROUPS[i % GROUPS.length])
+                    .activityType(ActivityType.SCALING_OPERATION)
+                    .timestamp(BASE_TIME.plusSeconds(i % DISTINCT_TIMESTAMPS))
+                    .triggeredBy("test")
+                    .description("Seeded activity " + i)
+                    .build();
+
+            seeded.add(activity);
+            chunk.add(activity);
+            if (chunk.size() == 500) {
+                repository.saveAll(chunk);
+                chunk.clear();
+            }
+        }
+        repository.saveAll(chunk);
+
+        seeded.sort(Comparator.comparing(ServerActivity::getTimestamp).thenComparing(ServerActivity::getId).reversed());
+    }
+
+    @AfterAll
+    static void close() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void cursorPagingVisitsEveryActivityOnceAcrossEqualTimestamps() {
+        List<String> paged = pageThrough(null);
+
+        assertEquals(ROWS, paged.size());
+        assertEquals(ROWS, new HashSet<>(paged).size());
+        assertEquals(seeded.stream().map(ServerActivity::getId).toList(), paged);
+    }
+
+    @Test
+    void cursorPagingWithAFilterStaysWithinTheFilter() {
+        List<String> paged = pageThrough("survival");
+
+        List<String> expected = seeded.stream()
+                .filter(activity -> activity.getGroupName().equals("survival"))
+                .map(ServerActivity::getId)
+                .toList();
+        assertEquals(expected, paged);
+    }
+
+    @Test
+    void pageBoundariesFallInsideRunsOfEqualTimestamps() {
+        List<ServerActivity> firstPage = repository.findByFilter(null, null, null, null, PAGE_SIZE);
+        ServerActivity last = firstPage.get(firstPage.size() - 1);
+
+        List<ServerActivity> secondPage = repository.findByFilter(null, null, null, ActivityCursor.parse(ActivityCursor.of(last).encode()), PAGE_SIZE);
+
+        assertEquals(last.getTimestamp(), secondPage.get(0).getTimestamp());
+        assertTrue(secondPage.get(0).getId().compareTo(last.getId()) < 0);
+
+        Set<String> firstIds = new HashSet<>();
+        firstPage.forEach(activity -> firstIds.add(activity.getId()));
+        secondPage.forEach(activity -> assertFalse(firstIds.contains(activity.getId()), activity.getId()));
+    }
+
+    /**
+     * Follows the cursors the way an API client does: each page's cursor is encoded as the
+     * {@code X-Next-Cursor} header value and parsed back from the {@code before} parameter.
+     */
+    private static List<String> pageThrough(String groupName) {
+        List<String> ids = new ArrayList<>();
+        String nextCursor = null;
+
+        while (true) {
+            ActivityCursor cursor = nextCursor != null ? ActivityCursor.parse(nextCursor) : null;
+            List<ServerActivity> page = repository.findByFilter(null, groupName, null, cursor, PAGE_SIZE);
+            page.forEach(activity -> ids.add(activity.getId()));
+
+            if (page.size() < PAGE_SIZE) {
+                return ids;
+            }
+
+            nextCursor = ActivityCursor.of(page.get(page.size() - 1)).encode();
+        }
+    }
+
+}
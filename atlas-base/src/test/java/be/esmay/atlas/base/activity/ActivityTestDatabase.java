@@ -0,0 +1,32 @@
+package be.esmay.atlas.base.activity;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+
+import java.util.UUID;
+
+/**
+ * Builds a session factory on a fresh in-memory H2 database, configured like the H2 setup in
+ * {@code DatabaseManager} but without the Hikari pool.
+ */
+final class ActivityTestDatabase {
+
+    private ActivityTestDatabase() {
+    }
+
+    static SessionFactory create() {
+        Configuration configuration = new Configuration();
+        configuration.setProperty("hibernate.connection.driver_class", "org.h2.Driver");
+        configuration.setProperty("hibernate.connection.url", "jdbc:h2:mem:activity-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        configuration.setProperty("hibernate.connection.username", "sa");
+        configuration.setProperty("hibernate.connection.password", "");
+        configuration.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        configuration.setProperty("hibernate.hbm2ddl.auto", "create-drop");
+        configuration.setProperty("hibernate.show_sql", "false");
+        configuration.setProperty("hibernate.jdbc.batch_size", "50");
+        configuration.setProperty("hibernate.order_inserts", "true");
+        configuration.addAnnotatedClass(ServerActivity.class);
+        return configuration.buildSessionFactory();
+    }
+
+}
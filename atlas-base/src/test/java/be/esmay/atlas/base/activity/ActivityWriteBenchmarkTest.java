@@ -0,0 +1,83 @@
+package be.esmay.atlas.base.activity;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares writing activities one transaction per row against the batched write queue, on an
+ * in-memory H2 database. The timings are published to the test report rather than asserted,
+ * since they depend on the machine; the test only checks that every row arrives. Runs with
+ * {@code gradle benchmark}, not with the regular tests.
+ */
+@Tag("benchmark")
+class ActivityWriteBenchmarkTest {
+
+    private static final int ROWS = 5000;
+    private static final int BATCH_SIZE = 500;
+
+    private SessionFactory sessionFactory;
+    private ActivityRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        this.sessionFactory = ActivityTestDatabase.create();
+        this.repository = new ActivityRepository(this.sessionFactory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.sessionFactory.close();
+    }
+
+    @Test
+    void batchedWritesAgainstPerRowWrites(TestReporter reporter) {
+        long perRowStart = System.nanoTime();
+        for (int i = 0; i < ROWS; i++) {
+            this.repository.save(ActivityWriteQueueTest.activity("row-" + i));
+        }
+        long perRowNanos = System.nanoTime() - perRowStart;
+
+        AtomicInteger written = new AtomicInteger();
+        ActivityWriteQueue queue = new ActivityWriteQueue(this.repository, ROWS, BATCH_SIZE, 50, written::addAndGet);
+        queue.start();
+
+        long batchedStart = System.nanoTime();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            futures.add(queue.add(ActivityWriteQueueTest.activity("batch-" + i)));
+        }
+        futures.forEach(CompletableFuture::join);
+        long batchedNanos = System.nanoTime() - batchedStart;
+
+        queue.shutdown(10, TimeUnit.SECONDS);
+
+        assertEquals(ROWS, written.get());
+        assertEquals(ROWS * 2L, this.repository.countAll());
+
+        reporter.publishEntry(Map.of(
+                "rows", String.valueOf(ROWS),
+                "perRowMillis", String.valueOf(TimeUnit.NANOSECONDS.toMillis(perRowNanos)),
+                "perRowRowsPerSecond", String.format("%.0f", rowsPerSecond(perRowNanos)),
+                "batchSize", String.valueOf(BATCH_SIZE),
+                "batchedMillis", String.valueOf(TimeUnit.NANOSECONDS.toMillis(batchedNanos)),
+                "batchedRowsPerSecond", String.format("%.0f", rowsPerSecond(batchedNanos))));
+    }
+
+    private static double rowsPerSecond(long nanos) {
+        return ROWS / (nanos / 1_000_000_000.0);
+    }
+
+}
@@ -0,0 +1,91 @@
+package be.esmay.atlas.base.activity;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ActivityWriteQueueTest {
+
+    private SessionFactory sessionFactory;
+    private ActivityRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        this.sessionFactory = ActivityTestDatabase.create();
+        this.repository = new ActivityRepository(this.sessionFactory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.sessionFactory.close();
+    }
+
+    @Test
+    void writesQueuedActivitiesInBatches() {
+        AtomicInteger written = new AtomicInteger();
+        ActivityWriteQueue queue = new ActivityWriteQueue(this.repository, 1000, 50, 20, written::addAndGet);
+        queue.start();
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            futures.add(queue.add(activity("activity-" + i)));
+        }
+
+        queue.shutdown(10, TimeUnit.SECONDS);
+
+        futures.forEach(CompletableFuture::join);
+        assertEquals(500, written.get());
+        assertEquals(500, this.repository.countAll());
+    }
+
+    @Test
+    void failedBatchOnlyDropsTheBadRow() {
+        this.repository.saveAll(List.of(activity("duplicate")));
+
+        AtomicInteger written = new AtomicInteger();
+        ActivityWriteQueue queue = new ActivityWriteQueue(this.repository, 100, 10, 200, written::addAndGet);
+        queue.start();
+
+        CompletableFuture<Void> first = queue.add(activity("first"));
+        CompletableFuture<Void> duplicate = queue.add(activity("duplicate"));
+        CompletableFuture<Void> last = queue.add(activity("last"));
+
+        queue.shutdown(10, TimeUnit.SECONDS);
+
+        first.join();
+        last.join();
+        assertTrue(duplicate.isCompletedExceptionally());
+        assertThrows(CompletionException.class, duplicate::join);
+
+        assertEquals(2, written.get());
+        assertEquals(3, this.repository.countAll());
+        assertTrue(this.repository.findById("first").isPresent());
+        assertTrue(this.repository.findById("last").isPresent());
+    }
+
+    static ServerActivity activity(String id) {
+        return ServerActivity.builder()
+                .id(id)
+                .serverId("server-1")
+                .groupName("lobby")
+                .activityType(ActivityType.SCALING_OPERATION)
+                .timestamp(LocalDateTime.of(2026, 3, 2, 12, 0))
+                .triggeredBy("test")
+                .description("Test activity " + id)
+                .build();
+    }
+
+}
@@ -0,0 +1,122 @@
+package be.esmay.atlas.base.files;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ZipArchiverTest {
+
+    /**
+     * Signature of the end-of-central-directory record, written only when a zip is finished.
+     */
+    private static final byte[] END_OF_CENTRAL_DIRECTORY = {0x50, 0x4b, 0x05, 0x06};
+
+    private final ZipArchiver archiver = new ZipArchiver();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void completeArchiveIsFinishedAndClosed() throws IOException {
+        Path source = this.createSource(3);
+        TrackingOutputStream out = new TrackingOutputStream();
+
+        ZipArchiver.Result result = this.archiver.writeZip(this.directory, List.of(source), out, null, () -> false);
+
+        assertEquals(3, result.files());
+        assertTrue(out.closed);
+        assertEquals(Set.of("server/file-0.txt", "server/file-1.txt", "server/file-2.txt"), entryNames(out.toByteArray()));
+    }
+
+    @Test
+    void fileDisappearingMidWalkLeavesTheArchiveUnfinished() throws IOException {
+        Path source = this.createSource(3);
+        TrackingOutputStream out = new TrackingOutputStream();
+
+        // The cancel check runs after a file passed the regular-file check and before it is
+        // opened, so deleting everything on the second check removes a file the walk just found.
+        AtomicInteger checks = new AtomicInteger();
+        assertThrows(NoSuchFileException.class, () -> this.archiver.writeZip(this.directory, List.of(source), out, null, () -> {
+            if (checks.incrementAndGet() == 2) {
+                deleteFiles(source);
+            }
+            return false;
+        }));
+
+        assertFalse(out.closed);
+        assertFalse(contains(out.toByteArray(), END_OF_CENTRAL_DIRECTORY));
+    }
+
+    private Path createSource(int files) throws IOException {
+        Path source = Files.createDirectories(this.directory.resolve("server"));
+        for (int i = 0; i < files; i++) {
+            Files.writeString(source.resolve("file-" + i + ".txt"), "content of file " + i, StandardCharsets.UTF_8);
+        }
+        return source;
+    }
+
+    private static void deleteFiles(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Set<String> entryNames(byte[] zip) throws IOException {
+        Set<String> names = new HashSet<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                names.add(entry.getName());
+            }
+        }
+        return names;
+    }
+
+    private static boolean contains(byte[] data, byte[] pattern) {
+        for (int i = 0; i <= data.length - pattern.length; i++) {
+            int j = 0;
+            while (j < pattern.length && data[i + j] == pattern[j]) {
+                j++;
+            }
+            if (j == pattern.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class TrackingOutputStream extends ByteArrayOutputStream {
+
+        private boolean closed;
+
+        @Override
+        public void close() {
+            this.closed = true;
+        }
+
+    }
+
+}
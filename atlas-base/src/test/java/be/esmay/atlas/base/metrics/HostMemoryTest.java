@@ -0,0 +1,38 @@
+package be.esmay.atlas.base.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.OptionalDouble;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HostMemoryTest {
+
+    @Test
+    void reclaimablePageCacheDoesNotCountAsUsed() {
+        // 32 GiB host with 1 GiB free but 20 GiB available once page cache is reclaimed.
+        List<String> meminfo = List.of(
+                "MemTotal:       33554432 kB",
+                "MemFree:         1048576 kB",
+                "MemAvailable:   20971520 kB",
+                "Buffers:          524288 kB",
+                "Cached:         18874368 kB");
+
+        OptionalDouble used = HostMemory.usedFraction(meminfo);
+
+        assertTrue(used.isPresent());
+        assertEquals(0.375, used.getAsDouble(), 1e-9);
+    }
+
+    @Test
+    void missingMemAvailableIsUnknown() {
+        List<String> meminfo = List.of(
+                "MemTotal:       33554432 kB",
+                "MemFree:         1048576 kB");
+
+        assertTrue(HostMemory.usedFraction(meminfo).isEmpty());
+    }
+
+}
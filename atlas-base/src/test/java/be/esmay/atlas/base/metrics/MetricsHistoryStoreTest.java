@@ -0,0 +1,26 @@
+package be.esmay.atlas.base.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class MetricsHistoryStoreTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    @Test
+    void serverIsDroppedOnceItsLastSampleLeavesTheRawWindow() {
+        MetricsHistoryStore store = new MetricsHistoryStore(720, 1440, 168);
+        long lastSample = 10 * HOUR + 60_000L;
+        store.record(MetricsHistoryStore.EntityType.SERVER, "server-1", lastSample, Map.of(MetricsHistoryStore.Metric.CPU, 12.5));
+
+        // The hour bucket of the sample ends almost an hour later; that must not keep the server.
+        assertEquals(0, store.prune(MetricsHistoryStore.EntityType.SERVER, lastSample));
+        assertEquals(1, store.prune(MetricsHistoryStore.EntityType.SERVER, lastSample + 1));
+        assertFalse(store.contains(MetricsHistoryStore.EntityType.SERVER, "server-1"));
+    }
+
+}
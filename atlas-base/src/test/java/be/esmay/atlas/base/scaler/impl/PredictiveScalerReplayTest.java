@@ -0,0 +1,107 @@
+package be.esmay.atlas.base.scaler.impl;
+
+import be.esmay.atlas.base.scaler.PlayerCountForecaster;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Replays a recorded player curve through the forecaster. The curve holds one sample per minute
+ * over two days with the same evening peak: players climb by one per minute from 17:00, by four
+ * per minute from 18:00, and the second day stops at 18:00.
+ */
+class PredictiveScalerReplayTest {
+
+    private static final Clock START = Clock.fixed(Instant.parse("2026-03-02T00:00:00Z"), ZoneOffset.UTC);
+    private static final long TREND_WINDOW_MILLIS = Duration.ofMinutes(5).toMillis();
+    private static final long HORIZON_MILLIS = Duration.ofMinutes(5).toMillis();
+    private static final int SERVER_CAPACITY = 20;
+    private static final double SCALE_UP_THRESHOLD = 0.8;
+
+    @Test
+    void seasonalForecastAnticipatesTheEveningPeak() throws IOException {
+        List<int[]> curve = loadCurve("/player-curves/evening-peak.csv");
+        int nowMinute = 1440 + 18 * 60;
+
+        PlayerCountForecaster.Forecast forecast = replay(curve, nowMinute).forecast(timestamp(nowMinute), HORIZON_MILLIS);
+
+        assertEquals(80, forecast.current());
+        assertEquals(85.0, forecast.trend(), 1e-6);
+        assertEquals(100.0, forecast.seasonal(), 1e-6);
+        assertEquals(100.0, forecast.projected(), 1e-6);
+        assertEquals(7, PredictiveScaler.requiredServers(forecast.projected(), SERVER_CAPACITY, SCALE_UP_THRESHOLD));
+    }
+
+    @Test
+    void flatPeriodKeepsTheCurrentCount() throws IOException {
+        List<int[]> curve = loadCurve("/player-curves/evening-peak.csv");
+        int nowMinute = 1440 + 12 * 60;
+
+        PlayerCountForecaster.Forecast forecast = replay(curve, nowMinute).forecast(timestamp(nowMinute), HORIZON_MILLIS);
+
+        assertEquals(20, forecast.current());
+        assertEquals(20.0, forecast.trend(), 1e-6);
+        assertEquals(20.0, forecast.seasonal(), 1e-6);
+        assertEquals(20.0, forecast.projected(), 1e-6);
+        assertEquals(2, PredictiveScaler.requiredServers(forecast.projected(), SERVER_CAPACITY, SCALE_UP_THRESHOLD));
+    }
+
+    @Test
+    void replayingTheSameCurveGivesTheSameForecast() throws IOException {
+        List<int[]> curve = loadCurve("/player-curves/evening-peak.csv");
+        int nowMinute = 1440 + 17 * 60 + 30;
+
+        PlayerCountForecaster.Forecast first = replay(curve, nowMinute).forecast(timestamp(nowMinute), HORIZON_MILLIS);
+        PlayerCountForecaster.Forecast second = replay(curve, nowMinute).forecast(timestamp(nowMinute), HORIZON_MILLIS);
+
+        assertEquals(first, second);
+    }
+
+    private static PlayerCountForecaster replay(List<int[]> curve, int untilMinute) {
+        PlayerCountForecaster forecaster = new PlayerCountForecaster(TREND_WINDOW_MILLIS, 7);
+        for (int[] sample : curve) {
+            if (sample[0] > untilMinute) {
+                break;
+            }
+            forecaster.record(timestamp(sample[0]), sample[1]);
+        }
+        return forecaster;
+    }
+
+    private static long timestamp(int minute) {
+        return START.millis() + Duration.ofMinutes(minute).toMillis();
+    }
+
+    private static List<int[]> loadCurve(String resource) throws IOException {
+        InputStream in = PredictiveScalerReplayTest.class.getResourceAsStream(resource);
+        assertNotNull(in, "Missing player curve " + resource);
+
+        List<int[]> samples = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+
+                String[] parts = line.split(",");
+                samples.add(new int[]{Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim())});
+            }
+        }
+        return samples;
+    }
+
+}
@@ -0,0 +1,289 @@
+package be.esmay.atlas.base.template;
+
+import be.esmay.atlas.base.config.impl.AtlasConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.spongepowered.configurate.ConfigurateException;
+import org.spongepowered.configurate.yaml.YamlConfigurationLoader;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.paginators.ListObjectsV2Iterable;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Syncs templates from an in-memory S3 client passed through the client constructor.
+ */
+class S3TemplateManagerTest {
+
+    private static final String BUCKET = "atlas-templates";
+    private static final String PREFIX = "templates/";
+
+    @TempDir
+    Path cacheDirectory;
+
+    @Test
+    void firstSyncDownloadsEveryObject() throws IOException {
+        FakeS3Client s3 = new FakeS3Client();
+        s3.put("lobby/server.jar", bytes(3 * 1024 * 1024 + 17));
+        s3.put("lobby/server.properties", "motd=Lobby".getBytes(StandardCharsets.UTF_8));
+
+        S3TemplateManager manager = this.createManager(s3);
+        Optional<Path> lobby = manager.downloadTemplate("lobby");
+
+        assertTrue(lobby.isPresent());
+        assertArrayEquals(s3.get("lobby/server.jar"), Files.readAllBytes(lobby.get().resolve("server.jar")));
+        assertArrayEquals(s3.get("lobby/server.properties"), Files.readAllBytes(lobby.get().resolve("server.properties")));
+        assertEquals(Set.of("lobby/server.jar", "lobby/server.properties"), Set.copyOf(s3.downloadedKeys()));
+    }
+
+    @Test
+    void freshManifestMakesNoS3Calls() throws IOException {
+        FakeS3Client s3 = new FakeS3Client();
+        s3.put("lobby/server.properties", "motd=Lobby".getBytes(StandardCharsets.UTF_8));
+        this.createManager(s3).syncIfStale();
+
+        FakeS3Client restarted = new FakeS3Client();
+        S3TemplateManager manager = this.createManager(restarted);
+
+        assertTrue(manager.downloadTemplate("lobby").isPresent());
+        assertTrue(manager.templateExists("lobby/server.properties"));
+        assertEquals(0, restarted.listCalls.get());
+        assertTrue(restarted.downloadedKeys().isEmpty());
+    }
+
+    @Test
+    void staleSyncOnlyDownloadsChangedObjects() throws IOException {
+        FakeS3Client s3 = new FakeS3Client();
+        s3.put("lobby/server.jar", bytes(4096));
+        s3.put("lobby/server.properties", "motd=Lobby".getBytes(StandardCharsets.UTF_8));
+        s3.put("lobby/plugins/old.jar", bytes(128));
+        this.createManager(s3).syncIfStale();
+
+        s3.put("lobby/server.properties", "motd=Updated".getBytes(StandardCharsets.UTF_8));
+        s3.remove("lobby/plugins/old.jar");
+        s3.downloads.clear();
+        this.expireManifest();
+
+        S3TemplateManager manager = this.createManager(s3);
+        Path lobby = manager.downloadTemplate("lobby").orElseThrow();
+
+        assertEquals(List.of("lobby/server.properties"), s3.downloadedKeys());
+        assertEquals("motd=Updated", Files.readString(lobby.resolve("server.properties")));
+        assertTrue(Files.notExists(lobby.resolve("plugins/old.jar")));
+    }
+
+    @Test
+    void failedDownloadKeepsThePreviousVersion() throws IOException {
+        FakeS3Client s3 = new FakeS3Client();
+        s3.put("lobby/server.properties", "motd=Lobby".getBytes(StandardCharsets.UTF_8));
+        this.createManager(s3).syncIfStale();
+
+        s3.put("lobby/server.properties", "motd=Updated".getBytes(StandardCharsets.UTF_8));
+        s3.failing.add("lobby/server.properties");
+        this.expireManifest();
+
+        S3TemplateManager manager = this.createManager(s3);
+        Path lobby = manager.downloadTemplate("lobby").orElseThrow();
+        assertEquals("motd=Lobby", Files.readString(lobby.resolve("server.properties")));
+
+        // The failure does not keep the manifest stale, so starts do not list the prefix again.
+        int listCalls = s3.listCalls.get();
+        assertTrue(manager.templateExists("lobby/server.properties"));
+        assertEquals(listCalls, s3.listCalls.get());
+
+        // The failed object is retried on its own, without listing, and the new version replaces it.
+        s3.failing.clear();
+        s3.downloads.clear();
+        manager.retryPending(Long.MAX_VALUE);
+
+        assertEquals(List.of("lobby/server.properties"), s3.downloadedKeys());
+        assertEquals(listCalls, s3.listCalls.get());
+        assertEquals("motd=Updated", Files.readString(lobby.resolve("server.properties")));
+    }
+
+    @Test
+    void objectThatKeepsFailingIsRetriedInTheBackgroundOnly() throws IOException {
+        FakeS3Client s3 = new FakeS3Client();
+        s3.put("lobby/server.properties", "motd=Lobby".getBytes(StandardCharsets.UTF_8));
+        s3.put("lobby/forbidden.jar", bytes(64));
+        s3.failing.add("lobby/forbidden.jar");
+
+        S3TemplateManager manager = this.createManager(s3);
+        manager.syncIfStale();
+        int listCalls = s3.listCalls.get();
+        s3.downloads.clear();
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(manager.downloadTemplate("lobby").isPresent());
+        }
+
+        // The retry is not due yet, so starts neither list the prefix nor download anything.
+        assertEquals(listCalls, s3.listCalls.get());
+        assertTrue(s3.downloadedKeys().isEmpty());
+        assertTrue(manager.templateExists("lobby/server.properties"));
+        assertFalse(manager.templateExists("lobby/forbidden.jar"));
+    }
+
+    private S3TemplateManager createManager(S3Client s3) throws ConfigurateException {
+        String yaml = String.join("\n",
+                "s3-enabled: true",
+                "s3-bucket: \"" + BUCKET + "\"",
+                "s3-path-prefix: \"" + PREFIX + "\"",
+                "s3-cache:",
+                "  enabled: true",
+                "  directory: \"" + this.cacheDirectory.toString().replace("\\", "/") + "\"",
+                "  ttl-seconds: 3600",
+                "  parallel-downloads: 2",
+                "  multipart-threshold-mb: 1",
+                "  part-size-mb: 1");
+
+        AtlasConfig.Templates templates = YamlConfigurationLoader.builder()
+                .buildAndLoadString(yaml)
+                .get(AtlasConfig.Templates.class);
+        return new S3TemplateManager(templates, new AtlasConfig.S3(), s3);
+    }
+
+    private void expireManifest() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        Path manifestPath = this.cacheDirectory.resolve(".atlas-manifest.json");
+        TemplateSyncManifest manifest = objectMapper.readValue(manifestPath.toFile(), TemplateSyncManifest.class);
+        manifest.setSyncedAt(0);
+        objectMapper.writeValue(manifestPath.toFile(), manifest);
+    }
+
+    private static byte[] bytes(int size) {
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) (i * 31 + 7);
+        }
+        return data;
+    }
+
+    /**
+     * Bucket held in memory. Supports the listing, ranged and {@code If-Match} reads the template
+     * sync uses, records every download and can be told to fail reads of specific keys.
+     */
+    private static final class FakeS3Client implements S3Client {
+
+        private final Map<String, StoredObject> objects = new ConcurrentHashMap<>();
+        private final List<String> downloads = new CopyOnWriteArrayList<>();
+        private final Set<String> failing = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger listCalls = new AtomicInteger();
+        private int version;
+
+        void put(String relativeKey, byte[] data) {
+            this.objects.put(PREFIX + relativeKey, new StoredObject(data, "\"etag-" + ++this.version + "\"", Instant.now()));
+        }
+
+        void remove(String relativeKey) {
+            this.objects.remove(PREFIX + relativeKey);
+        }
+
+        byte[] get(String relativeKey) {
+            return this.objects.get(PREFIX + relativeKey).data();
+        }
+
+        /**
+         * Keys of the objects read, once per object however many ranged parts it took.
+         */
+        List<String> downloadedKeys() {
+            return this.downloads.stream().distinct().map(key -> key.substring(PREFIX.length())).toList();
+        }
+
+        @Override
+        public ListObjectsV2Response listObjectsV2(ListObjectsV2Request request) {
+            this.listCalls.incrementAndGet();
+
+            List<S3Object> contents = new ArrayList<>();
+            this.objects.entrySet().stream()
+                    .filter(entry -> entry.getKey().startsWith(request.prefix()))
+                    .sorted(Map.Entry.comparingByKey())
+                    .forEach(entry -> contents.add(S3Object.builder()
+                            .key(entry.getKey())
+                            .eTag(entry.getValue().eTag())
+                            .size((long) entry.getValue().data().length)
+                            .lastModified(entry.getValue().lastModified())
+                            .build()));
+
+            return ListObjectsV2Response.builder()
+                    .contents(contents)
+                    .keyCount(contents.size())
+                    .isTruncated(false)
+                    .build();
+        }
+
+        @Override
+        public ListObjectsV2Iterable listObjectsV2Paginator(ListObjectsV2Request request) {
+            return new ListObjectsV2Iterable(this, request);
+        }
+
+        @Override
+        public ResponseInputStream<GetObjectResponse> getObject(GetObjectRequest request) {
+            StoredObject object = this.objects.get(request.key());
+            if (object == null || this.failing.contains(request.key().substring(PREFIX.length()))) {
+                throw (S3Exception) S3Exception.builder().statusCode(500).message("Read failed: " + request.key()).build();
+            }
+            if (request.ifMatch() != null && !request.ifMatch().equals(object.eTag())) {
+                throw (S3Exception) S3Exception.builder().statusCode(412).message("Precondition failed").build();
+            }
+
+            this.downloads.add(request.key());
+
+            byte[] data = object.data();
+            if (request.range() != null) {
+                String[] range = request.range().substring("bytes=".length()).split("-");
+                int start = Integer.parseInt(range[0]);
+                int end = Math.min(Integer.parseInt(range[1]), data.length - 1);
+                data = Arrays.copyOfRange(data, start, end + 1);
+            }
+
+            GetObjectResponse response = GetObjectResponse.builder()
+                    .eTag(object.eTag())
+                    .contentLength((long) data.length)
+                    .build();
+            return new ResponseInputStream<>(response, AbortableInputStream.create(new ByteArrayInputStream(data)));
+        }
+
+        @Override
+        public String serviceName() {
+            return SERVICE_NAME;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private record StoredObject(byte[] data, String eTag, Instant lastModified) {
+        }
+
+    }
+
+}
@@ -1,6 +1,7 @@
 dependencies {
     // Network dependencies - compileOnly since provided by server platforms
     compileOnly("io.netty:netty-all:4.1.100.Final")
+    compileOnly("io.netty.incubator:netty-incubator-transport-native-io_uring:0.0.24.Final")
     
     // JSON processing - only keep Gson, Jackson moved to atlas-base
     implementation("com.google.code.gson:gson:2.10.1")
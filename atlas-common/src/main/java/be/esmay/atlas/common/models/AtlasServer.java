@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.Setter;
 
+import java.util.HashSet;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
@@ -33,6 +34,8 @@ public final class AtlasServer {
     private ServerInfo serverInfo;
     private ServerResourceMetrics resourceMetrics;
 
+    private long stateVersion;
+
     @Builder.Default
     private Map<String, String> metadata = new ConcurrentHashMap<>();
 
@@ -101,4 +104,53 @@ public final class AtlasServer {
         if (this.metadata == null) return;
         this.metadata.clear();
     }
+
+    public AtlasServer copy() {
+        ServerInfo serverInfoCopy = null;
+        if (this.serverInfo != null) {
+            serverInfoCopy = ServerInfo.builder()
+                    .status(this.serverInfo.getStatus())
+                    .onlinePlayers(this.serverInfo.getOnlinePlayers())
+                    .maxPlayers(this.serverInfo.getMaxPlayers())
+                    .onlinePlayerNames(this.serverInfo.getOnlinePlayerNames() != null ? new HashSet<>(this.serverInfo.getOnlinePlayerNames()) : null)
+                    .build();
+        }
+
+        ServerResourceMetrics resourceMetricsCopy = null;
+        if (this.resourceMetrics != null) {
+            resourceMetricsCopy = ServerResourceMetrics.builder()
+                    .cpuUsage(this.resourceMetrics.getCpuUsage())
+                    .memoryUsed(this.resourceMetrics.getMemoryUsed())
+                    .memoryTotal(this.resourceMetrics.getMemoryTotal())
+                    .diskUsed(this.resourceMetrics.getDiskUsed())
+                    .diskTotal(this.resourceMetrics.getDiskTotal())
+                    .diskLastUpdated(this.resourceMetrics.getDiskLastUpdated())
+                    .networkReceiveBytes(this.resourceMetrics.getNetworkReceiveBytes())
+                    .networkSendBytes(this.resourceMetrics.getNetworkSendBytes())
+                    .networkReceiveBandwidth(this.resourceMetrics.getNetworkReceiveBandwidth())
+                    .networkSendBandwidth(this.resourceMetrics.getNetworkSendBandwidth())
+                    .lastUpdated(this.resourceMetrics.getLastUpdated())
+                    .build();
+        }
+
+        return AtlasServer.builder()
+                .serverId(this.serverId)
+                .name(this.name)
+                .group(this.group)
+                .workingDirectory(this.workingDirectory)
+                .address(this.address)
+                .port(this.port)
+                .type(this.type)
+                .createdAt(this.createdAt)
+                .lastHeartbeat(this.lastHeartbeat)
+                .serviceProviderId(this.serviceProviderId)
+                .isManuallyScaled(this.isManuallyScaled)
+                .shutdown(this.shutdown)
+                .shouldRestartAfterStop(this.shouldRestartAfterStop)
+                .serverInfo(serverInfoCopy)
+                .resourceMetrics(resourceMetricsCopy)
+                .stateVersion(this.stateVersion)
+                .metadata(this.metadata != null ? new ConcurrentHashMap<>(this.metadata) : new ConcurrentHashMap<>())
+                .build();
+    }
 }
\ No newline at end of file
@@ -11,6 +11,7 @@ public final class ServerResourceMetrics {
     private long memoryTotal;
     private long diskUsed;
     private long diskTotal;
+    private long diskLastUpdated;
     private long networkReceiveBytes;
     private long networkSendBytes;
     private double networkReceiveBandwidth;
@@ -37,6 +38,10 @@ public final class ServerResourceMetrics {
         this.diskTotal = Math.max(0, diskTotal);
     }
     
+    public void setDiskLastUpdated(long diskLastUpdated) {
+        this.diskLastUpdated = Math.max(0, diskLastUpdated);
+    }
+    
     public void setNetworkReceiveBytes(long networkReceiveBytes) {
         this.networkReceiveBytes = Math.max(0, networkReceiveBytes);
     }
@@ -67,6 +72,7 @@ public final class ServerResourceMetrics {
         private long memoryTotal;
         private long diskUsed;
         private long diskTotal;
+        private long diskLastUpdated;
         private long networkReceiveBytes;
         private long networkSendBytes;
         private double networkReceiveBandwidth;
@@ -98,6 +104,11 @@ public final class ServerResourceMetrics {
             return this;
         }
         
+        public ServerResourceMetricsBuilder diskLastUpdated(long diskLastUpdated) {
+            this.diskLastUpdated = Math.max(0, diskLastUpdated);
+            return this;
+        }
+        
         public ServerResourceMetricsBuilder networkReceiveBytes(long networkReceiveBytes) {
             this.networkReceiveBytes = Math.max(0, networkReceiveBytes);
             return this;
@@ -130,6 +141,7 @@ public final class ServerResourceMetrics {
             metrics.memoryTotal = this.memoryTotal;
             metrics.diskUsed = this.diskUsed;
             metrics.diskTotal = this.diskTotal;
+            metrics.diskLastUpdated = this.diskLastUpdated;
             metrics.networkReceiveBytes = this.networkReceiveBytes;
             metrics.networkSendBytes = this.networkSendBytes;
             metrics.networkReceiveBandwidth = this.networkReceiveBandwidth;
@@ -149,6 +161,11 @@ public final class ServerResourceMetrics {
         return (double) this.diskUsed / this.diskTotal * 100;
     }
     
+    public long getDiskAgeMillis() {
+        if (this.diskLastUpdated == 0) return -1;
+        return Math.max(0, System.currentTimeMillis() - this.diskLastUpdated);
+    }
+    
     public double getNetworkTotalBandwidth() {
         return this.networkReceiveBandwidth + this.networkSendBandwidth;
     }
@@ -0,0 +1,148 @@
+package be.esmay.atlas.common.network;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.incubator.channel.uring.IOUring;
+import io.netty.incubator.channel.uring.IOUringEventLoopGroup;
+import io.netty.incubator.channel.uring.IOUringServerSocketChannel;
+import io.netty.incubator.channel.uring.IOUringSocketChannel;
+
+/**
+ * The Netty transports Atlas can run on, from most to least preferred.
+ *
+ * <p>Native transports are only used when their classes and native libraries are present, so
+ * plugins running on a platform that does not ship them fall back to NIO.
+ */
+public enum NettyTransport {
+
+    IO_URING {
+        @Override
+        public boolean isAvailable() {
+            return isClassPresent("io.netty.incubator.channel.uring.IOUring") && IOUring.isAvailable();
+        }
+
+        @Override
+        public EventLoopGroup createEventLoopGroup(int threads) {
+            return new IOUringEventLoopGroup(threads);
+        }
+
+        @Override
+        public Class<? extends ServerSocketChannel> getServerChannelClass() {
+            return IOUringServerSocketChannel.class;
+        }
+
+        @Override
+        public Class<? extends SocketChannel> getChannelClass() {
+            return IOUringSocketChannel.class;
+        }
+    },
+
+    EPOLL {
+        @Override
+        public boolean isAvailable() {
+            return isClassPresent("io.netty.channel.epoll.Epoll") && Epoll.isAvailable();
+        }
+
+        @Override
+        public EventLoopGroup createEventLoopGroup(int threads) {
+            return new EpollEventLoopGroup(threads);
+        }
+
+        @Override
+        public Class<? extends ServerSocketChannel> getServerChannelClass() {
+            return EpollServerSocketChannel.class;
+        }
+
+        @Override
+        public Class<? extends SocketChannel> getChannelClass() {
+            return EpollSocketChannel.class;
+        }
+    },
+
+    NIO {
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public EventLoopGroup createEventLoopGroup(int threads) {
+            return new NioEventLoopGroup(threads);
+        }
+
+        @Override
+        public Class<? extends ServerSocketChannel> getServerChannelClass() {
+            return NioServerSocketChannel.class;
+        }
+
+        @Override
+        public Class<? extends SocketChannel> getChannelClass() {
+            return NioSocketChannel.class;
+        }
+    };
+
+    public abstract boolean isAvailable();
+
+    /**
+     * @param threads the number of event loops, or 0 for Netty's default
+     */
+    public abstract EventLoopGroup createEventLoopGroup(int threads);
+
+    public abstract Class<? extends ServerSocketChannel> getServerChannelClass();
+
+    public abstract Class<? extends SocketChannel> getChannelClass();
+
+    /**
+     * Resolves a configured transport name.
+     *
+     * <p>{@code auto} (or an unknown name) picks the first available transport. A named
+     * transport that is not available on this host falls back to NIO.
+     */
+    public static NettyTransport select(String name) {
+        NettyTransport requested = fromName(name);
+        if (requested != null) {
+            return requested.isAvailable() ? requested : NIO;
+        }
+
+        for (NettyTransport transport : values()) {
+            if (transport.isAvailable()) {
+                return transport;
+            }
+        }
+
+        return NIO;
+    }
+
+    public static NettyTransport fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+
+        String normalized = name.trim().replace('-', '_');
+        for (NettyTransport transport : values()) {
+            if (transport.name().equalsIgnoreCase(normalized)) {
+                return transport;
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean isClassPresent(String className) {
+        try {
+            Class.forName(className, false, NettyTransport.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+}
@@ -12,4 +12,12 @@ public interface Packet {
     
     void handle(PacketHandler handler);
     
+    default void encode(ByteBuf buffer, WireFormat format) {
+        this.encode(buffer);
+    }
+    
+    default void decode(ByteBuf buffer, WireFormat format) {
+        this.decode(buffer);
+    }
+    
 }
\ No newline at end of file
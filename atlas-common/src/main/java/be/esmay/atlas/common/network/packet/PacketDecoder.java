@@ -33,7 +33,7 @@ public final class PacketDecoder extends ByteToMessageDecoder {
         }
         
         ByteBuf payloadBuffer = in.readSlice(payloadLength);
-        packet.decode(payloadBuffer);
+        packet.decode(payloadBuffer, WireFormat.of(ctx.channel()));
         
         out.add(packet);
         
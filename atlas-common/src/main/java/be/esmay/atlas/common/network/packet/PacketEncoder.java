@@ -2,27 +2,44 @@ package be.esmay.atlas.common.network.packet;
 
 import be.esmay.atlas.common.utils.Logger;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
 
 public final class PacketEncoder extends MessageToByteEncoder<Packet> {
     
+    private static final int HEADER_BYTES = 8;
+    
     @Override
     protected void encode(ChannelHandlerContext ctx, Packet packet, ByteBuf out) throws Exception {
-        int packetId = packet.getId();
+        writeFrame(out, packet, WireFormat.of(ctx.channel()));
         
-        ByteBuf packetBuffer = ctx.alloc().buffer();
+        Logger.debug("Encoded packet {} with {} bytes", packet.getClass().getSimpleName(), out.readableBytes());
+    }
+    
+    /**
+     * Encodes a complete frame into a new buffer, so the same bytes can be written to many
+     * channels. Channels pass {@link ByteBuf} messages through this encoder untouched.
+     */
+    public static ByteBuf encodeFrame(ByteBufAllocator allocator, Packet packet, WireFormat format) {
+        ByteBuf frame = allocator.ioBuffer();
         try {
-            packet.encode(packetBuffer);
-            
-            out.writeInt(packetId);
-            out.writeInt(packetBuffer.readableBytes());
-            out.writeBytes(packetBuffer);
-        } finally {
-            packetBuffer.release();
+            writeFrame(frame, packet, format);
+            return frame;
+        } catch (RuntimeException e) {
+            frame.release();
+            throw e;
         }
+    }
+    
+    private static void writeFrame(ByteBuf out, Packet packet, WireFormat format) {
+        int headerIndex = out.writerIndex();
+        out.writeInt(packet.getId());
+        out.writeInt(0);
         
-        Logger.debug("Encoded packet {} with {} bytes", packet.getClass().getSimpleName(), out.readableBytes());
+        packet.encode(out, format);
+        
+        out.setInt(headerIndex + 4, out.writerIndex() - headerIndex - HEADER_BYTES);
     }
     
 }
\ No newline at end of file
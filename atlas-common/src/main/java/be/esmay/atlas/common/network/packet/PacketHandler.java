@@ -8,10 +8,12 @@ import be.esmay.atlas.common.network.packet.packets.MetadataUpdatePacket;
 import be.esmay.atlas.common.network.packet.packets.ServerAddPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerCommandPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerControlPacket;
+import be.esmay.atlas.common.network.packet.packets.ServerDeltaPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerInfoUpdatePacket;
 import be.esmay.atlas.common.network.packet.packets.ServerListPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerRemovePacket;
 import be.esmay.atlas.common.network.packet.packets.ServerListRequestPacket;
+import be.esmay.atlas.common.network.packet.packets.ServerResyncRequestPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerUpdatePacket;
 
 public interface PacketHandler {
@@ -36,6 +38,10 @@ public interface PacketHandler {
     
     void handleServerListRequest(ServerListRequestPacket packet);
     
+    void handleServerDelta(ServerDeltaPacket packet);
+    
+    void handleServerResyncRequest(ServerResyncRequestPacket packet);
+    
     void handleServerCommand(ServerCommandPacket packet);
     
     void handleServerControl(ServerControlPacket packet);
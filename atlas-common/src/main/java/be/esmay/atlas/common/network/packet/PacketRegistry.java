@@ -8,10 +8,12 @@ import be.esmay.atlas.common.network.packet.packets.MetadataUpdatePacket;
 import be.esmay.atlas.common.network.packet.packets.ServerAddPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerCommandPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerControlPacket;
+import be.esmay.atlas.common.network.packet.packets.ServerDeltaPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerInfoUpdatePacket;
 import be.esmay.atlas.common.network.packet.packets.ServerListPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerListRequestPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerRemovePacket;
+import be.esmay.atlas.common.network.packet.packets.ServerResyncRequestPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerUpdatePacket;
 
 import java.util.HashMap;
@@ -32,6 +34,8 @@ public final class PacketRegistry {
         registerPacket(0x12, ServerAddPacket.class, ServerAddPacket::new);
         registerPacket(0x13, ServerRemovePacket.class, ServerRemovePacket::new);
         registerPacket(0x14, ServerListRequestPacket.class, ServerListRequestPacket::new);
+        registerPacket(0x15, ServerDeltaPacket.class, ServerDeltaPacket::new);
+        registerPacket(0x16, ServerResyncRequestPacket.class, ServerResyncRequestPacket::new);
         registerPacket(0x20, ServerInfoUpdatePacket.class, ServerInfoUpdatePacket::new);
         registerPacket(0x21, AtlasServerUpdatePacket.class, AtlasServerUpdatePacket::new);
         registerPacket(0x22, MetadataUpdatePacket.class, MetadataUpdatePacket::new);
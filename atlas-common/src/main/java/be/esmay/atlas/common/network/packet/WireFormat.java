@@ -0,0 +1,47 @@
+package be.esmay.atlas.common.network.packet;
+
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+
+public enum WireFormat {
+    JSON,
+    BINARY;
+
+    public static final AttributeKey<WireFormat> ATTRIBUTE_KEY = AttributeKey.valueOf("atlas-wire-format");
+
+    public static WireFormat of(Channel channel) {
+        if (channel == null) {
+            return JSON;
+        }
+
+        WireFormat format = channel.attr(ATTRIBUTE_KEY).get();
+        return format != null ? format : JSON;
+    }
+
+    public static void apply(Channel channel, WireFormat format) {
+        if (channel == null) {
+            return;
+        }
+
+        channel.attr(ATTRIBUTE_KEY).set(format != null ? format : JSON);
+    }
+
+    public static WireFormat negotiate(WireFormat requested) {
+        return requested == BINARY ? BINARY : JSON;
+    }
+
+    public static WireFormat fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+
+        for (WireFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+
+        return null;
+    }
+
+}
@@ -0,0 +1,349 @@
+package be.esmay.atlas.common.network.packet.codec;
+
+import be.esmay.atlas.common.enums.ServerStatus;
+import be.esmay.atlas.common.enums.ServerType;
+import be.esmay.atlas.common.models.AtlasServer;
+import be.esmay.atlas.common.models.ServerInfo;
+import be.esmay.atlas.common.models.ServerResourceMetrics;
+import io.netty.buffer.ByteBuf;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Binary codec for {@link AtlasServer} and its nested models.
+ *
+ * <p>Every payload starts with a schema version byte, which is only bumped for incompatible
+ * layout changes. Records and their nested sections are length-prefixed, so fields appended
+ * by a newer Atlas build are skipped by older decoders instead of corrupting the stream.
+ * Group names are interned, and lists share a group table so each name is only written once.
+ */
+public final class AtlasServerCodec {
+
+    public static final int VERSION = 1;
+
+    private static final int FLAG_MANUALLY_SCALED = 1;
+    private static final int FLAG_SHUTDOWN = 1 << 1;
+    private static final int FLAG_RESTART_AFTER_STOP = 1 << 2;
+    private static final int FLAG_SERVER_INFO = 1 << 3;
+    private static final int FLAG_RESOURCE_METRICS = 1 << 4;
+    private static final int FLAG_METADATA = 1 << 5;
+
+    private static final ServerStatus[] STATUSES = ServerStatus.values();
+    private static final ServerType[] TYPES = ServerType.values();
+
+    private static final Map<String, String> GROUP_NAMES = new ConcurrentHashMap<>();
+
+    private AtlasServerCodec() {
+    }
+
+    public static void writeServer(ByteBuf buffer, AtlasServer server) {
+        buffer.writeByte(VERSION);
+        buffer.writeBoolean(server != null);
+        if (server == null) {
+            return;
+        }
+
+        writeRecord(buffer, server, null);
+    }
+
+    public static AtlasServer readServer(ByteBuf buffer) {
+        readVersion(buffer);
+        if (!buffer.readBoolean()) {
+            return null;
+        }
+
+        return readRecord(buffer, null);
+    }
+
+    public static void writeServerList(ByteBuf buffer, List<AtlasServer> servers) {
+        buffer.writeByte(VERSION);
+        if (servers == null) {
+            ByteBufCodec.writeNullableVarInt(buffer, -1);
+            return;
+        }
+
+        Map<String, Integer> groupIndexes = new HashMap<>();
+        List<String> groupTable = new ArrayList<>();
+        for (AtlasServer server : servers) {
+            String group = server.getGroup();
+            if (group != null && !groupIndexes.containsKey(group)) {
+                groupIndexes.put(group, groupTable.size());
+                groupTable.add(group);
+            }
+        }
+
+        ByteBufCodec.writeNullableVarInt(buffer, groupTable.size());
+        for (String group : groupTable) {
+            ByteBufCodec.writeString(buffer, group);
+        }
+
+        ByteBufCodec.writeVarInt(buffer, servers.size());
+        for (AtlasServer server : servers) {
+            writeRecord(buffer, server, groupIndexes);
+        }
+    }
+
+    public static List<AtlasServer> readServerList(ByteBuf buffer) {
+        readVersion(buffer);
+
+        int groupCount = ByteBufCodec.readNullableVarInt(buffer);
+        if (groupCount < 0) {
+            return null;
+        }
+
+        String[] groupTable = new String[groupCount];
+        for (int i = 0; i < groupCount; i++) {
+            groupTable[i] = internGroup(ByteBufCodec.readString(buffer));
+        }
+
+        int serverCount = ByteBufCodec.readVarInt(buffer);
+        List<AtlasServer> servers = new ArrayList<>(serverCount);
+        for (int i = 0; i < serverCount; i++) {
+            servers.add(readRecord(buffer, groupTable));
+        }
+
+        return servers;
+    }
+
+    public static void writeServerInfo(ByteBuf buffer, ServerInfo serverInfo) {
+        buffer.writeByte(VERSION);
+        buffer.writeBoolean(serverInfo != null);
+        if (serverInfo == null) {
+            return;
+        }
+
+        writeServerInfoSection(buffer, serverInfo);
+    }
+
+    public static ServerInfo readServerInfo(ByteBuf buffer) {
+        readVersion(buffer);
+        if (!buffer.readBoolean()) {
+            return null;
+        }
+
+        return readServerInfoSection(buffer);
+    }
+
+    private static void writeRecord(ByteBuf buffer, AtlasServer server, Map<String, Integer> groupIndexes) {
+        int lengthIndex = ByteBufCodec.reserveLength(buffer);
+
+        int flags = 0;
+        if (server.isManuallyScaled()) flags |= FLAG_MANUALLY_SCALED;
+        if (server.isShutdown()) flags |= FLAG_SHUTDOWN;
+        if (server.isShouldRestartAfterStop()) flags |= FLAG_RESTART_AFTER_STOP;
+        if (server.getServerInfo() != null) flags |= FLAG_SERVER_INFO;
+        if (server.getResourceMetrics() != null) flags |= FLAG_RESOURCE_METRICS;
+        if (server.getMetadata() != null) flags |= FLAG_METADATA;
+
+        ByteBufCodec.writeVarInt(buffer, flags);
+        ByteBufCodec.writeString(buffer, server.getServerId());
+        ByteBufCodec.writeString(buffer, server.getName());
+
+        if (groupIndexes != null) {
+            Integer groupIndex = server.getGroup() != null ? groupIndexes.get(server.getGroup()) : null;
+            ByteBufCodec.writeNullableVarInt(buffer, groupIndex != null ? groupIndex : -1);
+        } else {
+            ByteBufCodec.writeString(buffer, server.getGroup());
+        }
+
+        ByteBufCodec.writeString(buffer, server.getWorkingDirectory());
+        ByteBufCodec.writeString(buffer, server.getAddress());
+        ByteBufCodec.writeVarInt(buffer, server.getPort());
+        ByteBufCodec.writeNullableVarInt(buffer, server.getType() != null ? server.getType().ordinal() : -1);
+        ByteBufCodec.writeVarLong(buffer, server.getCreatedAt());
+        ByteBufCodec.writeVarLong(buffer, server.getLastHeartbeat());
+        ByteBufCodec.writeString(buffer, server.getServiceProviderId());
+
+        if (server.getServerInfo() != null) {
+            writeServerInfoSection(buffer, server.getServerInfo());
+        }
+
+        if (server.getResourceMetrics() != null) {
+            writeResourceMetricsSection(buffer, server.getResourceMetrics());
+        }
+
+        if (server.getMetadata() != null) {
+            writeMetadataSection(buffer, server.getMetadata());
+        }
+
+        ByteBufCodec.writeVarLong(buffer, server.getStateVersion());
+
+        ByteBufCodec.writeLength(buffer, lengthIndex);
+    }
+
+    private static AtlasServer readRecord(ByteBuf buffer, String[] groupTable) {
+        ByteBuf record = ByteBufCodec.readLengthPrefixed(buffer);
+
+        int flags = ByteBufCodec.readVarInt(record);
+        String serverId = ByteBufCodec.readString(record);
+        String name = ByteBufCodec.readString(record);
+
+        String group;
+        if (groupTable != null) {
+            int groupIndex = ByteBufCodec.readNullableVarInt(record);
+            group = groupIndex >= 0 && groupIndex < groupTable.length ? groupTable[groupIndex] : null;
+        } else {
+            group = internGroup(ByteBufCodec.readString(record));
+        }
+
+        String workingDirectory = ByteBufCodec.readString(record);
+        String address = ByteBufCodec.readString(record);
+        int port = ByteBufCodec.readVarInt(record);
+        int typeOrdinal = ByteBufCodec.readNullableVarInt(record);
+        long createdAt = ByteBufCodec.readVarLong(record);
+        long lastHeartbeat = ByteBufCodec.readVarLong(record);
+        String serviceProviderId = ByteBufCodec.readString(record);
+
+        ServerInfo serverInfo = (flags & FLAG_SERVER_INFO) != 0 ? readServerInfoSection(record) : null;
+        ServerResourceMetrics resourceMetrics = (flags & FLAG_RESOURCE_METRICS) != 0 ? readResourceMetricsSection(record) : null;
+        Map<String, String> metadata = (flags & FLAG_METADATA) != 0 ? readMetadataSection(record) : new ConcurrentHashMap<>();
+        long stateVersion = record.isReadable() ? ByteBufCodec.readVarLong(record) : 0;
+
+        return AtlasServer.builder()
+                .serverId(serverId)
+                .name(name)
+                .group(group)
+                .workingDirectory(workingDirectory)
+                .address(address)
+                .port(port)
+                .type(typeOrdinal >= 0 && typeOrdinal < TYPES.length ? TYPES[typeOrdinal] : null)
+                .createdAt(createdAt)
+                .lastHeartbeat(lastHeartbeat)
+                .serviceProviderId(serviceProviderId)
+                .isManuallyScaled((flags & FLAG_MANUALLY_SCALED) != 0)
+                .shutdown((flags & FLAG_SHUTDOWN) != 0)
+                .shouldRestartAfterStop((flags & FLAG_RESTART_AFTER_STOP) != 0)
+                .serverInfo(serverInfo)
+                .resourceMetrics(resourceMetrics)
+                .metadata(metadata)
+                .stateVersion(stateVersion)
+                .build();
+    }
+
+    private static void writeServerInfoSection(ByteBuf buffer, ServerInfo serverInfo) {
+        int lengthIndex = ByteBufCodec.reserveLength(buffer);
+
+        ByteBufCodec.writeNullableVarInt(buffer, serverInfo.getStatus() != null ? serverInfo.getStatus().ordinal() : -1);
+        ByteBufCodec.writeVarInt(buffer, serverInfo.getOnlinePlayers());
+        ByteBufCodec.writeVarInt(buffer, serverInfo.getMaxPlayers());
+
+        Set<String> playerNames = serverInfo.getOnlinePlayerNames();
+        ByteBufCodec.writeNullableVarInt(buffer, playerNames != null ? playerNames.size() : -1);
+        if (playerNames != null) {
+            for (String playerName : playerNames) {
+                ByteBufCodec.writeString(buffer, playerName);
+            }
+        }
+
+        ByteBufCodec.writeLength(buffer, lengthIndex);
+    }
+
+    private static ServerInfo readServerInfoSection(ByteBuf buffer) {
+        ByteBuf section = ByteBufCodec.readLengthPrefixed(buffer);
+
+        int statusOrdinal = ByteBufCodec.readNullableVarInt(section);
+        int onlinePlayers = ByteBufCodec.readVarInt(section);
+        int maxPlayers = ByteBufCodec.readVarInt(section);
+
+        Set<String> playerNames = null;
+        int playerCount = ByteBufCodec.readNullableVarInt(section);
+        if (playerCount >= 0) {
+            playerNames = new HashSet<>(Math.max(16, playerCount * 2));
+            for (int i = 0; i < playerCount; i++) {
+                playerNames.add(ByteBufCodec.readString(section));
+            }
+        }
+
+        return ServerInfo.builder()
+                .status(statusOrdinal >= 0 && statusOrdinal < STATUSES.length ? STATUSES[statusOrdinal] : null)
+                .onlinePlayers(onlinePlayers)
+                .maxPlayers(maxPlayers)
+                .onlinePlayerNames(playerNames)
+                .build();
+    }
+
+    private static void writeResourceMetricsSection(ByteBuf buffer, ServerResourceMetrics metrics) {
+        int lengthIndex = ByteBufCodec.reserveLength(buffer);
+
+        buffer.writeDouble(metrics.getCpuUsage());
+        ByteBufCodec.writeVarLong(buffer, metrics.getMemoryUsed());
+        ByteBufCodec.writeVarLong(buffer, metrics.getMemoryTotal());
+        ByteBufCodec.writeVarLong(buffer, metrics.getDiskUsed());
+        ByteBufCodec.writeVarLong(buffer, metrics.getDiskTotal());
+        ByteBufCodec.writeVarLong(buffer, metrics.getNetworkReceiveBytes());
+        ByteBufCodec.writeVarLong(buffer, metrics.getNetworkSendBytes());
+        buffer.writeDouble(metrics.getNetworkReceiveBandwidth());
+        buffer.writeDouble(metrics.getNetworkSendBandwidth());
+        ByteBufCodec.writeVarLong(buffer, metrics.getLastUpdated());
+
+        ByteBufCodec.writeLength(buffer, lengthIndex);
+    }
+
+    private static ServerResourceMetrics readResourceMetricsSection(ByteBuf buffer) {
+        ByteBuf section = ByteBufCodec.readLengthPrefixed(buffer);
+
+        return ServerResourceMetrics.builder()
+                .cpuUsage(section.readDouble())
+                .memoryUsed(ByteBufCodec.readVarLong(section))
+                .memoryTotal(ByteBufCodec.readVarLong(section))
+                .diskUsed(ByteBufCodec.readVarLong(section))
+                .diskTotal(ByteBufCodec.readVarLong(section))
+                .networkReceiveBytes(ByteBufCodec.readVarLong(section))
+                .networkSendBytes(ByteBufCodec.readVarLong(section))
+                .networkReceiveBandwidth(section.readDouble())
+                .networkSendBandwidth(section.readDouble())
+                .lastUpdated(ByteBufCodec.readVarLong(section))
+                .build();
+    }
+
+    private static void writeMetadataSection(ByteBuf buffer, Map<String, String> metadata) {
+        int lengthIndex = ByteBufCodec.reserveLength(buffer);
+
+        ByteBufCodec.writeVarInt(buffer, metadata.size());
+        for (Map.Entry<String, String> entry : metadata.entrySet()) {
+            ByteBufCodec.writeString(buffer, entry.getKey());
+            ByteBufCodec.writeString(buffer, entry.getValue());
+        }
+
+        ByteBufCodec.writeLength(buffer, lengthIndex);
+    }
+
+    private static Map<String, String> readMetadataSection(ByteBuf buffer) {
+        ByteBuf section = ByteBufCodec.readLengthPrefixed(buffer);
+
+        int size = ByteBufCodec.readVarInt(section);
+        Map<String, String> metadata = new ConcurrentHashMap<>(Math.max(16, size * 2));
+        for (int i = 0; i < size; i++) {
+            String key = ByteBufCodec.readString(section);
+            String value = ByteBufCodec.readString(section);
+            if (key != null && value != null) {
+                metadata.put(key, value);
+            }
+        }
+
+        return metadata;
+    }
+
+    private static void readVersion(ByteBuf buffer) {
+        int version = buffer.readUnsignedByte();
+        if (version < 1 || version > VERSION) {
+            throw new IllegalStateException("Unsupported AtlasServer codec version: " + version);
+        }
+    }
+
+    private static String internGroup(String group) {
+        if (group == null) {
+            return null;
+        }
+
+        String interned = GROUP_NAMES.putIfAbsent(group, group);
+        return interned != null ? interned : group;
+    }
+
+}
@@ -0,0 +1,138 @@
+package be.esmay.atlas.common.network.packet.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Low-level primitives shared by the binary packet codecs.
+ *
+ * <p>Integers are written as LEB128 varints. Nullable values are shifted by one so that
+ * zero can mark {@code null} without spending an extra byte.
+ */
+public final class ByteBufCodec {
+
+    private static final int LENGTH_PREFIX_BYTES = 3;
+    private static final int MAX_PREFIXED_LENGTH = (1 << (7 * LENGTH_PREFIX_BYTES)) - 1;
+
+    private ByteBufCodec() {
+    }
+
+    public static void writeVarInt(ByteBuf buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        buffer.writeByte(value);
+    }
+
+    public static int readVarInt(ByteBuf buffer) {
+        int value = 0;
+        int shift = 0;
+        byte current;
+
+        do {
+            if (shift >= 35) {
+                throw new IllegalStateException("VarInt is too long");
+            }
+
+            current = buffer.readByte();
+            value |= (current & 0x7F) << shift;
+            shift += 7;
+        } while ((current & 0x80) != 0);
+
+        return value;
+    }
+
+    public static void writeVarLong(ByteBuf buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        buffer.writeByte((int) value);
+    }
+
+    public static long readVarLong(ByteBuf buffer) {
+        long value = 0;
+        int shift = 0;
+        byte current;
+
+        do {
+            if (shift >= 70) {
+                throw new IllegalStateException("VarLong is too long");
+            }
+
+            current = buffer.readByte();
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        } while ((current & 0x80) != 0);
+
+        return value;
+    }
+
+    public static void writeNullableVarInt(ByteBuf buffer, int value) {
+        writeVarInt(buffer, value < 0 ? 0 : value + 1);
+    }
+
+    public static int readNullableVarInt(ByteBuf buffer) {
+        return readVarInt(buffer) - 1;
+    }
+
+    public static void writeString(ByteBuf buffer, String value) {
+        if (value == null) {
+            writeVarInt(buffer, 0);
+            return;
+        }
+
+        writeVarInt(buffer, ByteBufUtil.utf8Bytes(value) + 1);
+        buffer.writeCharSequence(value, StandardCharsets.UTF_8);
+    }
+
+    public static String readString(ByteBuf buffer) {
+        int length = readVarInt(buffer) - 1;
+        if (length < 0) {
+            return null;
+        }
+
+        if (length > buffer.readableBytes()) {
+            throw new IllegalStateException("String length " + length + " exceeds remaining " + buffer.readableBytes() + " bytes");
+        }
+
+        return buffer.readCharSequence(length, StandardCharsets.UTF_8).toString();
+    }
+
+    public static int reserveLength(ByteBuf buffer) {
+        int index = buffer.writerIndex();
+        buffer.writeZero(LENGTH_PREFIX_BYTES);
+        return index;
+    }
+
+    public static void writeLength(ByteBuf buffer, int lengthIndex) {
+        int length = buffer.writerIndex() - lengthIndex - LENGTH_PREFIX_BYTES;
+        if (length > MAX_PREFIXED_LENGTH) {
+            throw new IllegalStateException("Length-prefixed section of " + length + " bytes exceeds " + MAX_PREFIXED_LENGTH);
+        }
+
+        for (int i = 0; i < LENGTH_PREFIX_BYTES; i++) {
+            int part = (length >>> (7 * i)) & 0x7F;
+            if (i < LENGTH_PREFIX_BYTES - 1) {
+                part |= 0x80;
+            }
+
+            buffer.setByte(lengthIndex + i, part);
+        }
+    }
+
+    public static ByteBuf readLengthPrefixed(ByteBuf buffer) {
+        int length = readVarInt(buffer);
+        if (length > buffer.readableBytes()) {
+            throw new IllegalStateException("Section length " + length + " exceeds remaining " + buffer.readableBytes() + " bytes");
+        }
+
+        return buffer.readSlice(length);
+    }
+
+}
@@ -3,6 +3,8 @@ package be.esmay.atlas.common.network.packet.packets;
 import be.esmay.atlas.common.models.AtlasServer;
 import be.esmay.atlas.common.network.packet.Packet;
 import be.esmay.atlas.common.network.packet.PacketHandler;
+import be.esmay.atlas.common.network.packet.WireFormat;
+import be.esmay.atlas.common.network.packet.codec.AtlasServerCodec;
 import com.google.gson.Gson;
 import io.netty.buffer.ByteBuf;
 import lombok.AllArgsConstructor;
@@ -51,6 +53,26 @@ public final class AtlasServerUpdatePacket implements Packet {
         }
     }
     
+    @Override
+    public void encode(ByteBuf buffer, WireFormat format) {
+        if (format != WireFormat.BINARY) {
+            this.encode(buffer);
+            return;
+        }
+        
+        AtlasServerCodec.writeServer(buffer, this.atlasServer);
+    }
+    
+    @Override
+    public void decode(ByteBuf buffer, WireFormat format) {
+        if (format != WireFormat.BINARY) {
+            this.decode(buffer);
+            return;
+        }
+        
+        this.atlasServer = AtlasServerCodec.readServer(buffer);
+    }
+    
     @Override
     public void handle(PacketHandler handler) {
         handler.handleAtlasServerUpdate(this);
@@ -2,6 +2,7 @@ package be.esmay.atlas.common.network.packet.packets;
 
 import be.esmay.atlas.common.network.packet.Packet;
 import be.esmay.atlas.common.network.packet.PacketHandler;
+import be.esmay.atlas.common.network.packet.WireFormat;
 import io.netty.buffer.ByteBuf;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -19,6 +20,7 @@ public final class HandshakePacket implements Packet {
     private String authToken;
     private boolean accepted;
     private String reason;
+    private WireFormat wireFormat;
     
     @Override
     public int getId() {
@@ -32,6 +34,7 @@ public final class HandshakePacket implements Packet {
         this.writeString(buffer, this.authToken);
         buffer.writeBoolean(this.accepted);
         this.writeString(buffer, this.reason);
+        this.writeString(buffer, this.wireFormat != null ? this.wireFormat.name() : null);
     }
     
     @Override
@@ -41,6 +44,9 @@ public final class HandshakePacket implements Packet {
         this.authToken = this.readString(buffer);
         this.accepted = buffer.readBoolean();
         this.reason = this.readString(buffer);
+        
+        // Handshakes from builds without wire format negotiation end here
+        this.wireFormat = buffer.isReadable() ? WireFormat.fromName(this.readString(buffer)) : null;
     }
     
     @Override
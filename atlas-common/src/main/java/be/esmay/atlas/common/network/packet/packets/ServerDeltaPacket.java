@@ -0,0 +1,462 @@
+package be.esmay.atlas.common.network.packet.packets;
+
+import be.esmay.atlas.common.enums.ServerStatus;
+import be.esmay.atlas.common.models.AtlasServer;
+import be.esmay.atlas.common.models.ServerInfo;
+import be.esmay.atlas.common.models.ServerResourceMetrics;
+import be.esmay.atlas.common.network.packet.Packet;
+import be.esmay.atlas.common.network.packet.PacketHandler;
+import be.esmay.atlas.common.network.packet.codec.ByteBufCodec;
+import io.netty.buffer.ByteBuf;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Carries only the fields of a server that changed between two consecutive state versions.
+ *
+ * <p>A receiver applies the delta when its cached copy is at {@link #getBaseVersion()}. If the
+ * cached copy is older than that, a version was missed and the receiver should request a full
+ * resync with {@link ServerResyncRequestPacket}. Deltas are only sent over binary connections,
+ * so this packet has no JSON form.
+ */
+@Data
+@NoArgsConstructor
+public final class ServerDeltaPacket implements Packet {
+
+    public static final int STATUS = 1;
+    public static final int ONLINE_PLAYERS = 1 << 1;
+    public static final int MAX_PLAYERS = 1 << 2;
+    public static final int PLAYER_NAMES = 1 << 3;
+    public static final int ADDRESS = 1 << 4;
+    public static final int FLAGS = 1 << 5;
+    public static final int METADATA = 1 << 6;
+    public static final int CPU_USAGE = 1 << 7;
+    public static final int MEMORY = 1 << 8;
+    public static final int DISK = 1 << 9;
+    public static final int NETWORK_BYTES = 1 << 10;
+    public static final int NETWORK_BANDWIDTH = 1 << 11;
+    public static final int METRICS_UPDATED = 1 << 12;
+
+    private static final int FLAG_SHUTDOWN = 1;
+    private static final int FLAG_RESTART_AFTER_STOP = 1 << 1;
+
+    private static final ServerStatus[] STATUSES = ServerStatus.values();
+
+    private String serverId;
+    private long baseVersion;
+    private long version;
+    private int changedFields;
+
+    private ServerStatus status;
+    private int onlinePlayers;
+    private int maxPlayers;
+    private List<String> joinedPlayers = new ArrayList<>();
+    private List<String> leftPlayers = new ArrayList<>();
+
+    private String address;
+    private int port;
+    private boolean shutdown;
+    private boolean shouldRestartAfterStop;
+
+    private Map<String, String> metadataChanges = new HashMap<>();
+    private List<String> metadataRemovals = new ArrayList<>();
+
+    private double cpuUsage;
+    private long memoryUsed;
+    private long memoryTotal;
+    private long diskUsed;
+    private long diskTotal;
+    private long networkReceiveBytes;
+    private long networkSendBytes;
+    private double networkReceiveBandwidth;
+    private double networkSendBandwidth;
+    private long metricsLastUpdated;
+
+    /**
+     * Computes the delta that turns {@code previous} into {@code current}.
+     *
+     * <p>The heartbeat timestamp is deliberately not tracked, it changes on every heartbeat
+     * and receivers have no use for it.
+     *
+     * @return the delta, or {@code null} when the change cannot be expressed as a delta
+     *         (identity or placement changed, or server info / resource metrics appeared or
+     *         disappeared) and a full snapshot has to be sent instead
+     */
+    public static ServerDeltaPacket between(AtlasServer previous, AtlasServer current, long version) {
+        if (!Objects.equals(previous.getServerId(), current.getServerId())
+                || !Objects.equals(previous.getName(), current.getName())
+                || !Objects.equals(previous.getGroup(), current.getGroup())
+                || !Objects.equals(previous.getWorkingDirectory(), current.getWorkingDirectory())
+                || !Objects.equals(previous.getServiceProviderId(), current.getServiceProviderId())
+                || previous.getType() != current.getType()
+                || previous.getCreatedAt() != current.getCreatedAt()
+                || previous.isManuallyScaled() != current.isManuallyScaled()
+                || (previous.getServerInfo() == null) != (current.getServerInfo() == null)
+                || (previous.getResourceMetrics() == null) != (current.getResourceMetrics() == null)) {
+            return null;
+        }
+
+        ServerDeltaPacket delta = new ServerDeltaPacket();
+        delta.serverId = current.getServerId();
+        delta.baseVersion = previous.getStateVersion();
+        delta.version = version;
+
+        delta.diffServerInfo(previous.getServerInfo(), current.getServerInfo());
+        delta.diffMetrics(previous.getResourceMetrics(), current.getResourceMetrics());
+
+        if (!Objects.equals(previous.getAddress(), current.getAddress()) || previous.getPort() != current.getPort()) {
+            delta.changedFields |= ADDRESS;
+            delta.address = current.getAddress();
+            delta.port = current.getPort();
+        }
+
+        if (previous.isShutdown() != current.isShutdown() || previous.isShouldRestartAfterStop() != current.isShouldRestartAfterStop()) {
+            delta.changedFields |= FLAGS;
+            delta.shutdown = current.isShutdown();
+            delta.shouldRestartAfterStop = current.isShouldRestartAfterStop();
+        }
+
+        Map<String, String> previousMetadata = previous.getMetadata() != null ? previous.getMetadata() : Map.of();
+        Map<String, String> currentMetadata = current.getMetadata() != null ? current.getMetadata() : Map.of();
+        for (Map.Entry<String, String> entry : currentMetadata.entrySet()) {
+            if (!Objects.equals(previousMetadata.get(entry.getKey()), entry.getValue())) {
+                delta.metadataChanges.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        for (String key : previousMetadata.keySet()) {
+            if (!currentMetadata.containsKey(key)) {
+                delta.metadataRemovals.add(key);
+            }
+        }
+
+        if (!delta.metadataChanges.isEmpty() || !delta.metadataRemovals.isEmpty()) {
+            delta.changedFields |= METADATA;
+        }
+
+        return delta;
+    }
+
+    public boolean isEmpty() {
+        return this.changedFields == 0;
+    }
+
+    public boolean hasChanged(int field) {
+        return (this.changedFields & field) != 0;
+    }
+
+    /**
+     * Returns a copy of {@code base} with this delta applied, stamped with {@link #getVersion()}.
+     */
+    public AtlasServer applyTo(AtlasServer base) {
+        AtlasServer updated = base.copy();
+        updated.setStateVersion(this.version);
+
+        ServerInfo serverInfo = updated.getServerInfo();
+        if (serverInfo != null) {
+            if (this.hasChanged(STATUS)) serverInfo.setStatus(this.status);
+            if (this.hasChanged(ONLINE_PLAYERS)) serverInfo.setOnlinePlayers(this.onlinePlayers);
+            if (this.hasChanged(MAX_PLAYERS)) serverInfo.setMaxPlayers(this.maxPlayers);
+
+            if (this.hasChanged(PLAYER_NAMES)) {
+                Set<String> playerNames = serverInfo.getOnlinePlayerNames() != null ? serverInfo.getOnlinePlayerNames() : new HashSet<>();
+                this.leftPlayers.forEach(playerNames::remove);
+                playerNames.addAll(this.joinedPlayers);
+                serverInfo.setOnlinePlayerNames(playerNames);
+            }
+        }
+
+        ServerResourceMetrics metrics = updated.getResourceMetrics();
+        if (metrics != null) {
+            if (this.hasChanged(CPU_USAGE)) metrics.setCpuUsage(this.cpuUsage);
+
+            if (this.hasChanged(MEMORY)) {
+                metrics.setMemoryUsed(this.memoryUsed);
+                metrics.setMemoryTotal(this.memoryTotal);
+            }
+
+            if (this.hasChanged(DISK)) {
+                metrics.setDiskUsed(this.diskUsed);
+                metrics.setDiskTotal(this.diskTotal);
+            }
+
+            if (this.hasChanged(NETWORK_BYTES)) {
+                metrics.setNetworkReceiveBytes(this.networkReceiveBytes);
+                metrics.setNetworkSendBytes(this.networkSendBytes);
+            }
+
+            if (this.hasChanged(NETWORK_BANDWIDTH)) {
+                metrics.setNetworkReceiveBandwidth(this.networkReceiveBandwidth);
+                metrics.setNetworkSendBandwidth(this.networkSendBandwidth);
+            }
+
+            if (this.hasChanged(METRICS_UPDATED)) metrics.setLastUpdated(this.metricsLastUpdated);
+        }
+
+        if (this.hasChanged(ADDRESS)) {
+            updated.setAddress(this.address);
+            updated.setPort(this.port);
+        }
+
+        if (this.hasChanged(FLAGS)) {
+            updated.setShutdown(this.shutdown);
+            updated.setShouldRestartAfterStop(this.shouldRestartAfterStop);
+        }
+
+        if (this.hasChanged(METADATA)) {
+            this.metadataRemovals.forEach(updated::removeMetadata);
+            updated.setMetadata(this.metadataChanges);
+        }
+
+        return updated;
+    }
+
+    @Override
+    public int getId() {
+        return 0x15;
+    }
+
+    @Override
+    public void encode(ByteBuf buffer) {
+        ByteBufCodec.writeString(buffer, this.serverId);
+        ByteBufCodec.writeVarLong(buffer, this.baseVersion);
+        ByteBufCodec.writeVarLong(buffer, this.version);
+        ByteBufCodec.writeVarInt(buffer, this.changedFields);
+
+        if (this.hasChanged(STATUS)) ByteBufCodec.writeNullableVarInt(buffer, this.status != null ? this.status.ordinal() : -1);
+        if (this.hasChanged(ONLINE_PLAYERS)) ByteBufCodec.writeVarInt(buffer, this.onlinePlayers);
+        if (this.hasChanged(MAX_PLAYERS)) ByteBufCodec.writeVarInt(buffer, this.maxPlayers);
+
+        if (this.hasChanged(PLAYER_NAMES)) {
+            this.writeStrings(buffer, this.joinedPlayers);
+            this.writeStrings(buffer, this.leftPlayers);
+        }
+
+        if (this.hasChanged(ADDRESS)) {
+            ByteBufCodec.writeString(buffer, this.address);
+            ByteBufCodec.writeVarInt(buffer, this.port);
+        }
+
+        if (this.hasChanged(FLAGS)) {
+            int flags = 0;
+            if (this.shutdown) flags |= FLAG_SHUTDOWN;
+            if (this.shouldRestartAfterStop) flags |= FLAG_RESTART_AFTER_STOP;
+            ByteBufCodec.writeVarInt(buffer, flags);
+        }
+
+        if (this.hasChanged(METADATA)) {
+            ByteBufCodec.writeVarInt(buffer, this.metadataChanges.size());
+            for (Map.Entry<String, String> entry : this.metadataChanges.entrySet()) {
+                ByteBufCodec.writeString(buffer, entry.getKey());
+                ByteBufCodec.writeString(buffer, entry.getValue());
+            }
+
+            this.writeStrings(buffer, this.metadataRemovals);
+        }
+
+        if (this.hasChanged(CPU_USAGE)) buffer.writeDouble(this.cpuUsage);
+
+        if (this.hasChanged(MEMORY)) {
+            ByteBufCodec.writeVarLong(buffer, this.memoryUsed);
+            ByteBufCodec.writeVarLong(buffer, this.memoryTotal);
+        }
+
+        if (this.hasChanged(DISK)) {
+            ByteBufCodec.writeVarLong(buffer, this.diskUsed);
+            ByteBufCodec.writeVarLong(buffer, this.diskTotal);
+        }
+
+        if (this.hasChanged(NETWORK_BYTES)) {
+            ByteBufCodec.writeVarLong(buffer, this.networkReceiveBytes);
+            ByteBufCodec.writeVarLong(buffer, this.networkSendBytes);
+        }
+
+        if (this.hasChanged(NETWORK_BANDWIDTH)) {
+            buffer.writeDouble(this.networkReceiveBandwidth);
+            buffer.writeDouble(this.networkSendBandwidth);
+        }
+
+        if (this.hasChanged(METRICS_UPDATED)) ByteBufCodec.writeVarLong(buffer, this.metricsLastUpdated);
+    }
+
+    @Override
+    public void decode(ByteBuf buffer) {
+        this.serverId = ByteBufCodec.readString(buffer);
+        this.baseVersion = ByteBufCodec.readVarLong(buffer);
+        this.version = ByteBufCodec.readVarLong(buffer);
+        this.changedFields = ByteBufCodec.readVarInt(buffer);
+
+        if (this.hasChanged(STATUS)) {
+            int statusOrdinal = ByteBufCodec.readNullableVarInt(buffer);
+            this.status = statusOrdinal >= 0 && statusOrdinal < STATUSES.length ? STATUSES[statusOrdinal] : null;
+        }
+
+        if (this.hasChanged(ONLINE_PLAYERS)) this.onlinePlayers = ByteBufCodec.readVarInt(buffer);
+        if (this.hasChanged(MAX_PLAYERS)) this.maxPlayers = ByteBufCodec.readVarInt(buffer);
+
+        if (this.hasChanged(PLAYER_NAMES)) {
+            this.joinedPlayers = this.readStrings(buffer);
+            this.leftPlayers = this.readStrings(buffer);
+        }
+
+        if (this.hasChanged(ADDRESS)) {
+            this.address = ByteBufCodec.readString(buffer);
+            this.port = ByteBufCodec.readVarInt(buffer);
+        }
+
+        if (this.hasChanged(FLAGS)) {
+            int flags = ByteBufCodec.readVarInt(buffer);
+            this.shutdown = (flags & FLAG_SHUTDOWN) != 0;
+            this.shouldRestartAfterStop = (flags & FLAG_RESTART_AFTER_STOP) != 0;
+        }
+
+        if (this.hasChanged(METADATA)) {
+            int size = ByteBufCodec.readVarInt(buffer);
+            this.metadataChanges = new HashMap<>(Math.max(16, size * 2));
+            for (int i = 0; i < size; i++) {
+                String key = ByteBufCodec.readString(buffer);
+                String value = ByteBufCodec.readString(buffer);
+                if (key != null && value != null) {
+                    this.metadataChanges.put(key, value);
+                }
+            }
+
+            this.metadataRemovals = this.readStrings(buffer);
+        }
+
+        if (this.hasChanged(CPU_USAGE)) this.cpuUsage = buffer.readDouble();
+
+        if (this.hasChanged(MEMORY)) {
+            this.memoryUsed = ByteBufCodec.readVarLong(buffer);
+            this.memoryTotal = ByteBufCodec.readVarLong(buffer);
+        }
+
+        if (this.hasChanged(DISK)) {
+            this.diskUsed = ByteBufCodec.readVarLong(buffer);
+            this.diskTotal = ByteBufCodec.readVarLong(buffer);
+        }
+
+        if (this.hasChanged(NETWORK_BYTES)) {
+            this.networkReceiveBytes = ByteBufCodec.readVarLong(buffer);
+            this.networkSendBytes = ByteBufCodec.readVarLong(buffer);
+        }
+
+        if (this.hasChanged(NETWORK_BANDWIDTH)) {
+            this.networkReceiveBandwidth = buffer.readDouble();
+            this.networkSendBandwidth = buffer.readDouble();
+        }
+
+        if (this.hasChanged(METRICS_UPDATED)) this.metricsLastUpdated = ByteBufCodec.readVarLong(buffer);
+    }
+
+    @Override
+    public void handle(PacketHandler handler) {
+        handler.handleServerDelta(this);
+    }
+
+    private void diffServerInfo(ServerInfo previous, ServerInfo current) {
+        if (previous == null || current == null) {
+            return;
+        }
+
+        if (previous.getStatus() != current.getStatus()) {
+            this.changedFields |= STATUS;
+            this.status = current.getStatus();
+        }
+
+        if (previous.getOnlinePlayers() != current.getOnlinePlayers()) {
+            this.changedFields |= ONLINE_PLAYERS;
+            this.onlinePlayers = current.getOnlinePlayers();
+        }
+
+        if (previous.getMaxPlayers() != current.getMaxPlayers()) {
+            this.changedFields |= MAX_PLAYERS;
+            this.maxPlayers = current.getMaxPlayers();
+        }
+
+        Set<String> previousNames = previous.getOnlinePlayerNames() != null ? previous.getOnlinePlayerNames() : Set.of();
+        Set<String> currentNames = current.getOnlinePlayerNames() != null ? current.getOnlinePlayerNames() : Set.of();
+        for (String name : currentNames) {
+            if (!previousNames.contains(name)) {
+                this.joinedPlayers.add(name);
+            }
+        }
+
+        for (String name : previousNames) {
+            if (!currentNames.contains(name)) {
+                this.leftPlayers.add(name);
+            }
+        }
+
+        if (!this.joinedPlayers.isEmpty() || !this.leftPlayers.isEmpty()) {
+            this.changedFields |= PLAYER_NAMES;
+        }
+    }
+
+    private void diffMetrics(ServerResourceMetrics previous, ServerResourceMetrics current) {
+        if (previous == null || current == null) {
+            return;
+        }
+
+        if (Double.compare(previous.getCpuUsage(), current.getCpuUsage()) != 0) {
+            this.changedFields |= CPU_USAGE;
+            this.cpuUsage = current.getCpuUsage();
+        }
+
+        if (previous.getMemoryUsed() != current.getMemoryUsed() || previous.getMemoryTotal() != current.getMemoryTotal()) {
+            this.changedFields |= MEMORY;
+            this.memoryUsed = current.getMemoryUsed();
+            this.memoryTotal = current.getMemoryTotal();
+        }
+
+        if (previous.getDiskUsed() != current.getDiskUsed() || previous.getDiskTotal() != current.getDiskTotal()) {
+            this.changedFields |= DISK;
+            this.diskUsed = current.getDiskUsed();
+            this.diskTotal = current.getDiskTotal();
+        }
+
+        if (previous.getNetworkReceiveBytes() != current.getNetworkReceiveBytes() || previous.getNetworkSendBytes() != current.getNetworkSendBytes()) {
+            this.changedFields |= NETWORK_BYTES;
+            this.networkReceiveBytes = current.getNetworkReceiveBytes();
+            this.networkSendBytes = current.getNetworkSendBytes();
+        }
+
+        if (Double.compare(previous.getNetworkReceiveBandwidth(), current.getNetworkReceiveBandwidth()) != 0
+                || Double.compare(previous.getNetworkSendBandwidth(), current.getNetworkSendBandwidth()) != 0) {
+            this.changedFields |= NETWORK_BANDWIDTH;
+            this.networkReceiveBandwidth = current.getNetworkReceiveBandwidth();
+            this.networkSendBandwidth = current.getNetworkSendBandwidth();
+        }
+
+        if (previous.getLastUpdated() != current.getLastUpdated()) {
+            this.changedFields |= METRICS_UPDATED;
+            this.metricsLastUpdated = current.getLastUpdated();
+        }
+    }
+
+    private void writeStrings(ByteBuf buffer, List<String> values) {
+        ByteBufCodec.writeVarInt(buffer, values.size());
+        for (String value : values) {
+            ByteBufCodec.writeString(buffer, value);
+        }
+    }
+
+    private List<String> readStrings(ByteBuf buffer) {
+        int size = ByteBufCodec.readVarInt(buffer);
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(ByteBufCodec.readString(buffer));
+        }
+
+        return values;
+    }
+
+}
@@ -3,6 +3,8 @@ package be.esmay.atlas.common.network.packet.packets;
 import be.esmay.atlas.common.models.ServerInfo;
 import be.esmay.atlas.common.network.packet.Packet;
 import be.esmay.atlas.common.network.packet.PacketHandler;
+import be.esmay.atlas.common.network.packet.WireFormat;
+import be.esmay.atlas.common.network.packet.codec.AtlasServerCodec;
 import com.google.gson.Gson;
 import io.netty.buffer.ByteBuf;
 import lombok.AllArgsConstructor;
@@ -56,6 +58,28 @@ public final class ServerInfoUpdatePacket implements Packet {
         }
     }
     
+    @Override
+    public void encode(ByteBuf buffer, WireFormat format) {
+        if (format != WireFormat.BINARY) {
+            this.encode(buffer);
+            return;
+        }
+        
+        this.writeString(buffer, this.serverId);
+        AtlasServerCodec.writeServerInfo(buffer, this.serverInfo);
+    }
+    
+    @Override
+    public void decode(ByteBuf buffer, WireFormat format) {
+        if (format != WireFormat.BINARY) {
+            this.decode(buffer);
+            return;
+        }
+        
+        this.serverId = this.readString(buffer);
+        this.serverInfo = AtlasServerCodec.readServerInfo(buffer);
+    }
+    
     @Override
     public void handle(PacketHandler handler) {
         handler.handleServerInfoUpdate(this);
@@ -2,6 +2,8 @@ package be.esmay.atlas.common.network.packet.packets;
 
 import be.esmay.atlas.common.network.packet.Packet;
 import be.esmay.atlas.common.network.packet.PacketHandler;
+import be.esmay.atlas.common.network.packet.WireFormat;
+import be.esmay.atlas.common.network.packet.codec.AtlasServerCodec;
 import be.esmay.atlas.common.models.AtlasServer;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
@@ -41,6 +43,26 @@ public final class ServerListPacket implements Packet {
         this.atlasServers = GSON.fromJson(json, SERVER_LIST_TYPE);
     }
     
+    @Override
+    public void encode(ByteBuf buffer, WireFormat format) {
+        if (format != WireFormat.BINARY) {
+            this.encode(buffer);
+            return;
+        }
+        
+        AtlasServerCodec.writeServerList(buffer, this.atlasServers);
+    }
+    
+    @Override
+    public void decode(ByteBuf buffer, WireFormat format) {
+        if (format != WireFormat.BINARY) {
+            this.decode(buffer);
+            return;
+        }
+        
+        this.atlasServers = AtlasServerCodec.readServerList(buffer);
+    }
+    
     @Override
     public void handle(PacketHandler handler) {
         handler.handleServerList(this);
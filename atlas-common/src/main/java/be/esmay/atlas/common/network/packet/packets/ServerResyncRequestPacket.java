@@ -0,0 +1,60 @@
+package be.esmay.atlas.common.network.packet.packets;
+
+import be.esmay.atlas.common.network.packet.Packet;
+import be.esmay.atlas.common.network.packet.PacketHandler;
+import io.netty.buffer.ByteBuf;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public final class ServerResyncRequestPacket implements Packet {
+    
+    private String requesterId;
+    private String serverId;
+    
+    @Override
+    public int getId() {
+        return 0x16;
+    }
+    
+    @Override
+    public void encode(ByteBuf buffer) {
+        this.writeString(buffer, this.requesterId);
+        this.writeString(buffer, this.serverId);
+    }
+    
+    @Override
+    public void decode(ByteBuf buffer) {
+        this.requesterId = this.readString(buffer);
+        this.serverId = this.readString(buffer);
+    }
+    
+    @Override
+    public void handle(PacketHandler handler) {
+        handler.handleServerResyncRequest(this);
+    }
+    
+    private void writeString(ByteBuf buffer, String str) {
+        if (str == null) {
+            buffer.writeInt(-1);
+            return;
+        }
+        byte[] bytes = str.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        buffer.writeInt(bytes.length);
+        buffer.writeBytes(bytes);
+    }
+    
+    private String readString(ByteBuf buffer) {
+        int length = buffer.readInt();
+        if (length == -1) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.readBytes(bytes);
+        return new String(bytes, java.nio.charset.StandardCharsets.UTF_8);
+    }
+    
+}
\ No newline at end of file
@@ -2,6 +2,8 @@ package be.esmay.atlas.common.network.packet.packets;
 
 import be.esmay.atlas.common.network.packet.Packet;
 import be.esmay.atlas.common.network.packet.PacketHandler;
+import be.esmay.atlas.common.network.packet.WireFormat;
+import be.esmay.atlas.common.network.packet.codec.AtlasServerCodec;
 import com.google.gson.Gson;
 import be.esmay.atlas.common.models.AtlasServer;
 import io.netty.buffer.ByteBuf;
@@ -36,6 +38,26 @@ public final class ServerUpdatePacket implements Packet {
         this.atlasServer = GSON.fromJson(json, AtlasServer.class);
     }
     
+    @Override
+    public void encode(ByteBuf buffer, WireFormat format) {
+        if (format != WireFormat.BINARY) {
+            this.encode(buffer);
+            return;
+        }
+        
+        AtlasServerCodec.writeServer(buffer, this.atlasServer);
+    }
+    
+    @Override
+    public void decode(ByteBuf buffer, WireFormat format) {
+        if (format != WireFormat.BINARY) {
+            this.decode(buffer);
+            return;
+        }
+        
+        this.atlasServer = AtlasServerCodec.readServer(buffer);
+    }
+    
     @Override
     public void handle(PacketHandler handler) {
         handler.handleServerUpdate(this);
@@ -10,10 +10,12 @@ import be.esmay.atlas.common.network.packet.packets.MetadataUpdatePacket;
 import be.esmay.atlas.common.network.packet.packets.ServerAddPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerCommandPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerControlPacket;
+import be.esmay.atlas.common.network.packet.packets.ServerDeltaPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerInfoUpdatePacket;
 import be.esmay.atlas.common.network.packet.packets.ServerListPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerListRequestPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerRemovePacket;
+import be.esmay.atlas.common.network.packet.packets.ServerResyncRequestPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerUpdatePacket;
 import be.esmay.atlas.minestom.cache.NetworkServerCacheManager;
 import io.netty.channel.ChannelHandlerContext;
@@ -67,6 +69,7 @@ public final class MinestomPacketHandler extends SimpleChannelInboundHandler<Pac
 
         if (this.networkClient == null) return;
 
+        this.networkClient.applyWireFormat(packet.getWireFormat());
         this.networkClient.onAuthenticated();
     }
 
@@ -113,6 +116,18 @@ public final class MinestomPacketHandler extends SimpleChannelInboundHandler<Pac
     public void handleServerListRequest(ServerListRequestPacket packet) {
     }
 
+    @Override
+    public void handleServerDelta(ServerDeltaPacket packet) {
+        if (this.cacheManager.applyDelta(packet)) return;
+        if (this.networkClient == null) return;
+
+        this.networkClient.requestServerResync(packet.getServerId());
+    }
+
+    @Override
+    public void handleServerResyncRequest(ServerResyncRequestPacket packet) {
+    }
+
     @Override
     public void handleServerCommand(ServerCommandPacket packet) {
         try {
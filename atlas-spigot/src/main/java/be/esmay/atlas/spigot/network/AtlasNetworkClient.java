@@ -1,13 +1,16 @@
 package be.esmay.atlas.spigot.network;
 
+import be.esmay.atlas.common.network.NettyTransport;
 import be.esmay.atlas.common.network.packet.Packet;
 import be.esmay.atlas.common.network.packet.PacketDecoder;
 import be.esmay.atlas.common.network.packet.PacketEncoder;
+import be.esmay.atlas.common.network.packet.WireFormat;
 import be.esmay.atlas.common.network.packet.packets.HandshakePacket;
 import be.esmay.atlas.common.network.packet.packets.HeartbeatPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerControlPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerInfoUpdatePacket;
 import be.esmay.atlas.common.network.packet.packets.ServerListRequestPacket;
+import be.esmay.atlas.common.network.packet.packets.ServerResyncRequestPacket;
 import be.esmay.atlas.spigot.cache.NetworkServerCacheManager;
 import be.esmay.atlas.spigot.server.SpigotServerInfoManager;
 import io.netty.bootstrap.Bootstrap;
@@ -16,9 +19,7 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -46,6 +47,7 @@ public final class AtlasNetworkClient {
     private final AtomicBoolean authenticated = new AtomicBoolean(false);
     private final AtomicBoolean shouldReconnect = new AtomicBoolean(true);
 
+    private NettyTransport transport;
     private EventLoopGroup workerGroup;
     private Channel channel;
     private ScheduledExecutorService scheduler;
@@ -55,7 +57,8 @@ public final class AtlasNetworkClient {
             return CompletableFuture.completedFuture(null);
         }
 
-        this.workerGroup = new NioEventLoopGroup();
+        this.transport = NettyTransport.select("auto");
+        this.workerGroup = this.transport.createEventLoopGroup(1);
         this.scheduler = new ScheduledThreadPoolExecutor(1);
 
         return this.attemptConnection();
@@ -67,8 +70,10 @@ public final class AtlasNetworkClient {
         try {
             Bootstrap bootstrap = new Bootstrap();
             Bootstrap groupedBootstrap = bootstrap.group(this.workerGroup);
-            Bootstrap channelBootstrap = groupedBootstrap.channel(NioSocketChannel.class);
-            Bootstrap optionBootstrap = channelBootstrap.option(ChannelOption.SO_KEEPALIVE, true);
+            Bootstrap channelBootstrap = groupedBootstrap.channel(this.transport.getChannelClass());
+            Bootstrap optionBootstrap = channelBootstrap
+                    .option(ChannelOption.SO_KEEPALIVE, true)
+                    .option(ChannelOption.TCP_NODELAY, true);
 
             ChannelInitializer<SocketChannel> channelInitializer = new ChannelInitializer<>() {
                 @Override
@@ -100,7 +105,8 @@ public final class AtlasNetworkClient {
                             "1.0.0",
                             this.authToken,
                             false,
-                            null
+                            null,
+                            WireFormat.BINARY
                     );
 
                     this.sendPacket(handshakePacket);
@@ -189,6 +195,14 @@ public final class AtlasNetworkClient {
         this.sendPacket(packet);
     }
 
+    public void requestServerResync(String serverId) {
+        if (!this.authenticated.get())
+            return;
+
+        ServerResyncRequestPacket packet = new ServerResyncRequestPacket(this.serverId, serverId);
+        this.sendPacket(packet);
+    }
+
     public void sendServerControl(String serverIdentifier, ServerControlPacket.ControlAction action) {
         if (!this.authenticated.get())
             return;
@@ -197,6 +211,10 @@ public final class AtlasNetworkClient {
         this.sendPacket(packet);
     }
 
+    public void applyWireFormat(WireFormat wireFormat) {
+        WireFormat.apply(this.channel, wireFormat);
+    }
+
     public void onAuthenticated() {
         this.authenticated.set(true);
         this.logger.info("Successfully authenticated with Atlas base");
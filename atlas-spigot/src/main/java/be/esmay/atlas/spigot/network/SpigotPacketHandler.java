@@ -10,10 +10,12 @@ import be.esmay.atlas.common.network.packet.packets.MetadataUpdatePacket;
 import be.esmay.atlas.common.network.packet.packets.ServerAddPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerCommandPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerControlPacket;
+import be.esmay.atlas.common.network.packet.packets.ServerDeltaPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerInfoUpdatePacket;
 import be.esmay.atlas.common.network.packet.packets.ServerListPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerListRequestPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerRemovePacket;
+import be.esmay.atlas.common.network.packet.packets.ServerResyncRequestPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerUpdatePacket;
 import be.esmay.atlas.spigot.AtlasSpigotPlugin;
 import be.esmay.atlas.spigot.cache.NetworkServerCacheManager;
@@ -69,6 +71,7 @@ public final class SpigotPacketHandler extends SimpleChannelInboundHandler<Packe
 
         if (this.networkClient == null) return;
 
+        this.networkClient.applyWireFormat(packet.getWireFormat());
         this.networkClient.onAuthenticated();
     }
 
@@ -115,6 +118,18 @@ public final class SpigotPacketHandler extends SimpleChannelInboundHandler<Packe
     public void handleServerListRequest(ServerListRequestPacket packet) {
     }
 
+    @Override
+    public void handleServerDelta(ServerDeltaPacket packet) {
+        if (this.cacheManager.applyDelta(packet)) return;
+        if (this.networkClient == null) return;
+
+        this.networkClient.requestServerResync(packet.getServerId());
+    }
+
+    @Override
+    public void handleServerResyncRequest(ServerResyncRequestPacket packet) {
+    }
+
     @Override
     public void handleServerCommand(ServerCommandPacket packet) {
         Bukkit.getScheduler().runTask(AtlasSpigotPlugin.getInstance(), () -> {
@@ -2,6 +2,7 @@ package be.esmay.atlas.velocity.modules.scaling.cache;
 
 import be.esmay.atlas.common.enums.ServerStatus;
 import be.esmay.atlas.common.models.AtlasServer;
+import be.esmay.atlas.common.network.packet.packets.ServerDeltaPacket;
 import be.esmay.atlas.velocity.modules.scaling.events.AtlasServerUpdateEvent;
 import com.velocitypowered.api.proxy.ProxyServer;
 import lombok.Getter;
@@ -30,6 +31,22 @@ public final class NetworkServerCacheManager {
         this.proxyServer.getEventManager().fireAndForget(event);
     }
 
+    /**
+     * Applies a delta to the cached server.
+     *
+     * @return {@code false} when the cached copy is missing or not at the delta's base version,
+     *         in which case a full resync of the server is needed
+     */
+    public boolean applyDelta(ServerDeltaPacket delta) {
+        AtlasServer cached = this.serverCache.get(delta.getServerId());
+        if (cached == null) return false;
+        if (cached.getStateVersion() >= delta.getVersion()) return true;
+        if (cached.getStateVersion() != delta.getBaseVersion()) return false;
+
+        this.updateAtlasServer(delta.applyTo(cached));
+        return true;
+    }
+
     public void removeServer(String serverId) {
         AtlasServer removedInfo = this.serverCache.remove(serverId);
 
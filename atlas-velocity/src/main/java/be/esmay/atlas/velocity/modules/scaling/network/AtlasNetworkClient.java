@@ -1,13 +1,16 @@
 package be.esmay.atlas.velocity.modules.scaling.network;
 
+import be.esmay.atlas.common.network.NettyTransport;
 import be.esmay.atlas.common.network.packet.Packet;
 import be.esmay.atlas.common.network.packet.PacketDecoder;
 import be.esmay.atlas.common.network.packet.PacketEncoder;
+import be.esmay.atlas.common.network.packet.WireFormat;
 import be.esmay.atlas.common.network.packet.packets.HandshakePacket;
 import be.esmay.atlas.common.network.packet.packets.HeartbeatPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerControlPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerInfoUpdatePacket;
 import be.esmay.atlas.common.network.packet.packets.ServerListRequestPacket;
+import be.esmay.atlas.common.network.packet.packets.ServerResyncRequestPacket;
 import be.esmay.atlas.velocity.AtlasVelocityPlugin;
 import be.esmay.atlas.velocity.modules.scaling.cache.NetworkServerCacheManager;
 import be.esmay.atlas.velocity.modules.scaling.proxy.ProxyServerInfoManager;
@@ -19,9 +22,7 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -52,6 +53,7 @@ public final class AtlasNetworkClient {
     private final AtomicBoolean authenticated = new AtomicBoolean(false);
     private final AtomicBoolean shouldReconnect = new AtomicBoolean(true);
 
+    private NettyTransport transport;
     private EventLoopGroup workerGroup;
     private Channel channel;
     private ScheduledExecutorService scheduler;
@@ -61,7 +63,8 @@ public final class AtlasNetworkClient {
             return CompletableFuture.completedFuture(null);
         }
 
-        this.workerGroup = new NioEventLoopGroup();
+        this.transport = NettyTransport.select("auto");
+        this.workerGroup = this.transport.createEventLoopGroup(1);
         this.scheduler = new ScheduledThreadPoolExecutor(1);
 
         return this.attemptConnection();
@@ -73,8 +76,10 @@ public final class AtlasNetworkClient {
         try {
             Bootstrap bootstrap = new Bootstrap();
             Bootstrap groupedBootstrap = bootstrap.group(this.workerGroup);
-            Bootstrap channelBootstrap = groupedBootstrap.channel(NioSocketChannel.class);
-            Bootstrap optionBootstrap = channelBootstrap.option(ChannelOption.SO_KEEPALIVE, true);
+            Bootstrap channelBootstrap = groupedBootstrap.channel(this.transport.getChannelClass());
+            Bootstrap optionBootstrap = channelBootstrap
+                    .option(ChannelOption.SO_KEEPALIVE, true)
+                    .option(ChannelOption.TCP_NODELAY, true);
 
             ChannelInitializer<SocketChannel> channelInitializer = new ChannelInitializer<>() {
                 @Override
@@ -109,7 +114,8 @@ public final class AtlasNetworkClient {
                             "1.0.0",
                             this.authToken,
                             false,
-                            null
+                            null,
+                            WireFormat.BINARY
                     );
 
                     this.sendPacket(handshakePacket);
@@ -199,6 +205,15 @@ public final class AtlasNetworkClient {
         this.logger.debug("Requested server list from Atlas base");
     }
 
+    public void requestServerResync(String serverId) {
+        if (!this.authenticated.get())
+            return;
+
+        ServerResyncRequestPacket packet = new ServerResyncRequestPacket(this.serverId, serverId);
+        this.sendPacket(packet);
+        this.logger.debug("Requested resync of server {} from Atlas base", serverId);
+    }
+
     public void sendServerControl(String serverIdentifier, ServerControlPacket.ControlAction action) {
         if (!this.authenticated.get())
             return;
@@ -208,6 +223,10 @@ public final class AtlasNetworkClient {
         this.logger.debug("Sent server control {} for server {}", action, serverIdentifier);
     }
 
+    public void applyWireFormat(WireFormat wireFormat) {
+        WireFormat.apply(this.channel, wireFormat);
+    }
+
     public void onAuthenticated() {
         this.authenticated.set(true);
         this.logger.info("Successfully authenticated with Atlas base");
@@ -12,10 +12,12 @@ import be.esmay.atlas.common.network.packet.packets.MetadataUpdatePacket;
 import be.esmay.atlas.common.network.packet.packets.ServerAddPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerCommandPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerControlPacket;
+import be.esmay.atlas.common.network.packet.packets.ServerDeltaPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerInfoUpdatePacket;
 import be.esmay.atlas.common.network.packet.packets.ServerListPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerListRequestPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerRemovePacket;
+import be.esmay.atlas.common.network.packet.packets.ServerResyncRequestPacket;
 import be.esmay.atlas.common.network.packet.packets.ServerUpdatePacket;
 import be.esmay.atlas.velocity.AtlasVelocityPlugin;
 import be.esmay.atlas.velocity.modules.scaling.cache.NetworkServerCacheManager;
@@ -81,6 +83,7 @@ public final class VelocityPacketHandler extends SimpleChannelInboundHandler<Pac
         }
 
         if (this.networkClient == null) return;
+        this.networkClient.applyWireFormat(packet.getWireFormat());
         this.networkClient.onAuthenticated();
     }
 
@@ -99,13 +102,7 @@ public final class VelocityPacketHandler extends SimpleChannelInboundHandler<Pac
         this.logger.debug("Server update received: {}", packet.getAtlasServer().getName());
 
         AtlasServer oldServer = this.cacheManager.getServer(packet.getAtlasServer().getServerId()).orElse(null);
-        if ((oldServer == null && packet.getAtlasServer().getServerInfo().getStatus() == ServerStatus.STARTING) || (oldServer != null && oldServer.getServerInfo().getStatus() != ServerStatus.STARTING && packet.getAtlasServer().getServerInfo().getStatus() == ServerStatus.STARTING)) {
-            for (Player player : this.proxyServer.getAllPlayers()) {
-                if (!player.hasPermission("atlas.notify")) continue;
-
-                player.sendMessage(ChatUtils.format(this.plugin.getMessagesConfiguration().getServerStartingNotification(), packet.getAtlasServer().getName(), "Node-1"));
-            }
-        }
+        this.notifyIfStarting(oldServer, packet.getAtlasServer());
 
         this.cacheManager.updateAtlasServer(packet.getAtlasServer());
     }
@@ -162,6 +159,30 @@ public final class VelocityPacketHandler extends SimpleChannelInboundHandler<Pac
         this.logger.debug("Server list request packet received (should not happen on client side)");
     }
 
+    @Override
+    public void handleServerDelta(ServerDeltaPacket packet) {
+        this.logger.debug("Server delta received: {} (v{} -> v{})", packet.getServerId(), packet.getBaseVersion(), packet.getVersion());
+
+        AtlasServer oldServer = this.cacheManager.getServer(packet.getServerId()).orElse(null);
+        if (!this.cacheManager.applyDelta(packet)) {
+            this.logger.debug("Missed update for server {}, requesting resync", packet.getServerId());
+            if (this.networkClient != null) {
+                this.networkClient.requestServerResync(packet.getServerId());
+            }
+
+            return;
+        }
+
+        if (!packet.hasChanged(ServerDeltaPacket.STATUS)) return;
+
+        this.cacheManager.getServer(packet.getServerId()).ifPresent(newServer -> this.notifyIfStarting(oldServer, newServer));
+    }
+
+    @Override
+    public void handleServerResyncRequest(ServerResyncRequestPacket packet) {
+        this.logger.debug("Server resync request packet received (should not happen on client side)");
+    }
+
     @Override
     public void handleServerCommand(ServerCommandPacket packet) {
         this.logger.debug("Server command received: {} for server: {}", packet.getCommand(), packet.getServerId());
@@ -197,4 +218,14 @@ public final class VelocityPacketHandler extends SimpleChannelInboundHandler<Pac
             this.cacheManager.updateAtlasServer(server);
         }
     }
+
+    private void notifyIfStarting(AtlasServer oldServer, AtlasServer newServer) {
+        if ((oldServer == null && newServer.getServerInfo().getStatus() == ServerStatus.STARTING) || (oldServer != null && oldServer.getServerInfo().getStatus() != ServerStatus.STARTING && newServer.getServerInfo().getStatus() == ServerStatus.STARTING)) {
+            for (Player player : this.proxyServer.getAllPlayers()) {
+                if (!player.hasPermission("atlas.notify")) continue;
+
+                player.sendMessage(ChatUtils.format(this.plugin.getMessagesConfiguration().getServerStartingNotification(), newServer.getName(), "Node-1"));
+            }
+        }
+    }
 }
\ No newline at end of file